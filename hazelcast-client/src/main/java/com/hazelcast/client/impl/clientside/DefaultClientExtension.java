@@ -56,6 +56,7 @@ import com.hazelcast.util.function.Supplier;
 
 import static com.hazelcast.config.NearCacheConfigAccessor.initDefaultMaxSizeForOnHeapMaps;
 import static com.hazelcast.internal.config.ConfigValidator.checkNearCacheConfig;
+import static com.hazelcast.spi.properties.GroupProperty.SERIALIZATION_BUFFER_POOL_MAX_RETAINED_BYTES;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_CLIENT_BUFFER_DIRECT;
 import static com.hazelcast.util.ExceptionUtil.rethrow;
 
@@ -99,6 +100,7 @@ public class DefaultClientExtension implements ClientExtension {
                     .setManagedContext(new HazelcastClientManagedContext(client, config.getManagedContext()))
                     .setPartitioningStrategy(partitioningStrategy)
                     .setHazelcastInstance(hazelcastInstance)
+                    .setBufferPoolMaxRetainedBytes(client.getProperties().getLong(SERIALIZATION_BUFFER_POOL_MAX_RETAINED_BYTES))
                     .setNotActiveExceptionSupplier(new Supplier<RuntimeException>() {
                         @Override
                         public RuntimeException get() {
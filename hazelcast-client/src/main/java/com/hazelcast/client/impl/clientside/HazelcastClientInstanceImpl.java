@@ -236,6 +236,9 @@ public class HazelcastClientInstanceImpl implements HazelcastInstance, Serializa
         credentialsFactory = initCredentialsFactory(config);
         lifecycleService = new LifecycleServiceImpl(this);
         properties = new HazelcastProperties(config.getProperties());
+        if (properties.getBoolean(ClientProperty.PROTOCOL_BUFFER_POOLING_ENABLED)) {
+            ClientMessage.enableBufferPooling();
+        }
 
         metricsRegistry = initMetricsRegistry();
         serializationService = clientExtension.createSerializationService((byte) -1);
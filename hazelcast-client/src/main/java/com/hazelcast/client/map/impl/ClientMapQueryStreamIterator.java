@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchWithQueryCodec;
+import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.map.impl.iterator.AbstractMapQueryStreamIterator;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Map.Entry;
+import java.util.concurrent.Future;
+
+/**
+ * Iterator streaming the results of a query over all the partitions of a
+ * map from a client.
+ *
+ * @see AbstractMapQueryStreamIterator
+ */
+public class ClientMapQueryStreamIterator<K, V, R> extends AbstractMapQueryStreamIterator<K, V, R> {
+
+    private final ClientMapProxy<K, V> mapProxy;
+    private final ClientContext context;
+    private final Data projectionData;
+    private final Data predicateData;
+
+    public ClientMapQueryStreamIterator(ClientMapProxy<K, V> mapProxy, ClientContext context, int fetchSize,
+                                        int maxInFlightChunks, Predicate<K, V> predicate,
+                                        Projection<Entry<K, V>, R> projection) {
+        super(mapProxy, fetchSize, maxInFlightChunks, context.getPartitionService().getPartitionCount(),
+                predicate, projection);
+        this.mapProxy = mapProxy;
+        this.context = context;
+        // serialized once, all the chunks are requested with the same query
+        this.projectionData = context.getSerializationService().toData(projection);
+        this.predicateData = context.getSerializationService().toData(predicate);
+    }
+
+    @Override
+    protected Future<?> fetch(int partitionId, int tableIndex) {
+        HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
+        ClientMessage request = MapFetchWithQueryCodec.encodeRequest(mapProxy.getName(), tableIndex, fetchSize,
+                projectionData, predicateData);
+        return new ClientInvocation(client, request, mapProxy.getName(), partitionId).invoke();
+    }
+
+    @Override
+    protected Chunk toChunk(Object response) {
+        MapFetchWithQueryCodec.ResponseParameters responseParameters =
+                MapFetchWithQueryCodec.decodeResponse((ClientMessage) response);
+        return new Chunk(responseParameters.results, responseParameters.nextTableIndexToReadFrom);
+    }
+
+    @Override
+    protected Address getPartitionOwner(int partitionId) {
+        return context.getPartitionService().getPartitionOwner(partitionId);
+    }
+
+    @Override
+    protected SerializationService getSerializationService() {
+        return context.getSerializationService();
+    }
+}
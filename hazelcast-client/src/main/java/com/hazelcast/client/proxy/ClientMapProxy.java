@@ -91,6 +91,7 @@ import com.hazelcast.client.impl.querycache.ClientQueryCacheContext;
 import com.hazelcast.client.impl.querycache.subscriber.ClientQueryCacheEndToEndConstructor;
 import com.hazelcast.client.map.impl.ClientMapPartitionIterator;
 import com.hazelcast.client.map.impl.ClientMapQueryPartitionIterator;
+import com.hazelcast.client.map.impl.ClientMapQueryStreamIterator;
 import com.hazelcast.client.spi.ClientContext;
 import com.hazelcast.client.spi.ClientPartitionService;
 import com.hazelcast.client.spi.ClientProxy;
@@ -1736,6 +1737,21 @@ public class ClientMapProxy<K, V> extends ClientProxy
         }
     }
 
+    /**
+     * Sends the given entries of a single partition in a single put-all
+     * message, as done by {@link ClientMapPutBatcher}.
+     *
+     * @param partitionId the partition of the entries
+     * @param keys        the keys of the entries as passed by the user
+     * @param entries     the serialized entries
+     * @return the future of the put-all invocation
+     */
+    protected ICompletableFuture<ClientMessage> putAllAsyncInternal(int partitionId, List<Object> keys,
+                                                                    List<Map.Entry<Data, Data>> entries) {
+        ClientMessage request = MapPutAllCodec.encodeRequest(name, entries);
+        return new ClientInvocation(getClient(), request, getName(), partitionId).invoke();
+    }
+
     @Override
     public void clear() {
         ClientMessage request = MapClearCodec.encodeRequest(name);
@@ -1811,6 +1827,66 @@ public class ClientMapProxy<K, V> extends ClientProxy
                 predicate, projection);
     }
 
+    /**
+     * Returns an iterator streaming the results of a query over all the
+     * partitions of the map. Unlike the query methods returning collections,
+     * the results are neither fully materialized on the members nor on the
+     * client: each partition is scanned in chunks of about {@code fetchSize}
+     * results and at most {@code maxInFlightChunks} partitions of the same
+     * member are scanned at the same time, so the memory used by the
+     * iteration stays bounded regardless of the size of the result. The
+     * results are returned in no particular order and the result size limit
+     * of the regular queries doesn't apply.
+     * <p>
+     * Use {@link com.hazelcast.projection.Projections#identity()} as the
+     * projection to iterate the matching entries.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize         the size of the chunks which will be sent when iterating the data
+     * @param maxInFlightChunks the maximum number of partitions of a single member being scanned at the same time
+     * @param projection        the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate         the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>               the return type
+     * @return the iterator for the projected entries
+     * @throws UnsupportedOperationException if {@link Iterator#remove()} is invoked
+     * @throws IllegalArgumentException      if the predicate is of type {@link PagingPredicate}
+     * @since 3.12
+     */
+    public <R> Iterator<R> queryIterator(int fetchSize, int maxInFlightChunks, Projection<Map.Entry<K, V>, R> projection,
+                                         Predicate<K, V> predicate) {
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate, "queryIterator");
+        return new ClientMapQueryStreamIterator<K, V, R>(this, getContext(), fetchSize, maxInFlightChunks,
+                predicate, projection);
+    }
+
+    /**
+     * Creates a batcher which coalesces the puts to this map issued within
+     * the given window into a single put-all message per partition.
+     * <p>
+     * The batcher sends the entries of a partition either when
+     * {@code maxBatchSize} of them are collected or when {@code windowMillis}
+     * elapse since the first of them was put, whichever comes first. To bound
+     * the number of outstanding puts, combine the batcher with a
+     * {@link com.hazelcast.core.Pipelining}.
+     *
+     * @param maxBatchSize the maximum number of entries sent in a single message
+     * @param windowMillis the maximum time in milliseconds an entry waits for
+     *                     other entries of the same partition
+     * @return the batcher
+     * @throws IllegalArgumentException if {@code maxBatchSize} isn't positive
+     *                                  or {@code windowMillis} is negative
+     * @since 3.12
+     */
+    public ClientMapPutBatcher<K, V> newPutBatcher(int maxBatchSize, long windowMillis) {
+        return new ClientMapPutBatcher<K, V>(this, getContext(), maxBatchSize, windowMillis);
+    }
+
     @Override
     public ICompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final ClientMessage request = MapEventJournalSubscribeCodec.encodeRequest(name);
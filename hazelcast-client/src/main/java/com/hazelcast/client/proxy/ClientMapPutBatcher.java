@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.proxy;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.ClientExecutionService;
+import com.hazelcast.client.spi.ClientPartitionService;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.annotation.Beta;
+import com.hazelcast.spi.impl.AbstractCompletableFuture;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.util.Preconditions.checkNotNegative;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coalesces the puts to a map issued within a short window into a single
+ * put-all message per partition, which is sent to the partition owner.
+ * <p>
+ * Every {@link #put} returns a future completed once the put-all message
+ * carrying the entry is acknowledged. The entries of a partition are sent
+ * either when {@code maxBatchSize} of them are collected or when the window
+ * since the first of them elapses, whichever comes first. Bulk loaders can
+ * combine the batcher with {@link com.hazelcast.core.Pipelining} to bound the
+ * number of outstanding puts.
+ * <p>
+ * Unlike {@link com.hazelcast.core.IMap#putAsync}, a batched put doesn't
+ * return the previous value. If the same key is put twice within a window,
+ * both entries are sent in the same message in the order of the puts.
+ * <p>
+ * The batcher is threadsafe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 3.12
+ */
+@Beta
+public final class ClientMapPutBatcher<K, V> {
+
+    private final ClientMapProxy<K, V> proxy;
+    private final InternalSerializationService serializationService;
+    private final ClientPartitionService partitionService;
+    private final ClientExecutionService executionService;
+    private final ILogger logger;
+    private final int maxBatchSize;
+    private final long windowMillis;
+    private final Batch[] batches;
+
+    ClientMapPutBatcher(ClientMapProxy<K, V> proxy, ClientContext context, int maxBatchSize, long windowMillis) {
+        this.proxy = proxy;
+        this.serializationService = context.getSerializationService();
+        this.partitionService = context.getPartitionService();
+        this.executionService = context.getExecutionService();
+        this.logger = context.getLoggingService().getLogger(ClientMapPutBatcher.class);
+        this.maxBatchSize = checkPositive(maxBatchSize, "maxBatchSize must be positive");
+        this.windowMillis = checkNotNegative(windowMillis, "windowMillis can't be negative");
+        this.batches = new Batch[partitionService.getPartitionCount()];
+        for (int partitionId = 0; partitionId < batches.length; partitionId++) {
+            batches[partitionId] = new Batch(partitionId);
+        }
+    }
+
+    /**
+     * Adds the given entry to the batch of its partition.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return the future completed once the entry is stored
+     * @throws NullPointerException if the key or the value is {@code null}
+     */
+    public ICompletableFuture<Void> put(K key, V value) {
+        checkNotNull(key, "Null key is not allowed!");
+        checkNotNull(value, "Null value is not allowed!");
+
+        Data keyData = serializationService.toData(key);
+        Data valueData = serializationService.toData(value);
+        PutFuture future = new PutFuture();
+        batches[partitionService.getPartitionId(keyData)].add(key, keyData, valueData, future);
+        return future;
+    }
+
+    /**
+     * Sends all the collected entries right away, without waiting for their
+     * windows to elapse.
+     */
+    public void flush() {
+        for (Batch batch : batches) {
+            batch.flush(false);
+        }
+    }
+
+    private final class Batch implements Runnable {
+
+        private final int partitionId;
+
+        private List<Object> keys = new ArrayList<Object>();
+        private List<Map.Entry<Data, Data>> entries = new ArrayList<Map.Entry<Data, Data>>();
+        private List<PutFuture> futures = new ArrayList<PutFuture>();
+        private boolean flushScheduled;
+
+        Batch(int partitionId) {
+            this.partitionId = partitionId;
+        }
+
+        void add(Object key, Data keyData, Data valueData, PutFuture future) {
+            boolean full;
+            boolean scheduleFlush = false;
+            synchronized (this) {
+                keys.add(key);
+                entries.add(new AbstractMap.SimpleEntry<Data, Data>(keyData, valueData));
+                futures.add(future);
+                full = entries.size() >= maxBatchSize;
+                if (!full && !flushScheduled) {
+                    flushScheduled = true;
+                    scheduleFlush = true;
+                }
+            }
+
+            if (full) {
+                flush(false);
+            } else if (scheduleFlush) {
+                executionService.schedule(this, windowMillis, MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            flush(true);
+        }
+
+        void flush(boolean scheduled) {
+            List<Object> sentKeys;
+            List<Map.Entry<Data, Data>> sentEntries;
+            final List<PutFuture> sentFutures;
+            synchronized (this) {
+                if (scheduled) {
+                    flushScheduled = false;
+                }
+                if (entries.isEmpty()) {
+                    return;
+                }
+                sentKeys = keys;
+                sentEntries = entries;
+                sentFutures = futures;
+                keys = new ArrayList<Object>();
+                entries = new ArrayList<Map.Entry<Data, Data>>();
+                futures = new ArrayList<PutFuture>();
+            }
+
+            ICompletableFuture<ClientMessage> future;
+            try {
+                future = proxy.putAllAsyncInternal(partitionId, sentKeys, sentEntries);
+            } catch (Throwable t) {
+                complete(sentFutures, t);
+                return;
+            }
+            future.andThen(new ExecutionCallback<ClientMessage>() {
+                @Override
+                public void onResponse(ClientMessage response) {
+                    complete(sentFutures, null);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    complete(sentFutures, t);
+                }
+            });
+        }
+
+        private void complete(List<PutFuture> completed, Object result) {
+            for (PutFuture future : completed) {
+                future.setResult(result);
+            }
+        }
+    }
+
+    private final class PutFuture extends AbstractCompletableFuture<Void> {
+
+        PutFuture() {
+            super(executionService.getUserExecutor(), logger);
+        }
+
+        @Override
+        protected boolean setResult(Object result) {
+            return super.setResult(result);
+        }
+    }
+}
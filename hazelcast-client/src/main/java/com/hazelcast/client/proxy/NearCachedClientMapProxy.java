@@ -556,6 +556,18 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         }
     }
 
+    @Override
+    protected ICompletableFuture<ClientMessage> putAllAsyncInternal(int partitionId, List<Object> keys,
+                                                                    List<Map.Entry<Data, Data>> entries) {
+        try {
+            return super.putAllAsyncInternal(partitionId, keys, entries);
+        } finally {
+            for (int i = 0; i < entries.size(); i++) {
+                invalidateNearCache(serializeKeys ? entries.get(i).getKey() : keys.get(i));
+            }
+        }
+    }
+
     @Override
     public void clear() {
         nearCache.clear();
@@ -65,6 +65,8 @@ public class ClientInvocation implements Runnable {
     private final AbstractClientInvocationService invocationService;
     private final ClientExecutionService executionService;
     private volatile ClientMessage clientMessage;
+    // the request whose pooled buffer is released once the response arrives, null once it can't be released anymore
+    private volatile ClientMessage releasableMessage;
     private final CallIdSequence callIdSequence;
     private final Address address;
     private final int partitionId;
@@ -89,6 +91,7 @@ public class ClientInvocation implements Runnable {
         this.executionService = client.getClientExecutionService();
         this.objectName = objectName;
         this.clientMessage = clientMessage;
+        this.releasableMessage = clientMessage.isPooled() ? clientMessage.retain() : null;
         this.partitionId = partitionId;
         this.address = address;
         this.connection = connection;
@@ -182,6 +185,8 @@ public class ClientInvocation implements Runnable {
     private void retry() {
         // retry modifies the client message and should not reuse the client message.
         // It could be the case that it is in write queue of the connection.
+        // For the same reason, the pooled buffer of the original message can't be released.
+        releasableMessage = null;
         clientMessage = clientMessage.copy();
         // first we force a new invocation slot because we are going to return our old invocation slot immediately after
         // It is important that we first 'force' taking a new slot; otherwise it could be that a sneaky invocation gets
@@ -205,9 +210,28 @@ public class ClientInvocation implements Runnable {
         if (clientMessage == null) {
             throw new IllegalArgumentException("response can't be null");
         }
+        releaseRequest();
         clientInvocationFuture.complete(clientMessage);
     }
 
+    /**
+     * Releases the pooled buffer of the request once its response arrived,
+     * i.e. once the request got fully written. The references to the request
+     * are cleared first, so nothing reads the buffer after it got reused.
+     * Listener registrations aren't released since their requests are read
+     * again when the listeners are re-registered.
+     */
+    private void releaseRequest() {
+        ClientMessage request = releasableMessage;
+        if (request == null || handler != null) {
+            return;
+        }
+        releasableMessage = null;
+        clientMessage = null;
+        clientInvocationFuture.clearRequest();
+        request.release();
+    }
+
     public void notifyException(Throwable exception) {
         logException(exception);
 
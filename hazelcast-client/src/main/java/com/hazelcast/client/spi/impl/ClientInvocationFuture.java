@@ -32,7 +32,7 @@ import static com.hazelcast.util.ExceptionUtil.fixAsyncStackTrace;
 
 public class ClientInvocationFuture extends AbstractInvocationFuture<ClientMessage> {
 
-    private final ClientMessage request;
+    private volatile ClientMessage request;
     private final ClientInvocation invocation;
     private final CallIdSequence callIdSequence;
 
@@ -49,7 +49,15 @@ public class ClientInvocationFuture extends AbstractInvocationFuture<ClientMessa
 
     @Override
     protected String invocationToString() {
-        return request.toString();
+        ClientMessage request = this.request;
+        return request == null ? "ClientMessage{released}" : request.toString();
+    }
+
+    /**
+     * Drops the reference to the request once its pooled buffer is released.
+     */
+    void clearRequest() {
+        request = null;
     }
 
     @Override
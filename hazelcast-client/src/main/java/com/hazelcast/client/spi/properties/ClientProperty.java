@@ -184,6 +184,18 @@ public final class ClientProperty {
             = new HazelcastProperty("hazelcast.client.response.thread.count", 2);
 
 
+    /**
+     * Enables pooling of the buffers of client requests.
+     *
+     * If enabled, the client encodes its requests into buffers taken from a pool and returns every buffer
+     * into the pool once the response of its request arrives. Requests of retried invocations and of listener
+     * registrations are never returned into the pool. The pool is shared by all the clients of the JVM.
+     *
+     * The default is false.
+     */
+    public static final HazelcastProperty PROTOCOL_BUFFER_POOLING_ENABLED
+            = new HazelcastProperty("hazelcast.client.protocol.buffer.pooling.enabled", false);
+
     /**
      * Token to use when discovering cluster via hazelcast.cloud
      */
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.proxy.ClientMapPutBatcher;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Pipelining;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapPutBatcherTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastFactory factory;
+    private HazelcastInstance member;
+    private HazelcastInstance client;
+
+    @Before
+    public void setUp() {
+        factory = new TestHazelcastFactory();
+        member = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+        client = factory.newHazelcastClient();
+    }
+
+    @After
+    public void tearDown() {
+        factory.shutdownAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void newPutBatcher_whenBatchSizeNotPositive() {
+        proxy("map").newPutBatcher(0, 10);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void put_whenNullKey() {
+        proxy("map").newPutBatcher(10, 10).put(null, 1);
+    }
+
+    @Test
+    public void put_whenBatchesFilled() throws Exception {
+        ClientMapPutBatcher<Integer, Integer> batcher = proxy("map").newPutBatcher(1, Long.MAX_VALUE);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            batcher.put(i, i).get();
+        }
+
+        assertEntries(member.<Integer, Integer>getMap("map"));
+    }
+
+    @Test
+    public void put_whenWindowElapses() throws Exception {
+        ClientMapPutBatcher<Integer, Integer> batcher = proxy("map").newPutBatcher(Integer.MAX_VALUE, 10);
+
+        Pipelining<Void> pipelining = new Pipelining<Void>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            pipelining.add(batcher.put(i, i));
+        }
+        pipelining.results();
+
+        assertEntries(member.<Integer, Integer>getMap("map"));
+    }
+
+    @Test
+    public void flush() throws Exception {
+        ClientMapPutBatcher<Integer, Integer> batcher = proxy("map").newPutBatcher(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+        ICompletableFuture<Void> future = batcher.put(1, 1);
+        batcher.flush();
+        future.get();
+
+        assertEquals(1, (int) member.<Integer, Integer>getMap("map").get(1));
+    }
+
+    @Test
+    public void put_whenSameKeyPutTwiceInBatch_thenLastValueWins() throws Exception {
+        ClientMapPutBatcher<Integer, Integer> batcher = proxy("map").newPutBatcher(2, Long.MAX_VALUE);
+
+        batcher.put(1, 1);
+        batcher.put(1, 2).get();
+
+        assertEquals(2, (int) member.<Integer, Integer>getMap("map").get(1));
+    }
+
+    private ClientMapProxy<Integer, Integer> proxy(String name) {
+        IMap<Integer, Integer> map = client.getMap(name);
+        return (ClientMapProxy<Integer, Integer>) map;
+    }
+
+    private static void assertEntries(IMap<Integer, Integer> map) {
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+}
@@ -53,10 +53,24 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
         this.attributePath = attributePath;
     }
 
+    /**
+     * @return the path of the aggregated attribute or {@code null} if the
+     * entry values are aggregated.
+     */
+    public String getAttributePath() {
+        return attributePath;
+    }
+
     @Override
     public final void accumulate(I entry) {
+        accumulateValue(entry, this.<E>extract(entry));
+    }
 
-        E extractedValue = extract(entry);
+    /**
+     * Accumulates the value already extracted from the given entry, which may
+     * be a {@link MultiResult}.
+     */
+    final void accumulateValue(I entry, E extractedValue) {
         if (extractedValue instanceof MultiResult) {
             boolean nullEmptyTargetSkipped = false;
             @SuppressWarnings("unchecked")
@@ -82,7 +96,7 @@ public abstract class AbstractAggregator<I, E, R> extends Aggregator<I, R> {
      * Extract the value of the given attributePath from the given entry.
      */
     @SuppressWarnings("unchecked")
-    private <T> T extract(I input) {
+    <T> T extract(I input) {
         if (attributePath == null) {
             if (input instanceof Map.Entry) {
                 return (T) ((Map.Entry) input).getValue();
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+
+/**
+ * Accumulates entries into aggregators, extracting the aggregated values of
+ * {@link BatchAggregator}s into primitive batches.
+ * <p>
+ * The aggregated attribute of every entry is extracted once and, if it's a
+ * {@code Long}, {@code Integer} or {@code Double} accepted by the aggregator,
+ * appended to a {@code long[]} or {@code double[]} batch; the batch is handed
+ * over to the aggregator when it's full or when the class of the values
+ * changes. This replaces a virtual {@code accumulate} call, a multi-value
+ * check and an unboxing per entry with tight loops over primitive arrays the
+ * JIT is able to unroll and vectorize. Entries having any other values, like
+ * nulls or multi-values, are accumulated one by one as usual.
+ */
+public final class BatchAccumulation {
+
+    static final int BATCH_SIZE = 1024;
+
+    private BatchAccumulation() {
+    }
+
+    /**
+     * Accumulates the given entries into the given aggregator.
+     *
+     * @param aggregator the aggregator to accumulate the entries into.
+     * @param entries    the entries to accumulate.
+     */
+    @SuppressWarnings("unchecked")
+    public static void accumulate(Aggregator aggregator, Iterable<?> entries) {
+        if (!(aggregator instanceof BatchAggregator) || !(aggregator instanceof AbstractAggregator)) {
+            for (Object entry : entries) {
+                aggregator.accumulate(entry);
+            }
+            return;
+        }
+
+        AbstractAggregator abstractAggregator = (AbstractAggregator) aggregator;
+        BatchAggregator batchAggregator = (BatchAggregator) aggregator;
+        long[] longs = null;
+        double[] doubles = null;
+        Class<?> batchClass = null;
+        int count = 0;
+        for (Object entry : entries) {
+            Object value = abstractAggregator.extract(entry);
+            Class<?> valueClass = value == null ? null : value.getClass();
+            if (!isBatchable(batchAggregator, valueClass)) {
+                flush(batchAggregator, batchClass, longs, doubles, count);
+                count = 0;
+                // the value is already extracted, don't let the aggregator extract it again
+                abstractAggregator.accumulateValue(entry, value);
+                continue;
+            }
+
+            if (valueClass != batchClass) {
+                flush(batchAggregator, batchClass, longs, doubles, count);
+                count = 0;
+                batchClass = valueClass;
+            }
+            if (valueClass == Double.class) {
+                if (doubles == null) {
+                    doubles = new double[BATCH_SIZE];
+                }
+                doubles[count++] = (Double) value;
+            } else {
+                if (longs == null) {
+                    longs = new long[BATCH_SIZE];
+                }
+                longs[count++] = ((Number) value).longValue();
+            }
+            if (count == BATCH_SIZE) {
+                flush(batchAggregator, batchClass, longs, doubles, count);
+                count = 0;
+            }
+        }
+        flush(batchAggregator, batchClass, longs, doubles, count);
+    }
+
+    private static boolean isBatchable(BatchAggregator aggregator, Class<?> valueClass) {
+        if (valueClass == Double.class) {
+            return aggregator instanceof DoubleBatchAggregator && aggregator.acceptsBatchOf(valueClass);
+        }
+        if (valueClass == Long.class || valueClass == Integer.class) {
+            return aggregator instanceof LongBatchAggregator && aggregator.acceptsBatchOf(valueClass);
+        }
+        return false;
+    }
+
+    private static void flush(BatchAggregator aggregator, Class<?> batchClass, long[] longs, double[] doubles, int count) {
+        if (count == 0) {
+            return;
+        }
+        if (batchClass == Double.class) {
+            ((DoubleBatchAggregator) aggregator).accumulateBatch(doubles, count);
+        } else {
+            ((LongBatchAggregator) aggregator).accumulateBatch(batchClass, longs, count);
+        }
+    }
+
+}
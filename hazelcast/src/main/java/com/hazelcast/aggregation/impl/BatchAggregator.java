@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * Implemented by aggregators capable to accumulate batches of primitive
+ * values extracted from many entries at once, instead of accumulating the
+ * entries one by one.
+ * <p>
+ * Batches are produced by {@link BatchAccumulation} only for values of the
+ * {@code Long} and {@code Integer} classes if the aggregator is a {@link
+ * LongBatchAggregator}, for values of the {@code Double} class if it's a
+ * {@link DoubleBatchAggregator}, and only for the classes accepted by {@link
+ * #acceptsBatchOf}. All the other values are accumulated one by one as
+ * usual. Accumulating a batch must have the same effect as accumulating its
+ * values one by one.
+ */
+public interface BatchAggregator {
+
+    /**
+     * Checks whether values of the given class can be accumulated in batches
+     * in the current state of this aggregator.
+     *
+     * @param valueClass {@code Long.class}, {@code Integer.class} or {@code
+     *                   Double.class}.
+     * @return {@code true} if the values can be accumulated in batches,
+     * {@code false} otherwise.
+     */
+    boolean acceptsBatchOf(Class<?> valueClass);
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Primitive kernels used by {@link BatchAggregator}s.
+ * <p>
+ * The floating-point kernels preserve the semantics of the boxed
+ * accumulation: sums are computed in the order of the values starting from
+ * the given initial sum, and minimums and maximums follow {@link
+ * Double#compareTo}.
+ */
+final class BatchKernels {
+
+    private BatchKernels() {
+    }
+
+    static long sum(long[] values, int count) {
+        long sum = 0;
+        for (int i = 0; i < count; ++i) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static double sum(double initial, double[] values, int count) {
+        double sum = initial;
+        for (int i = 0; i < count; ++i) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    static long min(long[] values, int count) {
+        long min = values[0];
+        for (int i = 1; i < count; ++i) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static long max(long[] values, int count) {
+        long max = values[0];
+        for (int i = 1; i < count; ++i) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    static double min(double[] values, int count) {
+        double min = values[0];
+        for (int i = 1; i < count; ++i) {
+            if (Double.compare(values[i], min) < 0) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    static double max(double[] values, int count) {
+        double max = values[0];
+        for (int i = 1; i < count; ++i) {
+            if (Double.compare(values[i], max) > 0) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Boxes the given value to an instance of the given class.
+     */
+    static Comparable box(Class<?> valueClass, long value) {
+        return valueClass == Integer.class ? Integer.valueOf((int) value) : Long.valueOf(value);
+    }
+
+    /**
+     * Adds the distinct values of the given batch, boxed to instances of the
+     * given class, to the given collection; the batch is sorted in place.
+     */
+    @SuppressWarnings("unchecked")
+    static void addDistinct(Collection target, Class<?> valueClass, long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        for (int i = 0; i < count; ++i) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                target.add(box(valueClass, values[i]));
+            }
+        }
+    }
+
+    /**
+     * Adds the distinct values of the given batch to the given collection;
+     * the batch is sorted in place.
+     */
+    @SuppressWarnings("unchecked")
+    static void addDistinct(Collection target, double[] values, int count) {
+        Arrays.sort(values, 0, count);
+        for (int i = 0; i < count; ++i) {
+            if (i == 0 || Double.compare(values[i], values[i - 1]) != 0) {
+                target.add(values[i]);
+            }
+        }
+    }
+
+}
@@ -23,7 +23,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
 import java.io.IOException;
 
-public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long> implements IdentifiedDataSerializable {
+public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements IdentifiedDataSerializable, LongBatchAggregator, DoubleBatchAggregator {
     private long count;
 
     public CountAggregator() {
@@ -39,6 +40,21 @@ public final class CountAggregator<I> extends AbstractAggregator<I, Object, Long
         count++;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return true;
+    }
+
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        this.count += count;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count) {
+        this.count += count;
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         CountAggregator countAggregator = (CountAggregator) aggregator;
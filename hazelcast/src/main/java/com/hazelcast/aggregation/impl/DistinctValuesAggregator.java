@@ -25,7 +25,8 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
-public final class DistinctValuesAggregator<I, R> extends AbstractAggregator<I, R, Set<R>> implements IdentifiedDataSerializable {
+public final class DistinctValuesAggregator<I, R> extends AbstractAggregator<I, R, Set<R>>
+        implements IdentifiedDataSerializable, LongBatchAggregator, DoubleBatchAggregator {
     Set<R> values = new HashSet<R>();
 
     public DistinctValuesAggregator() {
@@ -41,6 +42,21 @@ public final class DistinctValuesAggregator<I, R> extends AbstractAggregator<I,
         values.add(value);
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return true;
+    }
+
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        BatchKernels.addDistinct(this.values, valueClass, values, count);
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count) {
+        BatchKernels.addDistinct(this.values, values, count);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DistinctValuesAggregator distinctValuesAggregator = (DistinctValuesAggregator) aggregator;
@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Double, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, DoubleBatchAggregator {
 
     private double sum;
 
@@ -44,6 +44,17 @@ public final class DoubleAverageAggregator<I> extends AbstractAggregator<I, Doub
         sum += value;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return valueClass == Double.class;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count) {
+        this.count += count;
+        sum = BatchKernels.sum(sum, values, count);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleAverageAggregator doubleAverageAggregator = (DoubleAverageAggregator) aggregator;
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+/**
+ * A {@link BatchAggregator} accumulating batches of {@code Double} values.
+ */
+public interface DoubleBatchAggregator extends BatchAggregator {
+
+    /**
+     * Accumulates the given batch of {@code Double} values.
+     *
+     * @param values the values, only the first {@code count} are valid; the
+     *               aggregator may reorder them.
+     * @param count  the number of the values in the batch.
+     */
+    void accumulateBatch(double[] values, int count);
+
+}
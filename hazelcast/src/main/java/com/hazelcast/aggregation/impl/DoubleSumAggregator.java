@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, DoubleBatchAggregator {
 
     private double sum;
 
@@ -41,6 +41,16 @@ public final class DoubleSumAggregator<I> extends AbstractAggregator<I, Double,
         sum += value;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return valueClass == Double.class;
+    }
+
+    @Override
+    public void accumulateBatch(double[] values, int count) {
+        sum = BatchKernels.sum(sum, values, count);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         DoubleSumAggregator longSumAggregator = (DoubleSumAggregator) aggregator;
@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Integer, Double>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, LongBatchAggregator {
 
     private long sum;
 
@@ -44,6 +44,17 @@ public final class IntegerAverageAggregator<I> extends AbstractAggregator<I, Int
         sum += value;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return valueClass == Integer.class;
+    }
+
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        this.count += count;
+        sum += BatchKernels.sum(values, count);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerAverageAggregator integerAverageAggregator = (IntegerAverageAggregator) aggregator;
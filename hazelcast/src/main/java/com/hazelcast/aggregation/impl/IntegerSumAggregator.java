@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Integer, Long>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, LongBatchAggregator {
 
     private long sum;
 
@@ -41,6 +41,16 @@ public final class IntegerSumAggregator<I> extends AbstractAggregator<I, Integer
         sum += value;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return valueClass == Integer.class;
+    }
+
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        sum += BatchKernels.sum(values, count);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         IntegerSumAggregator integerSumAggregator = (IntegerSumAggregator) aggregator;
@@ -23,7 +23,8 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
 import java.io.IOException;
 
-public final class LongAverageAggregator<I> extends AbstractAggregator<I, Long, Double> implements IdentifiedDataSerializable {
+public final class LongAverageAggregator<I> extends AbstractAggregator<I, Long, Double>
+        implements IdentifiedDataSerializable, LongBatchAggregator {
 
     private long sum;
 
@@ -43,6 +44,17 @@ public final class LongAverageAggregator<I> extends AbstractAggregator<I, Long,
         sum += value;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return valueClass == Long.class;
+    }
+
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        this.count += count;
+        sum += BatchKernels.sum(values, count);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         LongAverageAggregator longAverageAggregator = (LongAverageAggregator) aggregator;
@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class MaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, LongBatchAggregator, DoubleBatchAggregator {
 
     private R max;
 
@@ -50,6 +50,23 @@ public final class MaxAggregator<I, R extends Comparable> extends AbstractAggreg
         return max == null || max.compareTo(otherValue) < 0;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return max == null || max.getClass() == valueClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        accumulateExtracted(null, (R) BatchKernels.box(valueClass, BatchKernels.max(values, count)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void accumulateBatch(double[] values, int count) {
+        accumulateExtracted(null, (R) Double.valueOf(BatchKernels.max(values, count)));
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         MaxAggregator maxAggregator = (MaxAggregator) aggregator;
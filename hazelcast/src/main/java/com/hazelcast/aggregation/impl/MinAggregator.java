@@ -24,7 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 
 public final class MinAggregator<I, R extends Comparable> extends AbstractAggregator<I, R, R>
-        implements IdentifiedDataSerializable {
+        implements IdentifiedDataSerializable, LongBatchAggregator, DoubleBatchAggregator {
 
     private R min;
 
@@ -50,6 +50,23 @@ public final class MinAggregator<I, R extends Comparable> extends AbstractAggreg
         return min == null || min.compareTo(otherValue) > 0;
     }
 
+    @Override
+    public boolean acceptsBatchOf(Class<?> valueClass) {
+        return min == null || min.getClass() == valueClass;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void accumulateBatch(Class<?> valueClass, long[] values, int count) {
+        accumulateExtracted(null, (R) BatchKernels.box(valueClass, BatchKernels.min(values, count)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void accumulateBatch(double[] values, int count) {
+        accumulateExtracted(null, (R) Double.valueOf(BatchKernels.min(values, count)));
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         MinAggregator maxAggregator = (MinAggregator) aggregator;
@@ -18,6 +18,7 @@ package com.hazelcast.client.impl.protocol;
 
 import com.hazelcast.client.impl.protocol.exception.MaxMessageSizeExceeded;
 import com.hazelcast.client.impl.protocol.util.BufferBuilder;
+import com.hazelcast.client.impl.protocol.util.ClientMessageBufferPool;
 import com.hazelcast.client.impl.protocol.util.ClientProtocolBuffer;
 import com.hazelcast.client.impl.protocol.util.MessageFlyweight;
 import com.hazelcast.client.impl.protocol.util.SafeBuffer;
@@ -28,6 +29,7 @@ import com.hazelcast.nio.Connection;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * <p>
@@ -95,6 +97,12 @@ public class ClientMessage
     private static final String PROP_HAZELCAST_PROTOCOL_UNSAFE = "hazelcast.protocol.unsafe.enabled";
     private static final boolean USE_UNSAFE = Boolean.getBoolean(PROP_HAZELCAST_PROTOCOL_UNSAFE);
 
+    private static final AtomicIntegerFieldUpdater<ClientMessage> REFERENCES
+            = AtomicIntegerFieldUpdater.newUpdater(ClientMessage.class, "references");
+
+    // installed by clients only, see enableBufferPooling()
+    private static volatile ClientMessageBufferPool bufferPool;
+
     private static final int FRAME_LENGTH_FIELD_OFFSET = 0;
     private static final int VERSION_FIELD_OFFSET = FRAME_LENGTH_FIELD_OFFSET + Bits.INT_SIZE_IN_BYTES;
     private static final int FLAGS_FIELD_OFFSET = VERSION_FIELD_OFFSET + Bits.BYTE_SIZE_IN_BYTES;
@@ -113,6 +121,10 @@ public class ClientMessage
     private transient boolean acquiresResource;
     private transient String operationName;
     private Connection connection;
+    // the pooled array backing this message, null if the message isn't backed by a pooled array
+    private transient byte[] pooledBuffer;
+    private transient volatile int references;
+    private transient volatile boolean released;
 
     protected ClientMessage() {
     }
@@ -404,8 +416,64 @@ public class ClientMessage
         return operationName;
     }
 
+    /**
+     * Makes the messages encoded from now on take their buffers from a pool,
+     * so the buffers of client requests can be released into the pool once
+     * their responses arrive. Called by clients configured to pool their
+     * request buffers; members never enable pooling.
+     */
+    public static void enableBufferPooling() {
+        if (bufferPool == null) {
+            synchronized (ClientMessage.class) {
+                if (bufferPool == null) {
+                    bufferPool = new ClientMessageBufferPool();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if this message is backed by a pooled buffer which
+     * can be {@link #retain retained} and {@link #release released}.
+     */
+    public boolean isPooled() {
+        return pooledBuffer != null;
+    }
+
+    /**
+     * Takes a reference to the pooled buffer backing this message. The buffer
+     * is returned into the pool once all the references are {@link #release
+     * released}. Has no effect if the message isn't backed by a pooled buffer.
+     *
+     * @return this message
+     */
+    public ClientMessage retain() {
+        if (pooledBuffer != null) {
+            REFERENCES.incrementAndGet(this);
+        }
+        return this;
+    }
+
+    /**
+     * Releases a reference taken by {@link #retain()}. Once the last reference
+     * is released, the buffer backing this message is returned into the pool
+     * and the message must not be accessed anymore.
+     */
+    public void release() {
+        byte[] buffer = pooledBuffer;
+        if (buffer == null || REFERENCES.decrementAndGet(this) > 0) {
+            return;
+        }
+        pooledBuffer = null;
+        released = true;
+        bufferPool.release(buffer);
+    }
+
     @Override
     public String toString() {
+        if (released) {
+            return "ClientMessage{released, operation=" + operationName + '}';
+        }
         int len = index();
         final StringBuilder sb = new StringBuilder("ClientMessage{");
         sb.append("connection=").append(connection);
@@ -432,6 +500,13 @@ public class ClientMessage
         if (initialCapacity < 0) {
             throw new MaxMessageSizeExceeded();
         }
+        ClientMessageBufferPool pool = bufferPool;
+        if (pool != null) {
+            byte[] pooledBuffer = pool.acquire(initialCapacity);
+            if (pooledBuffer != null) {
+                return createForEncode(pooledBuffer);
+            }
+        }
         if (USE_UNSAFE) {
             return createForEncode(new UnsafeBuffer(new byte[initialCapacity]), 0);
         } else {
@@ -439,6 +514,15 @@ public class ClientMessage
         }
     }
 
+    private static ClientMessage createForEncode(byte[] pooledBuffer) {
+        // a recycled buffer still contains the header of its previous message, e.g. its flags
+        Arrays.fill(pooledBuffer, 0, HEADER_SIZE, (byte) 0);
+        ClientMessage clientMessage = createForEncode(
+                USE_UNSAFE ? new UnsafeBuffer(pooledBuffer) : new SafeBuffer(pooledBuffer), 0);
+        clientMessage.pooledBuffer = pooledBuffer;
+        return clientMessage;
+    }
+
     public static ClientMessage createForEncode(ClientProtocolBuffer buffer, int offset) {
         ClientMessage clientMessage = new ClientMessage();
         clientMessage.wrapForEncode(buffer, offset);
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.util;
+
+import com.hazelcast.util.QuickMath;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free pool of byte arrays backing encoded client messages.
+ * <p>
+ * Arrays are pooled in power-of-two size classes from {@value #MIN_POOLED_SIZE}
+ * bytes up to {@value #MAX_POOLED_SIZE} bytes; every size class retains at
+ * most {@value #SLOTS_PER_SIZE_CLASS} arrays. Arrays are acquired and released
+ * by different threads, e.g. a request buffer is acquired by the user thread
+ * encoding the request and released by the thread handling the response, so
+ * the pool is shared and every size class is a small array of slots claimed
+ * with CAS.
+ */
+public final class ClientMessageBufferPool {
+
+    static final int MIN_POOLED_SIZE = 1 << 6;
+    static final int MAX_POOLED_SIZE = 1 << 16;
+    static final int SLOTS_PER_SIZE_CLASS = 32;
+
+    private static final int MIN_SIZE_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    private static final int SIZE_CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SIZE_CLASS_SHIFT + 1;
+
+    private final AtomicReferenceArray<byte[]>[] sizeClasses;
+
+    @SuppressWarnings("unchecked")
+    public ClientMessageBufferPool() {
+        sizeClasses = new AtomicReferenceArray[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            sizeClasses[i] = new AtomicReferenceArray<byte[]>(SLOTS_PER_SIZE_CLASS);
+        }
+    }
+
+    /**
+     * Takes an array having at least the given capacity from the pool or
+     * allocates a new one rounded up to its size class, so it can be
+     * {@link #release released} into the pool later.
+     *
+     * @param minCapacity the minimum capacity of the array.
+     * @return the array or {@code null} if arrays of the given capacity are
+     * not pooled.
+     */
+    public byte[] acquire(int minCapacity) {
+        if (minCapacity > MAX_POOLED_SIZE) {
+            return null;
+        }
+        int sizeClassSize = Math.max(MIN_POOLED_SIZE, QuickMath.nextPowerOfTwo(minCapacity));
+        AtomicReferenceArray<byte[]> slots = sizeClasses[sizeClassOf(sizeClassSize)];
+        int start = startSlot();
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS; i++) {
+            int slot = (start + i) & (SLOTS_PER_SIZE_CLASS - 1);
+            byte[] array = slots.get(slot);
+            if (array != null && slots.compareAndSet(slot, array, null)) {
+                return array;
+            }
+        }
+        return new byte[sizeClassSize];
+    }
+
+    /**
+     * Returns the given array into the pool. The array is dropped if the pool
+     * is full or if the array wasn't {@link #acquire acquired} from the pool.
+     *
+     * @param array the array to release; the caller must not access it
+     *              anymore.
+     * @return {@code true} if the array was retained, {@code false} otherwise.
+     */
+    public boolean release(byte[] array) {
+        int length = array.length;
+        if (length < MIN_POOLED_SIZE || length > MAX_POOLED_SIZE || !QuickMath.isPowerOfTwo(length)) {
+            return false;
+        }
+        AtomicReferenceArray<byte[]> slots = sizeClasses[sizeClassOf(length)];
+        int start = startSlot();
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS; i++) {
+            int slot = (start + i) & (SLOTS_PER_SIZE_CLASS - 1);
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, array)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int sizeClassOf(int sizeClassSize) {
+        return Integer.numberOfTrailingZeros(sizeClassSize) - MIN_SIZE_CLASS_SHIFT;
+    }
+
+    private static int startSlot() {
+        // spreads the threads over the slots to reduce contention on the same slots
+        return (int) Thread.currentThread().getId() & (SLOTS_PER_SIZE_CLASS - 1);
+    }
+}
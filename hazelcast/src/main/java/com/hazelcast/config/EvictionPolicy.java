@@ -34,5 +34,19 @@ public enum EvictionPolicy {
     /**
      * Randomly
      */
-    RANDOM
+    RANDOM,
+    /**
+     * Window TinyLFU: a small LRU window in front of a segmented LRU whose
+     * admission is decided by a frequency sketch of recent accesses.
+     * <p>
+     * Only accepted by Near Caches with the {@link InMemoryFormat#BINARY} or
+     * {@link InMemoryFormat#OBJECT} in-memory format, which only support
+     * {@link EvictionConfig.MaxSizePolicy#ENTRY_COUNT}. The configuration of
+     * maps, caches, query caches and {@link InMemoryFormat#NATIVE} Near Caches
+     * is rejected with an {@link IllegalArgumentException} if it uses this
+     * policy.
+     *
+     * @since 3.12
+     */
+    TINY_LFU
 }
@@ -31,6 +31,16 @@ import static com.hazelcast.util.Preconditions.checkHasText;
  * Contains the configuration for an index in a map. This class should be used in combination
  * with the {@link MapConfig}. The reason to create an map index is to speed up searches for
  * particular map entries.
+ * <p>
+ * Attributes having only a few distinct values, such as a status or a region, may be indexed
+ * with a bitmap index by setting the attribute to {@code BITMAP(attribute)}. Bitmap indexes
+ * are unordered; equality, {@code in}, {@code not} and their conjunctions and disjunctions
+ * over bitmap-indexed attributes are evaluated with bitwise operations.
+ * <p>
+ * A composite index over several attributes is declared by setting the attribute to a
+ * comma-separated list of the attributes, like {@code tenantId, createdAt}. Queries having
+ * equality predicates on a prefix of the attributes, optionally followed by a range predicate
+ * on the next attribute, are served by a single lookup of an ordered composite index.
  */
 public class MapIndexConfig implements IdentifiedDataSerializable {
 
@@ -88,7 +98,9 @@ public class MapIndexConfig implements IdentifiedDataSerializable {
     }
 
     /**
-     * Sets the attribute that is going to be indexed.
+     * Sets the attribute that is going to be indexed. Use {@code BITMAP(attribute)} to declare
+     * a bitmap index on the attribute or a comma-separated list of attributes to declare a
+     * composite index on the attributes.
      *
      * @param attribute the attribute that is going to be indexed
      * @return the updated MapIndexConfig
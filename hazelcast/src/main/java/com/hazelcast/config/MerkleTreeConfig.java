@@ -49,6 +49,11 @@ import static com.hazelcast.util.Preconditions.checkNotNull;
  * large tree depths if the latency of the comparison operation is high.
  * The default depth is {@value DEFAULT_DEPTH}.
  * <p>
+ * When enabled for a map, the merkle trees of the map partitions are also
+ * used to synchronize out-of-sync backup replicas. In this case only the
+ * entries under the leaves which differ between the partition owner and
+ * the backup replica are transferred instead of the whole partition.
+ * <p>
  * See https://en.wikipedia.org/wiki/Merkle_tree.
  *
  * @since 3.11
@@ -444,6 +444,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
      * <li>{@code LFU} (Least Frequently Used)</li>
      * <li>{@code NONE} (no extra eviction, time-to-live-seconds or max-idle-seconds may still apply)</li>
      * <li>{@code RANDOM} (random entry)</li>
+     * <li>{@code TINY_LFU} (Window TinyLFU, on-heap Near Caches only)</li>
      * </ul>
      * <p>
      * {@code LRU} is the default.
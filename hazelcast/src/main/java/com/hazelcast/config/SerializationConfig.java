@@ -17,6 +17,7 @@
 package com.hazelcast.config;
 
 import com.hazelcast.nio.serialization.ClassDefinition;
+import com.hazelcast.nio.serialization.DataSerializableSchema;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.PortableFactory;
 
@@ -63,6 +64,8 @@ public class SerializationConfig {
 
     private Set<ClassDefinition> classDefinitions;
 
+    private Set<DataSerializableSchema> dataSerializableSchemas;
+
     private JavaSerializationFilterConfig javaSerializationFilterConfig;
 
     public SerializationConfig() {
@@ -321,6 +324,43 @@ public class SerializationConfig {
         return this;
     }
 
+    /**
+     * @return registered schemas of identified data serializable classes
+     * @see DataSerializableSchema
+     */
+    public Set<DataSerializableSchema> getDataSerializableSchemas() {
+        if (dataSerializableSchemas == null) {
+            dataSerializableSchemas = new HashSet<DataSerializableSchema>();
+        }
+        return dataSerializableSchemas;
+    }
+
+    /**
+     * Registers the schema of an identified data serializable class, so its
+     * fields can be queried without deserializing its instances.
+     *
+     * @param schema the schema to be registered
+     * @return this SerializationConfig
+     * @see DataSerializableSchema
+     */
+    public SerializationConfig addDataSerializableSchema(DataSerializableSchema schema) {
+        if (!getDataSerializableSchemas().add(schema)) {
+            throw new IllegalArgumentException("DataSerializableSchema for factory-id[" + schema.getFactoryId()
+                    + "] and class-id[" + schema.getClassId() + "] already exists!");
+        }
+        return this;
+    }
+
+    /**
+     * @param dataSerializableSchemas set of schemas to be registered
+     * @return this SerializationConfig
+     * @see DataSerializableSchema
+     */
+    public SerializationConfig setDataSerializableSchemas(Set<DataSerializableSchema> dataSerializableSchemas) {
+        this.dataSerializableSchemas = dataSerializableSchemas;
+        return this;
+    }
+
     /**
      * Default value is {@code true} (enabled).
      * When enabled, serialization system will check for class definitions error at start and throw an Serialization
@@ -473,6 +513,7 @@ public class SerializationConfig {
                 + ", serializerConfigs=" + serializerConfigs
                 + ", checkClassDefErrors=" + checkClassDefErrors
                 + ", classDefinitions=" + classDefinitions
+                + ", dataSerializableSchemas=" + dataSerializableSchemas
                 + ", byteOrder=" + byteOrder
                 + ", useNativeByteOrder=" + useNativeByteOrder
                 + ", javaSerializationFilterConfig=" + javaSerializationFilterConfig
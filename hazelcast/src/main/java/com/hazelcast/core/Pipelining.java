@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+import com.hazelcast.spi.annotation.Beta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * The Pipelining can be used to speed up requests. It is built on top of asynchronous
+ * requests like e.g. {@link IMap#getAsync(Object)} or any other asynchronous call.
+ * <p>
+ * The main purpose of the Pipelining is to control the number of concurrent requests
+ * when using asynchronous invocations. This can be done by setting the depth using
+ * the constructor. So you could set the depth to e.g. 100 and do 1000 calls. That means
+ * that at any given moment, there will only be a maximum of 100 concurrent requests.
+ * <p>
+ * It depends on the situation what the optimal depth (number of invocations in
+ * flight) should be. If it is too high, you can run into memory related problems.
+ * If it is too low, it will provide little or no performance advantage at all. In
+ * most cases a Pipelining and a few hundred map/cache puts/gets should not lead to
+ * any problems. For testing purposes we frequently have a Pipelining of 1000 or more
+ * concurrent requests to be able to saturate the system.
+ * <p>
+ * A simple example of using the Pipelining:
+ * <pre>
+ *     Pipelining&lt;String&gt; pipelining = new Pipelining&lt;String&gt;(10);
+ *     for (long k = 0; k &lt; 100; k++) {
+ *         int key = random.nextInt(keyDomain);
+ *         pipelining.add(map.getAsync(key));
+ *     }
+ *     // wait for completion
+ *     List&lt;String&gt; results = pipelining.results();
+ * </pre>
+ * <p>
+ * The Pipelining isn't threadsafe. So only a single thread should add requests to
+ * the Pipelining and wait for results.
+ * <p>
+ * Currently all requests and responses are retained in the Pipelining until
+ * {@link #results()} is called. So it isn't suitable for an unbounded stream of
+ * requests; use a new Pipelining per batch instead.
+ *
+ * @param <E> the type of the results of the requests
+ * @since 3.12
+ */
+@Beta
+public class Pipelining<E> {
+
+    private static final Executor CALLER_RUNS = new CallerRunsExecutor();
+
+    private final Semaphore semaphore;
+    private final List<ICompletableFuture<E>> futures = new ArrayList<ICompletableFuture<E>>();
+
+    /**
+     * Creates a Pipelining with the given depth.
+     *
+     * @param depth the maximum number of concurrent calls allowed in this Pipelining.
+     * @throws IllegalArgumentException if depth smaller than 1. But if you use depth 1, it means that
+     *                                  every call is sync and you will not benefit from pipelining at all.
+     */
+    public Pipelining(int depth) {
+        checkPositive(depth, "depth must be positive");
+        this.semaphore = new Semaphore(depth);
+    }
+
+    /**
+     * Returns the results.
+     * <p>
+     * The results are returned in the order the requests were done.
+     * <p>
+     * This call waits till all requests have completed.
+     *
+     * @return the List of results.
+     * @throws Exception is something fails getting the results.
+     */
+    public List<E> results() throws Exception {
+        List<E> result = new ArrayList<E>(futures.size());
+        for (ICompletableFuture<E> future : futures) {
+            result.add(future.get());
+        }
+        return result;
+    }
+
+    /**
+     * Adds a future to this Pipelining or blocks until there is capacity to add the future to the Pipelining.
+     * <p>
+     * This call blocks until there is space in the Pipelining, but it doesn't mean that the invocation that
+     * returned the ICompletableFuture got blocked. The invocation has already been made before it is passed to
+     * this method, so in order to bound the number of requests in flight, the future should be added right
+     * after the request is made.
+     *
+     * @param future the future to add.
+     * @return the future added.
+     * @throws InterruptedException if the Thread got interrupted while adding the request to the Pipelining.
+     * @throws NullPointerException if future is null.
+     */
+    public ICompletableFuture<E> add(ICompletableFuture<E> future) throws InterruptedException {
+        checkNotNull(future, "future can't be null");
+
+        semaphore.acquire();
+        futures.add(future);
+        future.andThen(new ExecutionCallback<E>() {
+            @Override
+            public void onResponse(E response) {
+                semaphore.release();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                semaphore.release();
+            }
+        }, CALLER_RUNS);
+        return future;
+    }
+
+    private static final class CallerRunsExecutor implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+}
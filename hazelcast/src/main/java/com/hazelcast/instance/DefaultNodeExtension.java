@@ -199,6 +199,8 @@ public class DefaultNodeExtension implements NodeExtension {
                     .setPartitioningStrategy(partitioningStrategy)
                     .setHazelcastInstance(hazelcastInstance)
                     .setVersion(version)
+                    .setBufferPoolMaxRetainedBytes(node.getProperties()
+                            .getLong(GroupProperty.SERIALIZATION_BUFFER_POOL_MAX_RETAINED_BYTES))
                     .setNotActiveExceptionSupplier(new Supplier<RuntimeException>() {
                         @Override
                         public RuntimeException get() {
@@ -47,6 +47,7 @@ import java.util.EnumSet;
 
 import static com.hazelcast.config.EvictionPolicy.LFU;
 import static com.hazelcast.config.EvictionPolicy.LRU;
+import static com.hazelcast.config.EvictionPolicy.TINY_LFU;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.MapConfig.DEFAULT_EVICTION_PERCENTAGE;
 import static com.hazelcast.config.MapConfig.DEFAULT_MIN_EVICTION_CHECK_MILLIS;
@@ -81,11 +82,36 @@ public final class ConfigValidator {
      * @param mergePolicyProvider the {@link MergePolicyProvider} to resolve merge policy classes
      */
     public static void checkMapConfig(MapConfig mapConfig, MergePolicyProvider mergePolicyProvider) {
-        checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
+        checkMapConfig(mapConfig, null, mergePolicyProvider);
+    }
+
+    /**
+     * Validates the given {@link MapConfig}.
+     * <p>
+     * {@link InMemoryFormat#NATIVE} maps are supported in the open source
+     * version as well, as long as the native memory config is enabled.
+     *
+     * @param mapConfig           the {@link MapConfig}
+     * @param nativeMemoryConfig  the {@link NativeMemoryConfig} of the Hazelcast instance
+     * @param mergePolicyProvider the {@link MergePolicyProvider} to resolve merge policy classes
+     */
+    public static void checkMapConfig(MapConfig mapConfig, NativeMemoryConfig nativeMemoryConfig,
+                                      MergePolicyProvider mergePolicyProvider) {
+        checkMapNativeMemoryConfig(mapConfig, nativeMemoryConfig);
+        checkNotTinyLfu(mapConfig.getEvictionPolicy(), "maps");
         checkMapMergePolicy(mapConfig, mergePolicyProvider);
         logIgnoredConfig(mapConfig);
     }
 
+    private static void checkMapNativeMemoryConfig(MapConfig mapConfig, NativeMemoryConfig nativeMemoryConfig) {
+        if (mapConfig.getInMemoryFormat() != NATIVE) {
+            return;
+        }
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled()) {
+            checkNotNativeWhenOpenSource(NATIVE);
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private static void logIgnoredConfig(MapConfig mapConfig) {
         if (mapConfig.getMinEvictionCheckMillis() != DEFAULT_MIN_EVICTION_CHECK_MILLIS
@@ -111,6 +137,9 @@ public final class ConfigValidator {
         checkLocalUpdatePolicy(mapName, nearCacheConfig.getLocalUpdatePolicy());
         checkEvictionConfig(nearCacheConfig.getEvictionConfig(), true);
         checkOnHeapNearCacheMaxSizePolicy(nearCacheConfig);
+        if (nearCacheConfig.getInMemoryFormat() == NATIVE) {
+            checkNotTinyLfu(nearCacheConfig.getEvictionConfig().getEvictionPolicy(), "NATIVE Near Caches");
+        }
         checkNearCacheNativeMemoryConfig(nearCacheConfig.getInMemoryFormat(), nativeMemoryConfig, getBuildInfo().isEnterprise());
 
         if (isClient && nearCacheConfig.isCacheLocalEntries()) {
@@ -151,6 +180,20 @@ public final class ConfigValidator {
         checkEvictionConfig(evictionPolicy, comparatorClassName, comparator, isNearCache);
     }
 
+    /**
+     * Checks that the {@link EvictionPolicy#TINY_LFU} policy, which is implemented by on-heap Near Caches only,
+     * is not used by other data structures.
+     *
+     * @param evictionPolicy the configured eviction policy
+     * @param dataStructures the data structures the policy is configured for, used in the error message
+     */
+    private static void checkNotTinyLfu(EvictionPolicy evictionPolicy, String dataStructures) {
+        if (evictionPolicy == TINY_LFU) {
+            throw new IllegalArgumentException(format("Eviction policy %s is supported by on-heap Near Caches only,"
+                    + " it cannot be used by %s", TINY_LFU, dataStructures));
+        }
+    }
+
     private static void checkOnHeapNearCacheMaxSizePolicy(NearCacheConfig nearCacheConfig) {
         InMemoryFormat inMemoryFormat = nearCacheConfig.getInMemoryFormat();
         if (inMemoryFormat == NATIVE) {
@@ -200,6 +243,9 @@ public final class ConfigValidator {
             throw new IllegalArgumentException("Only one of the `comparator class name` and `comparator`"
                     + " can be configured in the eviction configuration!");
         }
+        if (!isNearCache) {
+            checkNotTinyLfu(evictionPolicy, "caches and query caches");
+        }
         if (!isNearCache && !SUPPORTED_EVICTION_POLICIES.contains(evictionPolicy)) {
             if (isNullOrEmpty(comparatorClassName) && comparator == null) {
 
@@ -267,6 +313,7 @@ public final class ConfigValidator {
      * @param evictionConfig the {@link EvictionConfig} of the cache
      */
     static void checkEvictionConfig(InMemoryFormat inMemoryFormat, EvictionConfig evictionConfig) {
+        checkNotTinyLfu(evictionConfig.getEvictionPolicy(), "caches");
         if (inMemoryFormat == NATIVE) {
             MaxSizePolicy maxSizePolicy = evictionConfig.getMaximumSizePolicy();
             if (maxSizePolicy == MaxSizePolicy.ENTRY_COUNT) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+
+/**
+ * {@link MemoryManager} over the native address space, combining a
+ * {@link StandardMemoryAllocator} with the global {@link MemoryAccessor}.
+ */
+public class StandardMemoryManager implements MemoryManager {
+
+    private final StandardMemoryAllocator allocator;
+
+    /**
+     * @param capacity the maximum number of bytes that may be allocated at any time
+     */
+    public StandardMemoryManager(long capacity) {
+        this.allocator = new StandardMemoryAllocator(capacity);
+    }
+
+    @Override
+    public MemoryAllocator getAllocator() {
+        return allocator;
+    }
+
+    @Override
+    public MemoryAccessor getAccessor() {
+        return MEM;
+    }
+
+    @Override
+    public void dispose() {
+        allocator.dispose();
+    }
+
+    /**
+     * @return the number of bytes currently allocated
+     */
+    public long getUsedMemory() {
+        return allocator.getUsedMemory();
+    }
+
+    /**
+     * @return the maximum number of bytes that may be allocated
+     */
+    public long getCapacity() {
+        return allocator.getCapacity();
+    }
+
+    /**
+     * @return the number of bytes that can still be allocated
+     */
+    public long getFreeMemory() {
+        return allocator.getCapacity() - allocator.getUsedMemory();
+    }
+}
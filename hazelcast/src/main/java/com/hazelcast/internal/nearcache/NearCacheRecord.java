@@ -125,6 +125,11 @@ public interface NearCacheRecord<V> extends Expirable, Evictable<V> {
      */
     void setUuid(UUID uuid);
 
+    /**
+     * @return last known UUID of invalidation source at time of this records' creation
+     */
+    UUID getUuid();
+
     /**
      * @return {@code true} if supplied UUID equals existing one, otherwise and when one of supplied
      * or existing is null returns {@code false}
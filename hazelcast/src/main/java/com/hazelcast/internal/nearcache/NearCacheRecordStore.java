@@ -22,6 +22,8 @@ import com.hazelcast.monitor.NearCacheStats;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.InitializingObject;
 
+import java.util.concurrent.Executor;
+
 /**
  * {@link NearCacheRecordStore} is the contract point to store keys and values as
  * {@link NearCacheRecord} internally and to serve them.
@@ -132,8 +134,13 @@ public interface NearCacheRecordStore<K, V> extends InitializingObject {
 
     /**
      * Loads the keys into the Near Cache.
+     *
+     * @param adapter  the {@link DataStructureAdapter} to load the values from
+     * @param executor the managed executor of the Hazelcast instance to load large
+     *                 key files in parallel, or {@code null} to load on the calling
+     *                 thread only
      */
-    void loadKeys(DataStructureAdapter<Object, ?> adapter);
+    void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor);
 
     /**
      * Persists the key set of the Near Cache.
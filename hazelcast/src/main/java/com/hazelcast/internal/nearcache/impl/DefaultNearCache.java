@@ -163,7 +163,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     @Override
     public void preload(DataStructureAdapter<Object, ?> adapter) {
-        nearCacheRecordStore.loadKeys(adapter);
+        nearCacheRecordStore.loadKeys(adapter, scheduler);
         preloadDone = true;
     }
 
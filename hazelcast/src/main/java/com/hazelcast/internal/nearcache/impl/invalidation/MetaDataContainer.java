@@ -17,96 +17,72 @@
 package com.hazelcast.internal.nearcache.impl.invalidation;
 
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicLongFieldUpdater;
-import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
-
-import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
-import static java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater;
 
 /**
  * Contains one partitions' invalidation metadata.
+ * <p>
+ * The metadata is stored in a {@link MetaDataTable}, an instance of this
+ * class is a view on the slots of a single partition.
  */
 public final class MetaDataContainer {
 
-    private static final AtomicLongFieldUpdater<MetaDataContainer> SEQUENCE
-            = newUpdater(MetaDataContainer.class, "sequence");
-    private static final AtomicLongFieldUpdater<MetaDataContainer> STALE_SEQUENCE
-            = newUpdater(MetaDataContainer.class, "staleSequence");
-    private static final AtomicLongFieldUpdater<MetaDataContainer> MISSED_SEQUENCE_COUNT =
-            newUpdater(MetaDataContainer.class, "missedSequenceCount");
-    private static final AtomicReferenceFieldUpdater<MetaDataContainer, UUID> UUID =
-            newUpdater(MetaDataContainer.class, java.util.UUID.class, "uuid");
-
-    /**
-     * Sequence number of last received invalidation event
-     */
-    private volatile long sequence;
-
-    /**
-     * Holds the biggest sequence number that is lost, lower sequences from this sequence are accepted as stale
-     *
-     * @see StaleReadDetector
-     */
-    private volatile long staleSequence;
-
-    /**
-     * Number of missed sequence count
-     */
-    private volatile long missedSequenceCount;
-
-    /**
-     * UUID of the source partition that generates invalidation events
-     */
-    private volatile UUID uuid;
+    private final MetaDataTable table;
+    private final int partitionId;
 
     public MetaDataContainer() {
+        this(new MetaDataTable(1), 0);
+    }
+
+    MetaDataContainer(MetaDataTable table, int partitionId) {
+        this.table = table;
+        this.partitionId = partitionId;
     }
 
     public UUID getUuid() {
-        return uuid;
+        return table.uuids.get(partitionId);
     }
 
     public void setUuid(UUID uuid) {
-        UUID.set(this, uuid);
+        table.uuids.set(partitionId, uuid);
     }
 
     public boolean casUuid(UUID prevUuid, UUID newUuid) {
-        return UUID.compareAndSet(this, prevUuid, newUuid);
+        return table.uuids.compareAndSet(partitionId, prevUuid, newUuid);
     }
 
     public long getSequence() {
-        return sequence;
+        return table.sequences.get(partitionId);
     }
 
     public void setSequence(long sequence) {
-        SEQUENCE.set(this, sequence);
+        table.sequences.set(partitionId, sequence);
     }
 
     public boolean casSequence(long currentSequence, long nextSequence) {
-        return SEQUENCE.compareAndSet(this, currentSequence, nextSequence);
+        return table.sequences.compareAndSet(partitionId, currentSequence, nextSequence);
     }
 
     public void resetSequence() {
-        SEQUENCE.set(this, 0);
+        table.sequences.set(partitionId, 0);
     }
 
     public long getStaleSequence() {
-        return STALE_SEQUENCE.get(this);
+        return table.staleSequences.get(partitionId);
     }
 
     public boolean casStaleSequence(long lastKnownStaleSequence, long lastReceivedSequence) {
-        return STALE_SEQUENCE.compareAndSet(this, lastKnownStaleSequence, lastReceivedSequence);
+        return table.staleSequences.compareAndSet(partitionId, lastKnownStaleSequence, lastReceivedSequence);
     }
 
     public void resetStaleSequence() {
-        STALE_SEQUENCE.set(this, 0);
+        table.staleSequences.set(partitionId, 0);
     }
 
     public long addAndGetMissedSequenceCount(long missCount) {
-        return MISSED_SEQUENCE_COUNT.addAndGet(this, missCount);
+        return table.missedSequenceCounts.addAndGet(partitionId, missCount);
     }
 
     public long getMissedSequenceCount() {
-        return missedSequenceCount;
+        return table.missedSequenceCounts.get(partitionId);
     }
 }
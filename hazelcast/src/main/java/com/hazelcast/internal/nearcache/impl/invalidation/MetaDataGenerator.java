@@ -22,6 +22,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.util.ConcurrencyUtil.getOrPutIfAbsent;
 import static com.hazelcast.util.UuidUtil.newUnsecureUUID;
@@ -45,20 +46,15 @@ public class MetaDataGenerator {
             return new AtomicLongArray(partitionCount);
         }
     };
-    private final ConcurrentMap<Integer, UUID> uuids = new ConcurrentHashMap<Integer, UUID>();
     private final ConcurrentMap<String, AtomicLongArray> sequenceGenerators = new ConcurrentHashMap<String, AtomicLongArray>();
-    private final ConstructorFunction<Integer, UUID> uuidConstructor
-            = new ConstructorFunction<Integer, UUID>() {
-        @Override
-        public UUID createNew(Integer partitionId) {
-            return newUnsecureUUID();
-        }
-    };
+    // indexed by partition ID, looked up on every invalidation
+    private final AtomicReferenceArray<UUID> uuids;
 
     public MetaDataGenerator(int partitionCount) {
         assert partitionCount > 0;
 
         this.partitionCount = partitionCount;
+        this.uuids = new AtomicReferenceArray<UUID>(partitionCount);
     }
 
     public long currentSequence(String name, int partitionId) {
@@ -82,7 +78,16 @@ public class MetaDataGenerator {
     }
 
     public UUID getOrCreateUuid(int partitionId) {
-        return getOrPutIfAbsent(uuids, partitionId, uuidConstructor);
+        while (true) {
+            UUID uuid = uuids.get(partitionId);
+            if (uuid != null) {
+                return uuid;
+            }
+            UUID newUuid = newUnsecureUUID();
+            if (uuids.compareAndSet(partitionId, null, newUuid)) {
+                return newUuid;
+            }
+        }
     }
 
     public UUID getUuidOrNull(int partitionId) {
@@ -90,12 +95,12 @@ public class MetaDataGenerator {
     }
 
     public void setUuid(int partitionId, UUID uuid) {
-        uuids.put(partitionId, uuid);
+        uuids.set(partitionId, uuid);
     }
 
     public void removeUuidAndSequence(final int partitionId) {
         // remove UUID
-        uuids.remove(partitionId);
+        uuids.set(partitionId, null);
 
         // reset data-structures' sequence numbers
         for (AtomicLongArray sequences : sequenceGenerators.values()) {
@@ -108,7 +113,7 @@ public class MetaDataGenerator {
     }
 
     public void regenerateUuid(int partitionId) {
-        uuids.put(partitionId, uuidConstructor.createNew(partitionId));
+        uuids.set(partitionId, newUnsecureUUID());
     }
 
     public void resetSequence(String name, int partitionId) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.invalidation;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds the invalidation metadata of all partitions of a Near Cache in flat
+ * arrays indexed by partition ID.
+ * <p>
+ * Compared to one {@link MetaDataContainer} object per partition, this avoids
+ * an object header and a reference per partition and keeps the sequences of
+ * neighbouring partitions in contiguous memory.
+ *
+ * @see MetaDataContainer
+ */
+final class MetaDataTable {
+
+    /**
+     * Sequence number of last received invalidation event
+     */
+    final AtomicLongArray sequences;
+
+    /**
+     * Holds the biggest sequence number that is lost, lower sequences from this sequence are accepted as stale
+     */
+    final AtomicLongArray staleSequences;
+
+    /**
+     * Number of missed sequence count
+     */
+    final AtomicLongArray missedSequenceCounts;
+
+    /**
+     * UUID of the source partition that generates invalidation events
+     */
+    final AtomicReferenceArray<UUID> uuids;
+
+    MetaDataTable(int partitionCount) {
+        this.sequences = new AtomicLongArray(partitionCount);
+        this.staleSequences = new AtomicLongArray(partitionCount);
+        this.missedSequenceCounts = new AtomicLongArray(partitionCount);
+        this.uuids = new AtomicReferenceArray<UUID>(partitionCount);
+    }
+}
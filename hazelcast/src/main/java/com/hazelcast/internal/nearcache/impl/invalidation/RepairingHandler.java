@@ -49,7 +49,7 @@ public final class RepairingHandler {
     private final NearCache nearCache;
     private final SerializationService serializationService;
     private final MinimalPartitionService partitionService;
-    private final MetaDataContainer[] metaDataContainers;
+    private final MetaDataTable metaDataTable;
 
     public RepairingHandler(ILogger logger, String localUuid, String name, NearCache nearCache,
                             SerializationService serializationService, MinimalPartitionService partitionService) {
@@ -61,19 +61,29 @@ public final class RepairingHandler {
         this.serializationService = serializationService;
         this.partitionService = partitionService;
         this.partitionCount = partitionService.getPartitionCount();
-        this.metaDataContainers = createMetadataContainers(partitionCount);
+        this.metaDataTable = new MetaDataTable(partitionCount);
     }
 
-    private static MetaDataContainer[] createMetadataContainers(int partitionCount) {
-        MetaDataContainer[] metaData = new MetaDataContainer[partitionCount];
-        for (int partition = 0; partition < partitionCount; partition++) {
-            metaData[partition] = new MetaDataContainer();
-        }
-        return metaData;
+    public MetaDataContainer getMetaDataContainer(int partition) {
+        return new MetaDataContainer(metaDataTable, partition);
     }
 
-    public MetaDataContainer getMetaDataContainer(int partition) {
-        return metaDataContainers[partition];
+    /**
+     * Returns the UUID of the invalidation source of the given partition.
+     * <p>
+     * Same as {@code getMetaDataContainer(partition).getUuid()} without creating a view.
+     */
+    public UUID getUuid(int partition) {
+        return metaDataTable.uuids.get(partition);
+    }
+
+    /**
+     * Returns the stale sequence of the given partition.
+     * <p>
+     * Same as {@code getMetaDataContainer(partition).getStaleSequence()} without creating a view.
+     */
+    public long getStaleSequence(int partition) {
+        return metaDataTable.staleSequences.get(partition);
     }
 
     /**
@@ -148,15 +158,14 @@ public final class RepairingHandler {
     public void checkOrRepairUuid(final int partition, final UUID newUuid) {
         assert newUuid != null;
 
-        MetaDataContainer metaData = getMetaDataContainer(partition);
         while (true) {
-            UUID prevUuid = metaData.getUuid();
+            UUID prevUuid = metaDataTable.uuids.get(partition);
             if (prevUuid != null && prevUuid.equals(newUuid)) {
                 break;
             }
-            if (metaData.casUuid(prevUuid, newUuid)) {
-                metaData.resetSequence();
-                metaData.resetStaleSequence();
+            if (metaDataTable.uuids.compareAndSet(partition, prevUuid, newUuid)) {
+                metaDataTable.sequences.set(partition, 0);
+                metaDataTable.staleSequences.set(partition, 0);
                 if (logger.isFinestEnabled()) {
                     logger.finest(format("%s:[name=%s,partition=%d,prevUuid=%s,newUuid=%s]",
                             "Invalid UUID, lost remote partition data unexpectedly", name, partition, prevUuid, newUuid));
@@ -173,13 +182,12 @@ public final class RepairingHandler {
     public void checkOrRepairSequence(final int partition, final long nextSequence, final boolean viaAntiEntropy) {
         assert nextSequence > 0;
 
-        MetaDataContainer metaData = getMetaDataContainer(partition);
         while (true) {
-            final long currentSequence = metaData.getSequence();
+            final long currentSequence = metaDataTable.sequences.get(partition);
             if (currentSequence >= nextSequence) {
                 break;
             }
-            if (metaData.casSequence(currentSequence, nextSequence)) {
+            if (metaDataTable.sequences.compareAndSet(partition, currentSequence, nextSequence)) {
                 final long sequenceDiff = nextSequence - currentSequence;
                 if (viaAntiEntropy || sequenceDiff > 1L) {
                     // we have found at least one missing sequence between current and next sequences. if miss is detected by
@@ -187,7 +195,7 @@ public final class RepairingHandler {
                     // detected by observing received invalidation event sequence numbers and number of missed sequences will be
                     // `miss = next - current - 1`.
                     final long missCount = viaAntiEntropy ? sequenceDiff : sequenceDiff - 1;
-                    final long totalMissCount = metaData.addAndGetMissedSequenceCount(missCount);
+                    final long totalMissCount = metaDataTable.missedSequenceCounts.addAndGet(partition, missCount);
 
                     if (logger.isFinestEnabled()) {
                         logger.finest(format("%s:[map=%s,partition=%d,currentSequence=%d,nextSequence=%d,totalMissCount=%d]",
@@ -208,12 +216,10 @@ public final class RepairingHandler {
     }
 
     public void initUuid(int partitionID, UUID partitionUuid) {
-        MetaDataContainer metaData = getMetaDataContainer(partitionID);
-        metaData.setUuid(partitionUuid);
+        metaDataTable.uuids.set(partitionID, partitionUuid);
     }
 
     public void initSequence(int partitionID, long partitionSequence) {
-        MetaDataContainer metaData = getMetaDataContainer(partitionID);
-        metaData.setSequence(partitionSequence);
+        metaDataTable.sequences.set(partitionID, partitionSequence);
     }
 }
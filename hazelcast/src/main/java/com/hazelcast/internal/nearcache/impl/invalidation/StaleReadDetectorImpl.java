@@ -34,9 +34,9 @@ public class StaleReadDetectorImpl implements StaleReadDetector {
 
     @Override
     public boolean isStaleRead(Object key, NearCacheRecord record) {
-        MetaDataContainer latestMetaData = repairingHandler.getMetaDataContainer(record.getPartitionId());
-        return !record.hasSameUuid(latestMetaData.getUuid())
-                || record.getInvalidationSequence() < latestMetaData.getStaleSequence();
+        int partitionId = record.getPartitionId();
+        return !record.hasSameUuid(repairingHandler.getUuid(partitionId))
+                || record.getInvalidationSequence() < repairingHandler.getStaleSequence(partitionId);
     }
 
     @Override
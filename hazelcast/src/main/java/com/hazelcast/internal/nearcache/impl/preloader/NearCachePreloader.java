@@ -18,8 +18,9 @@ package com.hazelcast.internal.nearcache.impl.preloader;
 
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.serialization.impl.HeapData;
-import com.hazelcast.internal.util.BufferingInputStream;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.memory.MemoryUnit;
@@ -30,29 +31,44 @@ import com.hazelcast.util.collection.InflatableSet;
 import com.hazelcast.util.collection.InflatableSet.Builder;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
-import static com.hazelcast.nio.Bits.readIntB;
-import static com.hazelcast.nio.Bits.writeIntB;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.nio.IOUtil.closeResource;
 import static com.hazelcast.nio.IOUtil.deleteQuietly;
 import static com.hazelcast.nio.IOUtil.getPath;
-import static com.hazelcast.nio.IOUtil.readFullyOrNothing;
 import static com.hazelcast.nio.IOUtil.rename;
 import static com.hazelcast.nio.IOUtil.toFileName;
+import static com.hazelcast.util.ExceptionUtil.rethrow;
 import static com.hazelcast.util.StringUtil.isNullOrEmpty;
 import static java.lang.String.format;
 import static java.nio.ByteBuffer.allocate;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * The keys can be stored together with their values and the invalidation
+ * metadata of their partition. On startup such a snapshot is memory-mapped
+ * and loaded in parallel ranges. Entries which are still valid according to
+ * the current invalidation metadata are restored via a
+ * {@link NearCacheSnapshotConsumer}, only the remaining keys are fetched
+ * from the data structure.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
@@ -62,7 +78,16 @@ public class NearCachePreloader<K> {
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        /**
+         * Each entry is a length-prefixed key.
+         */
+        INTERLEAVED_LENGTH_FIELD,
+        /**
+         * Each entry is a length-prefixed key, a length-prefixed value
+         * (length {@code -1} if absent), the partition ID, the partition
+         * UUID and the invalidation sequence.
+         */
+        INTERLEAVED_LENGTH_FIELD_WITH_VALUES
     }
 
     /**
@@ -70,6 +95,16 @@ public class NearCachePreloader<K> {
      */
     private static final int MAGIC_BYTES = 0xEA3CAC4E;
 
+    /**
+     * Size of the file header (magic bytes and file format).
+     */
+    private static final int HEADER_SIZE_IN_BYTES = 2 * INT_SIZE_IN_BYTES;
+
+    /**
+     * Size of the invalidation metadata of an entry (partition ID, UUID and sequence).
+     */
+    private static final int METADATA_SIZE_IN_BYTES = INT_SIZE_IN_BYTES + 3 * LONG_SIZE_IN_BYTES;
+
     /**
      * Base-2 logarithm of buffer size.
      */
@@ -84,8 +119,12 @@ public class NearCachePreloader<K> {
      */
     private static final int LOAD_BATCH_SIZE = 100;
 
+    /**
+     * Minimum number of bytes of a file range, which can be loaded by an executor thread.
+     */
+    private static final int MIN_RANGE_SIZE_IN_BYTES = 1 << 20;
+
     private final ILogger logger = Logger.getLogger(NearCachePreloader.class);
-    private final byte[] tmpBytes = new byte[INT_SIZE_IN_BYTES];
 
     private final String nearCacheName;
     private final NearCacheStatsImpl nearCacheStats;
@@ -121,6 +160,25 @@ public class NearCachePreloader<K> {
      * @param adapter the {@link DataStructureAdapter} to load the values from
      */
     public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        loadKeys(adapter, null, null);
+    }
+
+    /**
+     * Loads a stored key file or snapshot file.
+     * <p>
+     * Stored entries are offered to the supplied {@link NearCacheSnapshotConsumer}
+     * first, the values of all keys which were not restored are loaded via the
+     * supplied {@link DataStructureAdapter}.
+     *
+     * @param adapter          the {@link DataStructureAdapter} to load the values from
+     * @param snapshotConsumer the {@link NearCacheSnapshotConsumer} to restore stored entries,
+     *                         or {@code null} if all values should be loaded via the adapter
+     * @param executor         the managed executor of the Hazelcast instance to load the ranges
+     *                         of large files in parallel, or {@code null} to load them on the
+     *                         calling thread only
+     */
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, NearCacheSnapshotConsumer snapshotConsumer,
+                         Executor executor) {
         if (!storeFile.exists()) {
             logger.info(format("Skipped loading keys of Near Cache %s since storage file doesn't exist (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
@@ -128,37 +186,47 @@ public class NearCachePreloader<K> {
         }
 
         long startedNanos = System.nanoTime();
-        BufferingInputStream bis = null;
+        RandomAccessFile file = null;
         try {
-            bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+            file = new RandomAccessFile(storeFile, "r");
+            if (file.length() > Integer.MAX_VALUE) {
+                logger.warning(format("Skipped loading keys of Near Cache %s since storage file is too large (%s)",
+                        nearCacheName, storeFile.getAbsolutePath()));
+                return;
+            }
+            ByteBuffer buffer = file.getChannel().map(READ_ONLY, 0, file.length());
+            FileFormat fileFormat = readHeader(buffer);
+            if (fileFormat == null) {
                 return;
             }
 
-            int loadedKeys = loadKeySet(bis, adapter);
+            AtomicInteger loadedKeys = new AtomicInteger();
+            AtomicInteger restoredKeys = new AtomicInteger();
+            List<ByteBuffer> ranges = splitIntoRanges(buffer, fileFormat);
+            loadRanges(ranges, fileFormat, adapter, snapshotConsumer, loadedKeys, restoredKeys, executor);
 
             long elapsedMillis = getElapsedMillis(startedNanos);
-            logger.info(format("Loaded %d keys of Near Cache %s in %d ms", loadedKeys, nearCacheName, elapsedMillis));
+            logger.info(format("Loaded %d keys of Near Cache %s in %d ms (%d restored from snapshot, %d ranges)",
+                    loadedKeys.get(), nearCacheName, elapsedMillis, restoredKeys.get(), ranges.size()));
         } catch (Exception e) {
             logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
         } finally {
-            closeResource(bis);
+            closeResource(file);
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
-        int magicBytes = readInt(bis);
-        if (magicBytes != MAGIC_BYTES) {
+    private FileFormat readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE_IN_BYTES || buffer.getInt() != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        int fileFormat = readInt(bis);
+        int fileFormat = buffer.getInt();
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
@@ -167,6 +235,22 @@ public class NearCachePreloader<K> {
      * @param iterator {@link Iterator} over the key set of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
      */
     public void storeKeys(Iterator<K> iterator) {
+        store(FileFormat.INTERLEAVED_LENGTH_FIELD, iterator);
+    }
+
+    /**
+     * Stores the Near Cache keys with their values and invalidation metadata from the supplied iterator.
+     * <p>
+     * Values of records without invalidation metadata are not stored, since they cannot be validated on load.
+     *
+     * @param iterator {@link Iterator} over the entry set of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
+     * @param <R>      type of the {@link NearCacheRecord}
+     */
+    public <R extends NearCacheRecord> void storeEntries(Iterator<Map.Entry<K, R>> iterator) {
+        store(FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES, iterator);
+    }
+
+    private void store(FileFormat fileFormat, Iterator<?> iterator) {
         long startedNanos = System.nanoTime();
         FileOutputStream fos = null;
         try {
@@ -176,10 +260,14 @@ public class NearCachePreloader<K> {
 
             fos = new FileOutputStream(tmpStoreFile, false);
 
-            // write header and keys
-            writeInt(fos, MAGIC_BYTES);
-            writeInt(fos, FileFormat.INTERLEAVED_LENGTH_FIELD.ordinal());
-            writeKeySet(fos, fos.getChannel(), iterator);
+            // write header and entries
+            buf.putInt(MAGIC_BYTES);
+            buf.putInt(fileFormat.ordinal());
+            if (fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD) {
+                writeKeySet(fos, iterator);
+            } else {
+                writeEntrySet(fos, iterator);
+            }
 
             // cleanup if no keys have been written
             if (lastKeyCount == 0) {
@@ -188,6 +276,7 @@ public class NearCachePreloader<K> {
                 return;
             }
 
+            flushLocalBuffer(fos);
             fos.flush();
             closeResource(fos);
             rename(tmpStoreFile, storeFile);
@@ -211,85 +300,196 @@ public class NearCachePreloader<K> {
                 MemoryUnit.BYTES.toKiloBytes(lastWrittenBytes)));
     }
 
-    private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter) throws IOException {
-        int loadedKeys = 0;
+    /**
+     * Splits the entries of the supplied buffer into contiguous ranges,
+     * which can be loaded in parallel.
+     * <p>
+     * Only the length fields are read, an incomplete trailing entry is skipped.
+     */
+    private List<ByteBuffer> splitIntoRanges(ByteBuffer buffer, FileFormat fileFormat) {
+        int rangeCount = Math.max(1, Math.min(RuntimeAvailableProcessors.get(),
+                buffer.remaining() / MIN_RANGE_SIZE_IN_BYTES));
+        int rangeSize = buffer.remaining() / rangeCount;
+
+        List<ByteBuffer> ranges = new ArrayList<ByteBuffer>(rangeCount);
+        int rangeStart = buffer.position();
+        int offset = rangeStart;
+        int nextOffset = nextEntryOffset(buffer, offset, fileFormat);
+        while (nextOffset != -1) {
+            offset = nextOffset;
+            if (offset - rangeStart >= rangeSize) {
+                ranges.add(range(buffer, rangeStart, offset));
+                rangeStart = offset;
+            }
+            nextOffset = nextEntryOffset(buffer, offset, fileFormat);
+        }
+        if (offset > rangeStart || ranges.isEmpty()) {
+            ranges.add(range(buffer, rangeStart, offset));
+        }
+        return ranges;
+    }
 
-        Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
-        while (readFullyOrNothing(bis, tmpBytes)) {
-            int dataSize = readIntB(tmpBytes, 0);
-            byte[] payload = new byte[dataSize];
-            if (!readFullyOrNothing(bis, payload)) {
-                break;
+    private void loadRanges(List<ByteBuffer> ranges, FileFormat fileFormat, DataStructureAdapter<Object, ?> adapter,
+                            NearCacheSnapshotConsumer snapshotConsumer, AtomicInteger loadedKeys,
+                            AtomicInteger restoredKeys, Executor executor) throws Exception {
+        final List<RangeLoader> rangeLoaders = new ArrayList<RangeLoader>(ranges.size());
+        for (ByteBuffer range : ranges) {
+            rangeLoaders.add(new RangeLoader(range, fileFormat, adapter, snapshotConsumer, loadedKeys, restoredKeys));
+        }
+        final AtomicInteger nextRange = new AtomicInteger();
+        final CountDownLatch loadedRanges = new CountDownLatch(rangeLoaders.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                for (int i = nextRange.getAndIncrement(); i < rangeLoaders.size(); i = nextRange.getAndIncrement()) {
+                    try {
+                        rangeLoaders.get(i).run();
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        loadedRanges.countDown();
+                    }
+                }
             }
-            Data key = new HeapData(payload);
-            builder.add(serializationService.toObject(key));
-            if (builder.size() == LOAD_BATCH_SIZE) {
-                adapter.getAll(builder.build());
-                builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+        };
+
+        // the executor threads help the calling thread, which loads all the ranges they don't claim,
+        // so a busy executor only slows down the loading
+        for (int i = 1; executor != null && i < rangeLoaders.size(); i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
             }
-            loadedKeys++;
         }
-        if (builder.size() > 0) {
-            adapter.getAll(builder.build());
+        worker.run();
+        loadedRanges.await();
+        if (failure.get() != null) {
+            throw rethrow(failure.get());
         }
-        return loadedKeys;
     }
 
-    private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
+    private void writeKeySet(FileOutputStream fos, Iterator<?> iterator) throws IOException {
         while (iterator.hasNext()) {
-            K key = iterator.next();
-            Data dataKey = serializationService.toData(key);
+            Data dataKey = serializationService.toData(iterator.next());
             if (dataKey != null) {
-                int dataSize = dataKey.totalSize();
-                writeInt(fos, dataSize);
-
-                int position = 0;
-                int remaining = dataSize;
-                while (remaining > 0) {
-                    int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
-                    ensureBufHasRoom(fos, transferredCount);
-                    buf.put(dataKey.toByteArray(), position, transferredCount);
-                    position += transferredCount;
-                    remaining -= transferredCount;
-                }
-
-                lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
+                writeData(fos, dataKey);
                 lastKeyCount++;
             }
-            flushLocalBuffer(outChannel);
         }
     }
 
-    private int readInt(BufferingInputStream bis) throws IOException {
-        readFullyOrNothing(bis, tmpBytes);
-        return readIntB(tmpBytes, 0);
+    private void writeEntrySet(FileOutputStream fos, Iterator<?> iterator) throws IOException {
+        while (iterator.hasNext()) {
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) iterator.next();
+            Data dataKey = serializationService.toData(entry.getKey());
+            if (dataKey == null) {
+                continue;
+            }
+            NearCacheRecord record = (NearCacheRecord) entry.getValue();
+            UUID uuid = record.getUuid();
+            Data dataValue = uuid != null && record.getRecordState() == NearCacheRecord.READ_PERMITTED
+                    ? serializationService.toData(record.getValue()) : null;
+
+            writeData(fos, dataKey);
+            writeData(fos, dataValue);
+            writeInt(fos, record.getPartitionId());
+            writeLong(fos, uuid != null ? uuid.getMostSignificantBits() : 0);
+            writeLong(fos, uuid != null ? uuid.getLeastSignificantBits() : 0);
+            writeLong(fos, record.getInvalidationSequence());
+            lastKeyCount++;
+        }
+    }
+
+    private void writeData(FileOutputStream fos, Data data) throws IOException {
+        if (data == null) {
+            writeInt(fos, -1);
+            return;
+        }
+        int dataSize = data.totalSize();
+        writeInt(fos, dataSize);
+
+        byte[] bytes = data.toByteArray();
+        int position = 0;
+        while (position < dataSize) {
+            ensureBufHasRoom(fos, 1);
+            int transferredCount = Math.min(buf.remaining(), dataSize - position);
+            buf.put(bytes, position, transferredCount);
+            position += transferredCount;
+        }
+        lastWrittenBytes += dataSize;
     }
 
-    private void writeInt(FileOutputStream fos, int dataSize) throws IOException {
+    private void writeInt(FileOutputStream fos, int value) throws IOException {
         ensureBufHasRoom(fos, INT_SIZE_IN_BYTES);
-        writeIntB(tmpBytes, 0, dataSize);
-        buf.put(tmpBytes);
+        buf.putInt(value);
+        lastWrittenBytes += INT_SIZE_IN_BYTES;
+    }
+
+    private void writeLong(FileOutputStream fos, long value) throws IOException {
+        ensureBufHasRoom(fos, LONG_SIZE_IN_BYTES);
+        buf.putLong(value);
+        lastWrittenBytes += LONG_SIZE_IN_BYTES;
     }
 
     private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
-        if (buf.position() < BUFFER_SIZE - expectedSize) {
-            return;
+        if (buf.remaining() < expectedSize) {
+            flushLocalBuffer(fos);
         }
-        fos.write(buf.array());
-        buf.position(0);
     }
 
-    private void flushLocalBuffer(FileChannel outChannel) throws IOException {
+    private void flushLocalBuffer(FileOutputStream fos) throws IOException {
         if (buf.position() == 0) {
             return;
         }
-        buf.flip();
-        while (buf.hasRemaining()) {
-            outChannel.write(buf);
-        }
+        fos.write(buf.array(), 0, buf.position());
         buf.clear();
     }
 
+    /**
+     * Returns the offset of the entry following the one at the supplied
+     * offset or {@code -1} if the entry is incomplete.
+     */
+    private static int nextEntryOffset(ByteBuffer buffer, int offset, FileFormat fileFormat) {
+        long nextOffset = skipData(buffer, offset);
+        if (nextOffset == -1 || fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD) {
+            return (int) nextOffset;
+        }
+        nextOffset = skipData(buffer, (int) nextOffset);
+        if (nextOffset == -1) {
+            return -1;
+        }
+        nextOffset += METADATA_SIZE_IN_BYTES;
+        return nextOffset <= buffer.limit() ? (int) nextOffset : -1;
+    }
+
+    private static long skipData(ByteBuffer buffer, int offset) {
+        if ((long) offset + INT_SIZE_IN_BYTES > buffer.limit()) {
+            return -1;
+        }
+        int dataSize = buffer.getInt(offset);
+        long nextOffset = (long) offset + INT_SIZE_IN_BYTES + Math.max(dataSize, 0);
+        return nextOffset <= buffer.limit() ? nextOffset : -1;
+    }
+
+    private static Data readData(ByteBuffer buffer) {
+        int dataSize = buffer.getInt();
+        if (dataSize < 0) {
+            return null;
+        }
+        byte[] payload = new byte[dataSize];
+        buffer.get(payload);
+        return new HeapData(payload);
+    }
+
+    private static ByteBuffer range(ByteBuffer buffer, int start, int end) {
+        ByteBuffer range = buffer.duplicate();
+        range.limit(end);
+        range.position(start);
+        return range.slice();
+    }
+
     private static String getFilename(String directory, String nearCacheName) {
         String filename = toFileName("nearCache-" + nearCacheName + ".store");
         if (isNullOrEmpty(directory)) {
@@ -301,4 +501,64 @@ public class NearCachePreloader<K> {
     private static long getElapsedMillis(long startedNanos) {
         return NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
     }
+
+    /**
+     * Loads the entries of a single file range.
+     */
+    private final class RangeLoader implements Runnable {
+
+        private final ByteBuffer buffer;
+        private final FileFormat fileFormat;
+        private final DataStructureAdapter<Object, ?> adapter;
+        private final NearCacheSnapshotConsumer snapshotConsumer;
+        private final AtomicInteger loadedKeys;
+        private final AtomicInteger restoredKeys;
+
+        RangeLoader(ByteBuffer buffer, FileFormat fileFormat, DataStructureAdapter<Object, ?> adapter,
+                    NearCacheSnapshotConsumer snapshotConsumer, AtomicInteger loadedKeys, AtomicInteger restoredKeys) {
+            this.buffer = buffer;
+            this.fileFormat = fileFormat;
+            this.adapter = adapter;
+            this.snapshotConsumer = snapshotConsumer;
+            this.loadedKeys = loadedKeys;
+            this.restoredKeys = restoredKeys;
+        }
+
+        @Override
+        public void run() {
+            Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+            while (buffer.hasRemaining()) {
+                Data key = readData(buffer);
+                loadedKeys.incrementAndGet();
+                if (fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES && tryRestore(key)) {
+                    restoredKeys.incrementAndGet();
+                    continue;
+                }
+                builder.add(serializationService.toObject(key));
+                if (builder.size() == LOAD_BATCH_SIZE) {
+                    adapter.getAll(builder.build());
+                    builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+                }
+            }
+            if (builder.size() > 0) {
+                adapter.getAll(builder.build());
+            }
+        }
+
+        /**
+         * Reads the value and invalidation metadata of the current entry
+         * and offers them to the {@link NearCacheSnapshotConsumer}.
+         */
+        private boolean tryRestore(Data key) {
+            Data value = readData(buffer);
+            int partitionId = buffer.getInt();
+            long mostSigBits = buffer.getLong();
+            long leastSigBits = buffer.getLong();
+            long sequence = buffer.getLong();
+            if (snapshotConsumer == null || value == null || (mostSigBits == 0 && leastSigBits == 0)) {
+                return false;
+            }
+            return snapshotConsumer.restore(key, value, partitionId, new UUID(mostSigBits, leastSigBits), sequence);
+        }
+    }
 }
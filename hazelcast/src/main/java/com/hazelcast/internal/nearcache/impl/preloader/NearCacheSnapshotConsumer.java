@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.UUID;
+
+/**
+ * Consumes the entries of a Near Cache snapshot file, which were stored
+ * together with the invalidation metadata of their partition.
+ * <p>
+ * Implementations have to be thread-safe, since the pre-loader may
+ * process a snapshot file in multiple ranges in parallel.
+ */
+public interface NearCacheSnapshotConsumer {
+
+    /**
+     * Restores a stored entry if it is still valid.
+     *
+     * @param key           the serialized key of the entry
+     * @param value         the serialized value of the entry
+     * @param partitionId   the partition ID of the entry at time of storing
+     * @param partitionUuid the UUID of the invalidation source at time of the entry creation
+     * @param sequence      the invalidation sequence at time of the entry creation
+     * @return {@code true} if the entry was restored into the Near Cache,
+     * {@code false} if its value has to be fetched from the data structure
+     */
+    boolean restore(Data key, Data value, int partitionId, UUID partitionUuid, long sequence);
+}
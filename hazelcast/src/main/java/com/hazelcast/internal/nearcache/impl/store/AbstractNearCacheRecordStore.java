@@ -121,10 +121,17 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         this.evictionChecker = createNearCacheEvictionChecker(evictionConfig, nearCacheConfig);
         if (!evictionDisabled) {
             this.evictionStrategy = SamplingEvictionStrategy.INSTANCE;
-            this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader);
+            this.evictionPolicyEvaluator = createEvictionPolicyEvaluator(evictionConfig);
         }
     }
 
+    /**
+     * Creates the evaluator choosing the records evicted by sampling.
+     */
+    protected EvictionPolicyEvaluator<KS, R> createEvictionPolicyEvaluator(EvictionConfig evictionConfig) {
+        return getEvictionPolicyEvaluator(evictionConfig, classLoader);
+    }
+
     @Override
     public void setStaleReadDetector(StaleReadDetector staleReadDetector) {
         this.staleReadDetector = staleReadDetector;
@@ -221,6 +228,10 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected void onGet(K key, V value, R record) {
     }
 
+    @SuppressWarnings("unused")
+    protected void onMiss(K key) {
+    }
+
     @SuppressWarnings("unused")
     protected void onGetError(K key, V value, R record, Throwable error) {
     }
@@ -286,6 +297,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
                 return value;
             } else {
                 nearCacheStats.incrementMisses();
+                onMiss(key);
                 return null;
             }
         } catch (Throwable error) {
@@ -495,13 +507,22 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected class ReserveForUpdateFunction implements IFunction<K, R> {
 
         private final Data keyData;
+        private boolean applied;
 
         public ReserveForUpdateFunction(Data keyData) {
             this.keyData = keyData;
         }
 
+        /**
+         * Returns {@code true} if this function created a new reserved record.
+         */
+        public boolean isApplied() {
+            return applied;
+        }
+
         @Override
         public R apply(K key) {
+            applied = true;
             R record = null;
             try {
                 record = valueToRecord(null);
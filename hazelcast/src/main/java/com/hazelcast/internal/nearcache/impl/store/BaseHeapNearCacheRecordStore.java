@@ -18,23 +18,36 @@ package com.hazelcast.internal.nearcache.impl.store;
 
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.core.IBiFunction;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.eviction.impl.comparator.LFUEvictionPolicyComparator;
+import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCacheSnapshotConsumer;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
 
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
 import static java.lang.String.format;
 
 /**
  * Base implementation of {@link AbstractNearCacheRecordStore} for on-heap Near Caches.
+ * <p>
+ * With {@link EvictionPolicy#TINY_LFU} the evictions are decided by a {@link WindowTinyLfuPolicy}
+ * right after a record is inserted, instead of by sampling before. Sampling eviction only
+ * kicks in when the record map grows beyond the maximum size anyway, since a concurrent
+ * insertion and invalidation of the same key may leave a record untracked by the policy.
  *
  * @param <K> the type of the key stored in Near Cache
  * @param <V> the type of the value stored in Near Cache
@@ -46,7 +59,10 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     private static final int DEFAULT_INITIAL_CAPACITY = 1000;
 
     private final NearCachePreloader<K> nearCachePreloader;
+    private final NearCacheSnapshotConsumer snapshotConsumer = new RecordStoreSnapshotConsumer();
     private final IBiFunction<? super K, ? super R, ? extends R> invalidatorFunction = createInvalidatorFunction();
+    private final WindowTinyLfuPolicy<K> tinyLfuPolicy;
+    private final int maximumSize;
 
     BaseHeapNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig, SerializationService serializationService,
                                  ClassLoader classLoader) {
@@ -55,6 +71,11 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
         this.nearCachePreloader = preloaderConfig.isEnabled() ? new NearCachePreloader<K>(name, preloaderConfig, nearCacheStats,
                 serializationService) : null;
+
+        EvictionConfig evictionConfig = nearCacheConfig.getEvictionConfig();
+        this.maximumSize = evictionConfig.getSize();
+        this.tinyLfuPolicy = evictionConfig.getEvictionPolicy() == EvictionPolicy.TINY_LFU
+                ? new WindowTinyLfuPolicy<K>(maximumSize, nearCacheStats) : null;
     }
 
     @Override
@@ -67,6 +88,20 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         return new EntryCountNearCacheEvictionChecker(evictionConfig.getSize(), records);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * With {@link EvictionPolicy#TINY_LFU}, the records evicted by the sampling fallback are chosen as with
+     * {@link EvictionPolicy#LFU}.
+     */
+    @Override
+    protected EvictionPolicyEvaluator<K, R> createEvictionPolicyEvaluator(EvictionConfig evictionConfig) {
+        if (tinyLfuPolicy != null) {
+            return new EvictionPolicyEvaluator<K, R>(new LFUEvictionPolicyComparator());
+        }
+        return super.createEvictionPolicyEvaluator(evictionConfig);
+    }
+
     @Override
     protected HeapNearCacheRecordMap<K, R> createNearCacheRecordMap(NearCacheConfig nearCacheConfig) {
         return new HeapNearCacheRecordMap<K, R>(serializationService, DEFAULT_INITIAL_CAPACITY);
@@ -87,6 +122,57 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         return oldRecord;
     }
 
+    @Override
+    protected void onGet(K key, V value, R record) {
+        super.onGet(key, value, record);
+        if (tinyLfuPolicy != null) {
+            tinyLfuPolicy.recordHit(key);
+        }
+    }
+
+    @Override
+    protected void onMiss(K key) {
+        super.onMiss(key);
+        if (tinyLfuPolicy != null) {
+            tinyLfuPolicy.recordMiss(key);
+        }
+    }
+
+    @Override
+    protected void onPut(K key, V value, R record, R oldRecord) {
+        super.onPut(key, value, record, oldRecord);
+        if (tinyLfuPolicy != null && oldRecord == null) {
+            evictByPolicy(tinyLfuPolicy.add(key));
+        }
+    }
+
+    @Override
+    public void doEviction(boolean withoutMaxSizeCheck) {
+        if (tinyLfuPolicy == null) {
+            super.doEviction(withoutMaxSizeCheck);
+            return;
+        }
+        checkAvailable();
+        if (withoutMaxSizeCheck) {
+            evictByPolicy(tinyLfuPolicy.evict());
+        } else if (records.size() > maximumSize) {
+            super.doEviction(false);
+        }
+    }
+
+    /**
+     * Removes the record of a key chosen by the {@link WindowTinyLfuPolicy}.
+     */
+    private void evictByPolicy(K key) {
+        if (key == null) {
+            return;
+        }
+        R record = records.remove(key);
+        if (canUpdateStats(record)) {
+            onEvict(key, record, false);
+        }
+    }
+
     @Override
     protected boolean containsRecordKey(K key) {
         return records.containsKey(key);
@@ -111,16 +197,29 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     }
 
     @Override
-    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor) {
         if (nearCachePreloader != null) {
-            nearCachePreloader.loadKeys(adapter);
+            nearCachePreloader.loadKeys(adapter, staleReadDetector == ALWAYS_FRESH ? null : snapshotConsumer, executor);
         }
     }
 
     @Override
     public void storeKeys() {
         if (nearCachePreloader != null) {
-            nearCachePreloader.storeKeys(records.keySet().iterator());
+            if (staleReadDetector == ALWAYS_FRESH) {
+                // without invalidation metadata the stored values could not be validated on load
+                nearCachePreloader.storeKeys(records.keySet().iterator());
+            } else {
+                nearCachePreloader.storeEntries(records.entrySet().iterator());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        if (tinyLfuPolicy != null) {
+            tinyLfuPolicy.clear();
         }
     }
 
@@ -134,7 +233,12 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
 
     @Override
     protected R getOrCreateToReserve(K key, Data keyData) {
-        return records.applyIfAbsent(key, new ReserveForUpdateFunction(keyData));
+        ReserveForUpdateFunction reserveFunction = new ReserveForUpdateFunction(keyData);
+        R record = records.applyIfAbsent(key, reserveFunction);
+        if (tinyLfuPolicy != null && reserveFunction.isApplied()) {
+            evictByPolicy(tinyLfuPolicy.add(key));
+        }
+        return record;
     }
 
     @Override
@@ -158,6 +262,9 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     @Override
     public void invalidate(K key) {
         records.applyIfPresent(key, invalidatorFunction);
+        if (tinyLfuPolicy != null) {
+            tinyLfuPolicy.remove(key);
+        }
 
         nearCacheStats.incrementInvalidationRequests();
     }
@@ -176,4 +283,38 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         };
     }
 
+    /**
+     * Restores the entries of a Near Cache snapshot, which have not been
+     * invalidated since they were stored.
+     * <p>
+     * An entry is reserved first, so the invalidation metadata captured by the
+     * reservation can be compared to the stored one. If they are equal, no
+     * invalidation was received for the partition in between and the stored value
+     * is published. Invalidations which arrive after the reservation remove the
+     * reserved record, as they do for values fetched from the data structure.
+     */
+    private final class RecordStoreSnapshotConsumer implements NearCacheSnapshotConsumer {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean restore(Data keyData, Data valueData, int partitionId, UUID partitionUuid, long sequence) {
+            if (staleReadDetector.getPartitionId(keyData) != partitionId) {
+                return false;
+            }
+            K key = nearCacheConfig.isSerializeKeys() ? (K) keyData : (K) serializationService.toObject(keyData);
+
+            doEviction(false);
+            long reservationId = tryReserveForUpdate(key, keyData);
+            if (reservationId == NOT_RESERVED) {
+                return false;
+            }
+            R record = getRecord(key);
+            if (record == null || !record.hasSameUuid(partitionUuid) || record.getInvalidationSequence() != sequence) {
+                invalidate(key);
+                return false;
+            }
+            tryPublishReserved(key, (V) valueData, reservationId, false);
+            return true;
+        }
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A count-min sketch estimating how often keys were accessed recently, as used
+ * by the TinyLFU admission filter.
+ * <p>
+ * Each key is mapped to {@value #DEPTH} 4-bit counters, sixteen of which are
+ * packed into a {@code long}. The estimated frequency of a key is the minimum
+ * of its counters, so it is at most 15. To keep the estimates about recent
+ * history, all counters are halved once the number of increments reaches ten
+ * times the maximum size of the cache.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class FrequencySketch {
+
+    static final int MAX_FREQUENCY = 15;
+
+    private static final int DEPTH = 4;
+    private static final int COUNTER_BITS = 4;
+    private static final int SAMPLE_SIZE_MULTIPLIER = 10;
+    private static final int MIN_TABLE_LENGTH = 8;
+    private static final int MAX_TABLE_LENGTH = 1 << 20;
+    private static final int HALF_INT_BITS = 16;
+    private static final int SPREAD_MULTIPLIER = 0x45d9f3b;
+    private static final long COUNTER_MASK = 0xfL;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param maximumSize the maximum number of entries of the cache
+     */
+    FrequencySketch(int maximumSize) {
+        int length = nextPowerOfTwo(Math.min(Math.max(maximumSize, MIN_TABLE_LENGTH), MAX_TABLE_LENGTH));
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min((long) SAMPLE_SIZE_MULTIPLIER * Math.max(maximumSize, 1), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of recent accesses of the item with the given hash.
+     */
+    int frequency(int itemHash) {
+        int hash = spread(itemHash);
+        int start = (hash & (DEPTH - 1)) * DEPTH;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) * COUNTER_BITS)) & COUNTER_MASK);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the item with the given hash.
+     */
+    void increment(int itemHash) {
+        int hash = spread(itemHash);
+        int start = (hash & (DEPTH - 1)) * DEPTH;
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added) {
+            size++;
+            if (size >= sampleSize) {
+                reset();
+            }
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter * COUNTER_BITS;
+        long mask = COUNTER_MASK << offset;
+        if ((table[index] & mask) == mask) {
+            return false;
+        }
+        table[index] += 1L << offset;
+        return true;
+    }
+
+    /**
+     * Halves all counters. The size is reduced by the increments lost to
+     * truncating odd counters, which are estimated as a fourth of the odd
+     * counters since each increment touches {@value #DEPTH} of them.
+     */
+    private void reset() {
+        int oddCounters = 0;
+        for (int i = 0; i < table.length; i++) {
+            oddCounters += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (oddCounters / DEPTH);
+    }
+
+    private int indexOf(int hash, int depth) {
+        long index = (hash + SEEDS[depth]) * SEEDS[depth];
+        index += index >>> (2 * HALF_INT_BITS);
+        return ((int) index) & tableMask;
+    }
+
+    private static int spread(int x) {
+        int hash = ((x >>> HALF_INT_BITS) ^ x) * SPREAD_MULTIPLIER;
+        hash = ((hash >>> HALF_INT_BITS) ^ hash) * SPREAD_MULTIPLIER;
+        return (hash >>> HALF_INT_BITS) ^ hash;
+    }
+}
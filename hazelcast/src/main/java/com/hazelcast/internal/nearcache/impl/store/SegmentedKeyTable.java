@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import java.util.Arrays;
+
+/**
+ * The keys tracked by the {@link WindowTinyLfuPolicy}, each linked into one of
+ * a few segments ordered from the least to the most recently used key.
+ * <p>
+ * The keys are kept in parallel primitive arrays instead of linked hash maps:
+ * a key costs a reference, its hash, two links, its segment and two slots of
+ * an open addressing index, so the policy adds a few tens of bytes per entry
+ * of the Near Cache. The arrays grow by doubling as keys are added and are
+ * released by {@link #clear()}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <K> the type of the tracked keys
+ */
+final class SegmentedKeyTable<K> {
+
+    static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int HALF_INT_BITS = 16;
+
+    private final int[] heads;
+    private final int[] tails;
+    private final int[] sizes;
+
+    private Object[] keys;
+    private int[] hashes;
+    private int[] previous;
+    private int[] next;
+    private byte[] segments;
+    /** The index of the key table: a node index plus one, or zero for an empty slot */
+    private int[] slots;
+    private int slotMask;
+    private int allocated;
+    private int freeNode;
+
+    /**
+     * @param segmentCount the number of segments
+     */
+    SegmentedKeyTable(int segmentCount) {
+        this.heads = new int[segmentCount];
+        this.tails = new int[segmentCount];
+        this.sizes = new int[segmentCount];
+        clear();
+    }
+
+    /**
+     * Returns the node of the given key or {@link #NONE} if the key is not tracked.
+     */
+    int find(Object key) {
+        int hash = key.hashCode();
+        for (int slot = slotOf(hash); slots[slot] != 0; slot = (slot + 1) & slotMask) {
+            int node = slots[slot] - 1;
+            if (hashes[node] == hash && key.equals(keys[node])) {
+                return node;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds a key which is not tracked yet as the most recently used key of the given segment.
+     */
+    void add(K key, int segment) {
+        if (freeNode == NONE && allocated == keys.length) {
+            grow();
+        }
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = next[node];
+        } else {
+            node = allocated++;
+        }
+        int hash = key.hashCode();
+        keys[node] = key;
+        hashes[node] = hash;
+        insertSlot(node, hash);
+        link(node, segment);
+    }
+
+    /**
+     * Removes the given key.
+     *
+     * @return {@code true} if the key was tracked
+     */
+    boolean remove(Object key) {
+        int node = find(key);
+        if (node == NONE) {
+            return false;
+        }
+        removeNode(node);
+        return true;
+    }
+
+    /**
+     * Removes the key of the given node and returns it.
+     */
+    @SuppressWarnings("unchecked")
+    K removeNode(int node) {
+        K key = (K) keys[node];
+        unlink(node);
+        deleteSlot(node);
+        keys[node] = null;
+        next[node] = freeNode;
+        freeNode = node;
+        return key;
+    }
+
+    /**
+     * Removes and returns the least recently used key of the given segment, or {@code null} if it is empty.
+     */
+    K removeEldest(int segment) {
+        int node = heads[segment];
+        return node == NONE ? null : removeNode(node);
+    }
+
+    /**
+     * Moves the given node to the given segment as its most recently used key.
+     */
+    void moveToTail(int node, int segment) {
+        unlink(node);
+        link(node, segment);
+    }
+
+    /**
+     * Returns the node of the least recently used key of the given segment or {@link #NONE} if it is empty.
+     */
+    int head(int segment) {
+        return heads[segment];
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(int node) {
+        return (K) keys[node];
+    }
+
+    int hashAt(int node) {
+        return hashes[node];
+    }
+
+    int segmentAt(int node) {
+        return segments[node];
+    }
+
+    int size(int segment) {
+        return sizes[segment];
+    }
+
+    int size() {
+        int size = 0;
+        for (int segmentSize : sizes) {
+            size += segmentSize;
+        }
+        return size;
+    }
+
+    /**
+     * Removes all keys and releases the arrays.
+     */
+    void clear() {
+        allocate(INITIAL_CAPACITY);
+        allocated = 0;
+        freeNode = NONE;
+        Arrays.fill(heads, NONE);
+        Arrays.fill(tails, NONE);
+        Arrays.fill(sizes, 0);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        hashes = new int[capacity];
+        previous = new int[capacity];
+        next = new int[capacity];
+        segments = new byte[capacity];
+        slots = new int[capacity * 2];
+        slotMask = slots.length - 1;
+    }
+
+    private void grow() {
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldPrevious = previous;
+        int[] oldNext = next;
+        byte[] oldSegments = segments;
+        allocate(oldKeys.length * 2);
+        System.arraycopy(oldKeys, 0, keys, 0, allocated);
+        System.arraycopy(oldHashes, 0, hashes, 0, allocated);
+        System.arraycopy(oldPrevious, 0, previous, 0, allocated);
+        System.arraycopy(oldNext, 0, next, 0, allocated);
+        System.arraycopy(oldSegments, 0, segments, 0, allocated);
+        // the table is only grown without free nodes, so all allocated nodes hold a key
+        for (int node = 0; node < allocated; node++) {
+            insertSlot(node, hashes[node]);
+        }
+    }
+
+    private int slotOf(int hash) {
+        return (hash ^ (hash >>> HALF_INT_BITS)) & slotMask;
+    }
+
+    private void insertSlot(int node, int hash) {
+        int slot = slotOf(hash);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & slotMask;
+        }
+        slots[slot] = node + 1;
+    }
+
+    /**
+     * Removes the slot of the given node and shifts the following slots of the probe sequence back,
+     * so that lookups don't need tombstones.
+     */
+    private void deleteSlot(int node) {
+        int gap = slotOf(hashes[node]);
+        while (slots[gap] != node + 1) {
+            gap = (gap + 1) & slotMask;
+        }
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & slotMask;
+            int entry = slots[slot];
+            if (entry == 0) {
+                break;
+            }
+            int home = slotOf(hashes[entry - 1]);
+            // the entry can fill the gap unless its home slot lies cyclically in (gap, slot]
+            boolean homeAfterGap = gap <= slot ? gap < home && home <= slot : gap < home || home <= slot;
+            if (!homeAfterGap) {
+                slots[gap] = entry;
+                gap = slot;
+            }
+        }
+        slots[gap] = 0;
+    }
+
+    private void link(int node, int segment) {
+        segments[node] = (byte) segment;
+        int tail = tails[segment];
+        previous[node] = tail;
+        next[node] = NONE;
+        if (tail == NONE) {
+            heads[segment] = node;
+        } else {
+            next[tail] = node;
+        }
+        tails[segment] = node;
+        sizes[segment]++;
+    }
+
+    private void unlink(int node) {
+        int segment = segments[node];
+        int before = previous[node];
+        int after = next[node];
+        if (before == NONE) {
+            heads[segment] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tails[segment] = before;
+        } else {
+            previous[after] = before;
+        }
+        sizes[segment]--;
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.util.QuickMath;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Window TinyLFU eviction policy for on-heap Near Caches.
+ * <p>
+ * New keys enter a small LRU window of {@value #WINDOW_PERCENTAGE}% of the
+ * maximum size. A key falling out of the window is a candidate for the main
+ * space, a segmented LRU of a probation and a protected segment. When the main
+ * space is full, the candidate is only admitted if the {@link FrequencySketch}
+ * estimates it was accessed more often than the least recently used key of the
+ * probation segment, which is then evicted instead of the candidate. Keys which
+ * are accessed again while on probation move to the protected segment, which
+ * holds up to {@value #PROTECTED_PERCENTAGE}% of the main space; keys pushed
+ * out of it go back on probation.
+ * <p>
+ * The policy only tracks keys, the records stay in the record map of the Near
+ * Cache. The segments are kept in a {@link SegmentedKeyTable} backed by
+ * primitive arrays, so tracking a key costs a few tens of bytes. Readers never take the lock: hits and misses are offered to lossy,
+ * striped ring buffers with a single CAS, and the buffers are drained under
+ * the lock by writers, or by a reader which finds its stripe full and the
+ * lock free. An access offered to a full or contended stripe is dropped, like
+ * the accesses a sampling policy doesn't look at. Insertions and removals
+ * always take the lock.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ */
+final class WindowTinyLfuPolicy<K> {
+
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final int PROTECTED_PERCENTAGE = 80;
+    private static final int PERCENT = 100;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int SEGMENT_COUNT = 3;
+
+    private static final int STRIPES_PER_PROCESSOR = 4;
+    private static final int STRIPE_COUNT = QuickMath.nextPowerOfTwo(STRIPES_PER_PROCESSOR * RuntimeAvailableProcessors.get());
+    private static final int STRIPE_CAPACITY = 16;
+
+    private final Lock lock = new ReentrantLock();
+    private final ReadStripe[] readStripes = new ReadStripe[STRIPE_COUNT];
+    private final NearCacheStatsImpl nearCacheStats;
+    private final FrequencySketch sketch;
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+
+    private final SegmentedKeyTable<K> keys = new SegmentedKeyTable<K>(SEGMENT_COUNT);
+
+    /**
+     * @param maximumSize    the maximum number of entries of the Near Cache
+     * @param nearCacheStats the statistics counting the rejected candidates
+     */
+    WindowTinyLfuPolicy(int maximumSize, NearCacheStatsImpl nearCacheStats) {
+        this.nearCacheStats = nearCacheStats;
+        int size = Math.max(maximumSize, 1);
+        this.sketch = new FrequencySketch(size);
+        this.windowCapacity = Math.max(1, (int) ((long) size * WINDOW_PERCENTAGE / PERCENT));
+        this.mainCapacity = size - windowCapacity;
+        this.protectedCapacity = (int) ((long) mainCapacity * PROTECTED_PERCENTAGE / PERCENT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            readStripes[i] = new ReadStripe();
+        }
+    }
+
+    /**
+     * Records a hit on a key of the Near Cache.
+     */
+    void recordHit(K key) {
+        record(key);
+    }
+
+    /**
+     * Records a miss of a key, so that its frequency is known when it is added.
+     */
+    void recordMiss(K key) {
+        record(new Miss(key));
+    }
+
+    private void record(Object access) {
+        ReadStripe stripe = readStripes[(int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)];
+        if (stripe.offer(access) && lock.tryLock()) {
+            try {
+                drainReadStripes();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a key which was inserted into the Near Cache.
+     *
+     * @param key the inserted key
+     * @return the key which has to be evicted to stay within the maximum size,
+     * or {@code null} if there is none. This may be a candidate which was
+     * rejected by the admission filter.
+     */
+    K add(K key) {
+        lock.lock();
+        try {
+            drainReadStripes();
+            int node = keys.find(key);
+            if (node != SegmentedKeyTable.NONE) {
+                onHit(node);
+                return null;
+            }
+            keys.add(key, WINDOW);
+            if (keys.size(WINDOW) <= windowCapacity) {
+                return null;
+            }
+            K candidate = keys.removeEldest(WINDOW);
+            if (keys.size(PROBATION) + keys.size(PROTECTED) < mainCapacity) {
+                keys.add(candidate, PROBATION);
+                return null;
+            }
+            return admit(candidate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a key which was removed from the Near Cache.
+     */
+    void remove(K key) {
+        lock.lock();
+        try {
+            drainReadStripes();
+            keys.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the key which would be evicted next, or
+     * {@code null} if no key is tracked.
+     */
+    K evict() {
+        lock.lock();
+        try {
+            drainReadStripes();
+            K victim = keys.removeEldest(PROBATION);
+            if (victim == null) {
+                victim = keys.removeEldest(PROTECTED);
+            }
+            return victim == null ? keys.removeEldest(WINDOW) : victim;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all keys.
+     */
+    void clear() {
+        lock.lock();
+        try {
+            keys.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tracked keys.
+     */
+    int size() {
+        lock.lock();
+        try {
+            return keys.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the recorded accesses; must be called under the lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void drainReadStripes() {
+        for (ReadStripe stripe : readStripes) {
+            long readCount = stripe.readCount;
+            long writeCount = stripe.writeCount.get();
+            for (; readCount < writeCount; readCount++) {
+                int index = (int) (readCount & (STRIPE_CAPACITY - 1));
+                Object access = stripe.accesses.get(index);
+                if (access == null) {
+                    // the writer claimed the slot but didn't publish its access yet
+                    break;
+                }
+                stripe.accesses.lazySet(index, null);
+                if (access instanceof Miss) {
+                    sketch.increment(((Miss) access).key.hashCode());
+                } else {
+                    K key = (K) access;
+                    sketch.increment(key.hashCode());
+                    int node = keys.find(key);
+                    if (node != SegmentedKeyTable.NONE) {
+                        onHit(node);
+                    }
+                }
+            }
+            stripe.readCount = readCount;
+        }
+    }
+
+    private void onHit(int node) {
+        if (keys.segmentAt(node) == WINDOW) {
+            keys.moveToTail(node, WINDOW);
+            return;
+        }
+        // a key accessed on probation or in the protected segment becomes the most recently used protected key
+        keys.moveToTail(node, PROTECTED);
+        while (keys.size(PROTECTED) > protectedCapacity) {
+            keys.moveToTail(keys.head(PROTECTED), PROBATION);
+        }
+    }
+
+    private K admit(K candidate) {
+        int victim = keys.head(PROBATION);
+        if (victim == SegmentedKeyTable.NONE) {
+            victim = keys.head(PROTECTED);
+        }
+        if (victim == SegmentedKeyTable.NONE) {
+            nearCacheStats.incrementAdmissionRejections();
+            return candidate;
+        }
+        if (sketch.frequency(candidate.hashCode()) > sketch.frequency(keys.hashAt(victim))) {
+            K victimKey = keys.removeNode(victim);
+            keys.add(candidate, PROBATION);
+            return victimKey;
+        }
+        nearCacheStats.incrementAdmissionRejections();
+        return candidate;
+    }
+
+    /**
+     * A bounded, lossy ring buffer of accesses, written by readers with a CAS
+     * and drained under the lock of the policy.
+     */
+    private static final class ReadStripe {
+
+        private final AtomicReferenceArray<Object> accesses = new AtomicReferenceArray<Object>(STRIPE_CAPACITY);
+        private final AtomicLong writeCount = new AtomicLong();
+        // only written under the lock of the policy
+        private volatile long readCount;
+
+        /**
+         * Offers an access, dropping it if the stripe is full or another
+         * reader won the race for the slot.
+         *
+         * @return {@code true} if the stripe is full and should be drained
+         */
+        boolean offer(Object access) {
+            long read = readCount;
+            long write = writeCount.get();
+            if (write - read >= STRIPE_CAPACITY) {
+                return true;
+            }
+            if (!writeCount.compareAndSet(write, write + 1)) {
+                return false;
+            }
+            accesses.lazySet((int) (write & (STRIPE_CAPACITY - 1)), access);
+            return write + 1 - read >= STRIPE_CAPACITY;
+        }
+    }
+
+    /**
+     * A recorded miss, which only counts towards the frequency of the key.
+     */
+    private static final class Miss {
+
+        private final Object key;
+
+        Miss(Object key) {
+            this.key = key;
+        }
+    }
+}
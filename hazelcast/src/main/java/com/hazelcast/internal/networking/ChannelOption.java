@@ -66,6 +66,15 @@ public final class ChannelOption<T> {
      */
     public static final ChannelOption<Boolean> DIRECT_BUF = new ChannelOption<Boolean>("DIRECT_BUF");
 
+    /**
+     * The maximum number of socket writes the outbound pipeline makes in a
+     * single round of processing, as long as the socket accepts all the
+     * written bytes and more frames are pending. Higher values save selector
+     * round trips when many small frames are written; lower values are fairer
+     * to the other channels handled by the same IO thread.
+     */
+    public static final ChannelOption<Integer> WRITE_SPIN_COUNT = new ChannelOption<Integer>("WRITE_SPIN_COUNT");
+
     private final String name;
 
     /**
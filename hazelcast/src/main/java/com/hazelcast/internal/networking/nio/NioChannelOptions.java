@@ -34,6 +34,7 @@ import static com.hazelcast.internal.networking.ChannelOption.SO_REUSEADDR;
 import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
 import static com.hazelcast.internal.networking.ChannelOption.SO_TIMEOUT;
 import static com.hazelcast.internal.networking.ChannelOption.TCP_NODELAY;
+import static com.hazelcast.internal.networking.ChannelOption.WRITE_SPIN_COUNT;
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
 /**
@@ -41,11 +42,14 @@ import static com.hazelcast.util.Preconditions.checkNotNull;
  */
 final class NioChannelOptions implements ChannelOptions {
 
+    static final int DEFAULT_WRITE_SPIN_COUNT = 4;
+
     private final Map<String, Object> values = new ConcurrentHashMap<String, Object>();
     private final Socket socket;
 
     NioChannelOptions(Socket socket) {
         setOption(DIRECT_BUF, false);
+        setOption(WRITE_SPIN_COUNT, DEFAULT_WRITE_SPIN_COUNT);
         this.socket = socket;
     }
 
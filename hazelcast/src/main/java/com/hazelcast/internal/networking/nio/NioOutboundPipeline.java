@@ -36,6 +36,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.DEBUG;
+import static com.hazelcast.internal.networking.ChannelOption.WRITE_SPIN_COUNT;
 import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
 import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
@@ -68,6 +69,10 @@ public final class NioOutboundPipeline
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "socketWrites")
+    private final SwCounter socketWrites = newSwCounter();
+
+    private int writeSpinCount = 1;
 
     private volatile long lastWriteTime;
 
@@ -124,6 +129,18 @@ public final class NioOutboundPipeline
         return bytesPending;
     }
 
+    @Probe(level = DEBUG)
+    private double framesPerSocketWrite() {
+        long writes = socketWrites.get();
+        return writes == 0 ? 0 : (double) (normalFramesWritten.get() + priorityFramesWritten.get()) / writes;
+    }
+
+    @Probe(level = DEBUG)
+    private double bytesPerSocketWrite() {
+        long writes = socketWrites.get();
+        return writes == 0 ? 0 : (double) bytesWritten.get() / writes;
+    }
+
     @Probe
     private long idleTimeMs() {
         return max(currentTimeMillis() - lastWriteTime, 0);
@@ -183,31 +200,27 @@ public final class NioOutboundPipeline
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void process() throws Exception {
         processCount.inc();
 
-        OutboundHandler[] localHandlers = handlers;
-        HandlerStatus pipelineStatus = CLEAN;
-        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
-            OutboundHandler handler = localHandlers[handlerIndex];
+        HandlerStatus pipelineStatus;
+        int writes = 0;
+        for (; ; ) {
+            pipelineStatus = processHandlers();
+            flushToSocket();
+            writes++;
 
-            HandlerStatus handlerStatus = handler.onWrite();
-
-            if (localHandlers != handlers) {
-                // change in the pipeline detected, therefor the pipeline is restarted.
-                localHandlers = handlers;
-                pipelineStatus = CLEAN;
-                handlerIndex = -1;
-            } else if (handlerStatus != CLEAN) {
-                pipelineStatus = handlerStatus;
+            if (sendBuffer.remaining() > 0) {
+                // the socket didn't accept everything, so we need to wait for the next OP_WRITE
+                pipelineStatus = DIRTY;
+                break;
             }
-        }
 
-        flushToSocket();
-
-        if (sendBuffer.remaining() > 0) {
-            pipelineStatus = DIRTY;
+            if (pipelineStatus != DIRTY || writes >= writeSpinCount) {
+                break;
+            }
+            // the send buffer got fully written and more frames are pending, so lets
+            // write them right away instead of waiting for the next OP_WRITE
         }
 
         switch (pipelineStatus) {
@@ -229,6 +242,27 @@ public final class NioOutboundPipeline
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private HandlerStatus processHandlers() throws Exception {
+        OutboundHandler[] localHandlers = handlers;
+        HandlerStatus pipelineStatus = CLEAN;
+        for (int handlerIndex = 0; handlerIndex < localHandlers.length; handlerIndex++) {
+            OutboundHandler handler = localHandlers[handlerIndex];
+
+            HandlerStatus handlerStatus = handler.onWrite();
+
+            if (localHandlers != handlers) {
+                // change in the pipeline detected, therefor the pipeline is restarted.
+                localHandlers = handlers;
+                pipelineStatus = CLEAN;
+                handlerIndex = -1;
+            } else if (handlerStatus != CLEAN) {
+                pipelineStatus = handlerStatus;
+            }
+        }
+        return pipelineStatus;
+    }
+
     /**
      * Tries to unschedule this pipeline.
      * <p/>
@@ -272,6 +306,7 @@ public final class NioOutboundPipeline
         lastWriteTime = currentTimeMillis();
         int written = socketChannel.write(sendBuffer);
         bytesWritten.inc(written);
+        socketWrites.inc();
         //System.out.println(channel+" bytes written:"+written);
     }
 
@@ -345,6 +380,8 @@ public final class NioOutboundPipeline
     private void updatePipeline(OutboundHandler[] newHandlers) {
         this.handlers = newHandlers;
         this.sendBuffer = newHandlers.length == 0 ? null : (ByteBuffer) newHandlers[newHandlers.length - 1].dst();
+        Integer spinCount = channel.options().getOption(WRITE_SPIN_COUNT);
+        this.writeSpinCount = spinCount == null ? 1 : max(spinCount, 1);
 
         OutboundHandler prev = null;
         for (OutboundHandler handler : handlers) {
@@ -43,7 +43,7 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable,
     private int version;
     private Collection<MigrationInfo> completedMigrations;
     // used to know ongoing migrations when master changed
-    private MigrationInfo activeMigration;
+    private Collection<MigrationInfo> activeMigrations;
 
     /** The sender of the operation which changes the partition table, should be the master node */
     private Address master;
@@ -133,12 +133,12 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable,
         return completedMigrations != null ? completedMigrations : Collections.<MigrationInfo>emptyList();
     }
 
-    public MigrationInfo getActiveMigration() {
-        return activeMigration;
+    public Collection<MigrationInfo> getActiveMigrations() {
+        return activeMigrations != null ? activeMigrations : Collections.<MigrationInfo>emptyList();
     }
 
-    public void setActiveMigration(MigrationInfo activeMigration) {
-        this.activeMigration = activeMigration;
+    public void setActiveMigrations(Collection<MigrationInfo> activeMigrations) {
+        this.activeMigrations = activeMigrations;
     }
 
     @Override
@@ -172,20 +172,29 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable,
             }
         }
 
-        if (in.readBoolean()) {
-            activeMigration = new MigrationInfo();
+        if (version.isGreaterOrEqual(Versions.V3_12)) {
+            activeMigrations = readMigrations(in);
+        } else if (in.readBoolean()) {
+            MigrationInfo activeMigration = new MigrationInfo();
             activeMigration.readData(in);
+            activeMigrations = Collections.singletonList(activeMigration);
         }
 
+        completedMigrations = readMigrations(in);
+    }
+
+    private static Collection<MigrationInfo> readMigrations(ObjectDataInput in) throws IOException {
         int k = in.readInt();
-        if (k > 0) {
-            completedMigrations = new ArrayList<MigrationInfo>(k);
-            for (int i = 0; i < k; i++) {
-                MigrationInfo migrationInfo = new MigrationInfo();
-                migrationInfo.readData(in);
-                completedMigrations.add(migrationInfo);
-            }
+        if (k == 0) {
+            return null;
+        }
+        Collection<MigrationInfo> migrations = new ArrayList<MigrationInfo>(k);
+        for (int i = 0; i < k; i++) {
+            MigrationInfo migrationInfo = new MigrationInfo();
+            migrationInfo.readData(in);
+            migrations.add(migrationInfo);
         }
+        return migrations;
     }
 
     @SuppressWarnings("checkstyle:npathcomplexity")
@@ -211,21 +220,24 @@ public final class PartitionRuntimeState implements IdentifiedDataSerializable,
             }
         }
 
-        if (activeMigration != null) {
+        Collection<MigrationInfo> activeMigrations = getActiveMigrations();
+        if (version.isGreaterOrEqual(Versions.V3_12)) {
+            writeMigrations(out, activeMigrations);
+        } else if (!activeMigrations.isEmpty()) {
+            // members older than 3.12 run a single migration at a time
             out.writeBoolean(true);
-            activeMigration.writeData(out);
+            activeMigrations.iterator().next().writeData(out);
         } else {
             out.writeBoolean(false);
         }
 
-        if (completedMigrations != null) {
-            int k = completedMigrations.size();
-            out.writeInt(k);
-            for (MigrationInfo migrationInfo : completedMigrations) {
-                migrationInfo.writeData(out);
-            }
-        } else {
-            out.writeInt(0);
+        writeMigrations(out, getCompletedMigrations());
+    }
+
+    private static void writeMigrations(ObjectDataOutput out, Collection<MigrationInfo> migrations) throws IOException {
+        out.writeInt(migrations.size());
+        for (MigrationInfo migrationInfo : migrations) {
+            migrationInfo.writeData(out);
         }
     }
 
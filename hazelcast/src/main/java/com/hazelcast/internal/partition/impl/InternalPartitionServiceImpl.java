@@ -470,7 +470,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService,
             InternalPartition[] partitions = partitionStateManager.getPartitions();
 
             PartitionRuntimeState state = new PartitionRuntimeState(partitions, completedMigrations, getPartitionStateVersion());
-            state.setActiveMigration(migrationManager.getActiveMigration());
+            state.setActiveMigrations(migrationManager.getActiveMigrations());
             return state;
         } finally {
             lock.unlock();
@@ -1305,9 +1305,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService,
                     }
                     allCompletedMigrations.addAll(state.getCompletedMigrations());
 
-                    if (state.getActiveMigration() != null) {
-                        allActiveMigrations.add(state.getActiveMigration());
-                    }
+                    allActiveMigrations.addAll(state.getActiveMigrations());
                 }
             }
         }
@@ -1398,9 +1396,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService,
         private void processMigrations(Collection<MigrationInfo> allCompletedMigrations,
                                        Collection<MigrationInfo> allActiveMigrations) {
             allCompletedMigrations.addAll(migrationManager.getCompletedMigrationsCopy());
-            if (migrationManager.getActiveMigration() != null) {
-                allActiveMigrations.add(migrationManager.getActiveMigration());
-            }
+            allActiveMigrations.addAll(migrationManager.getActiveMigrations());
 
             for (MigrationInfo activeMigration : allActiveMigrations) {
                 activeMigration.setStatus(MigrationStatus.FAILED);
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Paces the migration data sent by this member to a configured number of bytes per second.
+ * <p>
+ * Each sender waits for the delay returned by {@link #getDelayMillis()} before sending its data and then charges
+ * the limiter with the number of bytes it actually sent. The bytes are counted while the data is serialized for
+ * sending, so nothing is serialized only to be measured. Charges are accounted back to back, so the average rate
+ * of all senders of the member stays within the budget while a single large transfer is never split; the delay
+ * caused by a transfer is paid by the transfer following it.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#PARTITION_MIGRATION_MAX_BANDWIDTH
+ */
+public final class MigrationBandwidthLimiter {
+
+    private final long bytesPerSecond;
+
+    // guarded by this
+    private long nextFreeNanos;
+
+    /**
+     * @param bytesPerSecond migration budget of this member, non-positive value means unlimited
+     */
+    public MigrationBandwidthLimiter(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    public boolean isEnabled() {
+        return bytesPerSecond > 0;
+    }
+
+    /**
+     * Returns the delay to wait before more data can be sent within the budget.
+     *
+     * @return delay in milliseconds, zero if data can be sent immediately
+     */
+    public long getDelayMillis() {
+        return getDelayMillis(System.nanoTime());
+    }
+
+    /**
+     * Charges the budget with the given number of bytes which have just been sent.
+     *
+     * @param bytes number of bytes sent
+     */
+    public void onSent(long bytes) {
+        onSent(bytes, System.nanoTime());
+    }
+
+    synchronized long getDelayMillis(long nowNanos) {
+        if (!isEnabled()) {
+            return 0;
+        }
+        return NANOSECONDS.toMillis(Math.max(0, nextFreeNanos - nowNanos));
+    }
+
+    synchronized void onSent(long bytes, long nowNanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        long startNanos = Math.max(nowNanos, nextFreeNanos);
+        nextFreeNanos = startNanos + (long) ((double) bytes * SECONDS.toNanos(1) / bytesPerSecond);
+    }
+}
@@ -23,6 +23,7 @@ import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.core.MigrationEvent;
 import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.instance.Node;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
@@ -53,6 +54,7 @@ import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.MutableInteger;
 import com.hazelcast.util.Preconditions;
+import com.hazelcast.util.executor.ExecutorType;
 import com.hazelcast.util.scheduler.CoalescingDelayedTrigger;
 
 import java.util.ArrayList;
@@ -67,8 +69,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -76,6 +81,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 
 import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_SELECTOR;
+import static com.hazelcast.memory.MemoryUnit.KILOBYTES;
 import static com.hazelcast.spi.partition.IPartitionService.SERVICE_NAME;
 
 /**
@@ -88,6 +94,7 @@ public class MigrationManager {
     private static final int PARTITION_STATE_VERSION_INCREMENT_DELTA_ON_MIGRATION_FAILURE = 2;
     private static final int MIGRATION_PAUSE_DURATION_SECONDS_ON_MIGRATION_FAILURE = 3;
     private static final String INVALID_UUID = "<invalid-uuid>";
+    private static final String MIGRATION_EXECUTOR = "hz:migration";
 
     final long partitionMigrationInterval;
     private final Node node;
@@ -103,8 +110,9 @@ public class MigrationManager {
     private final long partitionMigrationTimeout;
     private final CoalescingDelayedTrigger delayedResumeMigrationTrigger;
     private final Set<Member> shutdownRequestedMembers = new HashSet<Member>();
+    // migrations this member takes part in, by partition ID.
     // updates will be done under lock, but reads will be multithreaded.
-    private volatile MigrationInfo activeMigrationInfo;
+    private final ConcurrentMap<Integer, MigrationInfo> activeMigrations = new ConcurrentHashMap<Integer, MigrationInfo>();
     // both reads and updates will be done under lock!
     private final LinkedHashSet<MigrationInfo> completedMigrations = new LinkedHashSet<MigrationInfo>();
     private final AtomicBoolean promotionPermit = new AtomicBoolean(false);
@@ -115,6 +123,21 @@ public class MigrationManager {
     private final Lock partitionServiceLock;
     private final MigrationPlanner migrationPlanner;
     private final boolean fragmentedMigrationEnabled;
+    // zero when chunked migration is disabled
+    private final long maxMigrationChunkSize;
+    private final MigrationBandwidthLimiter bandwidthLimiter;
+    private final int maxParallelMigrations;
+    private final int maxParallelMigrationsPerMember;
+    // migrations started by this member as the master and not completed yet, guarded by the mutex.
+    // migrations are counted against the partition owner sending the partition data and the destination.
+    private final Object inFlightMigrationsMutex = new Object();
+    private final Set<Integer> inFlightMigrationPartitions = new HashSet<Integer>();
+    private final Map<Address, MutableInteger> inFlightMigrationsBySource = new HashMap<Address, MutableInteger>();
+    private final Map<Address, MutableInteger> inFlightMigrationsByDestination = new HashMap<Address, MutableInteger>();
+    // serializes the commits and the partition state version updates of the parallel migrations
+    private final Object migrationCommitMutex = new Object();
+    private int releasedMigrationSlotCount;
+    private volatile MigrationPlanTask migrationPlanTask;
     private final long memberHeartbeatTimeoutMillis;
     private boolean triggerRepartitioningWhenClusterStateAllowsMigration;
 
@@ -129,12 +152,22 @@ public class MigrationManager {
         partitionMigrationInterval = properties.getPositiveMillisOrDefault(GroupProperty.PARTITION_MIGRATION_INTERVAL, 0);
         partitionMigrationTimeout = properties.getMillis(GroupProperty.PARTITION_MIGRATION_TIMEOUT);
         fragmentedMigrationEnabled = properties.getBoolean(GroupProperty.PARTITION_FRAGMENTED_MIGRATION_ENABLED);
+        maxMigrationChunkSize = fragmentedMigrationEnabled
+                && properties.getBoolean(GroupProperty.PARTITION_CHUNKED_MIGRATION_ENABLED)
+                ? KILOBYTES.toBytes(properties.getInteger(GroupProperty.PARTITION_CHUNKED_MAX_MIGRATION_SIZE)) : 0;
+        bandwidthLimiter = new MigrationBandwidthLimiter(
+                KILOBYTES.toBytes(properties.getLong(GroupProperty.PARTITION_MIGRATION_MAX_BANDWIDTH)));
+        maxParallelMigrations = properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS);
+        maxParallelMigrationsPerMember = properties.getInteger(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS_PER_MEMBER);
+        Preconditions.checkPositive(maxParallelMigrations, "maxParallelMigrations must be positive");
+        Preconditions.checkPositive(maxParallelMigrationsPerMember, "maxParallelMigrationsPerMember must be positive");
         partitionStateManager = partitionService.getPartitionStateManager();
         ILogger migrationThreadLogger = node.getLogger(MigrationThread.class);
         String hzName = nodeEngine.getHazelcastInstance().getName();
         migrationThread = new MigrationThread(this, hzName, migrationThreadLogger, migrationQueue);
         long migrationPauseDelayMs = TimeUnit.SECONDS.toMillis(MIGRATION_PAUSE_DURATION_SECONDS_ON_MIGRATION_FAILURE);
         ExecutionService executionService = nodeEngine.getExecutionService();
+        executionService.register(MIGRATION_EXECUTOR, maxParallelMigrations, Integer.MAX_VALUE, ExecutorType.CACHED);
         delayedResumeMigrationTrigger = new CoalescingDelayedTrigger(
                 executionService, migrationPauseDelayMs, 2 * migrationPauseDelayMs, new Runnable() {
             @Override
@@ -236,14 +269,16 @@ public class MigrationManager {
     }
 
     /**
-     * Sets the active migration if none is set and returns {@code null}, otherwise returns the currently set active migration.
+     * Sets the active migration of the partition if none is set and returns {@code null}, otherwise returns the currently
+     * set active migration of the partition.
      * Acquires the partition service lock.
      */
     public MigrationInfo setActiveMigration(MigrationInfo migrationInfo) {
         partitionServiceLock.lock();
         try {
+            MigrationInfo activeMigrationInfo = activeMigrations.get(migrationInfo.getPartitionId());
             if (activeMigrationInfo == null) {
-                activeMigrationInfo = migrationInfo;
+                activeMigrations.put(migrationInfo.getPartitionId(), migrationInfo);
                 return null;
             }
             if (!activeMigrationInfo.equals(migrationInfo)) {
@@ -258,8 +293,14 @@ public class MigrationManager {
         }
     }
 
-    MigrationInfo getActiveMigration() {
-        return activeMigrationInfo;
+    /** Returns the limiter pacing the migration data sent by this member. */
+    public MigrationBandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
+    /** Returns a copy of the migrations this member takes part in. */
+    Collection<MigrationInfo> getActiveMigrations() {
+        return new ArrayList<MigrationInfo>(activeMigrations.values());
     }
 
     /**
@@ -288,37 +329,27 @@ public class MigrationManager {
     }
 
     /**
-     * Removes the current {@link #activeMigrationInfo} if the {@code partitionId} is the same and returns {@code true} if
-     * removed.
+     * Removes the active migration of the partition and returns {@code true} if removed.
      * Acquires the partition service lock.
      */
     private boolean removeActiveMigration(int partitionId) {
         partitionServiceLock.lock();
         try {
-            if (activeMigrationInfo != null) {
-                if (activeMigrationInfo.getPartitionId() == partitionId) {
-                    activeMigrationInfo = null;
-                    return true;
-                }
-                if (logger.isFineEnabled()) {
-                    logger.fine("Active migration is not removed, because it has different partitionId! "
-                            + "partitionId=" + partitionId + ", active migration=" + activeMigrationInfo);
-                }
-            }
+            return activeMigrations.remove(partitionId) != null;
         } finally {
             partitionServiceLock.unlock();
         }
-        return false;
     }
 
     /**
-     * Finalizes the active migration if it is equal to the {@code migrationInfo} or if this node was a backup replica before
-     * the migration (see {@link FinalizeMigrationOperation}).
+     * Finalizes the active migration of the partition if it is equal to the {@code migrationInfo} or if this node was
+     * a backup replica before the migration (see {@link FinalizeMigrationOperation}).
      * Acquires the partition service lock.
      */
     void scheduleActiveMigrationFinalization(final MigrationInfo migrationInfo) {
         partitionServiceLock.lock();
         try {
+            MigrationInfo activeMigrationInfo = activeMigrations.get(migrationInfo.getPartitionId());
             if (migrationInfo.equals(activeMigrationInfo)) {
                 if (activeMigrationInfo.startProcessing()) {
                     activeMigrationInfo.setStatus(migrationInfo.getStatus());
@@ -477,6 +508,7 @@ public class MigrationManager {
     /** Clears the migration queue and triggers the control task. Called on the master node. */
     void triggerControlTask() {
         migrationQueue.clear();
+        stopMigrationPlanTask();
         if (!node.getClusterService().isJoined()) {
             logger.fine("Node is not joined, will not trigger ControlTask");
             return;
@@ -522,9 +554,8 @@ public class MigrationManager {
 
     void onMemberRemove(Member member) {
         shutdownRequestedMembers.remove(member);
-        MigrationInfo activeMigration = activeMigrationInfo;
-        if (activeMigration != null) {
-            PartitionReplica replica = PartitionReplica.from(member);
+        PartitionReplica replica = PartitionReplica.from(member);
+        for (MigrationInfo activeMigration : activeMigrations.values()) {
             if (replica.equals(activeMigration.getSource())
                     || replica.equals(activeMigration.getDestination())) {
                 activeMigration.setStatus(MigrationStatus.INVALID);
@@ -547,16 +578,19 @@ public class MigrationManager {
     }
 
     boolean hasOnGoingMigration() {
-        return activeMigrationInfo != null || migrationQueue.hasMigrationTasks();
+        return !activeMigrations.isEmpty() || migrationQueue.hasMigrationTasks();
     }
 
     int getMigrationQueueSize() {
-        return migrationQueue.migrationTaskCount();
+        MigrationPlanTask planTask = migrationPlanTask;
+        int plannedMigrationCount = planTask != null ? planTask.getPlannedMigrationCount() : 0;
+        return migrationQueue.migrationTaskCount() + plannedMigrationCount;
     }
 
     void reset() {
         migrationQueue.clear();
-        activeMigrationInfo = null;
+        stopMigrationPlanTask();
+        activeMigrations.clear();
         completedMigrations.clear();
     }
 
@@ -573,6 +607,139 @@ public class MigrationManager {
         migrationQueue.add(new MigrateTask(migrationInfo));
     }
 
+    /**
+     * Returns the maximum number of migrations the master runs in parallel. Members older than 3.12 expect a single
+     * active migration and the same partition state version as the master, so migrations are executed one at a time
+     * until the cluster is upgraded.
+     */
+    int getMaxParallelMigrations() {
+        return nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_12) ? maxParallelMigrations : 1;
+    }
+
+    /**
+     * Starts the migration on the migration executor and returns {@code true} if no other migration of its partition is
+     * running, neither the partition owner sending the partition data nor the destination takes part in
+     * {@link GroupProperty#PARTITION_MAX_PARALLEL_MIGRATIONS_PER_MEMBER} migrations and less than
+     * {@link #getMaxParallelMigrations()} migrations are running. Otherwise returns {@code false}.
+     * Invoked on the master node.
+     */
+    boolean tryStartMigration(final MigrationInfo migration) {
+        PartitionReplica owner = partitionStateManager.getPartitionImpl(migration.getPartitionId()).getOwnerReplicaOrNull();
+        final Address source = owner != null ? owner.address() : null;
+        if (!tryReserveMigrationSlot(migration, source)) {
+            return false;
+        }
+        final MigrateTask migrateTask = new MigrateTask(migration);
+        try {
+            nodeEngine.getExecutionService().execute(MIGRATION_EXECUTOR, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        migrateTask.run();
+                    } finally {
+                        releaseMigrationSlot(migration, source);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.fine("Could not start " + migration, e);
+            releaseMigrationSlot(migration, source);
+        }
+        return true;
+    }
+
+    private boolean tryReserveMigrationSlot(MigrationInfo migration, Address source) {
+        Address destination = migration.getDestination().address();
+        synchronized (inFlightMigrationsMutex) {
+            if (inFlightMigrationPartitions.size() >= getMaxParallelMigrations()
+                    || inFlightMigrationPartitions.contains(migration.getPartitionId())
+                    || !isBelowParallelMigrationLimit(inFlightMigrationsBySource, source)
+                    || !isBelowParallelMigrationLimit(inFlightMigrationsByDestination, destination)) {
+                return false;
+            }
+            inFlightMigrationPartitions.add(migration.getPartitionId());
+            addInFlightMigration(inFlightMigrationsBySource, source, 1);
+            addInFlightMigration(inFlightMigrationsByDestination, destination, 1);
+            return true;
+        }
+    }
+
+    private void releaseMigrationSlot(MigrationInfo migration, Address source) {
+        synchronized (inFlightMigrationsMutex) {
+            inFlightMigrationPartitions.remove(migration.getPartitionId());
+            addInFlightMigration(inFlightMigrationsBySource, source, -1);
+            addInFlightMigration(inFlightMigrationsByDestination, migration.getDestination().address(), -1);
+            releasedMigrationSlotCount++;
+            inFlightMigrationsMutex.notifyAll();
+        }
+    }
+
+    private boolean isBelowParallelMigrationLimit(Map<Address, MutableInteger> inFlightMigrations, Address address) {
+        MutableInteger count = address != null ? inFlightMigrations.get(address) : null;
+        return count == null || count.value < maxParallelMigrationsPerMember;
+    }
+
+    private static void addInFlightMigration(Map<Address, MutableInteger> inFlightMigrations, Address address, int delta) {
+        if (address == null) {
+            return;
+        }
+        MutableInteger count = inFlightMigrations.get(address);
+        if (count == null) {
+            count = new MutableInteger();
+            inFlightMigrations.put(address, count);
+        }
+        count.value += delta;
+        if (count.value == 0) {
+            inFlightMigrations.remove(address);
+        }
+    }
+
+    /** Returns the number of in-flight slots released so far, see {@link #awaitMigrationSlotRelease(int, long)}. */
+    int getReleasedMigrationSlotCount() {
+        synchronized (inFlightMigrationsMutex) {
+            return releasedMigrationSlotCount;
+        }
+    }
+
+    /**
+     * Waits until an in-flight slot is released after {@code releasedCount} slots have been released or the timeout
+     * elapses.
+     */
+    void awaitMigrationSlotRelease(int releasedCount, long timeoutMillis) throws InterruptedException {
+        long deadline = Clock.currentTimeMillis() + timeoutMillis;
+        synchronized (inFlightMigrationsMutex) {
+            long remainingMillis = timeoutMillis;
+            while (releasedMigrationSlotCount == releasedCount && remainingMillis > 0) {
+                inFlightMigrationsMutex.wait(remainingMillis);
+                remainingMillis = deadline - Clock.currentTimeMillis();
+            }
+        }
+    }
+
+    /** Waits until all migrations started by {@link #tryStartMigration(MigrationInfo)} have completed. */
+    void awaitInFlightMigrations() throws InterruptedException {
+        synchronized (inFlightMigrationsMutex) {
+            while (!inFlightMigrationPartitions.isEmpty()) {
+                inFlightMigrationsMutex.wait();
+            }
+        }
+    }
+
+    void onMigrationPlanTaskCompleted(MigrationPlanTask planTask) {
+        if (migrationPlanTask == planTask) {
+            migrationPlanTask = null;
+        }
+    }
+
+    /** Stops the running {@link MigrationPlanTask} from starting new migrations. */
+    private void stopMigrationPlanTask() {
+        MigrationPlanTask planTask = migrationPlanTask;
+        if (planTask != null) {
+            planTask.stop();
+            migrationPlanTask = null;
+        }
+    }
+
     /** Mutates the partition state and applies the migration. */
     void applyMigration(InternalPartitionImpl partition, MigrationInfo migrationInfo) {
         final PartitionReplica[] members = Arrays.copyOf(partition.getReplicas(), InternalPartition.MAX_REPLICA_COUNT);
@@ -737,19 +904,14 @@ public class MigrationManager {
             logMigrationStatistics(migrationCount.value, lostCount.value);
         }
 
-        /** Schedules all migrations. */
+        /** Schedules a task running all migrations in parallel, the ones restoring backup redundancy first. */
         private void scheduleMigrations(List<Queue<MigrationInfo>> migrations) {
-            boolean migrationScheduled;
-            do {
-                migrationScheduled = false;
-                for (Queue<MigrationInfo> queue : migrations) {
-                    MigrationInfo migration = queue.poll();
-                    if (migration != null) {
-                        migrationScheduled = true;
-                        scheduleMigration(migration);
-                    }
-                }
-            } while (migrationScheduled);
+            List<MigrationInfo> schedule = migrationPlanner.scheduleMigrations(migrations);
+            if (!schedule.isEmpty()) {
+                MigrationPlanTask planTask = new MigrationPlanTask(MigrationManager.this, node, schedule);
+                migrationPlanTask = planTask;
+                migrationQueue.add(planTask);
+            }
         }
 
         private void logMigrationStatistics(int migrationCount, int lostCount) {
@@ -1015,7 +1177,11 @@ public class MigrationManager {
          */
         private Boolean executeMigrateOperation(Member fromMember) {
             int partitionStateVersion = partitionService.getPartitionStateVersion();
-            Operation op = new MigrationRequestOperation(migrationInfo, partitionStateVersion, fragmentedMigrationEnabled);
+            // members older than 3.12 do not know the chunk operations
+            long maxChunkSize = nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_12)
+                    ? maxMigrationChunkSize : 0;
+            Operation op = new MigrationRequestOperation(migrationInfo, partitionStateVersion, fragmentedMigrationEnabled,
+                    maxChunkSize);
             Future future = nodeEngine.getOperationService().createInvocationBuilder(SERVICE_NAME, op,
                     fromMember.getAddress())
                     .setCallTimeout(partitionMigrationTimeout)
@@ -1055,17 +1221,19 @@ public class MigrationManager {
         private void migrationOperationFailed() {
             migrationInfo.setStatus(MigrationStatus.FAILED);
             internalMigrationListener.onMigrationComplete(MigrationParticipant.MASTER, migrationInfo, false);
-            partitionServiceLock.lock();
-            try {
-                addCompletedMigration(migrationInfo);
-                internalMigrationListener.onMigrationRollback(MigrationParticipant.MASTER, migrationInfo);
-                scheduleActiveMigrationFinalization(migrationInfo);
-                int delta = PARTITION_STATE_VERSION_INCREMENT_DELTA_ON_MIGRATION_FAILURE;
-                partitionService.getPartitionStateManager().incrementVersion(delta);
-                node.getNodeExtension().onPartitionStateChange();
-                triggerRepartitioningAfterMigrationFailure();
-            } finally {
-                partitionServiceLock.unlock();
+            synchronized (migrationCommitMutex) {
+                partitionServiceLock.lock();
+                try {
+                    addCompletedMigration(migrationInfo);
+                    internalMigrationListener.onMigrationRollback(MigrationParticipant.MASTER, migrationInfo);
+                    scheduleActiveMigrationFinalization(migrationInfo);
+                    int delta = PARTITION_STATE_VERSION_INCREMENT_DELTA_ON_MIGRATION_FAILURE;
+                    partitionService.getPartitionStateManager().incrementVersion(delta);
+                    node.getNodeExtension().onPartitionStateChange();
+                    triggerRepartitioningAfterMigrationFailure();
+                } finally {
+                    partitionServiceLock.unlock();
+                }
             }
             if (partitionService.syncPartitionRuntimeState()) {
                 evictCompletedMigrations(migrationInfo);
@@ -1105,10 +1273,22 @@ public class MigrationManager {
          * </ul>
          * <p>
          * Triggers the {@link ControlTask} if the migration failed. Acquires the partition state lock to process the result
-         * of the migration commit.
+         * of the migration commit. The commits of parallel migrations are serialized, each of them increments the partition
+         * state version committed by the previous one.
          */
         private void migrationOperationSucceeded() {
             internalMigrationListener.onMigrationComplete(MigrationParticipant.MASTER, migrationInfo, true);
+            synchronized (migrationCommitMutex) {
+                commitMigration();
+            }
+            if (partitionService.syncPartitionRuntimeState()) {
+                evictCompletedMigrations(migrationInfo);
+            }
+            PartitionEventManager partitionEventManager = partitionService.getPartitionEventManager();
+            partitionEventManager.sendMigrationEvent(migrationInfo,  MigrationEvent.MigrationStatus.COMPLETED);
+        }
+
+        private void commitMigration() {
             boolean commitSuccessful = commitMigrationToDestination(migrationInfo);
             partitionServiceLock.lock();
             try {
@@ -1131,11 +1311,6 @@ public class MigrationManager {
             } finally {
                 partitionServiceLock.unlock();
             }
-            if (partitionService.syncPartitionRuntimeState()) {
-                evictCompletedMigrations(migrationInfo);
-            }
-            PartitionEventManager partitionEventManager = partitionService.getPartitionEventManager();
-            partitionEventManager.sendMigrationEvent(migrationInfo,  MigrationEvent.MigrationStatus.COMPLETED);
         }
 
         @Override
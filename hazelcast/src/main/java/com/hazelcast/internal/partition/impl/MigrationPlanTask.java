@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.partition.MigrationInfo;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Invoked on the master node to run the migrations planned by a repartitioning in parallel.
+ * <p>
+ * A migration is started only when no other migration of its partition is running and neither the partition
+ * owner sending the partition data nor the destination takes part in the maximum number of parallel migrations
+ * (see {@link MigrationManager#tryStartMigration(MigrationInfo)}). Among the migrations which can be started the
+ * earliest planned one is started first, which keeps the migrations restoring backup redundancy ahead of the
+ * others, and the migrations of a partition are started in their planned order.
+ * <p>
+ * The task completes only after all started migrations have completed, so the tasks scheduled after it see the
+ * partition table of the completed migrations. It stops starting new migrations when the migration queue is
+ * cleared, e.g. when a migration fails or the cluster membership changes.
+ */
+class MigrationPlanTask implements MigrationRunnable {
+
+    private static final long AWAIT_MIGRATION_SLOT_MILLIS = 250L;
+
+    private final MigrationManager migrationManager;
+    private final Node node;
+    // accessed only by the migration thread
+    private final LinkedList<MigrationInfo> migrations;
+    private volatile int plannedMigrationCount;
+    private volatile boolean stopped;
+
+    MigrationPlanTask(MigrationManager migrationManager, Node node, List<MigrationInfo> migrations) {
+        this.migrationManager = migrationManager;
+        this.node = node;
+        this.migrations = new LinkedList<MigrationInfo>(migrations);
+        this.plannedMigrationCount = migrations.size();
+    }
+
+    @Override
+    public void run() {
+        try {
+            startMigrations();
+            migrationManager.awaitInFlightMigrations();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            migrationManager.onMigrationPlanTaskCompleted(this);
+        }
+    }
+
+    private void startMigrations() throws InterruptedException {
+        while (!stopped && !migrations.isEmpty() && node.isMaster()) {
+            int releasedSlotCount = migrationManager.getReleasedMigrationSlotCount();
+            if (!migrationManager.areMigrationTasksAllowed() || !startNextMigration()) {
+                migrationManager.awaitMigrationSlotRelease(releasedSlotCount, AWAIT_MIGRATION_SLOT_MILLIS);
+            } else if (migrationManager.partitionMigrationInterval > 0) {
+                Thread.sleep(migrationManager.partitionMigrationInterval);
+            }
+        }
+    }
+
+    /**
+     * Starts the earliest planned migration which can be started and returns {@code true}, or returns {@code false}
+     * if none of them can be started at the moment.
+     */
+    private boolean startNextMigration() {
+        Set<Integer> visitedPartitions = new HashSet<Integer>();
+        Iterator<MigrationInfo> iterator = migrations.iterator();
+        while (iterator.hasNext()) {
+            MigrationInfo migration = iterator.next();
+            // later migrations of a partition must wait for the earlier ones
+            if (visitedPartitions.add(migration.getPartitionId()) && migrationManager.tryStartMigration(migration)) {
+                iterator.remove();
+                plannedMigrationCount = migrations.size();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the number of planned migrations which have not been started yet. */
+    int getPlannedMigrationCount() {
+        return plannedMigrationCount;
+    }
+
+    /** Stops starting new migrations, the started migrations are still awaited. */
+    void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{plannedMigrationCount=" + plannedMigrationCount + '}';
+    }
+}
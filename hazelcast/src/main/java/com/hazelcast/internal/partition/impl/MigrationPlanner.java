@@ -22,9 +22,11 @@ import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 
 import static com.hazelcast.internal.partition.impl.InternalPartitionImpl.getReplicaIndex;
@@ -240,6 +242,46 @@ class MigrationPlanner {
         }
     }
 
+    /**
+     * Merges the planned migrations of all partitions into a single execution order.
+     * Migrations of the same partition keep their planned order and migrations of different partitions
+     * are interleaved. Moreover, COPY / SHIFT UP migrations waiting at the head of their partition's queue
+     * are always ordered before the MOVE migrations of other partitions, so backup redundancy of the whole
+     * cluster is restored first instead of partition by partition.
+     *
+     * @param migrations planned migrations of each partition, consumed by this method
+     * @return migrations in execution order
+     */
+    List<MigrationInfo> scheduleMigrations(List<Queue<MigrationInfo>> migrations) {
+        List<MigrationInfo> schedule = new ArrayList<MigrationInfo>();
+        boolean migrationScheduled;
+        do {
+            migrationScheduled = false;
+            for (Queue<MigrationInfo> queue : migrations) {
+                MigrationInfo migration = queue.peek();
+                if (migration != null && restoresRedundancy(migration)) {
+                    schedule.add(queue.poll());
+                    migrationScheduled = true;
+                }
+            }
+            if (migrationScheduled) {
+                continue;
+            }
+            for (Queue<MigrationInfo> queue : migrations) {
+                MigrationInfo migration = queue.poll();
+                if (migration != null) {
+                    schedule.add(migration);
+                    migrationScheduled = true;
+                }
+            }
+        } while (migrationScheduled);
+        return schedule;
+    }
+
+    private static boolean restoresRedundancy(MigrationInfo migration) {
+        return migration.getSourceCurrentReplicaIndex() == -1;
+    }
+
     private void prioritize(List<MigrationInfo> migrations, int i) {
         MigrationInfo migration = migrations.get(i);
 
@@ -38,7 +38,7 @@ class MigrationThread extends Thread implements Runnable {
     private final MigrationQueue queue;
     private final ILogger logger;
     /**
-     * Time in milliseconds to sleep after {@link MigrateTask}
+     * Time in milliseconds to sleep after {@link MigrateTask} or {@link MigrationPlanTask}
      */
     private final long partitionMigrationInterval;
     /**
@@ -94,7 +94,7 @@ class MigrationThread extends Thread implements Runnable {
                 break;
             }
 
-            migrating |= runnable instanceof MigrationManager.MigrateTask;
+            migrating |= runnable instanceof MigrateTask || runnable instanceof MigrationPlanTask;
             processTask(runnable);
             if (migrating && partitionMigrationInterval > 0) {
                 Thread.sleep(partitionMigrationInterval);
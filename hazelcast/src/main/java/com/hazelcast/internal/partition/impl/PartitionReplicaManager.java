@@ -26,12 +26,14 @@ import com.hazelcast.internal.partition.PartitionReplicaVersionManager;
 import com.hazelcast.internal.partition.operation.PartitionReplicaSyncRequest;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.DeltaReplicationAwareService;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.ServiceNamespace;
 import com.hazelcast.spi.ServiceNamespaceAware;
 import com.hazelcast.spi.TaskScheduler;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
@@ -40,13 +42,16 @@ import com.hazelcast.util.scheduler.EntryTaskSchedulerFactory;
 import com.hazelcast.util.scheduler.ScheduleType;
 import com.hazelcast.util.scheduler.ScheduledEntry;
 import com.hazelcast.util.scheduler.ScheduledEntryProcessor;
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
 
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -226,10 +231,42 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
         replicaSyncRequestsCounter.inc();
 
-        PartitionReplicaSyncRequest syncRequest = new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex);
+        Map<ServiceNamespace, RemoteMerkleTreeView> merkleTreeViews = createMerkleTreeViews(partitionId, namespaces);
+        PartitionReplicaSyncRequest syncRequest =
+                new PartitionReplicaSyncRequest(partitionId, namespaces, replicaIndex, merkleTreeViews);
         nodeEngine.getOperationService().send(syncRequest, target.address());
     }
 
+    /**
+     * Creates the views of the Merkle trees of the given namespaces, so the partition owner can send only the data
+     * differing from the data of this replica. The trees are owned by the partition thread, so no views are created
+     * when called from any other thread and the namespaces are replicated fully.
+     */
+    private Map<ServiceNamespace, RemoteMerkleTreeView> createMerkleTreeViews(int partitionId,
+            List<ServiceNamespace> namespaces) {
+        if (!(Thread.currentThread() instanceof PartitionOperationThread)) {
+            return Collections.emptyMap();
+        }
+
+        Collection<DeltaReplicationAwareService> services = nodeEngine.getServices(DeltaReplicationAwareService.class);
+        Map<ServiceNamespace, RemoteMerkleTreeView> merkleTreeViews = Collections.emptyMap();
+        for (ServiceNamespace namespace : namespaces) {
+            for (DeltaReplicationAwareService service : services) {
+                if (!service.isKnownServiceNamespace(namespace)) {
+                    continue;
+                }
+                RemoteMerkleTreeView merkleTreeView = service.createMerkleTreeView(partitionId, namespace);
+                if (merkleTreeView != null) {
+                    if (merkleTreeViews.isEmpty()) {
+                        merkleTreeViews = new HashMap<ServiceNamespace, RemoteMerkleTreeView>();
+                    }
+                    merkleTreeViews.put(namespace, merkleTreeView);
+                }
+            }
+        }
+        return merkleTreeViews;
+    }
+
     private List<ServiceNamespace> registerSyncInfoForNamespaces(int partitionId,
             Collection<ServiceNamespace> requestedNamespaces, int replicaIndex, PartitionReplica target, int permits) {
 
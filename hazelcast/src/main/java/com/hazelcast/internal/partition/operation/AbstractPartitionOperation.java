@@ -19,6 +19,7 @@ package com.hazelcast.internal.partition.operation;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.DeltaReplicationAwareService;
 import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
@@ -26,6 +27,7 @@ import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.ServiceNamespace;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -103,6 +105,38 @@ abstract class AbstractPartitionOperation extends Operation implements Identifie
         return operations;
     }
 
+    /**
+     * Creates the replication operations of the namespace like {@link #createFragmentReplicationOperations(
+     * PartitionReplicationEvent, ServiceNamespace)}, but lets the {@link DeltaReplicationAwareService}s replicate
+     * only the data differing from the given Merkle tree view of the replica.
+     */
+    final Collection<Operation> createDeltaFragmentReplicationOperations(PartitionReplicationEvent event, ServiceNamespace ns,
+            RemoteMerkleTreeView merkleTreeView) {
+        assert !(ns instanceof NonFragmentedServiceNamespace) : ns + " should be used only for non-fragmented services!";
+
+        Collection<Operation> operations = emptySet();
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        Collection<ServiceInfo> services = nodeEngine.getServiceInfos(FragmentedMigrationAwareService.class);
+
+        for (ServiceInfo serviceInfo : services) {
+            FragmentedMigrationAwareService service = serviceInfo.getService();
+            if (!service.isKnownServiceNamespace(ns)) {
+                continue;
+            }
+
+            Operation op = null;
+            if (service instanceof DeltaReplicationAwareService) {
+                op = ((DeltaReplicationAwareService) service).prepareDeltaReplicationOperation(event, ns, merkleTreeView);
+            }
+            if (op != null) {
+                operations = appendReplicationOperation(op, serviceInfo.getName(), operations);
+            } else {
+                operations = prepareAndAppendReplicationOperation(event, ns, service, serviceInfo.getName(), operations);
+            }
+        }
+        return operations;
+    }
+
     private Collection<Operation> prepareAndAppendReplicationOperation(PartitionReplicationEvent event, ServiceNamespace ns,
             FragmentedMigrationAwareService service, String serviceName, Collection<Operation> operations) {
 
@@ -110,6 +144,11 @@ abstract class AbstractPartitionOperation extends Operation implements Identifie
         if (op == null) {
             return operations;
         }
+        return appendReplicationOperation(op, serviceName, operations);
+    }
+
+    private static Collection<Operation> appendReplicationOperation(Operation op, String serviceName,
+            Collection<Operation> operations) {
 
         op.setServiceName(serviceName);
 
@@ -19,6 +19,7 @@ package com.hazelcast.internal.partition.operation;
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.core.Member;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
@@ -100,7 +101,11 @@ abstract class BaseMigrationOperation extends AbstractPartitionOperation
         }
     }
 
-    /** Verifies that the sent partition state version matches the local version or this node is master. */
+    /**
+     * Verifies that the sent partition state version matches the local version or this node is master. Since 3.12 the
+     * master runs migrations in parallel and every commit increments the partition state version, so a local version
+     * newer than the sent one is accepted as well.
+     */
     private void verifyPartitionStateVersion() {
         InternalPartitionService partitionService = getService();
         int localPartitionStateVersion = partitionService.getPartitionStateVersion();
@@ -108,6 +113,10 @@ abstract class BaseMigrationOperation extends AbstractPartitionOperation
             if (getNodeEngine().getThisAddress().equals(migrationInfo.getMaster())) {
                 return;
             }
+            if (partitionStateVersion < localPartitionStateVersion
+                    && getNodeEngine().getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_12)) {
+                return;
+            }
 
             // this is expected when cluster member list changes during migration
             throw new PartitionStateVersionMismatchException(partitionStateVersion, localPartitionStateVersion);
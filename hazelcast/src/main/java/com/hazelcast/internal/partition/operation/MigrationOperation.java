@@ -21,10 +21,12 @@ import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.internal.partition.ReplicaFragmentMigrationState;
 import com.hazelcast.internal.partition.impl.InternalMigrationListener.MigrationParticipant;
 import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.MigrationBandwidthLimiter;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.internal.partition.impl.PartitionReplicaManager;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
+import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.spi.MigrationAwareService;
@@ -63,6 +65,8 @@ public class MigrationOperation extends BaseMigrationOperation implements Target
     private boolean firstFragment;
     private boolean lastFragment;
     private Throwable failureReason;
+    // set only on the sending member, not serialized
+    private MigrationBandwidthLimiter bandwidthLimiter;
 
     public MigrationOperation() {
     }
@@ -243,9 +247,14 @@ public class MigrationOperation extends BaseMigrationOperation implements Target
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         super.writeInternal(out);
+        int startPosition = out instanceof BufferObjectDataOutput ? ((BufferObjectDataOutput) out).position() : -1;
         fragmentMigrationState.writeData(out);
         out.writeBoolean(firstFragment);
         out.writeBoolean(lastFragment);
+        if (bandwidthLimiter != null && startPosition >= 0) {
+            // charged on every serialization, so retried sends are accounted as well
+            bandwidthLimiter.onSent(((BufferObjectDataOutput) out).position() - startPosition);
+        }
     }
 
     @Override
@@ -257,6 +266,13 @@ public class MigrationOperation extends BaseMigrationOperation implements Target
         lastFragment = in.readBoolean();
     }
 
+    /**
+     * Sets the limiter to be charged with the size of the sent fragment when this operation is serialized.
+     */
+    void setBandwidthLimiter(MigrationBandwidthLimiter bandwidthLimiter) {
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
     @Override
     public void setTarget(Address address) {
         fragmentMigrationState.setTarget(address);
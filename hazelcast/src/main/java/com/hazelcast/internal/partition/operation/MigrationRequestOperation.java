@@ -17,6 +17,7 @@
 package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
@@ -25,6 +26,7 @@ import com.hazelcast.internal.partition.PartitionReplicaVersionManager;
 import com.hazelcast.internal.partition.ReplicaFragmentMigrationState;
 import com.hazelcast.internal.partition.impl.InternalMigrationListener.MigrationParticipant;
 import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.internal.partition.impl.MigrationBandwidthLimiter;
 import com.hazelcast.internal.partition.impl.MigrationManager;
 import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
 import com.hazelcast.logging.ILogger;
@@ -32,6 +34,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.spi.CallStatus;
+import com.hazelcast.spi.ChunkedMigrationAwareService;
 import com.hazelcast.spi.ExceptionAction;
 import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.NodeEngine;
@@ -50,6 +53,7 @@ import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import com.hazelcast.spi.partition.MigrationEndpoint;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -61,6 +65,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
 import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Migration request operation used by Hazelcast version 3.9
@@ -68,19 +73,41 @@ import static java.util.Collections.singleton;
  * sending them to the destination. A response with a value equal to {@link Boolean#TRUE} indicates a successful migration.
  * It runs on the migration source and transfers the partition with multiple shots.
  * It divides the partition data into fragments and send a group of fragments within each shot.
+ * Namespaces of {@link ChunkedMigrationAwareService}s are further divided into bounded-size chunks,
+ * each chunk is sent within its own shot and resent a limited number of times if it fails on the destination.
  */
 public class MigrationRequestOperation extends BaseMigrationOperation {
 
+    private static final int MAX_CHUNK_RETRY_COUNT = 3;
+
     private boolean fragmentedMigrationEnabled;
+    // zero when chunked migration is disabled
+    private long maxChunkSize;
     private transient ServiceNamespacesContext namespacesContext;
 
+    // state of the namespace being streamed in chunks
+    private transient Iterator<Operation> chunkIterator;
+    private transient ServiceNamespace chunkNamespace;
+    private transient String chunkServiceName;
+
+    // last fragment sent to the destination, kept to resend a failed chunk
+    private transient ReplicaFragmentMigrationState lastMigrationState;
+    private transient boolean lastMigrationStateChunked;
+    private transient int chunkRetryCount;
+
     public MigrationRequestOperation() {
     }
 
     public MigrationRequestOperation(MigrationInfo migrationInfo, int partitionStateVersion,
                                      boolean fragmentedMigrationEnabled) {
+        this(migrationInfo, partitionStateVersion, fragmentedMigrationEnabled, 0);
+    }
+
+    public MigrationRequestOperation(MigrationInfo migrationInfo, int partitionStateVersion,
+                                     boolean fragmentedMigrationEnabled, long maxChunkSize) {
         super(migrationInfo, partitionStateVersion);
         this.fragmentedMigrationEnabled = fragmentedMigrationEnabled;
+        this.maxChunkSize = maxChunkSize;
     }
 
     @Override
@@ -136,8 +163,11 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
      * Invokes the {@link MigrationOperation} on the migration destination.
      */
     private void invokeMigrationOperation(ReplicaFragmentMigrationState migrationState, boolean firstFragment) {
-        boolean lastFragment = !fragmentedMigrationEnabled || !namespacesContext.hasNext();
-        Operation operation = new MigrationOperation(migrationInfo, partitionStateVersion, migrationState,
+        boolean lastFragment = !fragmentedMigrationEnabled || (!namespacesContext.hasNext() && chunkIterator == null);
+        lastMigrationState = migrationState;
+        // the first fragment also starts the migration on the destination, so it is never resent
+        lastMigrationStateChunked &= !firstFragment;
+        MigrationOperation operation = new MigrationOperation(migrationInfo, partitionStateVersion, migrationState,
                 firstFragment, lastFragment);
 
         ILogger logger = getLogger();
@@ -148,6 +178,23 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                     + ", lastFragment: " + lastFragment);
         }
 
+        InternalPartitionServiceImpl partitionService = getService();
+        MigrationBandwidthLimiter bandwidthLimiter = partitionService.getMigrationManager().getBandwidthLimiter();
+        if (bandwidthLimiter.isEnabled()) {
+            // the operation charges the limiter with its size when it is serialized for sending
+            operation.setBandwidthLimiter(bandwidthLimiter);
+            long delayMillis = bandwidthLimiter.getDelayMillis();
+            if (delayMillis > 0) {
+                logger.finest("Delaying migration fragment of " + migrationInfo + " by " + delayMillis + " ms");
+                getNodeEngine().getExecutionService().schedule(new InvokeMigrationOperationTask(operation),
+                        delayMillis, MILLISECONDS);
+                return;
+            }
+        }
+        invokeMigrationOperation(operation);
+    }
+
+    private void invokeMigrationOperation(Operation operation) {
         NodeEngine nodeEngine = getNodeEngine();
         InternalPartitionServiceImpl partitionService = getService();
 
@@ -164,18 +211,9 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
 
     private void trySendNewFragment() {
         try {
-            assert fragmentedMigrationEnabled : "Fragmented migration should be enabled!";
-            verifyMaster();
-            verifyExistingDestination();
-
-            InternalPartitionServiceImpl partitionService = getService();
-            MigrationManager migrationManager = partitionService.getMigrationManager();
-            MigrationInfo currentActiveMigration = migrationManager.setActiveMigration(migrationInfo);
-            if (!migrationInfo.equals(currentActiveMigration)) {
-                throw new IllegalStateException("Current active migration " + currentActiveMigration
-                        + " is different than expected: " + migrationInfo);
-            }
+            verifyMigrationStillActive();
 
+            chunkRetryCount = 0;
             ReplicaFragmentMigrationState migrationState = createNextReplicaFragmentMigrationState();
             if (migrationState != null) {
                 invokeMigrationOperation(migrationState, false);
@@ -189,9 +227,44 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         }
     }
 
+    /**
+     * Resends the last chunk which failed on the destination. Chunk operations are idempotent,
+     * so the migration resumes from the failed chunk instead of being restarted from scratch.
+     */
+    private void tryResendLastChunk() {
+        try {
+            verifyMigrationStillActive();
+
+            getLogger().fine("Resending failed migration chunk for " + migrationInfo + ", attempt: " + chunkRetryCount);
+            invokeMigrationOperation(lastMigrationState, false);
+        } catch (Throwable e) {
+            logThrowable(e);
+            completeMigration(false);
+        }
+    }
+
+    private void verifyMigrationStillActive() {
+        assert fragmentedMigrationEnabled : "Fragmented migration should be enabled!";
+        verifyMaster();
+        verifyExistingDestination();
+
+        InternalPartitionServiceImpl partitionService = getService();
+        MigrationManager migrationManager = partitionService.getMigrationManager();
+        MigrationInfo currentActiveMigration = migrationManager.setActiveMigration(migrationInfo);
+        if (!migrationInfo.equals(currentActiveMigration)) {
+            throw new IllegalStateException("Current active migration " + currentActiveMigration
+                    + " is different than expected: " + migrationInfo);
+        }
+    }
+
     private ReplicaFragmentMigrationState createNextReplicaFragmentMigrationState() {
         assert fragmentedMigrationEnabled : "Fragmented migration should be enabled!";
 
+        lastMigrationStateChunked = false;
+        if (chunkIterator != null) {
+            return createNextChunkMigrationState(Collections.<Operation>emptySet());
+        }
+
         if (!namespacesContext.hasNext()) {
             return null;
         }
@@ -200,9 +273,81 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
         if (namespace.equals(NonFragmentedServiceNamespace.INSTANCE)) {
             return createNonFragmentedReplicaFragmentMigrationState();
         }
+        if (maxChunkSize > 0) {
+            ReplicaFragmentMigrationState migrationState = createChunkedReplicaFragmentMigrationStateFor(namespace);
+            if (migrationState != null) {
+                return migrationState;
+            }
+        }
         return createReplicaFragmentMigrationStateFor(namespace);
     }
 
+    /**
+     * Starts streaming the given namespace in chunks if one of its services supports it. Operations of the
+     * other services owning the namespace are sent together with the first chunk.
+     *
+     * @return state of the first chunk or {@code null} if no service of the namespace supports chunked migration
+     */
+    private ReplicaFragmentMigrationState createChunkedReplicaFragmentMigrationStateFor(ServiceNamespace ns) {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        PartitionReplicationEvent event = getPartitionReplicationEvent();
+        Collection<String> serviceNames = namespacesContext.getServiceNames(ns);
+
+        String chunkedServiceName = null;
+        Collection<Operation> operations = new ArrayList<Operation>(serviceNames.size());
+        for (String serviceName : serviceNames) {
+            Object service = nodeEngine.getService(serviceName);
+            if (chunkedServiceName == null && service instanceof ChunkedMigrationAwareService) {
+                Iterator<Operation> iterator =
+                        ((ChunkedMigrationAwareService) service).createChunkIterator(event, ns, maxChunkSize);
+                if (iterator != null) {
+                    chunkedServiceName = serviceName;
+                    chunkIterator = iterator;
+                    continue;
+                }
+            }
+            Operation op = ((FragmentedMigrationAwareService) service).prepareReplicationOperation(event, singleton(ns));
+            if (op != null) {
+                op.setServiceName(serviceName);
+                operations.add(op);
+            }
+        }
+
+        if (chunkedServiceName == null) {
+            return null;
+        }
+        chunkNamespace = ns;
+        chunkServiceName = chunkedServiceName;
+        return createNextChunkMigrationState(operations);
+    }
+
+    /**
+     * Creates the state of the next chunk of the namespace being streamed. Replica versions of the namespace
+     * are sent only with its last chunk, so the destination does not consider a partially transferred
+     * namespace as being in sync.
+     */
+    private ReplicaFragmentMigrationState createNextChunkMigrationState(Collection<Operation> operations) {
+        if (chunkIterator.hasNext()) {
+            Operation op = chunkIterator.next();
+            op.setServiceName(chunkServiceName);
+            if (operations.isEmpty()) {
+                operations = singleton(op);
+            } else {
+                operations.add(op);
+            }
+        }
+
+        Collection<ServiceNamespace> namespaces = Collections.emptySet();
+        if (!chunkIterator.hasNext()) {
+            namespaces = singleton(chunkNamespace);
+            chunkIterator = null;
+            chunkNamespace = null;
+            chunkServiceName = null;
+        }
+        lastMigrationStateChunked = true;
+        return createReplicaFragmentMigrationState(namespaces, operations);
+    }
+
     private ReplicaFragmentMigrationState createNonFragmentedReplicaFragmentMigrationState() {
         PartitionReplicationEvent event = getPartitionReplicationEvent();
         Collection<Operation> operations = createNonFragmentedReplicationOperations(event);
@@ -293,12 +438,18 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         super.writeInternal(out);
         out.writeBoolean(fragmentedMigrationEnabled);
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            out.writeLong(maxChunkSize);
+        }
     }
 
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
         super.readInternal(in);
         fragmentedMigrationEnabled = in.readBoolean();
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            maxChunkSize = in.readLong();
+        }
     }
 
     /**
@@ -319,6 +470,10 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
                 } else {
                     completeMigration(true);
                 }
+            } else if (lastMigrationStateChunked && chunkRetryCount < MAX_CHUNK_RETRY_COUNT) {
+                chunkRetryCount++;
+                InternalOperationService operationService = (InternalOperationService) getNodeEngine().getOperationService();
+                operationService.execute(new ResendMigrationChunkRunnable());
             } else {
                 completeMigration(false);
             }
@@ -339,6 +494,39 @@ public class MigrationRequestOperation extends BaseMigrationOperation {
 
     }
 
+    private final class InvokeMigrationOperationTask implements Runnable {
+
+        private final Operation operation;
+
+        private InvokeMigrationOperationTask(Operation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void run() {
+            try {
+                invokeMigrationOperation(operation);
+            } catch (Throwable e) {
+                logThrowable(e);
+                completeMigration(false);
+            }
+        }
+    }
+
+    private final class ResendMigrationChunkRunnable implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        @Override
+        public int getPartitionId() {
+            return MigrationRequestOperation.this.getPartitionId();
+        }
+
+        @Override
+        public void run() {
+            tryResendLastChunk();
+        }
+
+    }
+
     private static class ServiceNamespacesContext {
         final Collection<ServiceNamespace> allNamespaces = new HashSet<ServiceNamespace>();
         final Map<ServiceNamespace, Collection<String>> namespaceToServices = new HashMap<ServiceNamespace, Collection<String>>();
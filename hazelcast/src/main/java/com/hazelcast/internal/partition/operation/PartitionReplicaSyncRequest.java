@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.partition.operation;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
@@ -38,13 +39,17 @@ import com.hazelcast.spi.OperationService;
 import com.hazelcast.spi.PartitionAwareOperation;
 import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.wan.merkletree.MerkleTreeUtil;
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The request sent from a replica to the partition owner to synchronize the replica data. The partition owner can send a
@@ -55,6 +60,9 @@ import java.util.List;
  * <li>the maximum number of parallel synchronizations has already been reached</li>
  * </ul>
  * An empty response can be sent if the current replica version is 0.
+ * <p>
+ * The replica can attach the views of the Merkle trees of its namespaces to the request. For these namespaces the
+ * {@link com.hazelcast.spi.DeltaReplicationAwareService}s send only the data that differs from the replica's data.
  */
 // RU_COMPAT_39: Do not remove Versioned interface!
 // Version info is needed on 3.9 members while deserializing the operation.
@@ -62,13 +70,21 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
         implements PartitionAwareOperation, MigrationCycleOperation, Versioned {
 
     private List<ServiceNamespace> namespaces;
+    private Map<ServiceNamespace, RemoteMerkleTreeView> merkleTreeViews;
 
     public PartitionReplicaSyncRequest() {
         namespaces = Collections.emptyList();
+        merkleTreeViews = Collections.emptyMap();
     }
 
     public PartitionReplicaSyncRequest(int partitionId, List<ServiceNamespace> namespaces, int replicaIndex) {
+        this(partitionId, namespaces, replicaIndex, Collections.<ServiceNamespace, RemoteMerkleTreeView>emptyMap());
+    }
+
+    public PartitionReplicaSyncRequest(int partitionId, List<ServiceNamespace> namespaces, int replicaIndex,
+                                       Map<ServiceNamespace, RemoteMerkleTreeView> merkleTreeViews) {
         this.namespaces = namespaces;
+        this.merkleTreeViews = merkleTreeViews;
         setPartitionId(partitionId);
         setReplicaIndex(replicaIndex);
     }
@@ -138,7 +154,10 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
                 if (NonFragmentedServiceNamespace.INSTANCE.equals(namespace)) {
                     operations = createNonFragmentedReplicationOperations(event);
                 } else {
-                    operations = createFragmentReplicationOperations(event, namespace);
+                    RemoteMerkleTreeView merkleTreeView = merkleTreeViews.get(namespace);
+                    operations = merkleTreeView != null
+                            ? createDeltaFragmentReplicationOperations(event, namespace, merkleTreeView)
+                            : createFragmentReplicationOperations(event, namespace);
                 }
                 sendOperations(operations, namespace);
                 iterator.remove();
@@ -259,6 +278,13 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
         for (ServiceNamespace namespace : namespaces) {
             out.writeObject(namespace);
         }
+        if (out.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            out.writeInt(merkleTreeViews.size());
+            for (Map.Entry<ServiceNamespace, RemoteMerkleTreeView> entry : merkleTreeViews.entrySet()) {
+                out.writeObject(entry.getKey());
+                MerkleTreeUtil.writeLeaves(out, entry.getValue());
+            }
+        }
     }
 
     @Override
@@ -269,6 +295,14 @@ public final class PartitionReplicaSyncRequest extends AbstractPartitionOperatio
             ServiceNamespace ns = in.readObject();
             namespaces.add(ns);
         }
+        if (in.getVersion().isGreaterOrEqual(Versions.V3_12)) {
+            int viewCount = in.readInt();
+            merkleTreeViews = new HashMap<ServiceNamespace, RemoteMerkleTreeView>(viewCount);
+            for (int i = 0; i < viewCount; i++) {
+                ServiceNamespace ns = in.readObject();
+                merkleTreeViews.put(ns, MerkleTreeUtil.createRemoteMerkleTreeView(in));
+            }
+        }
     }
 
     @Override
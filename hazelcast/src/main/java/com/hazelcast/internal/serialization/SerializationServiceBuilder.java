@@ -66,5 +66,10 @@ public interface SerializationServiceBuilder {
 
     SerializationServiceBuilder setInitialOutputBufferSize(int initialOutputBufferSize);
 
+    /**
+     * Sets the maximum number of bytes retained in the pooled output buffers of a thread.
+     */
+    SerializationServiceBuilder setBufferPoolMaxRetainedBytes(long bufferPoolMaxRetainedBytes);
+
     <T extends SerializationService> T build();
 }
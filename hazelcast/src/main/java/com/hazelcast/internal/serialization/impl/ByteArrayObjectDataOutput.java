@@ -33,7 +33,7 @@ import static com.hazelcast.nio.Bits.NULL_ARRAY_LENGTH;
 import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
 import static com.hazelcast.version.Version.UNKNOWN;
 
-class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput {
+public class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements BufferObjectDataOutput {
 
     final int initialSize;
 
@@ -433,6 +433,22 @@ class ByteArrayObjectDataOutput extends VersionedObjectDataOutput implements Buf
         version = UNKNOWN;
     }
 
+    /**
+     * Clears this output like {@link #clear()}, but keeps the underlying buffer whatever its capacity.
+     * Used by buffer pools which bound the retained memory themselves.
+     */
+    public void clearRetainingBuffer() {
+        pos = 0;
+        version = UNKNOWN;
+    }
+
+    /**
+     * Returns the capacity of the underlying buffer, or 0 if there is no buffer.
+     */
+    public int capacity() {
+        return buffer == null ? 0 : buffer.length;
+    }
+
     @Override
     public void close() {
         pos = 0;
@@ -29,6 +29,7 @@ import com.hazelcast.internal.serialization.InputOutputFactory;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
+import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolImpl;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.ClassNameFilter;
 import com.hazelcast.nio.SerializationClassNameFilter;
@@ -86,6 +87,8 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
 
     protected int initialOutputBufferSize = DEFAULT_OUT_BUFFER_SIZE;
 
+    protected long bufferPoolMaxRetainedBytes = BufferPoolImpl.DEFAULT_MAX_RETAINED_BYTES;
+
     protected PartitioningStrategy partitioningStrategy;
 
     protected HazelcastInstance hazelcastInstance;
@@ -224,6 +227,15 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
         return this;
     }
 
+    @Override
+    public SerializationServiceBuilder setBufferPoolMaxRetainedBytes(long bufferPoolMaxRetainedBytes) {
+        if (bufferPoolMaxRetainedBytes < 0) {
+            throw new IllegalArgumentException("Buffer pool max retained bytes must not be negative!");
+        }
+        this.bufferPoolMaxRetainedBytes = bufferPoolMaxRetainedBytes;
+        return this;
+    }
+
     @Override
     public InternalSerializationService build() {
         initVersions();
@@ -291,7 +303,7 @@ public class DefaultSerializationServiceBuilder implements SerializationServiceB
                     .withManagedContext(managedContext)
                     .withGlobalPartitionStrategy(partitioningStrategy)
                     .withInitialOutputBufferSize(initialOutputBufferSize)
-                    .withBufferPoolFactory(new BufferPoolFactoryImpl())
+                    .withBufferPoolFactory(new BufferPoolFactoryImpl(bufferPoolMaxRetainedBytes))
                     .withEnableCompression(enableCompression)
                     .withEnableSharedObject(enableSharedObject)
                     .withNotActiveExceptionSupplier(notActiveExceptionSupplier)
@@ -23,8 +23,22 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
  */
 public class BufferPoolFactoryImpl implements BufferPoolFactory {
 
+    private final long maxRetainedBytes;
+
+    public BufferPoolFactoryImpl() {
+        this(BufferPoolImpl.DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    /**
+     * @param maxRetainedBytes the maximum number of bytes retained in the pooled outputs of a thread
+     * @see com.hazelcast.spi.properties.GroupProperty#SERIALIZATION_BUFFER_POOL_MAX_RETAINED_BYTES
+     */
+    public BufferPoolFactoryImpl(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
     @Override
     public BufferPool create(InternalSerializationService serializationService) {
-        return new BufferPoolImpl(serializationService);
+        return new BufferPoolImpl(serializationService, maxRetainedBytes);
     }
 }
@@ -17,7 +17,9 @@
 package com.hazelcast.internal.serialization.impl.bufferpool;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.ByteArrayObjectDataOutput;
 import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.nio.BufferObjectDataInput;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
@@ -26,32 +28,78 @@ import java.io.Closeable;
 import java.util.ArrayDeque;
 import java.util.Queue;
 
+import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.nio.IOUtil.closeResource;
 
 /**
  * Default {BufferPool} implementation.
  *
  * This class is designed to that a subclass can be made. This is done for the Enterprise version.
+ *
+ * <h1>Size classes</h1>
+ * Outputs backed by a byte-array are pooled by the capacity of their buffer in power of two size classes, starting with
+ * {@link #MIN_SIZE_CLASS_CAPACITY}. So a thread that serializes large objects keeps its grown buffers instead of growing
+ * a fresh one on every call. The bytes retained by a pool are bounded by the {@code maxRetainedBytes} given by
+ * {@link com.hazelcast.spi.properties.GroupProperty#SERIALIZATION_BUFFER_POOL_MAX_RETAINED_BYTES}; an output
+ * that doesn't fit is shrunk or closed. Buffers that have not been needed for {@link #IDLE_WINDOW} returns are dropped
+ * or shrunk.
+ *
+ * A pool is only accessed by its owning thread; the counters are single writer so they can be read for metrics.
  */
 public class BufferPoolImpl implements BufferPool {
     static final int MAX_POOLED_ITEMS = 3;
 
+    /**
+     * The default maximum number of bytes retained in pooled outputs, per thread and per serialization service.
+     */
+    public static final long DEFAULT_MAX_RETAINED_BYTES = 2 * 1024 * 1024;
+
+    static final int MIN_SIZE_CLASS_CAPACITY = 32 * 1024;
+    static final int SIZE_CLASS_COUNT = 8;
+    static final int MAX_SIZE_CLASS_CAPACITY = MIN_SIZE_CLASS_CAPACITY << (SIZE_CLASS_COUNT - 1);
+    static final int IDLE_WINDOW = 1024;
+
     protected final InternalSerializationService serializationService;
 
     // accessible for testing.
     final Queue<BufferObjectDataOutput> outputQueue = new ArrayDeque<BufferObjectDataOutput>(MAX_POOLED_ITEMS);
     final Queue<BufferObjectDataInput> inputQueue = new ArrayDeque<BufferObjectDataInput>(MAX_POOLED_ITEMS);
+    final Queue<ByteArrayObjectDataOutput>[] sizeClasses;
+
+    final SwCounter outputHits = newSwCounter();
+    final SwCounter outputMisses = newSwCounter();
+    final SwCounter retainedBytes = newSwCounter();
+
+    private final long maxRetainedBytes;
+    private int expectedSize;
+    private int maxSizeInWindow;
+    private int returnsInWindow;
 
     public BufferPoolImpl(InternalSerializationService serializationService) {
+        this(serializationService, DEFAULT_MAX_RETAINED_BYTES);
+    }
+
+    @SuppressWarnings("unchecked")
+    public BufferPoolImpl(InternalSerializationService serializationService, long maxRetainedBytes) {
         this.serializationService = serializationService;
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.sizeClasses = new Queue[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            sizeClasses[i] = new ArrayDeque<ByteArrayObjectDataOutput>(MAX_POOLED_ITEMS);
+        }
     }
 
     @Override
     public BufferObjectDataOutput takeOutputBuffer() {
-        BufferObjectDataOutput out = outputQueue.poll();
+        BufferObjectDataOutput out = pollSizeClasses();
+        if (out == null) {
+            out = outputQueue.poll();
+        }
         if (out == null) {
-            out = serializationService.createObjectDataOutput();
+            outputMisses.inc();
+            return serializationService.createObjectDataOutput();
         }
+        outputHits.inc();
         return out;
     }
 
@@ -61,6 +109,11 @@ public class BufferPoolImpl implements BufferPool {
             return;
         }
 
+        if (out instanceof ByteArrayObjectDataOutput) {
+            returnByteArrayOutput((ByteArrayObjectDataOutput) out);
+            return;
+        }
+
         out.clear();
 
         offerOrClose(outputQueue, out);
@@ -87,6 +140,97 @@ public class BufferPoolImpl implements BufferPool {
         offerOrClose(inputQueue, in);
     }
 
+    /**
+     * Takes a pooled output from the size class matching the expected size, and otherwise from the closest larger
+     * or smaller one.
+     */
+    private ByteArrayObjectDataOutput pollSizeClasses() {
+        int preferred = sizeClassOf(expectedSize);
+        for (int i = preferred; i < SIZE_CLASS_COUNT; i++) {
+            ByteArrayObjectDataOutput out = pollSizeClass(i);
+            if (out != null) {
+                return out;
+            }
+        }
+        for (int i = preferred - 1; i >= 0; i--) {
+            ByteArrayObjectDataOutput out = pollSizeClass(i);
+            if (out != null) {
+                return out;
+            }
+        }
+        return null;
+    }
+
+    private ByteArrayObjectDataOutput pollSizeClass(int sizeClass) {
+        ByteArrayObjectDataOutput out = sizeClasses[sizeClass].poll();
+        if (out != null) {
+            retainedBytes.inc(-out.capacity());
+        }
+        return out;
+    }
+
+    private void returnByteArrayOutput(ByteArrayObjectDataOutput out) {
+        onReturn(out.position());
+
+        if (!isRetainable(out.capacity())) {
+            // the regular clear shrinks the buffer back to its default size
+            out.clear();
+        } else {
+            out.clearRetainingBuffer();
+        }
+
+        int capacity = out.capacity();
+        Queue<ByteArrayObjectDataOutput> queue = sizeClasses[sizeClassOf(capacity)];
+        if (queue.size() == MAX_POOLED_ITEMS || retainedBytes.get() + capacity > maxRetainedBytes) {
+            closeResource(out);
+            return;
+        }
+
+        queue.offer(out);
+        retainedBytes.inc(capacity);
+    }
+
+    private boolean isRetainable(int capacity) {
+        return capacity <= MAX_SIZE_CLASS_CAPACITY
+                && retainedBytes.get() + capacity <= maxRetainedBytes
+                && sizeClassOf(capacity) <= sizeClassOf(expectedSize) + 1;
+    }
+
+    /**
+     * Tracks the size of the written outputs. The expected size grows immediately, but only shrinks at the end
+     * of an idle window; then the size classes well above the sizes seen in that window are released.
+     */
+    private void onReturn(int size) {
+        if (size > expectedSize) {
+            expectedSize = size;
+        }
+        if (size > maxSizeInWindow) {
+            maxSizeInWindow = size;
+        }
+        if (++returnsInWindow < IDLE_WINDOW) {
+            return;
+        }
+
+        expectedSize = maxSizeInWindow;
+        maxSizeInWindow = 0;
+        returnsInWindow = 0;
+        for (int i = sizeClassOf(expectedSize) + 2; i < SIZE_CLASS_COUNT; i++) {
+            ByteArrayObjectDataOutput out = pollSizeClass(i);
+            while (out != null) {
+                closeResource(out);
+                out = pollSizeClass(i);
+            }
+        }
+    }
+
+    static int sizeClassOf(int capacity) {
+        if (capacity <= MIN_SIZE_CLASS_CAPACITY) {
+            return 0;
+        }
+        int sizeClass = Integer.numberOfLeadingZeros(MIN_SIZE_CLASS_CAPACITY) - Integer.numberOfLeadingZeros(capacity - 1) + 1;
+        return Math.min(sizeClass, SIZE_CLASS_COUNT - 1);
+    }
+
     private static <C extends Closeable> void offerOrClose(Queue<C> queue, C item) {
         if (queue.size() == MAX_POOLED_ITEMS) {
             closeResource(item);
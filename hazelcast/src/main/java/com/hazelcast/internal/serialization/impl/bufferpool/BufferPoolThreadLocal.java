@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.serialization.impl.bufferpool;
 
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.BufferObjectDataOutput;
 import com.hazelcast.util.ConcurrentReferenceHashMap;
@@ -24,6 +25,7 @@ import com.hazelcast.util.function.Supplier;
 import java.lang.ref.WeakReference;
 import java.util.Map;
 
+import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.util.ConcurrentReferenceHashMap.ReferenceType.STRONG;
 import static com.hazelcast.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
 
@@ -76,6 +78,9 @@ import static com.hazelcast.util.ConcurrentReferenceHashMap.ReferenceType.WEAK;
  * The Performance of using a ThreadLocal in combination with a WeakReference is almost the same as using a ThreadLocal without
  * WeakReference. There is an extra pointer indirection and some additional pressure on the gc system since it needs to deal with
  * the WeakReferences, but the number of threads is limited.
+ *
+ * <h1>Metrics</h1>
+ * The probes aggregate the statistics of the {@link BufferPoolImpl} instances of all live threads.
  */
 public final class BufferPoolThreadLocal {
 
@@ -113,4 +118,49 @@ public final class BufferPoolThreadLocal {
     public void clear() {
         strongReferences.clear();
     }
+
+    @Probe(level = MANDATORY)
+    private int poolCount() {
+        return strongReferences.size();
+    }
+
+    @Probe
+    private long outputHits() {
+        long hits = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            if (pool instanceof BufferPoolImpl) {
+                hits += ((BufferPoolImpl) pool).outputHits.get();
+            }
+        }
+        return hits;
+    }
+
+    @Probe
+    private long outputMisses() {
+        long misses = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            if (pool instanceof BufferPoolImpl) {
+                misses += ((BufferPoolImpl) pool).outputMisses.get();
+            }
+        }
+        return misses;
+    }
+
+    @Probe
+    private double outputHitPercentage() {
+        long hits = outputHits();
+        long total = hits + outputMisses();
+        return total == 0 ? 0 : (100d * hits) / total;
+    }
+
+    @Probe(level = MANDATORY)
+    private long retainedBytes() {
+        long bytes = 0;
+        for (BufferPool pool : strongReferences.values()) {
+            if (pool instanceof BufferPoolImpl) {
+                bytes += ((BufferPoolImpl) pool).retainedBytes.get();
+            }
+        }
+        return bytes;
+    }
 }
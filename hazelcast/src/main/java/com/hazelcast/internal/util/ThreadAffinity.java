@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.util.OsHelper.OS;
+
+/**
+ * Pins threads to CPUs.
+ * <p>
+ * The JVM doesn't expose thread affinity and Hazelcast has no native
+ * library to call {@code sched_setaffinity}, so pinning is only supported
+ * on Linux. The native ID of the current thread is read from
+ * {@code /proc/thread-self/stat} and its affinity is set with the
+ * {@code taskset} utility of util-linux. On other platforms or if
+ * {@code taskset} is not installed, pinning is a no-op and the failure is
+ * logged once.
+ */
+public final class ThreadAffinity {
+
+    private static final String THREAD_SELF_STAT = "/proc/thread-self/stat";
+    private static final String TASK_DIR = "/proc/self/task/";
+    private static final String CPUS_ALLOWED_LIST = "Cpus_allowed_list:";
+    private static final String TASKSET = "taskset";
+    private static final int BUFFER_SIZE = 256;
+
+    private static final ILogger LOGGER = Logger.getLogger(ThreadAffinity.class);
+    private static final AtomicBoolean FAILURE_LOGGED = new AtomicBoolean();
+
+    private ThreadAffinity() {
+    }
+
+    /**
+     * Parses the given CPU list, e.g. {@code 0-3,6,8-9}.
+     *
+     * @param cpuList the comma-separated list of CPUs and inclusive CPU
+     *                ranges to parse.
+     * @return the CPUs in the order of their declaration or an empty list if
+     * the given CPU list is {@code null} or empty.
+     * @throws IllegalArgumentException if the CPU list is malformed.
+     */
+    public static List<Integer> parseCpus(String cpuList) {
+        List<Integer> cpus = new ArrayList<Integer>();
+        if (cpuList == null || cpuList.trim().isEmpty()) {
+            return cpus;
+        }
+        for (String item : cpuList.split(",")) {
+            String trimmed = item.trim();
+            int separator = trimmed.indexOf('-');
+            int from = parseCpu(separator < 0 ? trimmed : trimmed.substring(0, separator), cpuList);
+            int to = separator < 0 ? from : parseCpu(trimmed.substring(separator + 1), cpuList);
+            if (from > to) {
+                throw new IllegalArgumentException("Invalid CPU range '" + trimmed + "' in CPU list: " + cpuList);
+            }
+            for (int cpu = from; cpu <= to; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+
+    private static int parseCpu(String cpu, String cpuList) {
+        try {
+            int value = Integer.parseInt(cpu.trim());
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new IllegalArgumentException("Invalid CPU '" + cpu + "' in CPU list: " + cpuList);
+    }
+
+    /**
+     * @return {@code true} if threads can be pinned on the current platform,
+     * {@code false} otherwise.
+     */
+    public static boolean isSupported() {
+        return OS.contains("linux") && new File(THREAD_SELF_STAT).exists();
+    }
+
+    /**
+     * Pins the current thread to the given CPU. The first failure is logged
+     * as a warning, later ones are only logged at the finest level.
+     *
+     * @param cpu the CPU to pin the current thread to.
+     * @return {@code true} if the thread was pinned, {@code false} if pinning
+     * isn't supported on the current platform or failed.
+     */
+    public static boolean pinCurrentThread(int cpu) {
+        if (!isSupported()) {
+            logFailure("thread affinity is only supported on Linux", null);
+            return false;
+        }
+        try {
+            String threadId = String.valueOf(currentThreadId());
+            Process process = new ProcessBuilder(TASKSET, "-p", "-c", String.valueOf(cpu), threadId)
+                    .redirectErrorStream(true)
+                    .start();
+            closeResource(process.getOutputStream());
+            drain(process.getInputStream());
+            if (process.waitFor() == 0) {
+                return true;
+            }
+            logFailure("taskset failed to pin thread " + threadId + " to CPU " + cpu, null);
+        } catch (IOException e) {
+            logFailure("the taskset utility of util-linux is not available", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the native ID of the current thread. The first field of
+     * {@code /proc/thread-self/stat} is read instead of resolving the
+     * {@code /proc/thread-self} link, since the JDK may cache resolved paths
+     * and return the ID of another thread.
+     *
+     * @return the native ID of the current thread.
+     * @throws IOException if the ID cannot be read.
+     */
+    static int currentThreadId() throws IOException {
+        String stat = readFirstLine(THREAD_SELF_STAT);
+        int separator = stat.indexOf(' ');
+        try {
+            return Integer.parseInt(separator < 0 ? stat : stat.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid content of " + THREAD_SELF_STAT + ": " + stat);
+        }
+    }
+
+    /**
+     * Returns the CPUs the thread with the given native ID is allowed to run
+     * on, as set by the affinity mask of the thread and the cpuset of the
+     * process.
+     *
+     * @param threadId the native ID of the thread.
+     * @return the allowed CPUs or an empty list if they cannot be read.
+     * @throws IOException if the status of the thread cannot be read.
+     */
+    static List<Integer> getAllowedCpus(int threadId) throws IOException {
+        InputStream in = new FileInputStream(TASK_DIR + threadId + "/status");
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+            String line = reader.readLine();
+            while (line != null) {
+                if (line.startsWith(CPUS_ALLOWED_LIST)) {
+                    return parseCpus(line.substring(CPUS_ALLOWED_LIST.length()));
+                }
+                line = reader.readLine();
+            }
+            return Collections.emptyList();
+        } finally {
+            closeResource(in);
+        }
+    }
+
+    private static String readFirstLine(String path) throws IOException {
+        InputStream in = new FileInputStream(path);
+        try {
+            String line = new BufferedReader(new InputStreamReader(in, "US-ASCII")).readLine();
+            if (line == null) {
+                throw new IOException(path + " is empty");
+            }
+            return line;
+        } finally {
+            closeResource(in);
+        }
+    }
+
+    private static void logFailure(String reason, Throwable cause) {
+        String message = "Failed to pin " + Thread.currentThread().getName() + " to a CPU, " + reason;
+        if (FAILURE_LOGGED.compareAndSet(false, true)) {
+            LOGGER.warning(message + ". Further failures are only logged at the finest level.", cause);
+        } else {
+            LOGGER.finest(message, cause);
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        try {
+            // the output of taskset is of no interest
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            do {
+                read = in.read(buffer);
+            } while (read != -1);
+        } finally {
+            closeResource(in);
+        }
+    }
+}
@@ -17,14 +17,17 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.core.EntryEventType;
+import com.hazelcast.map.impl.event.EntryEventData;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.spi.EventFilter;
+import com.hazelcast.spi.impl.eventservice.CoalescingEventFilter;
 import com.hazelcast.spi.impl.eventservice.impl.TrueEventFilter;
 
 import java.io.IOException;
 
+import static com.hazelcast.map.impl.MapListenerFlagOperator.COALESCING_LISTENER_FLAG;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.SET_ALL_LISTENER_FLAGS;
 
 /**
@@ -44,12 +47,15 @@ import static com.hazelcast.map.impl.MapListenerFlagOperator.SET_ALL_LISTENER_FL
  * That listener will only be notified for {@link EntryEventType#ADDED} and {@link EntryEventType#REMOVED} events.
  * Other events, like {@link EntryEventType#EVICTED} or {@link EntryEventType#EXPIRED}, will not be sent over wire.
  * This may help to reduce load on eventing system and network.
+ * <p/>
+ * If the listener is a {@link com.hazelcast.map.listener.CoalescingListener CoalescingListener}, the entry events
+ * sent in the same event batch are coalesced by key.
  *
  * @see MapListenerFlagOperator#setAndGetListenerFlags(ListenerAdapter)
  * @see com.hazelcast.map.listener.MapListener
  * @since 3.6
  */
-public class EventListenerFilter implements EventFilter, IdentifiedDataSerializable {
+public class EventListenerFilter implements CoalescingEventFilter, IdentifiedDataSerializable {
 
     /**
      * Flags of implemented listeners.
@@ -84,6 +90,14 @@ public class EventListenerFilter implements EventFilter, IdentifiedDataSerializa
         return (listenerFlags & eventType) != 0;
     }
 
+    @Override
+    public Object getCoalescingKey(Object event) {
+        if ((listenerFlags & COALESCING_LISTENER_FLAG) == 0 || !(event instanceof EntryEventData)) {
+            return null;
+        }
+        return ((EntryEventData) event).getDataKey();
+    }
+
     public EventFilter getEventFilter() {
         return eventFilter;
     }
@@ -41,6 +41,7 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.nio.ClassLoaderUtil;
@@ -72,6 +73,7 @@ import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
 import static com.hazelcast.spi.properties.GroupProperty.MAP_EVICTION_BATCH_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.MAP_LOAD_ALL_PUBLISHES_ADDED_EVENT;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_READONLY_ENTRY_PROCESSOR_OFFLOAD;
 import static java.lang.System.getProperty;
 
 /**
@@ -82,6 +84,7 @@ import static java.lang.System.getProperty;
 public class MapContainer {
 
     protected final boolean addEventPublishingEnabled;
+    protected final boolean readOnlyEntryProcessorOffloadEnabled;
     protected final String name;
     protected final String quorumName;
     // on-heap indexes are global, meaning there is only one index per map,
@@ -134,6 +137,7 @@ public class MapContainer {
         this.extractors = Extractors.newBuilder(serializationService)
                 .setMapAttributeConfigs(mapConfig.getMapAttributeConfigs())
                 .setClassLoader(classloader)
+                .setDataSerializableSchemas(nodeEngine.getConfig().getSerializationConfig().getDataSerializableSchemas())
                 .build();
         this.queryEntryFactory = new QueryEntryFactory(mapConfig.getCacheDeserializedValues(),
                 serializationService, extractors);
@@ -143,6 +147,7 @@ public class MapContainer {
             this.globalIndexes = null;
         }
         this.addEventPublishingEnabled = nodeEngine.getProperties().getBoolean(MAP_LOAD_ALL_PUBLISHES_ADDED_EVENT);
+        this.readOnlyEntryProcessorOffloadEnabled = nodeEngine.getProperties().getBoolean(MAP_READONLY_ENTRY_PROCESSOR_OFFLOAD);
         this.mapStoreContext = createMapStoreContext(this);
         this.mapStoreContext.start();
         initEvictor();
@@ -167,6 +172,10 @@ public class MapContainer {
         return addEventPublishingEnabled;
     }
 
+    public boolean isReadOnlyEntryProcessorOffloadEnabled() {
+        return readOnlyEntryProcessorOffloadEnabled;
+    }
+
     // this method is overridden
     public void initEvictor() {
         MapEvictionPolicy mapEvictionPolicy = getMapEvictionPolicy();
@@ -238,6 +247,9 @@ public class MapContainer {
                         return new DataRecordFactory(mapConfig, serializationService, partitioningStrategy);
                     case OBJECT:
                         return new ObjectRecordFactory(mapConfig, serializationService);
+                    case NATIVE:
+                        return new NativeRecordFactory(mapConfig, serializationService, partitioningStrategy,
+                                mapServiceContext.getNativeMemoryManager());
                     default:
                         throw new IllegalArgumentException("Invalid storage format: " + mapConfig.getInMemoryFormat());
                 }
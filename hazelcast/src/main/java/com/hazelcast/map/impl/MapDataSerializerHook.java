@@ -65,6 +65,8 @@ import com.hazelcast.map.impl.operation.KeyLoadStatusOperationFactory;
 import com.hazelcast.map.impl.operation.LegacyMergeOperation;
 import com.hazelcast.map.impl.operation.LoadAllOperation;
 import com.hazelcast.map.impl.operation.LoadMapOperation;
+import com.hazelcast.map.impl.operation.MapChunkOperation;
+import com.hazelcast.map.impl.operation.MapMerkleTreeDeltaOperation;
 import com.hazelcast.map.impl.operation.MapFetchEntriesOperation;
 import com.hazelcast.map.impl.operation.MapFetchKeysOperation;
 import com.hazelcast.map.impl.operation.MapFetchWithQueryOperation;
@@ -100,6 +102,7 @@ import com.hazelcast.map.impl.operation.PutAllPartitionAwareOperationFactory;
 import com.hazelcast.map.impl.operation.PutBackupOperation;
 import com.hazelcast.map.impl.operation.PutFromLoadAllBackupOperation;
 import com.hazelcast.map.impl.operation.PutFromLoadAllOperation;
+import com.hazelcast.map.impl.operation.PutIfAbsentFromLoadAllOperation;
 import com.hazelcast.map.impl.operation.PutIfAbsentOperation;
 import com.hazelcast.map.impl.operation.PutOperation;
 import com.hazelcast.map.impl.operation.PutTransientOperation;
@@ -313,8 +316,11 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int SET_TTL = 148;
     public static final int SET_TTL_BACKUP = 149;
     public static final int MERKLE_TREE_NODE_ENTRIES = 150;
+    public static final int MAP_CHUNK = 151;
+    public static final int MERKLE_TREE_DELTA = 152;
+    public static final int PUT_IF_ABSENT_FROM_LOAD_ALL = 153;
 
-    private static final int LEN = MERKLE_TREE_NODE_ENTRIES + 1;
+    private static final int LEN = PUT_IF_ABSENT_FROM_LOAD_ALL + 1;
 
     @Override
     public int getFactoryId() {
@@ -1063,6 +1069,24 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new MerkleTreeNodeEntries();
             }
         };
+        constructors[MAP_CHUNK] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapChunkOperation();
+            }
+        };
+        constructors[MERKLE_TREE_DELTA] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapMerkleTreeDeltaOperation();
+            }
+        };
+        constructors[PUT_IF_ABSENT_FROM_LOAD_ALL] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            @Override
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new PutIfAbsentFromLoadAllOperation();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
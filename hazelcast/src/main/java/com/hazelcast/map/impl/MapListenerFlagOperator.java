@@ -29,6 +29,13 @@ public final class MapListenerFlagOperator {
      */
     public static final int SET_ALL_LISTENER_FLAGS = setAndGetAllListenerFlags();
 
+    /**
+     * Set if the listener accepts coalesced entry events. This bit is not used by any {@link EntryEventType}.
+     *
+     * @see com.hazelcast.map.listener.CoalescingListener
+     */
+    public static final int COALESCING_LISTENER_FLAG = 1 << 30;
+
     private MapListenerFlagOperator() {
     }
 
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl;
 
 import com.hazelcast.concurrent.lock.LockService;
 import com.hazelcast.concurrent.lock.LockStoreInfo;
+import com.hazelcast.map.impl.persistence.MapPersistence;
 import com.hazelcast.spi.ManagedService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.ObjectNamespace;
@@ -46,6 +47,11 @@ public class MapManagedService implements ManagedService {
                     new ObjectNamespaceLockStoreInfoConstructorFunction());
         }
         mapServiceContext.initPartitionsContainers();
+
+        MapPersistence mapPersistence = mapServiceContext.getMapPersistence();
+        if (mapPersistence != null) {
+            mapPersistence.start();
+        }
     }
 
     @Override
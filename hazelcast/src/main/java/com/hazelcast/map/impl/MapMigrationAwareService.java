@@ -17,6 +17,8 @@
 package com.hazelcast.map.impl;
 
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
+import com.hazelcast.map.impl.operation.MapChunkIterator;
+import com.hazelcast.map.impl.operation.MapMerkleTreeDeltaOperation;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.publisher.PublisherContext;
@@ -28,7 +30,8 @@ import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryableEntry;
-import com.hazelcast.spi.FragmentedMigrationAwareService;
+import com.hazelcast.spi.ChunkedMigrationAwareService;
+import com.hazelcast.spi.DeltaReplicationAwareService;
 import com.hazelcast.spi.ObjectNamespace;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
@@ -38,6 +41,9 @@ import com.hazelcast.spi.partition.MigrationEndpoint;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.function.Predicate;
+import com.hazelcast.wan.merkletree.MerkleTree;
+import com.hazelcast.wan.merkletree.MerkleTreeUtil;
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
 
 import java.util.Collection;
 import java.util.Iterator;
@@ -53,7 +59,7 @@ import static com.hazelcast.spi.partition.MigrationEndpoint.SOURCE;
  *
  * @see MapService
  */
-class MapMigrationAwareService implements FragmentedMigrationAwareService {
+class MapMigrationAwareService implements ChunkedMigrationAwareService, DeltaReplicationAwareService {
 
     protected final PartitionContainer[] containers;
     protected final MapServiceContext mapServiceContext;
@@ -138,6 +144,54 @@ class MapMigrationAwareService implements FragmentedMigrationAwareService {
         return operation;
     }
 
+    @Override
+    public Iterator<Operation> createChunkIterator(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                   long maxChunkSizeInBytes) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        PartitionContainer container = containers[event.getPartitionId()];
+        return new MapChunkIterator(mapServiceContext, container, namespace, event.getReplicaIndex(), maxChunkSizeInBytes);
+    }
+
+    @Override
+    public RemoteMerkleTreeView createMerkleTreeView(int partitionId, ServiceNamespace namespace) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        RecordStore recordStore = containers[partitionId].getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        MerkleTree merkleTree = recordStore != null ? recordStore.getMerkleTree() : null;
+        return merkleTree != null ? MerkleTreeUtil.createRemoteMerkleTreeView(merkleTree) : null;
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      RemoteMerkleTreeView merkleTreeView) {
+        assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
+
+        int partitionId = event.getPartitionId();
+        RecordStore recordStore = containers[partitionId].getExistingRecordStore(((ObjectNamespace) namespace).getObjectName());
+        if (!canReplicateDelta(recordStore, event.getReplicaIndex(), merkleTreeView)) {
+            return null;
+        }
+
+        Operation operation = new MapMerkleTreeDeltaOperation(recordStore, merkleTreeView, serializationService);
+        operation.setService(mapServiceContext.getService());
+        operation.setNodeEngine(mapServiceContext.getNodeEngine());
+        return operation;
+    }
+
+    /**
+     * Delta replication carries records only, so the maps which have other replicated
+     * state, like a write-behind queue, are replicated fully.
+     */
+    private static boolean canReplicateDelta(RecordStore recordStore, int replicaIndex, RemoteMerkleTreeView merkleTreeView) {
+        if (recordStore == null || recordStore.getMapContainer().getTotalBackupCount() < replicaIndex) {
+            return false;
+        }
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        return merkleTree != null && merkleTree.depth() == merkleTreeView.depth()
+                && !recordStore.getMapContainer().getMapStoreContext().isWriteBehindMapStoreEnabled();
+    }
+
     private boolean assertAllKnownNamespaces(Collection<ServiceNamespace> namespaces) {
         for (ServiceNamespace namespace : namespaces) {
             assert isKnownServiceNamespace(namespace) : namespace + " is not a MapService namespace!";
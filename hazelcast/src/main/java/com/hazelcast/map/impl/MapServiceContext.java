@@ -22,12 +22,14 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
 import com.hazelcast.map.impl.journal.MapEventJournal;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.map.impl.persistence.MapPersistence;
 import com.hazelcast.map.impl.query.QueryEngine;
 import com.hazelcast.map.impl.query.PartitionScanRunner;
 import com.hazelcast.map.impl.query.QueryRunner;
@@ -51,6 +53,7 @@ import com.hazelcast.util.function.Predicate;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Context which is needed by a map service.
@@ -131,8 +134,27 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     AtomicInteger getWriteBehindQueueItemCounter();
 
+    /**
+     * Returns the member-wide size in bytes of the entries pending in
+     * write-behind queues, maintained when
+     * {@link com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_QUEUE_MAX_BYTES} is set.
+     *
+     * @return the write-behind queue size counter in bytes
+     */
+    AtomicLong getWriteBehindQueueBytesCounter();
+
     ExpirationManager getExpirationManager();
 
+    /**
+     * Returns the member-wide memory manager backing maps with
+     * {@link com.hazelcast.config.InMemoryFormat#NATIVE} in-memory format.
+     * It is created on first use and bounded by the configured
+     * {@link com.hazelcast.config.NativeMemoryConfig#getSize() native memory size}.
+     *
+     * @return the native memory manager
+     */
+    StandardMemoryManager getNativeMemoryManager();
+
     void setService(MapService mapService);
 
     NodeEngine getNodeEngine();
@@ -202,4 +224,11 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
     Collection<RecordStoreMutationObserver<Record>> createRecordStoreMutationObservers(String mapName, int partitionId);
 
     ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat);
+
+    /**
+     * Returns the local persistence of the map partitions.
+     *
+     * @return the map persistence or {@code null} if it is not enabled
+     */
+    MapPersistence getMapPersistence();
 }
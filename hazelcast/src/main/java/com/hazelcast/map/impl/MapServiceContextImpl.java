@@ -20,9 +20,11 @@ import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MergePolicyConfig;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.InvocationUtil;
 import com.hazelcast.internal.util.LocalRetryableExecution;
@@ -43,6 +45,7 @@ import com.hazelcast.map.impl.operation.GetOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.MapOperationProviders;
 import com.hazelcast.map.impl.operation.MapPartitionDestroyOperation;
+import com.hazelcast.map.impl.persistence.MapPersistence;
 import com.hazelcast.map.impl.query.AccumulationExecutor;
 import com.hazelcast.map.impl.query.AggregationResult;
 import com.hazelcast.map.impl.query.AggregationResultProcessor;
@@ -65,6 +68,7 @@ import com.hazelcast.map.impl.recordstore.DefaultRecordStore;
 import com.hazelcast.map.impl.recordstore.EventJournalWriterRecordStoreMutationObserver;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.map.impl.recordstore.RecordStoreMutationObserver;
+import com.hazelcast.map.listener.CoalescingListener;
 import com.hazelcast.map.listener.MapPartitionLostListener;
 import com.hazelcast.map.merge.MergePolicyProvider;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
@@ -102,9 +106,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
+import static com.hazelcast.map.impl.MapListenerFlagOperator.COALESCING_LISTENER_FLAG;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.setAndGetListenerFlags;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.query.impl.predicates.QueryOptimizerFactory.newOptimizer;
@@ -136,6 +142,7 @@ class MapServiceContextImpl implements MapServiceContext {
      * getting this into account.
      */
     protected final AtomicInteger writeBehindQueueItemCounter = new AtomicInteger(0);
+    protected final AtomicLong writeBehindQueueBytesCounter = new AtomicLong(0);
 
     protected final NodeEngine nodeEngine;
     protected final InternalSerializationService serializationService;
@@ -157,10 +164,13 @@ class MapServiceContextImpl implements MapServiceContext {
     protected final EventService eventService;
     protected final MapOperationProviders operationProviders;
     protected final ResultProcessorRegistry resultProcessorRegistry;
+    protected final MapPersistence mapPersistence;
     protected ILogger logger;
 
     protected MapService mapService;
 
+    private volatile StandardMemoryManager nativeMemoryManager;
+
     @SuppressWarnings("checkstyle:executablestatementcount")
     MapServiceContextImpl(NodeEngine nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -184,6 +194,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.operationProviders = createOperationProviders();
         this.partitioningStrategyFactory = new PartitioningStrategyFactory(nodeEngine.getConfigClassLoader());
         this.logger = nodeEngine.getLogger(getClass());
+        this.mapPersistence = MapPersistence.create(this);
     }
 
     ConstructorFunction<String, MapContainer> createMapConstructor() {
@@ -251,6 +262,12 @@ class MapServiceContextImpl implements MapServiceContext {
     }
 
     private QueryResultProcessor createQueryResultProcessor(SerializationService ss) {
+        boolean parallelEvaluation = nodeEngine.getProperties().getBoolean(QUERY_PREDICATE_PARALLEL_EVALUATION);
+        if (parallelEvaluation) {
+            int opTimeoutInMillis = nodeEngine.getProperties().getInteger(OPERATION_CALL_TIMEOUT_MILLIS);
+            ManagedExecutorService queryExecutorService = nodeEngine.getExecutionService().getExecutor(QUERY_EXECUTOR);
+            return new QueryResultProcessor(ss, queryExecutorService, opTimeoutInMillis);
+        }
         return new QueryResultProcessor(ss);
     }
 
@@ -443,6 +460,10 @@ class MapServiceContextImpl implements MapServiceContext {
 
     @Override
     public void shutdown() {
+        if (mapPersistence != null) {
+            // closes the logs before the record stores are cleared
+            mapPersistence.shutdown();
+        }
         removeAllRecordStoresOfAllMaps(true, false);
         mapNearCacheManager.shutdown();
         mapContainers.clear();
@@ -498,11 +519,32 @@ class MapServiceContextImpl implements MapServiceContext {
         return writeBehindQueueItemCounter;
     }
 
+    @Override
+    public AtomicLong getWriteBehindQueueBytesCounter() {
+        return writeBehindQueueBytesCounter;
+    }
+
     @Override
     public ExpirationManager getExpirationManager() {
         return expirationManager;
     }
 
+    @Override
+    public StandardMemoryManager getNativeMemoryManager() {
+        StandardMemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager == null) {
+            synchronized (this) {
+                memoryManager = nativeMemoryManager;
+                if (memoryManager == null) {
+                    NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+                    memoryManager = new StandardMemoryManager(nativeMemoryConfig.getSize().bytes());
+                    nativeMemoryManager = memoryManager;
+                }
+            }
+        }
+        return memoryManager;
+    }
+
     @Override
     public NodeEngine getNodeEngine() {
         return nodeEngine;
@@ -722,6 +764,9 @@ class MapServiceContextImpl implements MapServiceContext {
         ListenerAdapter listenerAdaptor = createListenerAdapter(listener);
         if (!(filter instanceof EventListenerFilter)) {
             int enabledListeners = setAndGetListenerFlags(listenerAdaptor);
+            if (listener instanceof CoalescingListener) {
+                enabledListeners |= COALESCING_LISTENER_FLAG;
+            }
             filter = new EventListenerFilter(enabledListeners, filter);
         }
 
@@ -851,6 +896,9 @@ class MapServiceContextImpl implements MapServiceContext {
     public Collection<RecordStoreMutationObserver<Record>> createRecordStoreMutationObservers(String mapName, int partitionId) {
         Collection<RecordStoreMutationObserver<Record>> observers = new LinkedList<RecordStoreMutationObserver<Record>>();
         addEventJournalUpdaterObserver(observers, mapName, partitionId);
+        if (mapPersistence != null) {
+            observers.add(mapPersistence.createRecordStoreMutationObserver(mapName, partitionId));
+        }
 
         return observers;
     }
@@ -862,6 +910,11 @@ class MapServiceContextImpl implements MapServiceContext {
         observers.add(observer);
     }
 
+    @Override
+    public MapPersistence getMapPersistence() {
+        return mapPersistence;
+    }
+
     @Override
     public ValueComparator getValueComparatorOf(InMemoryFormat inMemoryFormat) {
         return ValueComparatorUtil.getValueComparatorOf(inMemoryFormat);
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.query.Query;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.IterationType;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Base class for streaming the results of a query over all the partitions
+ * of a map, instead of materializing the whole result on the members and
+ * on the caller.
+ * <p>
+ * The partitions are scanned chunk by chunk with the same cursor as used by
+ * {@link AbstractMapQueryPartitionIterator}: every chunk holds about {@code
+ * fetchSize} results and carries the table index to resume the scan of its
+ * partition from. The next chunk of a partition is requested as soon as the
+ * previous one arrives, so fetching overlaps with consuming. To keep the
+ * memory bounded, at most {@code maxInFlightChunks} partitions owned by the
+ * same member are scanned at the same time; every scanned partition has at
+ * most one chunk in flight and one chunk being consumed.
+ * <p>
+ * The results of different partitions are returned in no particular order.
+ * The same as for the partition iterators, the map should not be mutated and
+ * the cluster should be stable during the iteration, otherwise some results
+ * may be missed or returned twice.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @param <R> the return type of the projection
+ */
+public abstract class AbstractMapQueryStreamIterator<K, V, R> implements Iterator<R> {
+
+    protected final int fetchSize;
+    protected final Query query;
+
+    private final int maxInFlightChunks;
+    private final ArrayDeque<Integer> pendingPartitions = new ArrayDeque<Integer>();
+    private final ArrayDeque<PartitionCursor> activeCursors = new ArrayDeque<PartitionCursor>();
+    private final Map<Address, Integer> activeCursorsPerOwner = new HashMap<Address, Integer>();
+
+    private List<Data> chunk = Collections.emptyList();
+    private int index;
+
+    public AbstractMapQueryStreamIterator(IMap<K, V> map, int fetchSize, int maxInFlightChunks, int partitionCount,
+                                          Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection) {
+        this.fetchSize = checkPositive(fetchSize, "fetchSize must be positive");
+        this.maxInFlightChunks = checkPositive(maxInFlightChunks, "maxInFlightChunks must be positive");
+        this.query = Query.of()
+                          .mapName(map.getName())
+                          .iterationType(IterationType.VALUE)
+                          .predicate(predicate)
+                          .projection(projection)
+                          .build();
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            pendingPartitions.add(partitionId);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index >= chunk.size()) {
+            if (!advance()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return getSerializationService().toObject(chunk.get(index++));
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing when iterating map with query is not supported");
+    }
+
+    private boolean advance() {
+        startCursors();
+        PartitionCursor cursor = activeCursors.peekFirst();
+        if (cursor == null) {
+            return false;
+        }
+
+        Chunk received = cursor.await();
+        chunk = received.results;
+        index = 0;
+        if (chunk.isEmpty() || received.nextTableIndex < 0) {
+            activeCursors.pollFirst();
+            release(cursor.owner);
+        } else {
+            // prefetch the next chunk of the partition while the received one is consumed
+            cursor.fetch(received.nextTableIndex);
+            // rotate, so the partitions being scanned are consumed evenly
+            activeCursors.addLast(activeCursors.pollFirst());
+        }
+        return true;
+    }
+
+    private void startCursors() {
+        int pendingCount = pendingPartitions.size();
+        for (int i = 0; i < pendingCount; i++) {
+            Integer partitionId = pendingPartitions.pollFirst();
+            Address owner = getPartitionOwner(partitionId);
+            Integer active = activeCursorsPerOwner.get(owner);
+            if (active != null && active >= maxInFlightChunks) {
+                pendingPartitions.addLast(partitionId);
+                continue;
+            }
+            activeCursorsPerOwner.put(owner, active == null ? 1 : active + 1);
+            PartitionCursor cursor = new PartitionCursor(partitionId, owner);
+            cursor.fetch(Integer.MAX_VALUE);
+            activeCursors.addLast(cursor);
+        }
+    }
+
+    private void release(Address owner) {
+        int active = activeCursorsPerOwner.get(owner);
+        if (active == 1) {
+            activeCursorsPerOwner.remove(owner);
+        } else {
+            activeCursorsPerOwner.put(owner, active - 1);
+        }
+    }
+
+    /**
+     * Requests a chunk of the results of the given partition.
+     *
+     * @param partitionId the partition to fetch the results from
+     * @param tableIndex  the table index to resume the scan of the partition
+     *                    from, {@link Integer#MAX_VALUE} for the first chunk
+     * @return the future of the response
+     */
+    protected abstract Future<?> fetch(int partitionId, int tableIndex);
+
+    /**
+     * Converts the response of a {@link #fetch} into a chunk.
+     */
+    protected abstract Chunk toChunk(Object response);
+
+    /**
+     * @return the address of the owner of the given partition or {@code null}
+     * if the partition is not assigned yet.
+     */
+    protected abstract Address getPartitionOwner(int partitionId);
+
+    protected abstract SerializationService getSerializationService();
+
+    /**
+     * The results of a partition chunk together with the table index to
+     * fetch the next chunk of the partition from.
+     */
+    protected static final class Chunk {
+
+        final List<Data> results;
+        final int nextTableIndex;
+
+        public Chunk(List<Data> results, int nextTableIndex) {
+            this.results = results;
+            this.nextTableIndex = nextTableIndex;
+        }
+    }
+
+    private final class PartitionCursor {
+
+        final int partitionId;
+        final Address owner;
+        Future<?> pending;
+
+        PartitionCursor(int partitionId, Address owner) {
+            this.partitionId = partitionId;
+            this.owner = owner;
+        }
+
+        void fetch(int tableIndex) {
+            pending = AbstractMapQueryStreamIterator.this.fetch(partitionId, tableIndex);
+        }
+
+        Chunk await() {
+            try {
+                return toChunk(pending.get());
+            } catch (Exception e) {
+                throw rethrow(e);
+            } finally {
+                pending = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.iterator;
+
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.map.impl.query.QueryResultRow;
+import com.hazelcast.map.impl.query.ResultSegment;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Future;
+
+/**
+ * Iterator streaming the results of a query over all the partitions of a
+ * map from a member.
+ *
+ * @see AbstractMapQueryStreamIterator
+ */
+public class MapQueryStreamIterator<K, V, R> extends AbstractMapQueryStreamIterator<K, V, R> {
+
+    private final MapProxyImpl<K, V> mapProxy;
+
+    public MapQueryStreamIterator(MapProxyImpl<K, V> mapProxy, int fetchSize, int maxInFlightChunks,
+                                  Predicate<K, V> predicate, Projection<Entry<K, V>, R> projection) {
+        super(mapProxy, fetchSize, maxInFlightChunks,
+                mapProxy.getNodeEngine().getPartitionService().getPartitionCount(), predicate, projection);
+        this.mapProxy = mapProxy;
+    }
+
+    @Override
+    protected Future<?> fetch(int partitionId, int tableIndex) {
+        MapOperation op = mapProxy.getOperationProvider()
+                                  .createFetchWithQueryOperation(mapProxy.getName(), tableIndex, fetchSize, query);
+        return mapProxy.getOperationService().invokeOnPartition(mapProxy.getServiceName(), op, partitionId);
+    }
+
+    @Override
+    protected Chunk toChunk(Object response) {
+        ResultSegment segment = (ResultSegment) response;
+        QueryResult queryResult = (QueryResult) segment.getResult();
+        List<Data> results = new ArrayList<Data>(queryResult.size());
+        for (QueryResultRow row : queryResult) {
+            results.add(row.getValue());
+        }
+        return new Chunk(results, segment.getNextTableIndexToReadFrom());
+    }
+
+    @Override
+    protected Address getPartitionOwner(int partitionId) {
+        return mapProxy.getNodeEngine().getPartitionService().getPartitionOwner(partitionId);
+    }
+
+    @Override
+    protected SerializationService getSerializationService() {
+        return mapProxy.getNodeEngine().getSerializationService();
+    }
+}
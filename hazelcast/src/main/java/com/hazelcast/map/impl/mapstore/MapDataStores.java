@@ -29,8 +29,11 @@ import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createBoundedWriteBehindQueue;
+import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createByteBoundedDefaultWriteBehindQueue;
+import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createByteBoundedWriteBehindQueue;
 import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createDefaultWriteBehindQueue;
 
 /**
@@ -72,6 +75,12 @@ public final class MapDataStores {
         HazelcastProperties hazelcastProperties = mapServiceContext.getNodeEngine().getProperties();
         final int capacity = hazelcastProperties.getInteger(GroupProperty.MAP_WRITE_BEHIND_QUEUE_CAPACITY);
         final AtomicInteger counter = mapServiceContext.getWriteBehindQueueItemCounter();
+        final long maxBytes = hazelcastProperties.getLong(GroupProperty.MAP_WRITE_BEHIND_QUEUE_MAX_BYTES);
+        if (maxBytes > 0) {
+            final AtomicLong bytesCounter = mapServiceContext.getWriteBehindQueueBytesCounter();
+            return (writeCoalescing ? createByteBoundedDefaultWriteBehindQueue(maxBytes, bytesCounter)
+                    : createByteBoundedWriteBehindQueue(capacity, counter, maxBytes, bytesCounter));
+        }
         return (writeCoalescing ? createDefaultWriteBehindQueue() : createBoundedWriteBehindQueue(capacity, counter));
     }
 
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.map.ReachedMaxSizeException;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * A queue which bounds the total size in bytes of the entries pending in all
+ * write-behind queues of a member and throws {@link ReachedMaxSizeException}
+ * when an addition would exceed it. The exception is returned to the caller
+ * of the mutating map operation, which pushes back on writers while the map
+ * store can not keep up.
+ * <p/>
+ * The size of an entry is the heap cost of its serialized key and, if the value
+ * is kept in serialized form, of its value. Values kept in object form are not
+ * measured. When wrapping a {@link CoalescedWriteBehindQueue}, an entry replacing
+ * a queued entry of the same key only needs the difference of their sizes.
+ * <p/>
+ * Entries re-added to the front of the queue after a failed store are always
+ * accepted, even if this takes the member over the bound; they are already
+ * accounted for until the store attempt.
+ * <p/>
+ * Note that this {@link WriteBehindQueue} implementation is not thread-safe. When it is in action, thread-safe access
+ * will be provided by wrapping it in a {@link SynchronizedWriteBehindQueue}
+ *
+ * @see SynchronizedWriteBehindQueue
+ */
+class ByteBoundedWriteBehindQueue implements WriteBehindQueue<DelayedEntry> {
+
+    /**
+     * Per node write behind queue size counter in bytes.
+     */
+    private final AtomicLong writeBehindQueueBytesCounter;
+
+    /**
+     * Allowed max size in bytes per node which is used to provide back-pressure.
+     */
+    private final long maxBytes;
+
+    private final WriteBehindQueue<DelayedEntry> queue;
+
+    /**
+     * The wrapped queue if it is a coalescing one, otherwise {@code null}.
+     */
+    private final CoalescedWriteBehindQueue coalescedQueue;
+
+    /**
+     * Size in bytes of the entries in this queue.
+     */
+    private long queuedBytes;
+
+    ByteBoundedWriteBehindQueue(long maxBytes, AtomicLong writeBehindQueueBytesCounter, WriteBehindQueue<DelayedEntry> queue) {
+        this(maxBytes, writeBehindQueueBytesCounter, queue, null);
+    }
+
+    ByteBoundedWriteBehindQueue(long maxBytes, AtomicLong writeBehindQueueBytesCounter, CoalescedWriteBehindQueue queue) {
+        this(maxBytes, writeBehindQueueBytesCounter, queue, queue);
+    }
+
+    private ByteBoundedWriteBehindQueue(long maxBytes, AtomicLong writeBehindQueueBytesCounter,
+                                        WriteBehindQueue<DelayedEntry> queue, CoalescedWriteBehindQueue coalescedQueue) {
+        this.maxBytes = maxBytes;
+        this.writeBehindQueueBytesCounter = writeBehindQueueBytesCounter;
+        this.queue = queue;
+        this.coalescedQueue = coalescedQueue;
+    }
+
+    /**
+     * Add this collection to the front of the queue.
+     * <p/>
+     * A coalescing queue drops the entries of keys which were updated in the
+     * meantime, so the size of the queue is recalculated after the addition.
+     *
+     * @param collection collection of elements to be added in front of this queue.
+     */
+    @Override
+    public void addFirst(Collection<DelayedEntry> collection) {
+        if (collection == null || collection.isEmpty()) {
+            return;
+        }
+        queue.addFirst(collection);
+        long newQueuedBytes = coalescedQueue == null ? queuedBytes + sizeOfAll(collection) : sizeOfAll(queue.asList());
+        addBytes(newQueuedBytes - queuedBytes, false);
+    }
+
+    /**
+     * Inserts to the end of this queue.
+     *
+     * @param e element to be offered
+     * @throws ReachedMaxSizeException if the node-wide max size in bytes would be exceeded
+     */
+    @Override
+    public void addLast(DelayedEntry e) {
+        long bytes = sizeOf(e);
+        if (coalescedQueue != null && e != null) {
+            bytes -= sizeOf(coalescedQueue.get((Data) e.getKey()));
+        }
+        addBytes(bytes, true);
+        try {
+            queue.addLast(e);
+        } catch (RuntimeException exception) {
+            addBytes(-bytes, false);
+            throw exception;
+        }
+    }
+
+    @Override
+    public DelayedEntry peek() {
+        return queue.peek();
+    }
+
+    /**
+     * Removes the first occurrence of the specified element in this queue
+     * when searching it by starting from the head of this queue.
+     *
+     * @param e element to be removed.
+     * @return <code>true</code> if removed successfully, <code>false</code> otherwise
+     */
+    @Override
+    public boolean removeFirstOccurrence(DelayedEntry e) {
+        boolean result = queue.removeFirstOccurrence(e);
+        if (result) {
+            addBytes(-sizeOf(e), false);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all elements from this queue and adds them
+     * to the given collection.
+     *
+     * @return number of removed items from this queue.
+     */
+    @Override
+    public int drainTo(Collection<DelayedEntry> collection) {
+        int size = queue.drainTo(collection);
+        addBytes(-queuedBytes, false);
+        return size;
+    }
+
+    @Override
+    public boolean contains(DelayedEntry e) {
+        return queue.contains(e);
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+        addBytes(-queuedBytes, false);
+    }
+
+    @Override
+    public List<DelayedEntry> asList() {
+        return queue.asList();
+    }
+
+    @Override
+    public void filter(IPredicate<DelayedEntry> predicate, Collection<DelayedEntry> collection) {
+        queue.filter(predicate, collection);
+    }
+
+    /**
+     * Returns the size in bytes of the entries in this queue.
+     */
+    long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    /**
+     * Increments or decrements the node-wide and the local size in bytes.
+     *
+     * @param bytes    the number of bytes to be added or subtracted
+     * @param bounded  {@code true} if an increment must not exceed {@link #maxBytes}
+     * @throws ReachedMaxSizeException if {@code bounded} and the node-wide max size would be exceeded
+     */
+    private void addBytes(long bytes, boolean bounded) {
+        if (bytes == 0) {
+            return;
+        }
+        AtomicLong counter = this.writeBehindQueueBytesCounter;
+        if (bounded && bytes > 0) {
+            long current = counter.get();
+            while (true) {
+                if (current + bytes > maxBytes) {
+                    throwException(current, bytes);
+                }
+                if (counter.compareAndSet(current, current + bytes)) {
+                    break;
+                }
+                current = counter.get();
+            }
+        } else {
+            counter.addAndGet(bytes);
+        }
+        queuedBytes += bytes;
+    }
+
+    private void throwException(long currentBytes, long requiredBytes) {
+        String msg = format("Reached node-wide max size in bytes for write-behind-stores. Max allowed size = [%d],"
+                + " current size = [%d], required size = [%d]", maxBytes, currentBytes, requiredBytes);
+        throw new ReachedMaxSizeException(msg);
+    }
+
+    private static long sizeOfAll(Collection<DelayedEntry> entries) {
+        long bytes = 0;
+        for (DelayedEntry entry : entries) {
+            bytes += sizeOf(entry);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the size in bytes accounted for the given entry.
+     */
+    static long sizeOf(DelayedEntry entry) {
+        if (entry == null) {
+            return 0;
+        }
+        return heapCostOf(entry.getKey()) + heapCostOf(entry.getValue());
+    }
+
+    private static long heapCostOf(Object object) {
+        return object instanceof Data ? ((Data) object).getHeapCost() : 0;
+    }
+}
@@ -147,6 +147,16 @@ class CoalescedWriteBehindQueue implements WriteBehindQueue<DelayedEntry> {
         }
     }
 
+    /**
+     * Returns the entry currently queued for the given key.
+     *
+     * @param key the key of the entry
+     * @return the queued entry or {@code null} if there is none
+     */
+    DelayedEntry get(Data key) {
+        return map.get(key);
+    }
+
     /**
      * If this is an existing key in this queue, use previously set store time;
      * since we do not want to shift store time of an existing key on every update.
@@ -30,12 +30,18 @@ import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.Clock;
+import com.hazelcast.util.ExceptionUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import static com.hazelcast.spi.ExecutionService.MAP_STORE_EXECUTOR;
 import static com.hazelcast.util.CollectionUtil.isEmpty;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -45,7 +51,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * That thread uses this runnable task to process write-behind-queues. This task collects entries from
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p/>
- * Only one {@link StoreWorker} task is created for a map on a member.
+ * Only one {@link StoreWorker} task is created for a map on a member. When
+ * {@link GroupProperty#MAP_WRITE_BEHIND_PARALLELISM} is greater than one, the entries of the owned
+ * partitions are split into that many partition groups which are stored in parallel on the
+ * {@link ExecutionService#MAP_STORE_EXECUTOR}.
  */
 public class StoreWorker implements Runnable {
 
@@ -60,6 +69,7 @@ public class StoreWorker implements Runnable {
     private final long backupDelayMillis;
     private final long writeDelayMillis;
     private final int partitionCount;
+    private final int writeBehindParallelism;
     /**
      * Entries are fetched from write-behind-queues according to highestStoreTime. If an entry
      * has a store-time which is smaller than or equal to the highestStoreTime, it will be processed.
@@ -80,6 +90,7 @@ public class StoreWorker implements Runnable {
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
         this.partitionCount = partitionService.getPartitionCount();
+        this.writeBehindParallelism = getWriteBehindParallelism();
     }
 
 
@@ -145,7 +156,7 @@ public class StoreWorker implements Runnable {
         }
 
         if (!isEmpty(ownersList)) {
-            Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
+            Map<Integer, List<DelayedEntry>> failuresPerPartition = processOwnedEntries(ownersList);
             removeFinishedStoreOperationsFromQueues(mapName, ownersList);
             reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
         }
@@ -158,6 +169,103 @@ public class StoreWorker implements Runnable {
 
     }
 
+    /**
+     * Stores the entries of owned partitions. The entries are split into
+     * partition groups by partition ID so that all entries of a partition
+     * are stored by the same thread and in the same order. The first group
+     * is processed on the calling thread, the others on the
+     * {@link ExecutionService#MAP_STORE_EXECUTOR}.
+     *
+     * @param entries entries to be stored
+     * @return failed store operations per partition
+     */
+    private Map<Integer, List<DelayedEntry>> processOwnedEntries(List<DelayedEntry> entries) {
+        if (writeBehindParallelism <= 1) {
+            return writeBehindProcessor.process(entries);
+        }
+        List<List<DelayedEntry>> groups = groupByPartition(entries);
+        if (groups.size() == 1) {
+            return writeBehindProcessor.process(entries);
+        }
+
+        List<Future<Map<Integer, List<DelayedEntry>>>> futures
+                = new ArrayList<Future<Map<Integer, List<DelayedEntry>>>>(groups.size() - 1);
+        for (int i = 1; i < groups.size(); i++) {
+            futures.add(executionService.submit(MAP_STORE_EXECUTOR, new ProcessTask(groups.get(i))));
+        }
+
+        Map<Integer, List<DelayedEntry>> failuresPerPartition = new HashMap<Integer, List<DelayedEntry>>();
+        Throwable error = null;
+        try {
+            failuresPerPartition.putAll(writeBehindProcessor.process(groups.get(0)));
+        } catch (Throwable t) {
+            error = t;
+        }
+        // wait for all groups, the next run must not overlap with this one
+        Throwable groupError = awaitGroups(futures, failuresPerPartition);
+        error = error == null ? groupError : error;
+        if (error != null) {
+            throw ExceptionUtil.rethrow(error);
+        }
+        return failuresPerPartition;
+    }
+
+    /**
+     * Waits for the given partition groups and collects their failed store
+     * operations into {@code failuresPerPartition}.
+     *
+     * @return the first error thrown by a group or {@code null} if there was none
+     */
+    private static Throwable awaitGroups(List<Future<Map<Integer, List<DelayedEntry>>>> futures,
+                                         Map<Integer, List<DelayedEntry>> failuresPerPartition) {
+        Throwable error = null;
+        for (Future<Map<Integer, List<DelayedEntry>>> future : futures) {
+            try {
+                failuresPerPartition.putAll(future.get());
+            } catch (InterruptedException e) {
+                currentThread().interrupt();
+                error = error == null ? e : error;
+            } catch (ExecutionException e) {
+                error = error == null ? e.getCause() : error;
+            }
+        }
+        return error;
+    }
+
+    private List<List<DelayedEntry>> groupByPartition(List<DelayedEntry> entries) {
+        List<List<DelayedEntry>> groups = new ArrayList<List<DelayedEntry>>(writeBehindParallelism);
+        for (int i = 0; i < writeBehindParallelism; i++) {
+            groups.add(new ArrayList<DelayedEntry>());
+        }
+        for (DelayedEntry entry : entries) {
+            groups.get(entry.getPartitionId() % writeBehindParallelism).add(entry);
+        }
+        List<List<DelayedEntry>> nonEmptyGroups = new ArrayList<List<DelayedEntry>>(writeBehindParallelism);
+        for (List<DelayedEntry> group : groups) {
+            if (!group.isEmpty()) {
+                nonEmptyGroups.add(group);
+            }
+        }
+        return nonEmptyGroups;
+    }
+
+    /**
+     * Stores a partition group of entries on behalf of {@link #processOwnedEntries(List)}.
+     */
+    private final class ProcessTask implements Callable<Map<Integer, List<DelayedEntry>>> {
+
+        private final List<DelayedEntry> entries;
+
+        private ProcessTask(List<DelayedEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Map<Integer, List<DelayedEntry>> call() {
+            return writeBehindProcessor.process(entries);
+        }
+    }
+
     private static List<DelayedEntry> initListIfNull(List<DelayedEntry> list, int capacity) {
         if (list == null) {
             list = new ArrayList<DelayedEntry>(capacity);
@@ -277,6 +385,11 @@ public class StoreWorker implements Runnable {
         return hazelcastProperties.getMillis(GroupProperty.MAP_REPLICA_SCHEDULED_TASK_DELAY_SECONDS);
     }
 
+    private int getWriteBehindParallelism() {
+        HazelcastProperties hazelcastProperties = mapServiceContext.getNodeEngine().getProperties();
+        return Math.max(1, hazelcastProperties.getInteger(GroupProperty.MAP_WRITE_BEHIND_PARALLELISM));
+    }
+
     private RecordStore getRecordStoreOrNull(String mapName, int partitionId) {
         PartitionContainer partitionContainer = mapServiceContext.getPartitionContainer(partitionId);
         return partitionContainer.getExistingRecordStore(mapName);
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.mapstore.writebehind;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A class providing static factory methods that create write behind queues.
@@ -39,6 +40,38 @@ public final class WriteBehindQueues {
         return createSynchronizedWriteBehindQueue(queue);
     }
 
+    /**
+     * Creates a bounded write behind queue which additionally bounds the
+     * node-wide size in bytes of the pending entries.
+     *
+     * @param maxCapacity  node-wide max number of pending entries, used when write-coalescing is off
+     * @param counter      node-wide counter of pending entries
+     * @param maxBytes     node-wide max size in bytes of pending entries
+     * @param bytesCounter node-wide counter of the size in bytes of pending entries
+     */
+    public static WriteBehindQueue<DelayedEntry> createByteBoundedWriteBehindQueue(int maxCapacity, AtomicInteger counter,
+                                                                                 long maxBytes, AtomicLong bytesCounter) {
+        final WriteBehindQueue<DelayedEntry> queue = createCyclicWriteBehindQueue();
+        final WriteBehindQueue<DelayedEntry> boundedQueue = createBoundedWriteBehindQueue(maxCapacity, counter, queue);
+        final WriteBehindQueue<DelayedEntry> byteBoundedQueue
+                = new ByteBoundedWriteBehindQueue(maxBytes, bytesCounter, boundedQueue);
+        return createSynchronizedWriteBehindQueue(byteBoundedQueue);
+    }
+
+    /**
+     * Creates a write-coalescing write behind queue which bounds the
+     * node-wide size in bytes of the pending entries.
+     *
+     * @param maxBytes     node-wide max size in bytes of pending entries
+     * @param bytesCounter node-wide counter of the size in bytes of pending entries
+     */
+    public static WriteBehindQueue<DelayedEntry> createByteBoundedDefaultWriteBehindQueue(long maxBytes,
+                                                                                        AtomicLong bytesCounter) {
+        final CoalescedWriteBehindQueue queue = new CoalescedWriteBehindQueue();
+        final WriteBehindQueue<DelayedEntry> byteBoundedQueue = new ByteBoundedWriteBehindQueue(maxBytes, bytesCounter, queue);
+        return createSynchronizedWriteBehindQueue(byteBoundedQueue);
+    }
+
     private static <T> WriteBehindQueue<T> createSynchronizedWriteBehindQueue(WriteBehindQueue<T> queue) {
         return new SynchronizedWriteBehindQueue<T>(queue);
     }
@@ -112,6 +112,13 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * 1. partition-thread (fetch)
  * 2. execution-thread (process)
  * <p>
+ * ### ReadOnly without Offloadable
+ * <p>
+ * If the hazelcast.map.entry.processor.readonly.offload property is enabled, an EntryProcessor implementing only
+ * ReadOnly is offloaded like an Offloadable and ReadOnly one, using the default offloadable executor. It is not
+ * offloaded if it returns a backup processor or explicitly implements Offloadable with NO_OFFLOADING. Since the
+ * partition-thread only fetches the entry, read-only processors of a hot partition run concurrently on several cores.
+ * <p>
  * ### Primary partition - main actors
  * <p>
  * - EntryOperation
@@ -197,7 +204,7 @@ public class EntryOperation extends KeyBasedMapOperation implements BackupAwareO
     public boolean shouldWait() {
         // optimisation for ReadOnly processors -> they will not wait for the lock
         if (entryProcessor instanceof ReadOnly) {
-            offload = isOffloadingRequested(entryProcessor);
+            offload = isOffloadingRequested(entryProcessor) || isReadOnlyOffloadingEnabled(entryProcessor);
             return false;
         }
         // mutating offload -> only if key not locked, since it uses locking too (but on reentrant one)
@@ -221,6 +228,12 @@ public class EntryOperation extends KeyBasedMapOperation implements BackupAwareO
         return false;
     }
 
+    private boolean isReadOnlyOffloadingEnabled(EntryProcessor entryProcessor) {
+        return mapContainer.isReadOnlyEntryProcessorOffloadEnabled()
+                && !(entryProcessor instanceof Offloadable)
+                && entryProcessor.getBackupProcessor() == null;
+    }
+
     @Override
     public void onWaitExpire() {
         sendResponse(null);
@@ -285,8 +298,7 @@ public class EntryOperation extends KeyBasedMapOperation implements BackupAwareO
             Object oldValue = recordStore.get(dataKey, false, callerAddress);
             Object clonedOldValue = shouldCloneForOffloading ? serializationService.toData(oldValue) : oldValue;
 
-            String executorName = ((Offloadable) entryProcessor).getExecutorName();
-            executorName = executorName.equals(Offloadable.OFFLOADABLE_EXECUTOR) ? OFFLOADABLE_EXECUTOR : executorName;
+            String executorName = getExecutorName();
 
             if (readOnly) {
                 executeReadOnlyEntryProcessor(clonedOldValue, executorName);
@@ -295,8 +307,17 @@ public class EntryOperation extends KeyBasedMapOperation implements BackupAwareO
             }
         }
 
-        private void verifyEntryProcessor() {
+        private String getExecutorName() {
             if (!(entryProcessor instanceof Offloadable)) {
+                // a ReadOnly processor offloaded by the hazelcast.map.entry.processor.readonly.offload property
+                return OFFLOADABLE_EXECUTOR;
+            }
+            String executorName = ((Offloadable) entryProcessor).getExecutorName();
+            return executorName.equals(Offloadable.OFFLOADABLE_EXECUTOR) ? OFFLOADABLE_EXECUTOR : executorName;
+        }
+
+        private void verifyEntryProcessor() {
+            if (!readOnly && !(entryProcessor instanceof Offloadable)) {
                 throw new HazelcastException("EntryProcessor is expected to implement Offloadable for this operation");
             }
             if (readOnly && entryProcessor.getBackupProcessor() != null) {
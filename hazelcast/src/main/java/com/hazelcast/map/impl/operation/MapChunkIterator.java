@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.ObjectNamespace;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.util.Collections.singleton;
+
+/**
+ * Iterates over the operations replicating a single IMap partition in bounded-size chunks.
+ * <p>
+ * The first operation is a {@link MapReplicationOperation} without records which resets the map
+ * on the destination and carries its indexes, write-behind queue and Near Cache metadata. Then the
+ * records are read lazily from the record store and sent in {@link MapChunkOperation}s, so only a
+ * single chunk is held in memory at a time. The record store is not mutated meanwhile since the
+ * partition is migrating.
+ */
+public class MapChunkIterator implements Iterator<Operation> {
+
+    /**
+     * Approximate serialized size of the metadata of a single record, i.e. its {@code RecordInfo}.
+     */
+    static final int RECORD_OVERHEAD_IN_BYTES = 64;
+
+    private final MapServiceContext mapServiceContext;
+    private final PartitionContainer container;
+    private final String mapName;
+    private final ServiceNamespace namespace;
+    private final int replicaIndex;
+    private final long maxChunkSize;
+
+    private MapReplicationOperation replicationOperation;
+    private Iterator<Record> records;
+    private SerializationService serializationService;
+
+    public MapChunkIterator(MapServiceContext mapServiceContext, PartitionContainer container, ServiceNamespace namespace,
+                            int replicaIndex, long maxChunkSize) {
+        this.mapServiceContext = mapServiceContext;
+        this.container = container;
+        this.mapName = ((ObjectNamespace) namespace).getObjectName();
+        this.namespace = namespace;
+        this.replicaIndex = replicaIndex;
+        this.maxChunkSize = maxChunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return replicationOperation == null || (records != null && records.hasNext());
+    }
+
+    @Override
+    public Operation next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (replicationOperation == null) {
+            return createReplicationOperation();
+        }
+
+        List<RecordReplicationInfo> chunk = new ArrayList<RecordReplicationInfo>();
+        long chunkSize = 0;
+        // a chunk carries at least one record, even if it is larger than the max chunk size
+        while (records.hasNext() && (chunk.isEmpty() || chunkSize < maxChunkSize)) {
+            RecordReplicationInfo replicationInfo = replicationOperation.toReplicationInfo(records.next(), serializationService);
+            chunk.add(replicationInfo);
+            chunkSize += replicationInfo.getKey().totalSize() + replicationInfo.getValue().totalSize()
+                    + RECORD_OVERHEAD_IN_BYTES;
+        }
+
+        Operation operation = new MapChunkOperation(mapName, chunk);
+        operation.setPartitionId(container.getPartitionId()).setReplicaIndex(replicaIndex);
+        return operation;
+    }
+
+    private Operation createReplicationOperation() {
+        int partitionId = container.getPartitionId();
+        replicationOperation = new MapReplicationOperation(container, singleton(namespace), partitionId, replicaIndex);
+        replicationOperation.mapReplicationStateHolder.excludeRecords();
+        replicationOperation.setService(mapServiceContext.getService());
+        replicationOperation.setNodeEngine(mapServiceContext.getNodeEngine());
+
+        RecordStore recordStore = container.getExistingRecordStore(mapName);
+        if (recordStore != null && recordStore.getMapContainer().getMapConfig().getTotalBackupCount() >= replicaIndex) {
+            records = recordStore.iterator();
+            serializationService = mapServiceContext.getNodeEngine().getSerializationService();
+        }
+        return replicationOperation;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported");
+    }
+}
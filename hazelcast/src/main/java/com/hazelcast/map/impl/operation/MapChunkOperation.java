@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.util.ThreadUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replicates a chunk of the records of a single IMap partition to a replica partition.
+ * <p>
+ * Chunks are sent after a {@link MapReplicationOperation} which resets the map and carries
+ * its indexes and other state but no records. Putting a record again overwrites it, so a
+ * chunk can safely be applied more than once.
+ *
+ * @see MapChunkIterator
+ */
+public class MapChunkOperation extends Operation implements IdentifiedDataSerializable {
+
+    private String mapName;
+    private List<RecordReplicationInfo> recordReplicationInfos;
+
+    public MapChunkOperation() {
+    }
+
+    public MapChunkOperation(String mapName, List<RecordReplicationInfo> recordReplicationInfos) {
+        this.mapName = mapName;
+        this.recordReplicationInfos = recordReplicationInfos;
+    }
+
+    @Override
+    public void run() {
+        ThreadUtil.assertRunningOnPartitionThread();
+
+        MapService mapService = getService();
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        RecordStore recordStore = mapServiceContext.getRecordStore(getPartitionId(), mapName, true);
+        MapReplicationStateHolder.putRecords(recordStore, recordReplicationInfos, getPartitionId(), getReplicaIndex(), false);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    List<RecordReplicationInfo> getRecordReplicationInfos() {
+        return recordReplicationInfos;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(mapName);
+        out.writeInt(recordReplicationInfos.size());
+        for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
+            out.writeObject(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        mapName = in.readUTF();
+        int size = in.readInt();
+        recordReplicationInfos = new ArrayList<RecordReplicationInfo>(size);
+        for (int i = 0; i < size; i++) {
+            RecordReplicationInfo recordReplicationInfo = in.readObject();
+            recordReplicationInfos.add(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.MAP_CHUNK;
+    }
+}
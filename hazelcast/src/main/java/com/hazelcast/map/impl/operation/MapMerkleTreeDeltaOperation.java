@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.ThreadUtil;
+import com.hazelcast.util.function.Consumer;
+import com.hazelcast.wan.merkletree.MerkleTree;
+import com.hazelcast.wan.merkletree.MerkleTreeUtil;
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
+
+/**
+ * Replicates the records of an IMap partition which are under the Merkle
+ * tree leaves differing between the partition owner and a backup replica.
+ * <p>
+ * The operation is created on the partition owner by comparing its Merkle
+ * tree with the view of the tree sent by the backup replica in its sync
+ * request. On the backup replica, all records under the differing leaves
+ * are replaced with the records of the partition owner, the rest of the
+ * records are left untouched.
+ *
+ * @see com.hazelcast.spi.DeltaReplicationAwareService
+ */
+public class MapMerkleTreeDeltaOperation extends Operation implements IdentifiedDataSerializable {
+
+    private String mapName;
+    private int[] leafOrders;
+    private List<RecordReplicationInfo> recordReplicationInfos;
+
+    public MapMerkleTreeDeltaOperation() {
+    }
+
+    public MapMerkleTreeDeltaOperation(RecordStore recordStore, RemoteMerkleTreeView merkleTreeView,
+                                       SerializationService serializationService) {
+        this.mapName = recordStore.getName();
+
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        Collection<Integer> differingLeafOrders = MerkleTreeUtil.compareTrees(merkleTree, merkleTreeView);
+        this.leafOrders = new int[differingLeafOrders.size()];
+        this.recordReplicationInfos = new ArrayList<RecordReplicationInfo>();
+
+        int i = 0;
+        for (Integer leafOrder : differingLeafOrders) {
+            leafOrders[i++] = leafOrder;
+            for (Data key : getKeysOfLeaf(merkleTree, leafOrder)) {
+                Record record = recordStore.getRecord(key);
+                if (record != null) {
+                    Data dataValue = serializationService.toData(record.getValue());
+                    recordReplicationInfos.add(new RecordReplicationInfo(key, dataValue, buildRecordInfo(record)));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        ThreadUtil.assertRunningOnPartitionThread();
+
+        MapService mapService = getService();
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        RecordStore recordStore = mapServiceContext.getRecordStore(getPartitionId(), mapName, true);
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        if (merkleTree != null) {
+            for (int leafOrder : leafOrders) {
+                for (Data key : getKeysOfLeaf(merkleTree, leafOrder)) {
+                    recordStore.removeReplicatedRecord(key);
+                }
+            }
+        }
+        MapReplicationStateHolder.putRecords(recordStore, recordReplicationInfos, getPartitionId(), getReplicaIndex(), false);
+    }
+
+    private static List<Data> getKeysOfLeaf(MerkleTree merkleTree, int leafOrder) {
+        final List<Data> keys = new ArrayList<Data>(merkleTree.getNodeKeyCount(leafOrder));
+        merkleTree.forEachKeyOfNode(leafOrder, new Consumer<Object>() {
+            @Override
+            public void accept(Object key) {
+                keys.add((Data) key);
+            }
+        });
+        return keys;
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    int[] getLeafOrders() {
+        return leafOrders;
+    }
+
+    List<RecordReplicationInfo> getRecordReplicationInfos() {
+        return recordReplicationInfos;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeUTF(mapName);
+        out.writeIntArray(leafOrders);
+        out.writeInt(recordReplicationInfos.size());
+        for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
+            out.writeObject(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        mapName = in.readUTF();
+        leafOrders = in.readIntArray();
+        int size = in.readInt();
+        recordReplicationInfos = new ArrayList<RecordReplicationInfo>(size);
+        for (int i = 0; i < size; i++) {
+            RecordReplicationInfo recordReplicationInfo = in.readObject();
+            recordReplicationInfos.add(recordReplicationInfo);
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.MERKLE_TREE_DELTA;
+    }
+}
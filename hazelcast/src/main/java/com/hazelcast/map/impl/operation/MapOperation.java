@@ -95,6 +95,9 @@ public abstract class MapOperation extends AbstractNamedOperation implements Ide
             mapContainer = mapServiceContext.getMapContainer(name);
         } else {
             mapContainer = recordStore.getMapContainer();
+            // operations on a partition run one after another, so native memory
+            // released by the previous operations can no longer be referenced
+            recordStore.disposeDeferredBlocks();
         }
     }
 
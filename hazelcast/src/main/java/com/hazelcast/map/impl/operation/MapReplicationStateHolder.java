@@ -80,6 +80,9 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
     private MapReplicationOperation operation;
 
+    // when set, records are not written and are expected to be sent separately in chunks
+    private transient boolean excludeRecords;
+
     /**
      * This constructor exists solely for instantiation by {@code MapDataSerializerHook}. The object is not ready to use
      * unless {@code operation} is set.
@@ -91,6 +94,14 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         this.operation = operation;
     }
 
+    /**
+     * Excludes the records from the serialized state. The maps are still reset on the destination,
+     * their records are sent separately by {@link MapChunkOperation}s.
+     */
+    void excludeRecords() {
+        excludeRecords = true;
+    }
+
     void prepare(PartitionContainer container, Collection<ServiceNamespace> namespaces, int replicaIndex) {
         storesByMapName = createHashMap(namespaces.size());
 
@@ -135,7 +146,6 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         }
     }
 
-    @SuppressWarnings("checkstyle:npathcomplexity")
     void applyState() {
         ThreadUtil.assertRunningOnPartitionThread();
 
@@ -149,52 +159,62 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
                 recordStore.reset();
                 recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
 
-                MapContainer mapContainer = recordStore.getMapContainer();
-                PartitionContainer partitionContainer = recordStore.getMapContainer().getMapServiceContext()
-                        .getPartitionContainer(operation.getPartitionId());
-                for (Map.Entry<String, Boolean> indexDefinition : mapContainer.getIndexDefinitions().entrySet()) {
-                    Indexes indexes = mapContainer.getIndexes(partitionContainer.getPartitionId());
-                    indexes.addOrGetIndex(indexDefinition.getKey(), indexDefinition.getValue());
-                }
+                putRecords(recordStore, recordReplicationInfos, operation.getPartitionId(), operation.getReplicaIndex(), true);
+            }
+        }
+    }
 
-                final Indexes indexes = mapContainer.getIndexes(partitionContainer.getPartitionId());
-                final SerializationService serializationService = mapContainer.getMapServiceContext().getNodeEngine()
-                        .getSerializationService();
-                final boolean indexesMustBePopulated = indexesMustBePopulated(indexes, operation);
-                if (indexesMustBePopulated) {
-                    // defensively clear possible stale leftovers in non-global indexes from the previous failed promotion attempt
-                    indexes.clearAll();
-                }
+    /**
+     * Puts the replicated records into the record store and populates the partitioned indexes of the owner replica.
+     *
+     * @param clearIndexes {@code true} to clear the partitioned indexes before populating them,
+     *                     {@code false} when appending to records which have already been put
+     */
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    static void putRecords(RecordStore recordStore, Collection<RecordReplicationInfo> recordReplicationInfos,
+                           int partitionId, int replicaIndex, boolean clearIndexes) {
+        MapContainer mapContainer = recordStore.getMapContainer();
+        for (Map.Entry<String, Boolean> indexDefinition : mapContainer.getIndexDefinitions().entrySet()) {
+            Indexes indexes = mapContainer.getIndexes(partitionId);
+            indexes.addOrGetIndex(indexDefinition.getKey(), indexDefinition.getValue());
+        }
 
-                final InternalIndex[] indexesSnapshot = indexes.getIndexes();
-                for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
-                    Data key = recordReplicationInfo.getKey();
-                    final Data value = recordReplicationInfo.getValue();
-                    Record newRecord = recordStore.createRecord(value, DEFAULT_TTL, DEFAULT_MAX_IDLE, Clock.currentTimeMillis());
-                    applyRecordInfo(newRecord, recordReplicationInfo);
-                    recordStore.putRecord(key, newRecord);
-
-                    if (indexesMustBePopulated) {
-                        final Object valueToIndex = getValueOrCachedValue(newRecord, serializationService);
-                        if (valueToIndex != null) {
-                            final QueryableEntry queryableEntry = mapContainer.newQueryEntry(newRecord.getKey(), valueToIndex);
-                            indexes.saveEntryIndex(queryableEntry, null, Index.OperationSource.SYSTEM);
-                        }
-                    }
+        final Indexes indexes = mapContainer.getIndexes(partitionId);
+        final SerializationService serializationService = mapContainer.getMapServiceContext().getNodeEngine()
+                .getSerializationService();
+        final boolean indexesMustBePopulated = indexesMustBePopulated(indexes, replicaIndex);
+        if (indexesMustBePopulated && clearIndexes) {
+            // defensively clear possible stale leftovers in non-global indexes from the previous failed promotion attempt
+            indexes.clearAll();
+        }
 
-                    if (recordStore.shouldEvict()) {
-                        // No need to continue replicating records anymore.
-                        // We are already over eviction threshold, each put record will cause another eviction.
-                        recordStore.evictEntries(key);
-                        break;
-                    }
-                    recordStore.disposeDeferredBlocks();
+        final InternalIndex[] indexesSnapshot = indexes.getIndexes();
+        for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
+            Data key = recordReplicationInfo.getKey();
+            final Data value = recordReplicationInfo.getValue();
+            Record newRecord = recordStore.createRecord(value, DEFAULT_TTL, DEFAULT_MAX_IDLE, Clock.currentTimeMillis());
+            applyRecordInfo(newRecord, recordReplicationInfo);
+            recordStore.putRecord(key, newRecord);
+
+            if (indexesMustBePopulated) {
+                final Object valueToIndex = getValueOrCachedValue(newRecord, serializationService);
+                if (valueToIndex != null) {
+                    final QueryableEntry queryableEntry = mapContainer.newQueryEntry(newRecord.getKey(), valueToIndex);
+                    indexes.saveEntryIndex(queryableEntry, null, Index.OperationSource.SYSTEM);
                 }
+            }
 
-                if (indexesMustBePopulated) {
-                    Indexes.markPartitionAsIndexed(partitionContainer.getPartitionId(), indexesSnapshot);
-                }
+            if (recordStore.shouldEvict()) {
+                // No need to continue replicating records anymore.
+                // We are already over eviction threshold, each put record will cause another eviction.
+                recordStore.evictEntries(key);
+                break;
             }
+            recordStore.disposeDeferredBlocks();
+        }
+
+        if (indexesMustBePopulated) {
+            Indexes.markPartitionAsIndexed(partitionId, indexesSnapshot);
         }
     }
 
@@ -240,6 +260,10 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
             SerializationService ss = getSerializationService(recordStore);
 
             out.writeUTF(mapName);
+            if (excludeRecords) {
+                out.writeInt(0);
+                continue;
+            }
             out.writeInt(recordStore.size());
 
             Iterator<Record> iterator = recordStore.iterator();
@@ -307,7 +331,7 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
         return MapDataSerializerHook.MAP_REPLICATION_STATE_HOLDER;
     }
 
-    private static boolean indexesMustBePopulated(Indexes indexes, MapReplicationOperation operation) {
+    private static boolean indexesMustBePopulated(Indexes indexes, int replicaIndex) {
         if (!indexes.hasIndex()) {
             // no indexes to populate
             return false;
@@ -318,7 +342,7 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
             return false;
         }
 
-        if (operation.getReplicaIndex() != 0) {
+        if (replicaIndex != 0) {
             // backup partitions have no indexes to populate
             return false;
         }
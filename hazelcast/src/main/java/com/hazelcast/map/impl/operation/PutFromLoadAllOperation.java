@@ -41,7 +41,7 @@ import static com.hazelcast.util.Preconditions.checkNotNull;
 public class PutFromLoadAllOperation extends MapOperation implements PartitionAwareOperation, MutatingOperation,
         BackupAwareOperation {
 
-    private List<Data> keyValueSequence;
+    protected List<Data> keyValueSequence;
     private List<Data> invalidationKeys;
 
     public PutFromLoadAllOperation() {
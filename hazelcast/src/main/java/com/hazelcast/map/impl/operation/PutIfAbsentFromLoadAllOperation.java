@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts records restored from the local map persistence logs, skipping the
+ * keys which already have a value, so restored records never overwrite the
+ * ones written after the restart.
+ */
+public class PutIfAbsentFromLoadAllOperation extends PutFromLoadAllOperation {
+
+    public PutIfAbsentFromLoadAllOperation() {
+    }
+
+    public PutIfAbsentFromLoadAllOperation(String name, List<Data> keyValueSequence) {
+        super(name, keyValueSequence);
+    }
+
+    @Override
+    public void run() throws Exception {
+        List<Data> absentKeyValueSequence = new ArrayList<Data>(keyValueSequence.size());
+        for (int i = 0; i < keyValueSequence.size(); i += 2) {
+            Data key = keyValueSequence.get(i);
+            if (!recordStore.existInMemory(key)) {
+                absentKeyValueSequence.add(key);
+                absentKeyValueSequence.add(keyValueSequence.get(i + 1));
+            }
+        }
+        // the backups get the skipped keys removed as well
+        keyValueSequence = absentKeyValueSequence;
+        super.run();
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.PUT_IF_ABSENT_FROM_LOAD_ALL;
+    }
+}
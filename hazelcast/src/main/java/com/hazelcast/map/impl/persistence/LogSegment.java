@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.core.HazelcastException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.writeIntB;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.nio.IOUtil.deleteQuietly;
+
+/**
+ * A memory-mapped, append-only segment file of a {@link PartitionLog}.
+ * <p>
+ * Each record is laid out as:
+ * <pre>
+ *     int record length (including this header), 0 marks the end of the segment
+ *     int CRC32 of the rest of the record
+ *     byte type ({@link #PUT} or {@link #REMOVE})
+ *     int key length
+ *     key bytes
+ *     value bytes (absent for {@link #REMOVE})
+ * </pre>
+ * The length is written last, so a record becomes visible only once it is complete. Replaying stops at the first
+ * record with a bad length or checksum, which drops a record torn by a crash.
+ * <p>
+ * Appending and the bookkeeping of a segment are guarded by its owning {@link PartitionLog}. Replaying and forcing
+ * don't change the state of the segment, so they can run concurrently with appends to it.
+ */
+final class LogSegment {
+
+    static final byte PUT = 1;
+    static final byte REMOVE = 2;
+
+    static final int HEADER_SIZE = 13;
+
+    private static final String FILE_SUFFIX = ".seg";
+    private static final int CRC_OFFSET = 4;
+    private static final int TYPE_OFFSET = 8;
+    private static final int PERCENT = 100;
+
+    final long seq;
+
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int liveBytes;
+    private int tombstoneBytes;
+
+    private LogSegment(long seq, File file, MappedByteBuffer buffer) {
+        this.seq = seq;
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    static LogSegment create(File dir, long seq, int capacity) {
+        File file = new File(dir, String.format("%020d%s", seq, FILE_SUFFIX));
+        return new LogSegment(seq, file, map(file, MapMode.READ_WRITE, capacity));
+    }
+
+    /**
+     * Replays the complete records of a segment file in the order they were appended.
+     */
+    static void replay(File file, Visitor visitor) {
+        new LogSegment(-1, file, map(file, MapMode.READ_ONLY, file.length())).replay(visitor);
+    }
+
+    /**
+     * Returns the segment files in a partition log directory, in the order they were created.
+     */
+    static File[] listSegmentFiles(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return new File[0];
+        }
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(FILE_SUFFIX)) {
+                files[count++] = file;
+            }
+        }
+        File[] segmentFiles = Arrays.copyOf(files, count);
+        // the zero padded sequence makes the name order the creation order
+        Arrays.sort(segmentFiles);
+        return segmentFiles;
+    }
+
+    static int recordLength(byte[] key, byte[] value) {
+        return HEADER_SIZE + key.length + (value == null ? 0 : value.length);
+    }
+
+    private static MappedByteBuffer map(File file, MapMode mode, long capacity) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, mode == MapMode.READ_ONLY ? "r" : "rw");
+            // the mapping stays valid after the file is closed
+            return raf.getChannel().map(mode, 0, capacity);
+        } catch (IOException e) {
+            throw new HazelcastException("Failed to map log segment " + file, e);
+        } finally {
+            closeResource(raf);
+        }
+    }
+
+    boolean hasRoom(int recordLength) {
+        return writePosition + recordLength <= buffer.capacity();
+    }
+
+    /**
+     * Appends a record. The caller must have checked {@link #hasRoom(int)}.
+     *
+     * @return the offset of the record in this segment
+     */
+    int append(byte type, byte[] key, byte[] value) {
+        int offset = writePosition;
+        int length = recordLength(key, value);
+
+        buffer.position(offset + TYPE_OFFSET);
+        buffer.put(type);
+        buffer.putInt(key.length);
+        buffer.put(key);
+        if (value != null) {
+            buffer.put(value);
+        }
+        buffer.putInt(offset + CRC_OFFSET, checksum(type, key, value));
+        buffer.putInt(offset, length);
+
+        writePosition += length;
+        return offset;
+    }
+
+    void replay(Visitor visitor) {
+        // a private view, so concurrent appends don't move the position used for reading
+        ByteBuffer buffer = this.buffer.duplicate();
+        int offset = 0;
+        while (offset + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length < HEADER_SIZE || offset + length > buffer.capacity()) {
+                return;
+            }
+            byte type = buffer.get(offset + TYPE_OFFSET);
+            int keyLength = buffer.getInt(offset + TYPE_OFFSET + 1);
+            if (keyLength < 0 || keyLength > length - HEADER_SIZE) {
+                return;
+            }
+            byte[] key = new byte[keyLength];
+            buffer.position(offset + HEADER_SIZE);
+            buffer.get(key);
+            byte[] value = null;
+            if (type == PUT) {
+                value = new byte[length - HEADER_SIZE - keyLength];
+                buffer.get(value);
+            }
+            if (buffer.getInt(offset + CRC_OFFSET) != checksum(type, key, value)) {
+                return;
+            }
+            visitor.visit(type, key, value, offset);
+            offset += length;
+        }
+    }
+
+    int recordLengthAt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    void addLiveBytes(int delta) {
+        liveBytes += delta;
+    }
+
+    void addTombstoneBytes(int delta) {
+        tombstoneBytes += delta;
+    }
+
+    /**
+     * Returns the percentage of the written bytes which are not needed anymore. Tombstones are only garbage in the
+     * oldest segment, since there is no older put record left they could cancel.
+     */
+    int garbagePercentage(boolean oldest) {
+        if (writePosition == 0) {
+            return 0;
+        }
+        long garbage = writePosition - liveBytes + (oldest ? tombstoneBytes : 0);
+        return (int) (garbage * PERCENT / writePosition);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() {
+        deleteQuietly(file);
+    }
+
+    private static int checksum(byte type, byte[] key, byte[] value) {
+        byte[] keyLength = new byte[INT_SIZE_IN_BYTES];
+        writeIntB(keyLength, 0, key.length);
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(keyLength);
+        crc.update(key);
+        if (value != null) {
+            crc.update(value);
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Visits the records of a segment.
+     */
+    interface Visitor {
+
+        /**
+         * @param type   the record type
+         * @param key    the key bytes
+         * @param value  the value bytes, or {@code null} for a {@link #REMOVE} record
+         * @param offset the offset of the record in the segment
+         */
+        void visit(byte type, byte[] key, byte[] value, int offset);
+    }
+}
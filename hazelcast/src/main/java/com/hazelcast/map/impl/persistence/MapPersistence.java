@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStoreMutationObserver;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.util.Clock;
+import com.hazelcast.util.executor.ExecutorType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.FileLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.nio.IOUtil.rename;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_PERSISTENCE_BASE_DIR;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_PERSISTENCE_COMPACTION_GARBAGE_PERCENTAGE;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_PERSISTENCE_COMPACTION_INTERVAL_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_PERSISTENCE_FULL_START_WINDOW_SECONDS;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_PERSISTENCE_SEGMENT_SIZE;
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Persists the entries of the IMap partitions of this member in append-only, log-structured files, so a restarted
+ * member can restore its maps at disk speed instead of reloading them from a MapStore.
+ * <p>
+ * The directory of a member is laid out as:
+ * <pre>
+ *     maps/&lt;map&gt;/&lt;partitionId&gt;/&lt;seq&gt;.seg          the logs written by this run
+ *     recovery/&lt;map&gt;/&lt;generation&gt;/&lt;partitionId&gt;/...  the logs of earlier runs, not restored yet
+ * </pre>
+ * On start the logs of the previous run are moved to the recovery directory. When a map is created after a full
+ * cluster start, every member replays its logs of the map in parallel per partition in the background, and the
+ * latest entries are put-if-absent into the map like the MapStore initial load does; so the entries end up on their
+ * current owners and are logged again there. A member joining a running cluster deletes its logs instead of
+ * restoring them, since the cluster holds newer data.
+ * <p>
+ * The logs are memory-mapped, so a mutation survives a crash of the member process once it is appended. The
+ * background task, which also compacts the logs, forces them to disk every
+ * {@link com.hazelcast.spi.properties.GroupProperty#MAP_PERSISTENCE_COMPACTION_INTERVAL_SECONDS}.
+ */
+public class MapPersistence {
+
+    private static final String EXECUTOR_NAME = "hz:map-persistence";
+    private static final String MAPS_DIR = "maps";
+    private static final String RECOVERY_DIR = "recovery";
+    private static final String LOCK_FILE = "lock";
+    private static final int KILOBYTE = 1024;
+
+    private final NodeEngine nodeEngine;
+    private final MapServiceContext mapServiceContext;
+    private final ILogger logger;
+    private final File memberDir;
+    private final File mapsDir;
+    private final File recoveryDir;
+    private final int segmentSize;
+    private final int compactionGarbagePercentage;
+    private final int compactionIntervalSeconds;
+    private final long fullStartWindowMillis;
+    private final ConcurrentMap<String, AtomicReferenceArray<PartitionLog>> logs
+            = new ConcurrentHashMap<String, AtomicReferenceArray<PartitionLog>>();
+    private final ConcurrentMap<String, MapRecovery> recoveries = new ConcurrentHashMap<String, MapRecovery>();
+
+    private RandomAccessFile lockFile;
+    private FileLock lock;
+    private ScheduledFuture<?> compactionFuture;
+    private long startMillis;
+    private volatile Boolean fullClusterStart;
+
+    MapPersistence(MapServiceContext mapServiceContext, File baseDir) {
+        this.mapServiceContext = mapServiceContext;
+        this.nodeEngine = mapServiceContext.getNodeEngine();
+        this.logger = nodeEngine.getLogger(getClass());
+        Address address = nodeEngine.getThisAddress();
+        this.memberDir = new File(baseDir, address.getHost() + "-" + address.getPort());
+        this.mapsDir = new File(memberDir, MAPS_DIR);
+        this.recoveryDir = new File(memberDir, RECOVERY_DIR);
+        HazelcastProperties properties = nodeEngine.getProperties();
+        this.segmentSize = properties.getInteger(MAP_PERSISTENCE_SEGMENT_SIZE) * KILOBYTE;
+        this.compactionGarbagePercentage = properties.getInteger(MAP_PERSISTENCE_COMPACTION_GARBAGE_PERCENTAGE);
+        this.compactionIntervalSeconds = properties.getSeconds(MAP_PERSISTENCE_COMPACTION_INTERVAL_SECONDS);
+        this.fullStartWindowMillis = properties.getMillis(MAP_PERSISTENCE_FULL_START_WINDOW_SECONDS);
+    }
+
+    /**
+     * Creates the map persistence of a member.
+     *
+     * @return the map persistence or {@code null} if it is not enabled
+     */
+    public static MapPersistence create(MapServiceContext mapServiceContext) {
+        String baseDir = mapServiceContext.getNodeEngine().getProperties().getString(MAP_PERSISTENCE_BASE_DIR);
+        if (baseDir == null || baseDir.trim().isEmpty()) {
+            return null;
+        }
+        return new MapPersistence(mapServiceContext, new File(baseDir.trim()));
+    }
+
+    /**
+     * Locks the member directory, moves the logs of the previous run to the recovery directory and starts the
+     * compaction task.
+     */
+    public void start() {
+        startMillis = Clock.currentTimeMillis();
+        if (!memberDir.isDirectory() && !memberDir.mkdirs()) {
+            throw new HazelcastException("Failed to create map persistence directory " + memberDir);
+        }
+        lockMemberDir();
+
+        File[] mapDirs = mapsDir.listFiles();
+        if (mapDirs != null) {
+            for (File mapDir : mapDirs) {
+                File target = new File(recoveryDir, mapDir.getName());
+                if (!target.isDirectory() && !target.mkdirs()) {
+                    throw new HazelcastException("Failed to create map persistence directory " + target);
+                }
+                rename(mapDir, new File(target, String.valueOf(nextGeneration(target))));
+            }
+        }
+
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        executionService.register(EXECUTOR_NAME, RuntimeAvailableProcessors.get(), Integer.MAX_VALUE, ExecutorType.CACHED);
+        compactionFuture = executionService.scheduleWithRepetition(EXECUTOR_NAME, new CompactionTask(),
+                compactionIntervalSeconds, compactionIntervalSeconds, SECONDS);
+        logger.info("Map persistence is enabled in " + memberDir.getAbsolutePath());
+    }
+
+    /**
+     * Stops the compaction task and closes the logs, keeping them for the next start.
+     */
+    public void shutdown() {
+        if (compactionFuture != null) {
+            compactionFuture.cancel(false);
+        }
+        for (AtomicReferenceArray<PartitionLog> partitionLogs : logs.values()) {
+            for (int i = 0; i < partitionLogs.length(); i++) {
+                PartitionLog log = partitionLogs.get(i);
+                if (log != null) {
+                    log.close();
+                }
+            }
+        }
+        releaseMemberDir();
+    }
+
+    /**
+     * Creates the observer which logs the mutations of a record store.
+     */
+    public RecordStoreMutationObserver<Record> createRecordStoreMutationObserver(String mapName, int partitionId) {
+        File dir = new File(new File(mapsDir, toDirName(mapName)), String.valueOf(partitionId));
+        PartitionLog log = new PartitionLog(dir, segmentSize);
+        PartitionLog previous = logsOf(mapName).getAndSet(partitionId, log);
+        if (previous != null) {
+            previous.close();
+        }
+        return new PersistingRecordStoreMutationObserver(log, nodeEngine.getSerializationService());
+    }
+
+    /**
+     * Starts restoring the entries of a map from the logs of the earlier runs, if there are any and the map is not
+     * restored yet. Does not wait for the map to be restored, since it is called when the map proxy is initialized,
+     * which happens on an event thread on the members which did not create the map. The logs are restored only if
+     * this member took part in a full cluster start; every member restores its own logs, and the entries appear in
+     * the map while they are restored.
+     */
+    public void recover(String mapName) {
+        File dir = new File(recoveryDir, toDirName(mapName));
+        if (!dir.isDirectory() || recoveries.containsKey(mapName)) {
+            return;
+        }
+        final MapRecovery recovery = new MapRecovery(mapServiceContext, mapName, dir);
+        if (recoveries.putIfAbsent(mapName, recovery) != null) {
+            return;
+        }
+        nodeEngine.getExecutionService().execute(EXECUTOR_NAME, new Runnable() {
+            @Override
+            public void run() {
+                if (isFullClusterStart()) {
+                    recovery.recover(EXECUTOR_NAME);
+                } else {
+                    recovery.discard("this member joined a running cluster");
+                }
+            }
+        });
+    }
+
+    /**
+     * A member took part in a full cluster start if it started within the full start window of the cluster start.
+     * Decided once, so maps created later during the lifetime of the member are handled the same way.
+     */
+    private boolean isFullClusterStart() {
+        Boolean fullStart = fullClusterStart;
+        if (fullStart == null) {
+            long memberUpTime = Clock.currentTimeMillis() - startMillis;
+            long clusterUpTime = nodeEngine.getClusterService().getClusterClock().getClusterUpTime();
+            fullStart = clusterUpTime - memberUpTime <= fullStartWindowMillis;
+            fullClusterStart = fullStart;
+        }
+        return fullStart;
+    }
+
+    private AtomicReferenceArray<PartitionLog> logsOf(String mapName) {
+        AtomicReferenceArray<PartitionLog> partitionLogs = logs.get(mapName);
+        if (partitionLogs == null) {
+            int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+            partitionLogs = new AtomicReferenceArray<PartitionLog>(partitionCount);
+            AtomicReferenceArray<PartitionLog> found = logs.putIfAbsent(mapName, partitionLogs);
+            partitionLogs = found == null ? partitionLogs : found;
+        }
+        return partitionLogs;
+    }
+
+    private void lockMemberDir() {
+        try {
+            lockFile = new RandomAccessFile(new File(memberDir, LOCK_FILE), "rw");
+            lock = lockFile.getChannel().tryLock();
+        } catch (IOException e) {
+            closeResource(lockFile);
+            throw rethrow(e);
+        }
+        if (lock == null) {
+            closeResource(lockFile);
+            throw new HazelcastException("Map persistence directory " + memberDir + " is in use by another process");
+        }
+    }
+
+    private void releaseMemberDir() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+        } catch (IOException e) {
+            logger.finest("Failed to release the lock of " + memberDir, e);
+        } finally {
+            closeResource(lockFile);
+        }
+    }
+
+    private static int nextGeneration(File dir) {
+        int next = 0;
+        String[] names = dir.list();
+        if (names != null) {
+            for (String name : names) {
+                next = Math.max(next, Integer.parseInt(name) + 1);
+            }
+        }
+        return next;
+    }
+
+    private static String toDirName(String mapName) {
+        try {
+            return URLEncoder.encode(mapName, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw rethrow(e);
+        }
+    }
+
+    private final class CompactionTask implements Runnable {
+
+        @Override
+        public void run() {
+            for (AtomicReferenceArray<PartitionLog> partitionLogs : logs.values()) {
+                for (int i = 0; i < partitionLogs.length(); i++) {
+                    PartitionLog log = partitionLogs.get(i);
+                    if (log == null) {
+                        continue;
+                    }
+                    try {
+                        log.compact(compactionGarbagePercentage);
+                        log.force();
+                    } catch (Exception e) {
+                        logger.warning("Failed to compact the map persistence log in " + log.getDir(), e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.operation.MapOperation;
+import com.hazelcast.map.impl.operation.PutIfAbsentFromLoadAllOperation;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.util.Clock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.map.impl.persistence.LogSegment.PUT;
+import static com.hazelcast.nio.IOUtil.delete;
+
+/**
+ * Restores the entries of a map from the logs of earlier runs of this member.
+ * <p>
+ * The logs are restored only on a full cluster start; otherwise they are stale and get deleted. Every member
+ * restores its own logs, so the entries of the partitions it owned before the restart come back no matter which
+ * member creates the map first. Every partition directory is replayed by its own task, reading the generations and
+ * segments in the order they were written, so the result holds the latest value of each key. The entries are put on
+ * the current partition owners with put-if-absent-from-load operations, so they never overwrite entries written in
+ * the meantime, including the ones restored by other members, and make no MapStore writes. Once all partitions are
+ * restored the logs are deleted; if a partition fails, they are kept and restored again on the next start.
+ */
+final class MapRecovery {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final String mapName;
+    private final File dir;
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicBoolean failed = new AtomicBoolean();
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    private long startMillis;
+
+    MapRecovery(MapServiceContext mapServiceContext, String mapName, File dir) {
+        this.nodeEngine = mapServiceContext.getNodeEngine();
+        this.logger = nodeEngine.getLogger(getClass());
+        this.mapName = mapName;
+        this.dir = dir;
+    }
+
+    /**
+     * Discards the logs without restoring them, e.g. when this member joined a running cluster.
+     */
+    void discard(String reason) {
+        logger.info("Not restoring map '" + mapName + "' since " + reason + ", deleting its persisted partitions");
+        delete(dir);
+    }
+
+    /**
+     * Restores the map without waiting for it: every partition directory is replayed by a task on the given
+     * executor and the last task to finish deletes the logs.
+     */
+    void recover(String executorName) {
+        startMillis = Clock.currentTimeMillis();
+        File[] generations = listGenerations();
+        Set<String> partitionDirs = new TreeSet<String>();
+        for (File generation : generations) {
+            String[] names = generation.list();
+            if (names != null) {
+                partitionDirs.addAll(Arrays.asList(names));
+            }
+        }
+        if (partitionDirs.isEmpty()) {
+            finish();
+            return;
+        }
+
+        logger.info("Restoring map '" + mapName + "' from " + partitionDirs.size() + " persisted partitions");
+        remaining.set(partitionDirs.size());
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        for (String partitionDir : partitionDirs) {
+            executionService.execute(executorName, new PartitionRecoveryTask(generations, partitionDir));
+        }
+    }
+
+    private File[] listGenerations() {
+        File[] generations = dir.listFiles();
+        if (generations == null) {
+            return new File[0];
+        }
+        Arrays.sort(generations, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                int g1 = Integer.parseInt(o1.getName());
+                int g2 = Integer.parseInt(o2.getName());
+                return g1 < g2 ? -1 : (g1 == g2 ? 0 : 1);
+            }
+        });
+        return generations;
+    }
+
+    private void finish() {
+        if (failed.get()) {
+            logger.warning("Restoring map '" + mapName + "' failed for some partitions, keeping " + dir
+                    + " for the next start");
+            return;
+        }
+        delete(dir);
+        logger.info("Restored " + recovered.get() + " entries of map '" + mapName + "' in "
+                + (Clock.currentTimeMillis() - startMillis) + " ms");
+    }
+
+    private final class PartitionRecoveryTask implements Runnable {
+
+        private final File[] generations;
+        private final String partitionDir;
+
+        PartitionRecoveryTask(File[] generations, String partitionDir) {
+            this.generations = generations;
+            this.partitionDir = partitionDir;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Map<Data, Data> entries = replay();
+                putAll(entries);
+                recovered.addAndGet(entries.size());
+            } catch (Throwable t) {
+                failed.set(true);
+                logger.warning("Failed to restore partition " + partitionDir + " of map '" + mapName + "'", t);
+            } finally {
+                if (remaining.decrementAndGet() == 0) {
+                    finish();
+                }
+            }
+        }
+
+        private Map<Data, Data> replay() {
+            final Map<Data, Data> entries = new LinkedHashMap<Data, Data>();
+            LogSegment.Visitor visitor = new LogSegment.Visitor() {
+                @Override
+                public void visit(byte type, byte[] key, byte[] value, int offset) {
+                    if (type == PUT) {
+                        entries.put(new HeapData(key), new HeapData(value));
+                    } else {
+                        entries.remove(new HeapData(key));
+                    }
+                }
+            };
+            for (File generation : generations) {
+                for (File segmentFile : LogSegment.listSegmentFiles(new File(generation, partitionDir))) {
+                    LogSegment.replay(segmentFile, visitor);
+                }
+            }
+            return entries;
+        }
+
+        private void putAll(Map<Data, Data> entries) throws Exception {
+            IPartitionService partitionService = nodeEngine.getPartitionService();
+            Map<Integer, List<Data>> batches = new HashMap<Integer, List<Data>>();
+            List<Future> futures = new ArrayList<Future>();
+            for (Map.Entry<Data, Data> entry : entries.entrySet()) {
+                int partitionId = partitionService.getPartitionId(entry.getKey());
+                List<Data> batch = batches.get(partitionId);
+                if (batch == null) {
+                    batch = new ArrayList<Data>(2 * BATCH_SIZE);
+                    batches.put(partitionId, batch);
+                }
+                batch.add(entry.getKey());
+                batch.add(entry.getValue());
+                if (batch.size() == 2 * BATCH_SIZE) {
+                    futures.add(send(partitionId, batch));
+                    batches.remove(partitionId);
+                }
+            }
+            for (Map.Entry<Integer, List<Data>> batch : batches.entrySet()) {
+                futures.add(send(batch.getKey(), batch.getValue()));
+            }
+            for (Future future : futures) {
+                future.get();
+            }
+        }
+
+        private Future send(int partitionId, List<Data> keyValueSequence) {
+            MapOperation operation = new PutIfAbsentFromLoadAllOperation(mapName, keyValueSequence);
+            operation.setNodeEngine(nodeEngine);
+            operation.setPartitionId(partitionId);
+            OperationAccessor.setCallerAddress(operation, nodeEngine.getThisAddress());
+            operation.setCallerUuid(nodeEngine.getLocalMember().getUuid());
+            operation.setServiceName(MapService.SERVICE_NAME);
+            return nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId);
+        }
+    }
+}
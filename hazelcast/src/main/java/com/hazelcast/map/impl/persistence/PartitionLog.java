@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hazelcast.map.impl.persistence.LogSegment.PUT;
+import static com.hazelcast.map.impl.persistence.LogSegment.REMOVE;
+import static com.hazelcast.nio.IOUtil.deleteQuietly;
+
+/**
+ * The append-only log of the mutations of a single map partition.
+ * <p>
+ * Mutations are appended to the active {@link LogSegment}; when it is full it is sealed and a new segment is started.
+ * An in-memory index maps each persisted key to the location of its latest record, so overwritten and removed records
+ * can be accounted as garbage per segment. {@link #compact(int)} rewrites the live records of sealed segments with
+ * enough garbage to the active segment and deletes them. A removal is logged as a tombstone record, which is carried
+ * forward by compaction until its segment is the oldest one.
+ * <p>
+ * Mutations come from the partition thread, compaction and forcing from a background thread. The monitor of the log
+ * guards the index and the segment bookkeeping only, and it is held just for appending a record or swapping the
+ * active segment. Replaying sealed segments, forcing them to disk and deleting their files happen outside of it, so
+ * the partition thread never waits for file system syncs. The log directory is created lazily, so partitions without
+ * data of the map don't leave empty directories behind.
+ */
+final class PartitionLog {
+
+    private static final int OFFSET_BITS = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final File dir;
+    private final int segmentSize;
+    private final TreeMap<Long, LogSegment> segments = new TreeMap<Long, LogSegment>();
+    // the index uses the key instances of the record store, so it doesn't copy them
+    private final Map<Data, Long> index = new HashMap<Data, Long>();
+    // the sealed segments not forced to disk yet
+    private final List<LogSegment> unforced = new ArrayList<LogSegment>();
+    // serializes compactions, which run outside of the monitor of the log
+    private final Object compactionMutex = new Object();
+
+    private LogSegment active;
+    private long nextSeq;
+    private boolean closed;
+
+    PartitionLog(File dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    File getDir() {
+        return dir;
+    }
+
+    synchronized void put(Data key, Data value) {
+        if (closed) {
+            return;
+        }
+        long location = append(PUT, key.toByteArray(), value.toByteArray());
+        release(index.put(key, location));
+    }
+
+    synchronized void remove(Data key) {
+        if (closed) {
+            return;
+        }
+        Long previous = index.remove(key);
+        if (previous == null) {
+            // nothing persisted for this key
+            return;
+        }
+        release(previous);
+        append(REMOVE, key.toByteArray(), null);
+    }
+
+    void clear() {
+        List<LogSegment> deleted;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            deleted = detachSegments();
+        }
+        delete(deleted);
+    }
+
+    /**
+     * Deletes the log, e.g. when the map is destroyed or the partition is migrated away.
+     */
+    void destroy() {
+        List<LogSegment> deleted;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            deleted = detachSegments();
+        }
+        delete(deleted);
+        deleteQuietly(dir);
+    }
+
+    /**
+     * Forces the log to disk and stops accepting mutations; the files are kept for recovery.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        force(takeUnforced());
+    }
+
+    /**
+     * Forces the sealed segments not forced yet and the active segment to disk, outside of the monitor of the log.
+     */
+    void force() {
+        force(takeUnforced());
+    }
+
+    /**
+     * Compacts the sealed segments having at least the given percentage of garbage. The live records are moved to
+     * the active segment one at a time under the monitor of the log, everything else happens outside of it.
+     *
+     * @return the number of compacted segments
+     */
+    int compact(int garbagePercentage) {
+        synchronized (compactionMutex) {
+            int compacted = 0;
+            for (LogSegment segment : selectForCompaction(garbagePercentage)) {
+                compact(segment);
+                compacted++;
+            }
+            return compacted;
+        }
+    }
+
+    // accessible for testing
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    private synchronized List<LogSegment> selectForCompaction(int garbagePercentage) {
+        List<LogSegment> selected = new ArrayList<LogSegment>();
+        if (closed) {
+            return selected;
+        }
+        for (LogSegment segment : segments.values()) {
+            boolean oldest = segment.seq == segments.firstKey();
+            if (segment != active && segment.garbagePercentage(oldest) >= garbagePercentage) {
+                selected.add(segment);
+            }
+        }
+        return selected;
+    }
+
+    private void compact(final LogSegment segment) {
+        // only compaction removes segments, so the oldest segment stays the oldest one while it is compacted
+        final boolean oldest = isOldest(segment);
+        // the segment is sealed, so it is replayed outside of the monitor
+        segment.replay(new LogSegment.Visitor() {
+            @Override
+            public void visit(byte type, byte[] key, byte[] value, int offset) {
+                moveRecord(segment, type, key, value, offset, oldest);
+            }
+        });
+        // the moved records have to be durable before the segment holding them is deleted
+        force(takeUnforced());
+        synchronized (this) {
+            if (segments.get(segment.seq) != segment) {
+                // the log got cleared or destroyed in the meantime
+                return;
+            }
+            segments.remove(segment.seq);
+        }
+        segment.delete();
+    }
+
+    private synchronized boolean isOldest(LogSegment segment) {
+        return !segments.isEmpty() && segment.seq == segments.firstKey();
+    }
+
+    private synchronized void moveRecord(LogSegment segment, byte type, byte[] key, byte[] value, int offset,
+                                         boolean oldest) {
+        if (closed || segments.get(segment.seq) != segment) {
+            return;
+        }
+        Data dataKey = new HeapData(key);
+        if (type == PUT) {
+            Long location = index.get(dataKey);
+            if (location != null && location == location(segment.seq, offset)) {
+                index.put(dataKey, append(PUT, key, value));
+            }
+        } else if (!oldest && !index.containsKey(dataKey)) {
+            // older segments may still hold a put for this key
+            append(REMOVE, key, null);
+        }
+    }
+
+    private long append(byte type, byte[] key, byte[] value) {
+        int length = LogSegment.recordLength(key, value);
+        if (active == null || !active.hasRoom(length)) {
+            startSegment(length);
+        }
+        int offset = active.append(type, key, value);
+        // tombstones are live until they end up in the oldest segment
+        active.addLiveBytes(length);
+        if (type == REMOVE) {
+            active.addTombstoneBytes(length);
+        }
+        return location(active.seq, offset);
+    }
+
+    private void startSegment(int minCapacity) {
+        if (active != null) {
+            // sealed; it is forced by the background thread, not by the appending partition thread
+            unforced.add(active);
+        } else if (segments.isEmpty()) {
+            // leftovers of an earlier log of this partition are stale
+            deleteQuietly(dir);
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalStateException("Failed to create log directory " + dir);
+        }
+        long seq = nextSeq++;
+        active = LogSegment.create(dir, seq, Math.max(segmentSize, minCapacity));
+        segments.put(seq, active);
+    }
+
+    private void release(Long location) {
+        if (location == null) {
+            return;
+        }
+        LogSegment segment = segments.get(location >>> OFFSET_BITS);
+        int offset = (int) (location & OFFSET_MASK);
+        segment.addLiveBytes(-segment.recordLengthAt(offset));
+    }
+
+    /**
+     * Takes the sealed segments not forced yet and the active segment, which are forced by the caller.
+     */
+    private synchronized List<LogSegment> takeUnforced() {
+        List<LogSegment> taken = new ArrayList<LogSegment>(unforced);
+        unforced.clear();
+        if (active != null) {
+            taken.add(active);
+        }
+        return taken;
+    }
+
+    private List<LogSegment> detachSegments() {
+        List<LogSegment> detached = new ArrayList<LogSegment>(segments.values());
+        segments.clear();
+        unforced.clear();
+        index.clear();
+        active = null;
+        return detached;
+    }
+
+    private static void force(List<LogSegment> segments) {
+        for (LogSegment segment : segments) {
+            segment.force();
+        }
+    }
+
+    private static void delete(List<LogSegment> segments) {
+        for (LogSegment segment : segments) {
+            segment.delete();
+        }
+    }
+
+    private static long location(long seq, int offset) {
+        return (seq << OFFSET_BITS) | offset;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStoreMutationObserver;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+/**
+ * Appends the mutations of a record store to its {@link PartitionLog}.
+ * <p>
+ * Evicted and expired entries are removed from the log as well, so a restarted member holds the same entries as
+ * before the restart.
+ */
+class PersistingRecordStoreMutationObserver implements RecordStoreMutationObserver<Record> {
+
+    private final PartitionLog log;
+    private final SerializationService serializationService;
+
+    PersistingRecordStoreMutationObserver(PartitionLog log, SerializationService serializationService) {
+        this.log = log;
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public void onClear() {
+        log.clear();
+    }
+
+    @Override
+    public void onPutRecord(Data key, Record record) {
+        log.put(key, toData(record.getValue()));
+    }
+
+    @Override
+    public void onReplicationPutRecord(Data key, Record record) {
+        log.put(key, toData(record.getValue()));
+    }
+
+    @Override
+    public void onReplicationRemoveRecord(Data key, Record record) {
+        log.remove(key);
+    }
+
+    @Override
+    public void onUpdateRecord(Data key, Record record, Object newValue) {
+        log.put(key, toData(newValue));
+    }
+
+    @Override
+    public void onRemoveRecord(Data key, Record record) {
+        log.remove(key);
+    }
+
+    @Override
+    public void onEvictRecord(Data key, Record record) {
+        log.remove(key);
+    }
+
+    @Override
+    public void onLoadRecord(Data key, Record record) {
+        log.put(key, toData(record.getValue()));
+    }
+
+    @Override
+    public void onDestroy(boolean internal) {
+        // on shutdown the log is already closed and kept for recovery
+        if (!internal) {
+            log.destroy();
+        }
+    }
+
+    @Override
+    public void onReset() {
+        log.clear();
+    }
+
+    private Data toData(Object value) {
+        return serializationService.toData(value);
+    }
+}
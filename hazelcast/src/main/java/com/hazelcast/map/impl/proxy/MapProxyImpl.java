@@ -36,6 +36,7 @@ import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.iterator.MapPartitionIterator;
 import com.hazelcast.map.impl.iterator.MapQueryPartitionIterator;
+import com.hazelcast.map.impl.iterator.MapQueryStreamIterator;
 import com.hazelcast.map.impl.journal.MapEventJournalReadOperation;
 import com.hazelcast.map.impl.journal.MapEventJournalSubscribeOperation;
 import com.hazelcast.map.impl.query.AggregationResult;
@@ -983,6 +984,47 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return new MapQueryPartitionIterator<K, V, R>(this, fetchSize, partitionId, predicate, projection);
     }
 
+    /**
+     * Returns an iterator streaming the results of a query over all the
+     * partitions of the map. Unlike the query methods returning collections,
+     * the results are neither fully materialized on the members nor on the
+     * caller: each partition is scanned in chunks of about {@code fetchSize}
+     * results and at most {@code maxInFlightChunks} partitions of the same
+     * member are scanned at the same time, so the memory used by the
+     * iteration stays bounded regardless of the size of the result. The
+     * results are returned in no particular order and the result size limit
+     * of the regular queries doesn't apply.
+     * <p>
+     * Use {@link com.hazelcast.projection.Projections#identity()} as the
+     * projection to iterate the matching entries.
+     * <p>
+     * <b>NOTE</b>
+     * Iterating the map should be done only when the {@link IMap} is not being
+     * mutated and the cluster is stable (there are no migrations or membership changes).
+     * In other cases, the iterator may not return some entries or may return an entry twice.
+     *
+     * @param fetchSize         the size of the chunks which will be sent when iterating the data
+     * @param maxInFlightChunks the maximum number of partitions of a single member being scanned at the same time
+     * @param projection        the projection to apply before returning the value. {@code null} value is not allowed
+     * @param predicate         the predicate which the entries must match. {@code null} value is not allowed
+     * @param <R>               the return type
+     * @return the iterator for the projected entries
+     * @throws IllegalArgumentException if the predicate is of type {@link PagingPredicate}
+     * @since 3.12
+     */
+    public <R> Iterator<R> queryIterator(int fetchSize, int maxInFlightChunks, Projection<Map.Entry<K, V>, R> projection,
+                                         Predicate<K, V> predicate) {
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Paging predicate is not allowed when iterating map by query");
+        }
+        checkNotNull(projection, NULL_PROJECTION_IS_NOT_ALLOWED);
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        // HazelcastInstanceAware handled by cloning
+        projection = serializationService.toObject(serializationService.toData(projection));
+        handleHazelcastInstanceAwareParams(predicate);
+        return new MapQueryStreamIterator<K, V, R>(this, fetchSize, maxInFlightChunks, predicate, projection);
+    }
+
     @Override
     public ICompletableFuture<EventJournalInitialSubscriberState> subscribeToEventJournal(int partitionId) {
         final MapEventJournalSubscribeOperation op = new MapEventJournalSubscribeOperation(name);
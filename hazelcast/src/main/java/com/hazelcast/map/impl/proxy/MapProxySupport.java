@@ -55,6 +55,7 @@ import com.hazelcast.map.impl.operation.IsPartitionLoadedOperationFactory;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.operation.RemoveInterceptorOperation;
+import com.hazelcast.map.impl.persistence.MapPersistence;
 import com.hazelcast.map.impl.query.QueryEngine;
 import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryEventFilter;
@@ -238,6 +239,7 @@ abstract class MapProxySupport<K, V>
         initializeListeners();
         initializeIndexes();
         initializeMapStoreLoad();
+        initializePersistenceRecovery();
     }
 
     private void initializeListeners() {
@@ -313,6 +315,13 @@ abstract class MapProxySupport<K, V>
         }
     }
 
+    private void initializePersistenceRecovery() {
+        MapPersistence mapPersistence = mapServiceContext.getMapPersistence();
+        if (mapPersistence != null) {
+            mapPersistence.recover(name);
+        }
+    }
+
     public PartitioningStrategy getPartitionStrategy() {
         return partitionStrategy;
     }
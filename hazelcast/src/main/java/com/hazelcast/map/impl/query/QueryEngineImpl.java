@@ -16,11 +16,13 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.core.HazelcastException;
 import com.hazelcast.core.Member;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.QueryResultSizeExceededException;
+import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.query.PagingPredicate;
@@ -114,7 +116,9 @@ public class QueryEngineImpl implements QueryEngine {
     private Result runOnLocalPartitions(Query query) {
         BitSet mutablePartitionIds = getLocalPartitionIds();
 
-        Result result = doRunOnQueryThreads(query, mutablePartitionIds, LOCAL_NODE);
+        Result result = runsOnPartitionThreadsOnly(query)
+                ? populateResult(query, mutablePartitionIds)
+                : doRunOnQueryThreads(query, mutablePartitionIds, LOCAL_NODE);
         if (isResultFromAnyPartitionMissing(mutablePartitionIds)) {
             doRunOnPartitionThreads(query, mutablePartitionIds, result);
         }
@@ -127,7 +131,9 @@ public class QueryEngineImpl implements QueryEngine {
     private Result runOnAllPartitions(Query query) {
         BitSet mutablePartitionIds = getAllPartitionIds();
 
-        Result result = doRunOnQueryThreads(query, mutablePartitionIds, ALL_NODES);
+        Result result = runsOnPartitionThreadsOnly(query)
+                ? populateResult(query, mutablePartitionIds)
+                : doRunOnQueryThreads(query, mutablePartitionIds, ALL_NODES);
         if (isResultFromAnyPartitionMissing(mutablePartitionIds)) {
             doRunOnPartitionThreads(query, mutablePartitionIds, result);
         }
@@ -146,6 +152,15 @@ public class QueryEngineImpl implements QueryEngine {
         }
     }
 
+    /**
+     * Records of {@link InMemoryFormat#NATIVE} maps live in native memory which is
+     * owned by the partition threads, so such maps can't be scanned from the query threads.
+     */
+    private boolean runsOnPartitionThreadsOnly(Query query) {
+        MapContainer mapContainer = mapServiceContext.getMapContainer(query.getMapName());
+        return mapContainer.getMapConfig().getInMemoryFormat() == InMemoryFormat.NATIVE;
+    }
+
     private Result doRunOnQueryThreads(Query query, BitSet partitionIds, Target target) {
         Result result = populateResult(query, partitionIds);
         List<Future<Result>> futures = dispatchOnQueryThreads(query, target);
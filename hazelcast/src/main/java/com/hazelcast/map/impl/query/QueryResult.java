@@ -155,6 +155,21 @@ public class QueryResult implements Result<QueryResult>, Iterable<QueryResultRow
         rows.add(orderAndLimitExpected ? entry : convertEntryToRow(entry));
     }
 
+    /**
+     * Adds all the rows of the given result into this result.
+     *
+     * @param result the result to add the rows of.
+     * @throws QueryResultSizeExceededException if the size of this result
+     *                                          exceeds the result size limit.
+     */
+    void addAll(QueryResult result) {
+        resultSize += result.resultSize;
+        if (resultSize > resultLimit) {
+            throw new QueryResultSizeExceededException();
+        }
+        rows.addAll(result.rows);
+    }
+
     @Override
     public QueryResult createSubResult() {
         return new QueryResult(iterationType, projection, serializationService, resultLimit, orderAndLimitExpected);
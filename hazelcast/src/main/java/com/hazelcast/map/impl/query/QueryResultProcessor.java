@@ -16,20 +16,49 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
 import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.executor.ManagedExecutorService;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.util.FutureUtil.RETHROW_EVERYTHING;
+import static com.hazelcast.util.FutureUtil.returnWithDeadline;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Responsible for populating {@link QueryResult}s
+ * <p>
+ * If an executor is given, large results, like the ones produced by indexed
+ * queries, are populated in parallel: the entries are split into chunks
+ * which are converted into result rows, i.e. projected and serialized, on
+ * the executor threads and on the calling thread. Results populated on
+ * partition threads are never parallelized, so partition threads never wait
+ * for the executor.
  */
 public class QueryResultProcessor implements ResultProcessor<QueryResult> {
 
+    static final int CHUNK_SIZE = 1024;
+
     private final SerializationService serializationService;
+    private final ManagedExecutorService executor;
+    private final int timeoutInMillis;
 
     public QueryResultProcessor(SerializationService serializationService) {
+        this(serializationService, null, 0);
+    }
+
+    public QueryResultProcessor(SerializationService serializationService, ManagedExecutorService executor,
+                                int timeoutInMillis) {
         this.serializationService = serializationService;
+        this.executor = executor;
+        this.timeoutInMillis = timeoutInMillis;
     }
 
     @Override
@@ -37,8 +66,13 @@ public class QueryResultProcessor implements ResultProcessor<QueryResult> {
                                       Collection<Integer> partitionIds) {
         QueryResult result = new QueryResult(query.getIterationType(), query.getProjection(), serializationService, resultLimit,
                 false);
-        for (QueryableEntry entry : entries) {
-            result.add(entry);
+        // partition threads never wait for the query executor
+        if (executor == null || Thread.currentThread() instanceof PartitionOperationThread) {
+            for (QueryableEntry entry : entries) {
+                result.add(entry);
+            }
+        } else {
+            populateInParallel(result, resultLimit, entries);
         }
         result.setPartitionIds(partitionIds);
         return result;
@@ -48,4 +82,62 @@ public class QueryResultProcessor implements ResultProcessor<QueryResult> {
     public QueryResult populateResult(Query query, long resultLimit) {
         return new QueryResult(query.getIterationType(), query.getProjection(), serializationService, resultLimit, false);
     }
+
+    private void populateInParallel(QueryResult result, long resultLimit, Collection<QueryableEntry> entries) {
+        // the index result sets are lazy: they are iterated exactly once, without asking for their size
+        // first, and the chunks are submitted while iterating
+        List<Future<QueryResult>> futures = new ArrayList<Future<QueryResult>>();
+        List<QueryableEntry> firstChunk = null;
+        List<QueryableEntry> chunk = new ArrayList<QueryableEntry>(CHUNK_SIZE);
+        long size = 0;
+        for (QueryableEntry entry : entries) {
+            if (++size > resultLimit) {
+                cancel(futures);
+                throw new QueryResultSizeExceededException();
+            }
+            chunk.add(entry);
+            if (chunk.size() == CHUNK_SIZE) {
+                if (firstChunk == null) {
+                    firstChunk = chunk;
+                } else {
+                    futures.add(executor.submit(new PopulateChunkCallable(result.createSubResult(), chunk)));
+                }
+                chunk = new ArrayList<QueryableEntry>(CHUNK_SIZE);
+            }
+        }
+
+        // the calling thread takes the first and the last chunks instead of just waiting
+        if (firstChunk != null) {
+            result.addAll(new PopulateChunkCallable(result.createSubResult(), firstChunk).call());
+        }
+        result.addAll(new PopulateChunkCallable(result.createSubResult(), chunk).call());
+        for (QueryResult chunkResult : returnWithDeadline(futures, timeoutInMillis, MILLISECONDS, RETHROW_EVERYTHING)) {
+            result.addAll(chunkResult);
+        }
+    }
+
+    private static void cancel(List<Future<QueryResult>> futures) {
+        for (Future<QueryResult> future : futures) {
+            future.cancel(false);
+        }
+    }
+
+    private static final class PopulateChunkCallable implements Callable<QueryResult> {
+
+        private final QueryResult result;
+        private final List<QueryableEntry> entries;
+
+        PopulateChunkCallable(QueryResult result, List<QueryableEntry> entries) {
+            this.result = result;
+            this.entries = entries;
+        }
+
+        @Override
+        public QueryResult call() {
+            for (QueryableEntry entry : entries) {
+                result.add(entry);
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.Clock;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.AbstractRecord.EPOCH_TIME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Flyweight {@link Record} over a fixed-size block of native memory.
+ * <p>
+ * Every field of the record lives off-heap, so the instance itself is only a cheap,
+ * short-lived view which can be created on each access. Key and value are kept in
+ * separate native blocks; {@link #getKey()} and {@link #getValue()} return on-heap
+ * copies of them.
+ * <p>
+ * Record block layout:
+ * <pre>
+ *  0: address of the next record in the same hash bucket
+ *  8: address of the key block
+ * 16: address of the value block
+ * 24: version
+ * 32: hits
+ * 40: ttl (seconds)
+ * 44: max-idle (seconds)
+ * 48: creation time
+ * 52: last access time
+ * 56: last update time
+ * 60: last stored time
+ * 64: expiration time
+ * </pre>
+ * Time fields are stored as seconds relative to {@link AbstractRecord#EPOCH_TIME},
+ * exactly like the on-heap records do.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class NativeRecord implements Record<Data> {
+
+    static final int NEXT_OFFSET = 0;
+    static final int KEY_OFFSET = 8;
+    static final int VALUE_OFFSET = 16;
+    static final int VERSION_OFFSET = 24;
+    static final int HITS_OFFSET = 32;
+    static final int TTL_OFFSET = 40;
+    static final int MAX_IDLE_OFFSET = 44;
+    static final int CREATION_TIME_OFFSET = 48;
+    static final int LAST_ACCESS_TIME_OFFSET = 52;
+    static final int LAST_UPDATE_TIME_OFFSET = 56;
+    static final int LAST_STORED_TIME_OFFSET = 60;
+    static final int EXPIRATION_TIME_OFFSET = 64;
+
+    /**
+     * Size of a record block in bytes.
+     */
+    public static final int RECORD_SIZE = 72;
+
+    private final NativeRecordFactory factory;
+    private final MemoryAccessor mem;
+    private final long address;
+    private Data key;
+
+    NativeRecord(NativeRecordFactory factory, long address) {
+        this.factory = factory;
+        this.mem = factory.mem();
+        this.address = address;
+    }
+
+    /**
+     * @return base address of the record block this flyweight points to
+     */
+    public long address() {
+        return address;
+    }
+
+    long nextAddress() {
+        return mem.getLong(address + NEXT_OFFSET);
+    }
+
+    void setNextAddress(long nextAddress) {
+        mem.putLong(address + NEXT_OFFSET, nextAddress);
+    }
+
+    long keyAddress() {
+        return mem.getLong(address + KEY_OFFSET);
+    }
+
+    long valueAddress() {
+        return mem.getLong(address + VALUE_OFFSET);
+    }
+
+    @Override
+    public Data getKey() {
+        if (key == null) {
+            long keyAddress = keyAddress();
+            if (keyAddress != NULL_ADDRESS) {
+                key = factory.readData(keyAddress);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Sets the on-heap view of the key without touching native memory.
+     * The key is written off-heap by the storage when the record is inserted.
+     */
+    @Override
+    public void setKey(Data key) {
+        this.key = key;
+    }
+
+    @Override
+    public Data getValue() {
+        long valueAddress = valueAddress();
+        return valueAddress == NULL_ADDRESS ? null : factory.readData(valueAddress);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        long oldValueAddress = valueAddress();
+        mem.putLong(address + VALUE_OFFSET, factory.writeData(value));
+        if (oldValueAddress != NULL_ADDRESS) {
+            factory.disposeData(oldValueAddress);
+        }
+    }
+
+    @Override
+    public void onAccess(long now) {
+        setHits(getHits() + 1);
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, stripBaseTime(now));
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        setVersion(getVersion() + 1);
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, stripBaseTime(now));
+    }
+
+    @Override
+    public void onStore() {
+        if (factory.isStatisticsEnabled()) {
+            setLastStoredTime(Clock.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Returns the native memory footprint of this record: the record
+     * block plus the key and value blocks it points to.
+     */
+    @Override
+    public long getCost() {
+        long cost = RECORD_SIZE;
+        long keyAddress = keyAddress();
+        if (keyAddress != NULL_ADDRESS) {
+            cost += factory.dataBlockSize(keyAddress);
+        }
+        return cost + getValueCost();
+    }
+
+    /**
+     * @return the native memory footprint of the value block
+     */
+    public long getValueCost() {
+        long valueAddress = valueAddress();
+        return valueAddress == NULL_ADDRESS ? 0 : factory.dataBlockSize(valueAddress);
+    }
+
+    @Override
+    public long getVersion() {
+        return mem.getLong(address + VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        mem.putLong(address + VERSION_OFFSET, version);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getTtl() {
+        int ttl = mem.getInt(address + TTL_OFFSET);
+        return ttl == Integer.MAX_VALUE ? Long.MAX_VALUE : SECONDS.toMillis(ttl);
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        mem.putInt(address + TTL_OFFSET, toSeconds(ttl));
+    }
+
+    @Override
+    public long getMaxIdle() {
+        int maxIdle = mem.getInt(address + MAX_IDLE_OFFSET);
+        return maxIdle == Integer.MAX_VALUE ? Long.MAX_VALUE : SECONDS.toMillis(maxIdle);
+    }
+
+    @Override
+    public void setMaxIdle(long maxIdle) {
+        mem.putInt(address + MAX_IDLE_OFFSET, toSeconds(maxIdle));
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(mem.getInt(address + LAST_ACCESS_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(mem.getInt(address + LAST_UPDATE_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(mem.getInt(address + CREATION_TIME_OFFSET));
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        mem.putInt(address + CREATION_TIME_OFFSET, stripBaseTime(creationTime));
+    }
+
+    @Override
+    public long getHits() {
+        return mem.getLong(address + HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(long hits) {
+        mem.putLong(address + HITS_OFFSET, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        if (!factory.isStatisticsEnabled()) {
+            return NOT_AVAILABLE;
+        }
+        int expirationTime = mem.getInt(address + EXPIRATION_TIME_OFFSET);
+        if (expirationTime == NOT_AVAILABLE) {
+            return 0L;
+        }
+        if (expirationTime == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return recomputeWithBaseTime(expirationTime);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        if (!factory.isStatisticsEnabled()) {
+            return;
+        }
+        mem.putInt(address + EXPIRATION_TIME_OFFSET,
+                expirationTime == Long.MAX_VALUE ? Integer.MAX_VALUE : stripBaseTime(expirationTime));
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        if (!factory.isStatisticsEnabled()) {
+            return NOT_AVAILABLE;
+        }
+        if (mem.getInt(address + EXPIRATION_TIME_OFFSET) == NOT_AVAILABLE) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(mem.getInt(address + LAST_STORED_TIME_OFFSET));
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        if (factory.isStatisticsEnabled()) {
+            mem.putInt(address + LAST_STORED_TIME_OFFSET, stripBaseTime(lastStoredTime));
+        }
+    }
+
+    @Override
+    public long getSequence() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return address == ((NativeRecord) o).address;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (address ^ (address >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "NativeRecord{address=" + address + '}';
+    }
+
+    static void initialize(MemoryAccessor mem, long address) {
+        mem.putInt(address + CREATION_TIME_OFFSET, NOT_AVAILABLE);
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, NOT_AVAILABLE);
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, NOT_AVAILABLE);
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, NOT_AVAILABLE);
+        mem.putInt(address + EXPIRATION_TIME_OFFSET, NOT_AVAILABLE);
+    }
+
+    private static int toSeconds(long millis) {
+        long seconds = MILLISECONDS.toSeconds(millis);
+        if (seconds == 0 && millis != 0) {
+            seconds = 1;
+        }
+        return seconds > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) seconds;
+    }
+
+    private static long recomputeWithBaseTime(int value) {
+        if (value == NOT_AVAILABLE) {
+            return 0L;
+        }
+        return SECONDS.toMillis(value) + EPOCH_TIME;
+    }
+
+    private static int stripBaseTime(long value) {
+        int diff = NOT_AVAILABLE;
+        if (value > 0) {
+            diff = (int) MILLISECONDS.toSeconds(value - EPOCH_TIME);
+        }
+        return diff;
+    }
+}
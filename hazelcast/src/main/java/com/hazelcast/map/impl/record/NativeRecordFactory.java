@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.record.NativeRecord.KEY_OFFSET;
+import static com.hazelcast.map.impl.record.NativeRecord.RECORD_SIZE;
+import static com.hazelcast.map.impl.record.NativeRecord.VALUE_OFFSET;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Creates {@link NativeRecord}s and owns the native memory blocks behind them.
+ * <p>
+ * Each record store gets its own factory instance, so it is only ever accessed by
+ * the partition thread owning that record store. Blocks released while an
+ * operation may still hold flyweights pointing to them are not freed immediately;
+ * they are queued and freed by {@link #disposeDeferredBlocks()}.
+ * <p>
+ * A key or value block has the layout {@code [int size][size bytes of Data payload]}.
+ */
+public class NativeRecordFactory implements RecordFactory<Data> {
+
+    private static final int INITIAL_DEFERRED_CAPACITY = 16;
+
+    private final SerializationService serializationService;
+    private final PartitioningStrategy partitionStrategy;
+    private final boolean statisticsEnabled;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+
+    private long[] deferredAddresses = new long[INITIAL_DEFERRED_CAPACITY];
+    private long[] deferredSizes = new long[INITIAL_DEFERRED_CAPACITY];
+    private int deferredCount;
+
+    public NativeRecordFactory(MapConfig config, SerializationService serializationService,
+                               PartitioningStrategy partitionStrategy, MemoryManager memoryManager) {
+        this.serializationService = serializationService;
+        this.partitionStrategy = partitionStrategy;
+        this.statisticsEnabled = config.isStatisticsEnabled();
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+    }
+
+    @Override
+    public Record<Data> newRecord(Object value) {
+        assert value != null : "value can not be null";
+
+        Data data = serializationService.toData(value, partitionStrategy);
+        long address = malloc.allocate(RECORD_SIZE);
+        NativeRecord.initialize(mem, address);
+        mem.putLong(address + VALUE_OFFSET, writeData(data));
+        return new NativeRecord(this, address);
+    }
+
+    @Override
+    public void setValue(Record<Data> record, Object value) {
+        assert value != null : "value can not be null";
+
+        Data v;
+        if (value instanceof Data) {
+            v = (Data) value;
+        } else {
+            v = serializationService.toData(value, partitionStrategy);
+        }
+        record.setValue(v);
+    }
+
+    /**
+     * Returns a flyweight over the record block at the given address.
+     */
+    public NativeRecord toRecord(long address) {
+        return new NativeRecord(this, address);
+    }
+
+    /**
+     * Copies the key off-heap and attaches it to the record.
+     * Does nothing if the record already has an off-heap key.
+     */
+    public void attachKey(NativeRecord record, Data key) {
+        if (record.keyAddress() == NULL_ADDRESS) {
+            mem.putLong(record.address() + KEY_OFFSET, writeData(key));
+        }
+        record.setKey(key);
+    }
+
+    /**
+     * @return {@code true} if the off-heap key of the record at the given address
+     * has exactly the same payload as the given key
+     */
+    public boolean keyEquals(long recordAddress, Data key) {
+        long keyAddress = mem.getLong(recordAddress + KEY_OFFSET);
+        int size = mem.getInt(keyAddress);
+        if (size != key.totalSize()) {
+            return false;
+        }
+        byte[] payload = key.toByteArray();
+        long base = keyAddress + INT_SIZE_IN_BYTES;
+        for (int i = 0; i < size; i++) {
+            if (mem.getByte(base + i) != payload[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long nextAddress(long recordAddress) {
+        return mem.getLong(recordAddress + NativeRecord.NEXT_OFFSET);
+    }
+
+    public void setNextAddress(long recordAddress, long nextAddress) {
+        mem.putLong(recordAddress + NativeRecord.NEXT_OFFSET, nextAddress);
+    }
+
+    /**
+     * Schedules the record block together with its key and value blocks for release.
+     */
+    public void disposeRecord(NativeRecord record) {
+        long keyAddress = record.keyAddress();
+        if (keyAddress != NULL_ADDRESS) {
+            disposeData(keyAddress);
+        }
+        long valueAddress = record.valueAddress();
+        if (valueAddress != NULL_ADDRESS) {
+            disposeData(valueAddress);
+        }
+        defer(record.address(), RECORD_SIZE);
+    }
+
+    /**
+     * Frees all blocks released since the last call.
+     */
+    public void disposeDeferredBlocks() {
+        for (int i = 0; i < deferredCount; i++) {
+            malloc.free(deferredAddresses[i], deferredSizes[i]);
+        }
+        deferredCount = 0;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    MemoryAccessor mem() {
+        return mem;
+    }
+
+    Data readData(long blockAddress) {
+        int size = mem.getInt(blockAddress);
+        byte[] payload = new byte[size];
+        mem.copyToByteArray(blockAddress + INT_SIZE_IN_BYTES, payload, 0, size);
+        return new HeapData(payload);
+    }
+
+    long writeData(Data data) {
+        int size = data.totalSize();
+        long blockAddress = malloc.allocate(INT_SIZE_IN_BYTES + size);
+        mem.putInt(blockAddress, size);
+        mem.copyFromByteArray(data.toByteArray(), 0, blockAddress + INT_SIZE_IN_BYTES, size);
+        return blockAddress;
+    }
+
+    long dataBlockSize(long blockAddress) {
+        return INT_SIZE_IN_BYTES + mem.getInt(blockAddress);
+    }
+
+    void disposeData(long blockAddress) {
+        defer(blockAddress, dataBlockSize(blockAddress));
+    }
+
+    private void defer(long address, long size) {
+        if (deferredCount == deferredAddresses.length) {
+            deferredAddresses = Arrays.copyOf(deferredAddresses, deferredCount * 2);
+            deferredSizes = Arrays.copyOf(deferredSizes, deferredCount * 2);
+        }
+        deferredAddresses[deferredCount] = address;
+        deferredSizes[deferredCount] = size;
+        deferredCount++;
+    }
+}
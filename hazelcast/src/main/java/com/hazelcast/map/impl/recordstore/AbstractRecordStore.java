@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.recordstore;
 import com.hazelcast.concurrent.lock.LockService;
 import com.hazelcast.concurrent.lock.LockStore;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MerkleTreeConfig;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.EntryCostEstimator;
 import com.hazelcast.map.impl.MapContainer;
@@ -26,6 +27,7 @@ import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.Records;
@@ -39,6 +41,8 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.merkletree.MerkleTree;
 
 import javax.annotation.Nonnull;
 import java.util.Collection;
@@ -64,6 +68,8 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     protected final MapDataStore<Data, Object> mapDataStore;
     protected final LocalRecordStoreStatsImpl stats = new LocalRecordStoreStatsImpl();
     protected final RecordStoreMutationObserver<Record> mutationObserver;
+    protected final MerkleTree merkleTree;
+    private final MerkleTreeUpdaterRecordStoreMutationObserver merkleTreeUpdater;
 
     protected Storage<Data, Record> storage;
 
@@ -82,9 +88,20 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         this.lockStore = createLockStore();
         Collection<RecordStoreMutationObserver<Record>> mutationObservers = mapServiceContext
                 .createRecordStoreMutationObservers(getName(), partitionId);
+        this.merkleTree = createMerkleTree(nodeEngine);
+        this.merkleTreeUpdater = merkleTree != null
+                ? new MerkleTreeUpdaterRecordStoreMutationObserver(merkleTree, this, serializationService) : null;
+        if (merkleTreeUpdater != null) {
+            mutationObservers.add(merkleTreeUpdater);
+        }
         this.mutationObserver = new CompositeRecordStoreMutationObserver<Record>(mutationObservers);
     }
 
+    private MerkleTree createMerkleTree(NodeEngine nodeEngine) {
+        MerkleTreeConfig merkleTreeConfig = nodeEngine.getConfig().findMapMerkleTreeConfig(name);
+        return merkleTreeConfig.isEnabled() ? new ArrayMerkleTree(merkleTreeConfig.getDepth()) : null;
+    }
+
     protected boolean persistenceEnabledFor(@Nonnull CallerProvenance provenance) {
         switch (provenance) {
             case WAN:
@@ -119,9 +136,33 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (memoryFormat == InMemoryFormat.NATIVE) {
+            return new NativeStorageImpl((NativeRecordFactory) recordFactory,
+                    mapServiceContext.getNativeMemoryManager(), serializationService);
+        }
         return new StorageImpl(recordFactory, memoryFormat, serializationService);
     }
 
+    @Override
+    public MerkleTree getMerkleTree() {
+        if (merkleTreeUpdater != null) {
+            merkleTreeUpdater.flush();
+        }
+        return merkleTree;
+    }
+
+    /**
+     * Called when the metadata of a record is changed without notifying
+     * the mutation observers, e.g. when only its TTL is modified.
+     *
+     * @param key the key of the record
+     */
+    protected void onRecordMetadataChanged(Data key) {
+        if (merkleTreeUpdater != null) {
+            merkleTreeUpdater.markDirty(key);
+        }
+    }
+
     @Override
     public String getName() {
         return name;
@@ -37,14 +37,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 
 import static com.hazelcast.spi.ExecutionService.MAP_LOADER_EXECUTOR;
+import static com.hazelcast.spi.ExecutionService.MAP_STORE_EXECUTOR;
 
 /**
  * Responsible for loading keys from configured map store for a single partition.
@@ -164,37 +165,89 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
      * Loads the values for the provided keys in batches and invokes
      * partition operations to put the loaded entry batches into the
      * record store.
+     * <p>
+     * Up to {@link GroupProperty#MAP_LOAD_CHUNK_PARALLELISM} lanes poll the
+     * batches from a shared queue: the calling thread is one of them, the
+     * others run on the {@link ExecutionService#MAP_STORE_EXECUTOR}. Since a
+     * lane loads the next batch only after it has dispatched the previous
+     * one, no more than that many batches are loaded and held at any moment.
      *
      * @param keys the keys for which entries are loaded and put into the
      *             record store
      * @return the list of futures representing the pending completion of
      * the operations storing the loaded entries into the partition record
      * store
+     * @throws Exception if loading any of the batches failed
      */
-    private List<Future> doBatchLoad(List<Data> keys) {
+    private List<Future> doBatchLoad(List<Data> keys) throws Exception {
         Queue<List<Data>> batchChunks = createBatchChunks(keys);
         int size = batchChunks.size();
-        List<Future> futures = new ArrayList<Future>(size);
+        List<Future> futures = Collections.synchronizedList(new ArrayList<Future>(size));
 
-        while (!batchChunks.isEmpty()) {
-            List<Data> chunk = batchChunks.poll();
-            List<Data> keyValueSequence = loadAndGet(chunk);
-            if (keyValueSequence.isEmpty()) {
-                continue;
-            }
-            futures.add(sendOperation(keyValueSequence));
+        int laneCount = Math.min(getLoadChunkParallelism(), size);
+        List<Future> lanes = new ArrayList<Future>(laneCount);
+        for (int i = 1; i < laneCount; i++) {
+            lanes.add(executeTask(MAP_STORE_EXECUTOR, new ChunkLoaderTask(batchChunks, futures)));
+        }
+        loadChunks(batchChunks, futures);
+        for (Future lane : lanes) {
+            lane.get();
         }
 
         return futures;
     }
 
+    /**
+     * Loads and dispatches batches polled from the shared queue until it is
+     * drained. If a batch fails to load, the queue is cleared so that the
+     * other lanes stop as well.
+     *
+     * @param batchChunks the shared queue of key batches
+     * @param futures     the list collecting the futures of the dispatched
+     *                    put operations
+     */
+    private void loadChunks(Queue<List<Data>> batchChunks, List<Future> futures) {
+        try {
+            for (List<Data> chunk = batchChunks.poll(); chunk != null; chunk = batchChunks.poll()) {
+                List<Data> keyValueSequence = loadAndGet(chunk);
+                if (keyValueSequence.isEmpty()) {
+                    continue;
+                }
+                futures.add(sendOperation(keyValueSequence));
+            }
+        } catch (RuntimeException e) {
+            batchChunks.clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Task running an additional lane of {@link #loadChunks(Queue, List)}.
+     */
+    private final class ChunkLoaderTask implements Callable<Object> {
+
+        private final Queue<List<Data>> batchChunks;
+        private final List<Future> futures;
+
+        private ChunkLoaderTask(Queue<List<Data>> batchChunks, List<Future> futures) {
+            this.batchChunks = batchChunks;
+            this.futures = futures;
+        }
+
+        @Override
+        public Object call() throws Exception {
+            loadChunks(batchChunks, futures);
+            return null;
+        }
+    }
+
     /**
      * Returns a queue of key batches
      *
      * @param keys the keys to be batched
      */
     private Queue<List<Data>> createBatchChunks(List<Data> keys) {
-        Queue<List<Data>> chunks = new LinkedList<List<Data>>();
+        Queue<List<Data>> chunks = new ConcurrentLinkedQueue<List<Data>>();
         int loadBatchSize = getLoadBatchSize();
         int page = 0;
         List<Data> tmpKeys;
@@ -327,4 +380,14 @@ class BasicRecordStoreLoader implements RecordStoreLoader {
     private int getLoadBatchSize() {
         return mapServiceContext.getNodeEngine().getProperties().getInteger(GroupProperty.MAP_LOAD_CHUNK_SIZE);
     }
+
+    /**
+     * Returns the maximum number of key batches of this partition which are
+     * loaded in parallel.
+     */
+    private int getLoadChunkParallelism() {
+        int parallelism = mapServiceContext.getNodeEngine().getProperties()
+                .getInteger(GroupProperty.MAP_LOAD_CHUNK_PARALLELISM);
+        return Math.max(1, parallelism);
+    }
 }
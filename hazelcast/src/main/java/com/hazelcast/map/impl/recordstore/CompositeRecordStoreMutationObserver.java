@@ -52,6 +52,13 @@ class CompositeRecordStoreMutationObserver<R extends Record> implements RecordSt
         }
     }
 
+    @Override
+    public void onReplicationRemoveRecord(Data key, R record) {
+        for (RecordStoreMutationObserver<R> mutationObserver : mutationObservers) {
+            mutationObserver.onReplicationRemoveRecord(key, record);
+        }
+    }
+
     @Override
     public void onUpdateRecord(Data key, R record, Object newValue) {
         for (RecordStoreMutationObserver<R> mutationObserver : mutationObservers) {
@@ -162,6 +162,17 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         updateStatsOnPut(record.getHits());
     }
 
+    @Override
+    public void removeReplicatedRecord(Data key) {
+        Record record = storage.get(key);
+        if (record == null) {
+            return;
+        }
+        removeIndex(record);
+        mutationObserver.onReplicationRemoveRecord(key, record);
+        storage.removeRecord(record);
+    }
+
     @Override
     public Record putBackup(Data key, Object value, CallerProvenance provenance) {
         return putBackup(key, value, DEFAULT_TTL, DEFAULT_MAX_IDLE, false, provenance);
@@ -674,6 +685,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         }
         markRecordStoreExpirable(ttl, DEFAULT_MAX_IDLE);
         setExpirationTimes(ttl, DEFAULT_MAX_IDLE, record, mapContainer.getMapConfig(), true);
+        onRecordMetadataChanged(key);
         return true;
     }
 
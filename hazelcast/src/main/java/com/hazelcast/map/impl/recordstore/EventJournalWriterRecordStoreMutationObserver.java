@@ -52,6 +52,11 @@ public class EventJournalWriterRecordStoreMutationObserver implements RecordStor
         // NOP
     }
 
+    @Override
+    public void onReplicationRemoveRecord(Data key, Record record) {
+        // NOP
+    }
+
     @Override
     public void onUpdateRecord(Data key, Record record, Object newValue) {
         eventJournal.writeUpdateEvent(eventJournalConfig, objectNamespace, partitionId,
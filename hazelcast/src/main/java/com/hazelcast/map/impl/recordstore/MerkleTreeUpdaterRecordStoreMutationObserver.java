@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.util.function.Function;
+import com.hazelcast.wan.merkletree.MerkleTree;
+
+import java.util.BitSet;
+
+/**
+ * Keeps the {@link MerkleTree} of a record store in sync with its
+ * contents.
+ * <p>
+ * An entry is hashed from its serialized value together with its
+ * version and TTL, so the trees of the replicas of a partition are
+ * comparable regardless of the in-memory format of the map and replicas
+ * differing only in their replicated metadata are detected as well. The
+ * expiration time is left out since it is computed locally on each
+ * replica.
+ * <p>
+ * The version and the TTL of a record are updated by the record store
+ * around the observer notifications, and the TTL may be changed without
+ * any notification, so the hash an entry contributed to the tree cannot
+ * be derived from the record passed to the observer. Instead of caching
+ * the hash of every entry, the tree only tracks the keys of its leaves
+ * and the leaves touched by a mutation are marked as dirty. The hashes
+ * of the dirty leaves are recalculated from the records currently in the
+ * record store by {@link #flush()} before the tree is read.
+ * <p>
+ * Not thread-safe, it is accessed only by the partition thread owning
+ * the record store.
+ */
+class MerkleTreeUpdaterRecordStoreMutationObserver implements RecordStoreMutationObserver<Record> {
+
+    private static final int HASH_MULTIPLIER = 31;
+    /**
+     * The value passed to the tree when adding or removing a key, the
+     * actual hash of the entry is accounted for by {@link #flush()}
+     */
+    private static final Integer NO_HASH = 0;
+
+    private final MerkleTree merkleTree;
+    private final RecordStore<Record> recordStore;
+    private final SerializationService serializationService;
+    private final BitSet dirtyLeaves = new BitSet();
+    private final Function<Object, Integer> entryHashFunction = new Function<Object, Integer>() {
+        @Override
+        public Integer apply(Object key) {
+            Record record = recordStore.getRecord((Data) key);
+            return record != null ? hash(record) : 0;
+        }
+    };
+
+    MerkleTreeUpdaterRecordStoreMutationObserver(MerkleTree merkleTree, RecordStore<Record> recordStore,
+                                                 SerializationService serializationService) {
+        this.merkleTree = merkleTree;
+        this.recordStore = recordStore;
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public void onClear() {
+        clear();
+    }
+
+    @Override
+    public void onPutRecord(Data key, Record record) {
+        add(key);
+    }
+
+    @Override
+    public void onReplicationPutRecord(Data key, Record record) {
+        add(key);
+    }
+
+    @Override
+    public void onReplicationRemoveRecord(Data key, Record record) {
+        remove(key);
+    }
+
+    @Override
+    public void onUpdateRecord(Data key, Record record, Object newValue) {
+        markDirty(key);
+    }
+
+    @Override
+    public void onRemoveRecord(Data key, Record record) {
+        remove(key);
+    }
+
+    @Override
+    public void onEvictRecord(Data key, Record record) {
+        remove(key);
+    }
+
+    @Override
+    public void onLoadRecord(Data key, Record record) {
+        add(key);
+    }
+
+    @Override
+    public void onDestroy(boolean internal) {
+        clear();
+    }
+
+    @Override
+    public void onReset() {
+        clear();
+    }
+
+    /**
+     * Marks the leaf of the given key as dirty. Called when the metadata
+     * of a record is changed without notifying the observers.
+     *
+     * @param key the key of the record
+     */
+    void markDirty(Data key) {
+        dirtyLeaves.set(merkleTree.getLeafOrder(key));
+    }
+
+    /**
+     * Recalculates the hashes of the leaves touched since the last call.
+     * Must be called before the tree is read.
+     */
+    void flush() {
+        for (int leafOrder = dirtyLeaves.nextSetBit(0); leafOrder >= 0;
+             leafOrder = dirtyLeaves.nextSetBit(leafOrder + 1)) {
+            merkleTree.updateLeaf(leafOrder, entryHashFunction);
+        }
+        dirtyLeaves.clear();
+    }
+
+    private void add(Data key) {
+        merkleTree.updateAdd(key, NO_HASH);
+        markDirty(key);
+    }
+
+    private void remove(Data key) {
+        merkleTree.updateRemove(key, NO_HASH);
+        markDirty(key);
+    }
+
+    private void clear() {
+        dirtyLeaves.clear();
+        merkleTree.clear();
+    }
+
+    private int hash(Record record) {
+        int hash = serializationService.toData(record.getValue()).hashCode();
+        hash = HASH_MULTIPLIER * hash + hash(record.getVersion());
+        return HASH_MULTIPLIER * hash + hash(record.getTtl());
+    }
+
+    private static int hash(long value) {
+        return (int) (value ^ (value >>> Integer.SIZE));
+    }
+}
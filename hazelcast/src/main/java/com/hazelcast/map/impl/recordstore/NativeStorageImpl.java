@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.util.hashslot.HashSlotArray8byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.map.impl.OwnedEntryCostEstimatorFactory.createMapSizeEstimator;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * {@link Storage} which keeps all records in native memory, used by
+ * {@link RecordStore}s of maps with {@link InMemoryFormat#NATIVE} in-memory format.
+ * <p>
+ * Records are indexed by a {@link HashSlotArray8byteKey} keyed by the 64-bit hash
+ * of the key ({@link Data#hash64()}). The value of a slot is the address of the first
+ * {@link NativeRecord} in that bucket; the (very rare) records whose keys share the
+ * same 64-bit hash are chained through the record's next-address field.
+ * <p>
+ * This storage is not thread-safe. It must only be accessed from the partition thread
+ * owning the record store. Native blocks released by a mutation are freed on
+ * {@link #disposeDeferredBlocks()}, so flyweights handed out during an operation
+ * stay readable until the operation completes.
+ */
+public class NativeStorageImpl implements Storage<Data, NativeRecord> {
+
+    /**
+     * A slot of {@link HashSlotArray8byteKeyImpl} with 8-byte values is laid
+     * out as {@code [long key][long value]} starting at {@link HashSlotArray8byteKey#address()}.
+     */
+    private static final int SLOT_LENGTH = 2 * LONG_SIZE_IN_BYTES;
+    private static final int SLOT_VALUE_OFFSET = LONG_SIZE_IN_BYTES;
+
+    private final NativeRecordFactory recordFactory;
+    private final SerializationService serializationService;
+    private final MemoryAccessor mem;
+    private final HashSlotArray8byteKey hsa;
+    private final Random random = new Random();
+
+    private int size;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator;
+
+    NativeStorageImpl(NativeRecordFactory recordFactory, MemoryManager memoryManager,
+                      SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.serializationService = serializationService;
+        this.mem = memoryManager.getAccessor();
+        this.entryCostEstimator = createMapSizeEstimator(InMemoryFormat.NATIVE);
+        this.hsa = new HashSlotArray8byteKeyImpl(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES);
+        this.hsa.gotoNew();
+    }
+
+    @Override
+    public void put(Data key, NativeRecord record) {
+        long hash = key.hash64();
+        long existingAddress = findRecordAddress(hash, key);
+        if (existingAddress == record.address()) {
+            return;
+        }
+        if (existingAddress != NULL_ADDRESS) {
+            removeRecord(recordFactory.toRecord(existingAddress));
+        }
+
+        recordFactory.attachKey(record, key);
+        SlotAssignmentResult slot = hsa.ensure(hash);
+        long head = slot.isNew() ? NULL_ADDRESS : mem.getLong(slot.address());
+        recordFactory.setNextAddress(record.address(), head);
+        mem.putLong(slot.address(), record.address());
+        size++;
+
+        updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
+    }
+
+    @Override
+    public void updateRecordValue(Data key, NativeRecord record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        recordFactory.setValue(record, value);
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+    }
+
+    @Override
+    public NativeRecord get(Data key) {
+        long address = findRecordAddress(key.hash64(), key);
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        NativeRecord record = recordFactory.toRecord(address);
+        record.setKey(key);
+        return record;
+    }
+
+    @Override
+    public NativeRecord getIfSameKey(Data key) {
+        return get(key);
+    }
+
+    @Override
+    public void removeRecord(NativeRecord record) {
+        if (record == null) {
+            return;
+        }
+
+        Data key = record.getKey();
+        long hash = key.hash64();
+        long slotAddress = hsa.get(hash);
+        if (slotAddress == NULL_ADDRESS) {
+            return;
+        }
+
+        long previous = NULL_ADDRESS;
+        long current = mem.getLong(slotAddress);
+        while (current != NULL_ADDRESS && current != record.address()) {
+            previous = current;
+            current = recordFactory.nextAddress(current);
+        }
+        if (current == NULL_ADDRESS) {
+            return;
+        }
+
+        long next = recordFactory.nextAddress(current);
+        if (previous != NULL_ADDRESS) {
+            recordFactory.setNextAddress(previous, next);
+        } else if (next != NULL_ADDRESS) {
+            mem.putLong(slotAddress, next);
+        } else {
+            hsa.remove(hash);
+        }
+        size--;
+
+        updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, record));
+        recordFactory.disposeRecord(record);
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findRecordAddress(key.hash64(), key) != NULL_ADDRESS;
+    }
+
+    @Override
+    public Collection<NativeRecord> values() {
+        return new AbstractCollection<NativeRecord>() {
+            @Override
+            public Iterator<NativeRecord> iterator() {
+                return new RecordIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<NativeRecord> mutationTolerantIterator() {
+        return new RecordIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        long capacity = hsa.capacity();
+        for (long slot = 0; slot < capacity; slot++) {
+            long address = headOfSlot(slot);
+            while (address != NULL_ADDRESS) {
+                long next = recordFactory.nextAddress(address);
+                recordFactory.disposeRecord(recordFactory.toRecord(address));
+                address = next;
+            }
+        }
+        hsa.clear();
+        size = 0;
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+        recordFactory.disposeDeferredBlocks();
+        hsa.dispose();
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        recordFactory.disposeDeferredBlocks();
+    }
+
+    @Override
+    public Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount) {
+        List<LazyEntryViewFromRecord> samples = new ArrayList<LazyEntryViewFromRecord>(sampleCount);
+        long capacity = hsa.capacity();
+        if (size == 0 || capacity == 0) {
+            return samples;
+        }
+        long start = (random.nextLong() & Long.MAX_VALUE) % capacity;
+        for (long i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long address = headOfSlot((start + i) % capacity);
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                samples.add(new LazyEntryViewFromRecord<NativeRecord>(recordFactory.toRecord(address),
+                        serializationService));
+                address = recordFactory.nextAddress(address);
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
+        List<Data> keys = new ArrayList<Data>(size);
+        int nextTableIndex = startIndexForFetch(tableIndex);
+        while (nextTableIndex >= 0 && keys.size() < size) {
+            long address = headOfSlot(nextTableIndex--);
+            while (address != NULL_ADDRESS) {
+                keys.add(recordFactory.toRecord(address).getKey());
+                address = recordFactory.nextAddress(address);
+            }
+        }
+        return new MapKeysWithCursor(keys, nextTableIndex);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<Map.Entry<Data, Data>>(size);
+        int nextTableIndex = startIndexForFetch(tableIndex);
+        while (nextTableIndex >= 0 && entries.size() < size) {
+            long address = headOfSlot(nextTableIndex--);
+            while (address != NULL_ADDRESS) {
+                NativeRecord record = recordFactory.toRecord(address);
+                entries.add(new AbstractMap.SimpleEntry<Data, Data>(record.getKey(), record.getValue()));
+                address = recordFactory.nextAddress(address);
+            }
+        }
+        return new MapEntriesWithCursor(entries, nextTableIndex);
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    private int startIndexForFetch(int tableIndex) {
+        long capacity = hsa.capacity();
+        return tableIndex >= 0 && tableIndex < capacity ? tableIndex : (int) capacity - 1;
+    }
+
+    private long findRecordAddress(long hash, Data key) {
+        long slotAddress = hsa.get(hash);
+        if (slotAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        long address = mem.getLong(slotAddress);
+        while (address != NULL_ADDRESS && !recordFactory.keyEquals(address, key)) {
+            address = recordFactory.nextAddress(address);
+        }
+        return address;
+    }
+
+    private long slotBase(long slot) {
+        return hsa.address() + slot * SLOT_LENGTH;
+    }
+
+    private long headOfSlot(long slot) {
+        return mem.getLong(slotBase(slot) + SLOT_VALUE_OFFSET);
+    }
+
+    private long keyOfSlot(long slot) {
+        return mem.getLong(slotBase(slot));
+    }
+
+    /**
+     * Walks the hash slots in ascending order. The position of the last returned
+     * record is kept as (slot, bucket key, index in bucket) rather than as a record
+     * address, so the iterator survives any mutation of the storage, including
+     * resizing of the slot array. Records shifted into an already visited slot by
+     * a removal may be missed, exactly as with a weakly consistent iterator.
+     */
+    private final class RecordIterator implements Iterator<NativeRecord> {
+
+        private long slot = -1;
+        private long slotKey;
+        private int indexInBucket = -1;
+        private long current = NULL_ADDRESS;
+        private boolean canRemove;
+
+        // position found by the last call to seekNext()
+        private long nextSlot;
+        private int nextIndexInBucket;
+
+        @Override
+        public boolean hasNext() {
+            return seekNext() != NULL_ADDRESS;
+        }
+
+        @Override
+        public NativeRecord next() {
+            long address = seekNext();
+            if (address == NULL_ADDRESS) {
+                throw new NoSuchElementException();
+            }
+            slot = nextSlot;
+            slotKey = keyOfSlot(slot);
+            indexInBucket = nextIndexInBucket;
+            current = address;
+            canRemove = true;
+            return recordFactory.toRecord(address);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+            NativeRecord record = recordFactory.toRecord(current);
+            if (findRecordAddress(record.getKey().hash64(), record.getKey()) == current) {
+                removeRecord(record);
+            }
+        }
+
+        private long seekNext() {
+            long capacity = hsa.capacity();
+            long s = slot;
+            int index = 0;
+            if (s < 0) {
+                s = 0;
+            } else if (s >= capacity) {
+                return NULL_ADDRESS;
+            } else if (headOfSlot(s) != NULL_ADDRESS && keyOfSlot(s) == slotKey) {
+                int position = positionInBucket(headOfSlot(s), current);
+                // if the last returned record was removed, its successors moved one position down
+                index = position >= 0 ? position + 1 : indexInBucket;
+            }
+            for (; s < capacity; s++, index = 0) {
+                long address = headOfSlot(s);
+                for (int i = 0; i < index && address != NULL_ADDRESS; i++) {
+                    address = recordFactory.nextAddress(address);
+                }
+                if (address != NULL_ADDRESS) {
+                    nextSlot = s;
+                    nextIndexInBucket = index;
+                    return address;
+                }
+            }
+            return NULL_ADDRESS;
+        }
+
+        private int positionInBucket(long head, long address) {
+            int position = 0;
+            for (long a = head; a != NULL_ADDRESS; a = recordFactory.nextAddress(a)) {
+                if (a == address) {
+                    return position;
+                }
+                position++;
+            }
+            return -1;
+        }
+    }
+}
@@ -37,6 +37,7 @@ import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.merkletree.MerkleTree;
 
 import java.util.Iterator;
 import java.util.List;
@@ -238,6 +239,27 @@ public interface RecordStore<R extends Record> {
      */
     void putRecord(Data key, R record);
 
+    /**
+     * Removes the record of a data key from record-store without touching
+     * the map store. Used in replication operations.
+     *
+     * @param key the data key to remove from record store.
+     * @see com.hazelcast.map.impl.operation.MapMerkleTreeDeltaOperation
+     */
+    void removeReplicatedRecord(Data key);
+
+    /**
+     * Returns the Merkle tree maintained over the entries of this
+     * record-store. The tree is brought up to date with the entries
+     * before it is returned, so this method must be called on the
+     * partition thread.
+     *
+     * @return the Merkle tree or {@code null} if Merkle trees are not
+     * enabled for this map
+     * @see com.hazelcast.config.MerkleTreeConfig
+     */
+    MerkleTree getMerkleTree();
+
     /**
      * Iterates over record store entries.
      *
@@ -48,6 +48,15 @@ public interface RecordStoreMutationObserver<R extends Record> {
      */
     void onReplicationPutRecord(Data key, R record);
 
+    /**
+     * Called when a record is removed from the {@link RecordStore} due
+     * to replication
+     *
+     * @param key    The key of the record
+     * @param record The record
+     */
+    void onReplicationRemoveRecord(Data key, R record);
+
     /**
      * Called when a new record is updated in the observed {@link RecordStore}
      *
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.listener;
+
+/**
+ * Marker for a {@link MapListener} which accepts coalesced entry events.
+ * <p>
+ * When remote event batching is enabled (see
+ * {@link com.hazelcast.spi.properties.GroupProperty#EVENT_BATCHING_ENABLED}),
+ * the entry events of a key which are sent to this listener in the same batch are
+ * coalesced and only the latest one of them is delivered. For example, if a key
+ * is updated several times within the batch flush interval, the listener is
+ * notified only about the last update. Use it for listeners which are interested
+ * only in the latest state of an entry.
+ * <p>
+ * Coalescing is applied only to the events delivered to a listener on a remote
+ * member. This interface has no effect if event batching is disabled.
+ *
+ * @since 3.12
+ */
+public interface CoalescingListener extends MapListener {
+}
@@ -42,6 +42,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
             newUpdater(NearCacheStatsImpl.class, "misses");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EVICTIONS =
             newUpdater(NearCacheStatsImpl.class, "evictions");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> ADMISSION_REJECTIONS =
+            newUpdater(NearCacheStatsImpl.class, "admissionRejections");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EXPIRATIONS =
             newUpdater(NearCacheStatsImpl.class, "expirations");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> INVALIDATIONS =
@@ -64,6 +66,8 @@ public class NearCacheStatsImpl implements NearCacheStats {
     @Probe
     private volatile long evictions;
     @Probe
+    private volatile long admissionRejections;
+    @Probe
     private volatile long expirations;
 
     @Probe
@@ -95,6 +99,7 @@ public class NearCacheStatsImpl implements NearCacheStats {
         hits = stats.hits;
         misses = stats.misses;
         evictions = stats.evictions;
+        admissionRejections = stats.admissionRejections;
         expirations = stats.expirations;
         invalidations = stats.invalidations;
         invalidationRequests = stats.invalidationRequests;
@@ -187,6 +192,17 @@ public class NearCacheStatsImpl implements NearCacheStats {
         }
     }
 
+    /**
+     * Returns the percentage of lookups which were hits, or {@code NaN} if
+     * there was no lookup yet.
+     */
+    @Probe
+    public double getHitPercentage() {
+        long hits = this.hits;
+        long lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : ((double) hits / lookups) * PERCENTAGE;
+    }
+
     @Override
     public long getEvictions() {
         return evictions;
@@ -196,6 +212,20 @@ public class NearCacheStatsImpl implements NearCacheStats {
         EVICTIONS.incrementAndGet(this);
     }
 
+    /**
+     * Returns the number of entries which were evicted since the TinyLFU
+     * admission filter estimated them to be accessed less often than the
+     * entry they would have replaced. These entries are included in the
+     * {@link #getEvictions() evictions}.
+     */
+    public long getAdmissionRejections() {
+        return admissionRejections;
+    }
+
+    public void incrementAdmissionRejections() {
+        ADMISSION_REJECTIONS.incrementAndGet(this);
+    }
+
     @Override
     public long getExpirations() {
         return expirations;
@@ -291,6 +321,7 @@ public class NearCacheStatsImpl implements NearCacheStats {
         root.add("hits", hits);
         root.add("misses", misses);
         root.add("evictions", evictions);
+        root.add("admissionRejections", admissionRejections);
         root.add("expirations", expirations);
         root.add("invalidations", invalidations);
         root.add("invalidationEvents", invalidationRequests);
@@ -311,6 +342,7 @@ public class NearCacheStatsImpl implements NearCacheStats {
         hits = getLong(json, "hits", -1L);
         misses = getLong(json, "misses", -1L);
         evictions = getLong(json, "evictions", -1L);
+        admissionRejections = getLong(json, "admissionRejections", -1L);
         expirations = getLong(json, "expirations", -1L);
         invalidations = getLong(json, "invalidations", -1L);
         invalidationRequests = getLong(json, "invalidationEvents", -1L);
@@ -332,6 +364,7 @@ public class NearCacheStatsImpl implements NearCacheStats {
                 + ", misses=" + misses
                 + ", ratio=" + format("%.1f%%", getRatio())
                 + ", evictions=" + evictions
+                + ", admissionRejections=" + admissionRejections
                 + ", expirations=" + expirations
                 + ", invalidations=" + invalidations
                 + ", lastPersistenceTime=" + lastPersistenceTime
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+/**
+ * Describes the layout of the fields written by {@link
+ * IdentifiedDataSerializable#writeData} of a single class, so query
+ * attributes can be read straight from the serialized form of its
+ * instances without deserializing them, like it's done for {@link Portable}
+ * objects.
+ * <p>
+ * The fields must be listed in the order they are written. A schema may
+ * describe only a prefix of the written fields, e.g. if a class writes a
+ * nested object with {@code writeObject}, only the fields written before
+ * that object can be described and queried in the serialized form; other
+ * attributes are extracted from the deserialized object as usual.
+ * <p>
+ * Schemas are built with {@link DataSerializableSchemaBuilder} and
+ * registered with {@link com.hazelcast.config.SerializationConfig#addDataSerializableSchema}.
+ * A schema not matching the actual {@code writeData} implementation makes
+ * queries return wrong results, so keep them in sync.
+ */
+public final class DataSerializableSchema {
+
+    private final int factoryId;
+    private final int classId;
+    private final String[] fieldNames;
+    private final FieldType[] fieldTypes;
+
+    DataSerializableSchema(int factoryId, int classId, String[] fieldNames, FieldType[] fieldTypes) {
+        this.factoryId = factoryId;
+        this.classId = classId;
+        this.fieldNames = fieldNames;
+        this.fieldTypes = fieldTypes;
+    }
+
+    /**
+     * @return the factory ID of the described class.
+     */
+    public int getFactoryId() {
+        return factoryId;
+    }
+
+    /**
+     * @return the class ID of the described class.
+     */
+    public int getClassId() {
+        return classId;
+    }
+
+    /**
+     * @return the number of the described fields.
+     */
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    /**
+     * @return the name of the field at the given position in the serialized
+     * form.
+     */
+    public String getFieldName(int index) {
+        return fieldNames[index];
+    }
+
+    /**
+     * @return the type of the field at the given position in the serialized
+     * form.
+     */
+    public FieldType getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    /**
+     * @return the position of the field having the given name in the
+     * serialized form or {@code -1} if there is no such field.
+     */
+    public int indexOf(String fieldName) {
+        for (int i = 0; i < fieldNames.length; ++i) {
+            if (fieldNames[i].equals(fieldName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DataSerializableSchema that = (DataSerializableSchema) o;
+        return factoryId == that.factoryId && classId == that.classId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * factoryId + classId;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < fieldNames.length; ++i) {
+            if (i > 0) {
+                fields.append(", ");
+            }
+            fields.append(fieldNames[i]).append(':').append(fieldTypes[i]);
+        }
+        return "DataSerializableSchema{"
+                + "factoryId=" + factoryId
+                + ", classId=" + classId
+                + ", fields=[" + fields + ']'
+                + '}';
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSerializableSchemaBuilder is used to build {@link DataSerializableSchema}s
+ * of {@link IdentifiedDataSerializable} classes.
+ * <p>
+ * The fields must be added in the same order as they are written by {@link
+ * IdentifiedDataSerializable#writeData}, using the types matching the
+ * {@link com.hazelcast.nio.ObjectDataOutput} methods writing them, e.g.
+ * {@link FieldType#UTF} for {@code writeUTF} and {@link FieldType#INT_ARRAY}
+ * for {@code writeIntArray}. Portable fields are not supported.
+ *
+ * @see com.hazelcast.config.SerializationConfig#addDataSerializableSchema(DataSerializableSchema)
+ */
+public final class DataSerializableSchemaBuilder {
+
+    private final int factoryId;
+    private final int classId;
+    private final List<String> fieldNames = new ArrayList<String>();
+    private final List<FieldType> fieldTypes = new ArrayList<FieldType>();
+
+    private boolean done;
+
+    /**
+     * @param factoryId the factory ID of the described class
+     * @param classId   the class ID of the described class
+     */
+    public DataSerializableSchemaBuilder(int factoryId, int classId) {
+        this.factoryId = factoryId;
+        this.classId = classId;
+    }
+
+    /**
+     * Adds the next written field to the schema.
+     *
+     * @param fieldName the name of the field, i.e. the name of the query
+     *                  attribute the field is available under
+     * @param fieldType the type of the field
+     * @return this builder for chaining
+     * @throws IllegalArgumentException if the field name is already used or
+     *                                  the field type is not supported
+     */
+    public DataSerializableSchemaBuilder addField(String fieldName, FieldType fieldType) {
+        check();
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new IllegalArgumentException("Field name must contain text");
+        }
+        if (fieldType == null || fieldType.getSingleType() == FieldType.PORTABLE) {
+            throw new IllegalArgumentException("Unsupported type of field '" + fieldName + "': " + fieldType);
+        }
+        if (fieldNames.contains(fieldName)) {
+            throw new IllegalArgumentException("Field '" + fieldName + "' already exists");
+        }
+        fieldNames.add(fieldName);
+        fieldTypes.add(fieldType);
+        return this;
+    }
+
+    public DataSerializableSchema build() {
+        done = true;
+        return new DataSerializableSchema(factoryId, classId, fieldNames.toArray(new String[0]),
+                fieldTypes.toArray(new FieldType[0]));
+    }
+
+    private void check() {
+        if (done) {
+            throw new HazelcastSerializationException("DataSerializableSchema is already built for " + classId);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import static com.hazelcast.internal.networking.ChannelOption.SO_LINGER;
 import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
 import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
 import static com.hazelcast.internal.networking.ChannelOption.TCP_NODELAY;
+import static com.hazelcast.internal.networking.ChannelOption.WRITE_SPIN_COUNT;
 import static com.hazelcast.nio.IOService.KILO_BYTE;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_BUFFER_DIRECT;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_KEEP_ALIVE;
@@ -35,6 +36,7 @@ import static com.hazelcast.spi.properties.GroupProperty.SOCKET_LINGER_SECONDS;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_NO_DELAY;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_RECEIVE_BUFFER_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_SEND_BUFFER_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.SOCKET_WRITE_SPIN_COUNT;
 
 /**
  * A {@link ChannelInitializer} that runs on a member and used for unencrypted
@@ -59,7 +61,8 @@ public class PlainChannelInitializer implements ChannelInitializer {
                 .setOption(SO_KEEPALIVE, props.getBoolean(SOCKET_KEEP_ALIVE))
                 .setOption(SO_SNDBUF, props.getInteger(SOCKET_SEND_BUFFER_SIZE) * KILO_BYTE)
                 .setOption(SO_RCVBUF, props.getInteger(SOCKET_RECEIVE_BUFFER_SIZE) * KILO_BYTE)
-                .setOption(SO_LINGER, props.getSeconds(SOCKET_LINGER_SECONDS));
+                .setOption(SO_LINGER, props.getSeconds(SOCKET_LINGER_SECONDS))
+                .setOption(WRITE_SPIN_COUNT, props.getInteger(SOCKET_WRITE_SPIN_COUNT));
 
         ProtocolEncoder encoder = new ProtocolEncoder(ioService);
         ProtocolDecoder decoder = new ProtocolDecoder(ioService, encoder);
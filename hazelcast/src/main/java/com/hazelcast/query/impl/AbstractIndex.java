@@ -25,6 +25,7 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.getters.MultiResult;
 import com.hazelcast.query.impl.predicates.PredicateDataSerializerHook;
 
 import java.util.Collections;
@@ -45,24 +46,46 @@ public abstract class AbstractIndex implements InternalIndex {
     protected final IndexStore indexStore;
     protected final IndexCopyBehavior copyBehavior;
 
+    private final String name;
     private final String attributeName;
+    private final String[] components;
     private final boolean ordered;
     private final PerIndexStats stats;
 
     private volatile TypeConverter converter;
 
+    /**
+     * Creates an index over the given attribute backed by the given index store.
+     */
     public AbstractIndex(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
-                         IndexCopyBehavior copyBehavior, PerIndexStats stats) {
+                         IndexCopyBehavior copyBehavior, PerIndexStats stats, IndexStore indexStore) {
+        this.name = attributeName;
         this.attributeName = attributeName;
+        this.components = IndexDefinition.componentsOf(attributeName);
         this.ordered = ordered;
         this.ss = ss;
         this.extractors = extractors;
         this.copyBehavior = copyBehavior;
-        this.indexStore = createIndexStore(ordered, stats);
+        this.indexStore = indexStore;
         this.stats = stats;
     }
 
-    protected abstract IndexStore createIndexStore(boolean ordered, PerIndexStats stats);
+    /**
+     * Creates an index over the attribute of the given definition backed by
+     * the given index store.
+     */
+    protected AbstractIndex(IndexDefinition definition, InternalSerializationService ss, Extractors extractors,
+                            IndexCopyBehavior copyBehavior, PerIndexStats stats, IndexStore indexStore) {
+        this.name = definition.getName();
+        this.attributeName = definition.getAttributeName();
+        this.components = definition.getComponents();
+        this.ordered = definition.isOrdered();
+        this.ss = ss;
+        this.extractors = extractors;
+        this.copyBehavior = copyBehavior;
+        this.indexStore = indexStore;
+        this.stats = stats;
+    }
 
     @Override
     public void saveEntryIndex(QueryableEntry entry, Object oldRecordValue, OperationSource operationSource) {
@@ -76,8 +99,8 @@ public abstract class AbstractIndex implements InternalIndex {
          * another thread can query over indexes without knowing the converter and
          * this causes to class cast exceptions.
          */
-        if (converter == null || converter == NULL_CONVERTER) {
-            converter = entry.getConverter(attributeName);
+        if (isConverterTransient()) {
+            converter = obtainConverter(entry);
         }
 
         Object newAttributeValue = extractAttributeValue(entry.getKeyData(), entry.getTargetObject(false));
@@ -101,8 +124,46 @@ public abstract class AbstractIndex implements InternalIndex {
         stats.onRemove(timestamp, operationStats, operationSource);
     }
 
+    private boolean isConverterTransient() {
+        TypeConverter converter = this.converter;
+        return converter == null || converter == NULL_CONVERTER
+                || converter instanceof CompositeConverter && ((CompositeConverter) converter).isTransient();
+    }
+
+    private TypeConverter obtainConverter(QueryableEntry entry) {
+        if (components == null) {
+            return entry.getConverter(attributeName);
+        }
+        TypeConverter[] converters = new TypeConverter[components.length];
+        for (int i = 0; i < components.length; ++i) {
+            converters[i] = entry.getConverter(components[i]);
+        }
+        return new CompositeConverter(converters);
+    }
+
     private Object extractAttributeValue(Data key, Object value) {
-        return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
+        if (components == null) {
+            return QueryableEntry.extractAttributeValue(extractors, ss, attributeName, key, value);
+        }
+        Comparable[] values = new Comparable[components.length];
+        for (int i = 0; i < components.length; ++i) {
+            values[i] = sanitizeComponent(QueryableEntry.extractAttributeValue(extractors, ss, components[i], key, value));
+        }
+        return new CompositeValue(values);
+    }
+
+    private Comparable sanitizeComponent(Object value) {
+        if (value == null) {
+            return NULL;
+        }
+        if (value instanceof MultiResult) {
+            throw new IllegalStateException("Collection/array attributes are not supported by composite index " + name);
+        }
+        if (!(value instanceof Comparable)) {
+            throw new IllegalArgumentException("It is not allowed to use a type that is not Comparable: "
+                    + value.getClass());
+        }
+        return value.getClass().isEnum() ? TypeConverters.ENUM_CONVERTER.convert((Comparable) value) : (Comparable) value;
     }
 
     @Override
@@ -202,7 +263,7 @@ public abstract class AbstractIndex implements InternalIndex {
 
     @Override
     public String getAttributeName() {
-        return attributeName;
+        return name;
     }
 
     @Override
@@ -210,6 +271,11 @@ public abstract class AbstractIndex implements InternalIndex {
         return ordered;
     }
 
+    @Override
+    public String[] getComponents() {
+        return components;
+    }
+
     @Override
     public PerIndexStats getPerIndexStats() {
         return stats;
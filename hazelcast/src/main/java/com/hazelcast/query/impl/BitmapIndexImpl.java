@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.monitor.impl.PerIndexStats;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.hazelcast.util.SetUtil.createHashSet;
+
+/**
+ * Provides implementation of on-heap bitmap indexes.
+ * <p>
+ * Besides the regular result sets, a bitmap index can produce the matching
+ * entries as bitmaps of their {@link EntryOrdinals ordinals}, which are
+ * shared by all the bitmap indexes of the same {@link Indexes}. This allows
+ * evaluating conjunctions, disjunctions and negations over bitmap indexes
+ * with bitwise set operations.
+ */
+public class BitmapIndexImpl extends AbstractIndex {
+
+    private final Set<Integer> indexedPartitions = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    private final EntryOrdinals ordinals;
+
+    public BitmapIndexImpl(IndexDefinition definition, InternalSerializationService ss, Extractors extractors,
+                           IndexCopyBehavior copyBehavior, PerIndexStats stats, EntryOrdinals ordinals) {
+        super(definition, ss, extractors, copyBehavior, stats, new BitmapIndexStore(copyBehavior, ordinals));
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * @return the ordinals shared by the bitmap indexes of the same {@link
+     * Indexes}.
+     */
+    public EntryOrdinals getEntryOrdinals() {
+        return ordinals;
+    }
+
+    /**
+     * @return the ordinals of the entries whose attribute values are equal to
+     * the given value.
+     */
+    public SparseBitSet getBitmap(Comparable value) {
+        long timestamp = getPerIndexStats().makeTimestamp();
+        TypeConverter converter = getConverter();
+        SparseBitSet result = converter == null ? new SparseBitSet() : store().getBitmap(converter.convert(value));
+        return onIndexHit(timestamp, result);
+    }
+
+    /**
+     * @return the ordinals of the entries whose attribute values are equal to
+     * at least one of the given values.
+     */
+    public SparseBitSet getBitmap(Comparable[] values) {
+        long timestamp = getPerIndexStats().makeTimestamp();
+        TypeConverter converter = getConverter();
+        if (converter == null) {
+            return onIndexHit(timestamp, new SparseBitSet());
+        }
+        Set<Comparable> convertedValues = createHashSet(values.length);
+        for (Comparable value : values) {
+            convertedValues.add(converter.convert(value));
+        }
+        return onIndexHit(timestamp, store().getBitmap(convertedValues));
+    }
+
+    /**
+     * @return the ordinals of the entries whose non-null attribute values
+     * satisfy the comparison of the given type with the given value.
+     */
+    public SparseBitSet getSubBitmap(ComparisonType comparisonType, Comparable searchedValue) {
+        long timestamp = getPerIndexStats().makeTimestamp();
+        TypeConverter converter = getConverter();
+        SparseBitSet result = converter == null
+                ? new SparseBitSet()
+                : store().getSubBitmap(comparisonType, converter.convert(searchedValue));
+        return onIndexHit(timestamp, result);
+    }
+
+    private SparseBitSet onIndexHit(long timestamp, SparseBitSet result) {
+        getPerIndexStats().onIndexHit(timestamp, result.cardinality());
+        return result;
+    }
+
+    private BitmapIndexStore store() {
+        return (BitmapIndexStore) indexStore;
+    }
+
+    @Override
+    public boolean hasPartitionIndexed(int partitionId) {
+        return indexedPartitions.contains(partitionId);
+    }
+
+    @Override
+    public void markPartitionAsIndexed(int partitionId) {
+        assert !indexedPartitions.contains(partitionId);
+        indexedPartitions.add(partitionId);
+    }
+
+    @Override
+    public void markPartitionAsUnindexed(int partitionId) {
+        indexedPartitions.remove(partitionId);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        indexedPartitions.clear();
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Store indexes as compressed bitmaps of entry ordinals, one bitmap per
+ * distinct attribute value.
+ * <p>
+ * Meant for attributes having only a few distinct values across many
+ * entries: instead of a map of entries per distinct value, every value
+ * costs a single {@link SparseBitSet}. The entries themselves are tracked
+ * once by the {@link EntryOrdinals} shared by all the bitmap indexes of the
+ * same {@link Indexes}, which allows combining the bitmaps of different
+ * attributes with bitwise set operations.
+ * <p>
+ * Query results are always materialized into new result sets, so the
+ * {@link IndexCopyBehavior} is satisfied regardless of its value.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private final EntryOrdinals ordinals;
+    private final Map<Comparable, SparseBitSet> bitmaps = new HashMap<Comparable, SparseBitSet>();
+    private final SparseBitSet nullBitmap = new SparseBitSet();
+    private final SparseBitSet indexedOrdinals = new SparseBitSet();
+
+    public BitmapIndexStore(IndexCopyBehavior copyOn, EntryOrdinals ordinals) {
+        super(copyOn);
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    Object newIndexInternal(Comparable newValue, QueryableEntry record) {
+        int ordinal = ordinals.ordinalOf(record.getKeyData());
+        if (ordinal >= 0 && indexedOrdinals.contains(ordinal)) {
+            ordinals.update(ordinal, record);
+        } else {
+            ordinal = ordinals.acquire(record);
+            indexedOrdinals.add(ordinal);
+        }
+
+        SparseBitSet bitmap = bitmapOf(newValue);
+        if (bitmap == null) {
+            bitmap = new SparseBitSet();
+            bitmaps.put(newValue, bitmap);
+        }
+        return bitmap.add(ordinal) ? null : newValue;
+    }
+
+    @Override
+    Object removeIndexInternal(Comparable oldValue, Data recordKey) {
+        int ordinal = ordinals.ordinalOf(recordKey);
+        if (ordinal < 0 || !indexedOrdinals.contains(ordinal)) {
+            return null;
+        }
+
+        SparseBitSet bitmap = bitmapOf(oldValue);
+        if (bitmap == null || !bitmap.remove(ordinal)) {
+            return null;
+        }
+        if (bitmap.isEmpty() && bitmap != nullBitmap) {
+            bitmaps.remove(oldValue);
+        }
+
+        // multi-value attributes may still map the entry to other values
+        if (!isIndexedUnderAnyValue(ordinal)) {
+            indexedOrdinals.remove(ordinal);
+            ordinals.release(ordinal);
+        }
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            for (int i = indexedOrdinals.nextSetBit(0); i >= 0; i = indexedOrdinals.nextSetBit(i + 1)) {
+                ordinals.release(i);
+            }
+            indexedOrdinals.clear();
+            nullBitmap.clear();
+            bitmaps.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
+        return ordinals.toResultSet(getSubBitmapBetween(from, to));
+    }
+
+    @Override
+    public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
+        return ordinals.toResultSet(getSubBitmap(comparisonType, searchedValue));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return ordinals.toResultSet(getBitmap(value));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        return ordinals.toResultSet(getBitmap(values));
+    }
+
+    /**
+     * @return a snapshot of the ordinals of the entries having the given
+     * attribute value.
+     */
+    public SparseBitSet getBitmap(Comparable value) {
+        takeReadLock();
+        try {
+            SparseBitSet bitmap = bitmapOf(value);
+            return bitmap == null ? new SparseBitSet() : bitmap.copy();
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the ordinals of the entries having any of the
+     * given attribute values.
+     */
+    public SparseBitSet getBitmap(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Comparable value : values) {
+                SparseBitSet bitmap = bitmapOf(value);
+                if (bitmap != null) {
+                    result = result.or(bitmap);
+                }
+            }
+            return result;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the ordinals of the entries having non-null
+     * attribute values satisfying the comparison of the given type with the
+     * given value.
+     */
+    public SparseBitSet getSubBitmap(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            SparseBitSet result = new SparseBitSet();
+            for (Map.Entry<Comparable, SparseBitSet> bitmapEntry : bitmaps.entrySet()) {
+                if (matches(comparisonType, searchedValue.compareTo(bitmapEntry.getKey()))) {
+                    result = result.or(bitmapEntry.getValue());
+                }
+            }
+            return result;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the ordinals of the entries having non-null
+     * attribute values in the given range (inclusive).
+     */
+    public SparseBitSet getSubBitmapBetween(Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            Comparable lower = from;
+            Comparable upper = to;
+            if (lower.compareTo(upper) > 0) {
+                lower = to;
+                upper = from;
+            }
+            SparseBitSet result = new SparseBitSet();
+            for (Map.Entry<Comparable, SparseBitSet> bitmapEntry : bitmaps.entrySet()) {
+                Comparable value = bitmapEntry.getKey();
+                if (value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0) {
+                    result = result.or(bitmapEntry.getValue());
+                }
+            }
+            return result;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private static boolean matches(ComparisonType comparisonType, int comparison) {
+        switch (comparisonType) {
+            case LESSER:
+                return comparison > 0;
+            case LESSER_EQUAL:
+                return comparison >= 0;
+            case GREATER:
+                return comparison < 0;
+            case GREATER_EQUAL:
+                return comparison <= 0;
+            case NOT_EQUAL:
+                return comparison != 0;
+            default:
+                throw new IllegalStateException("Unrecognized comparisonType: " + comparisonType);
+        }
+    }
+
+    private SparseBitSet bitmapOf(Comparable value) {
+        return value instanceof IndexImpl.NullObject ? nullBitmap : bitmaps.get(value);
+    }
+
+    private boolean isIndexedUnderAnyValue(int ordinal) {
+        if (nullBitmap.contains(ordinal)) {
+            return true;
+        }
+        for (SparseBitSet bitmap : bitmaps.values()) {
+            if (bitmap.contains(ordinal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapIndexStore{"
+                + "bitmaps=" + bitmaps.size()
+                + '}';
+    }
+}
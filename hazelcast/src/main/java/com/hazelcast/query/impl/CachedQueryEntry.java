@@ -95,14 +95,14 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
         Object targetObject;
         if (key) {
             // keyData is never null
-            if (keyData.isPortable()) {
+            if (isQueryableInSerializedForm(keyData)) {
                 targetObject = keyData;
             } else {
                 targetObject = getKey();
             }
         } else {
             if (valueObject == null) {
-                if (valueData.isPortable()) {
+                if (isQueryableInSerializedForm(valueData)) {
                     targetObject = valueData;
                 } else {
                     targetObject = getValue();
@@ -118,6 +118,10 @@ public class CachedQueryEntry<K, V> extends QueryableEntry<K, V> {
         return targetObject;
     }
 
+    private boolean isQueryableInSerializedForm(Data data) {
+        return extractors == null ? data.isPortable() : extractors.isQueryableInSerializedForm(data);
+    }
+
     @Override
     public V setValue(V value) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+
+import static com.hazelcast.query.impl.TypeConverters.NULL_CONVERTER;
+
+/**
+ * Converts {@link CompositeValue composite values} by converting each of their
+ * components with the converter of the corresponding index component.
+ * Infinities and nulls are passed through unchanged.
+ */
+public final class CompositeConverter implements TypeConverter {
+
+    private final TypeConverter[] converters;
+    private final boolean isTransient;
+
+    public CompositeConverter(TypeConverter[] converters) {
+        this.converters = converters;
+        boolean isTransient = false;
+        for (TypeConverter converter : converters) {
+            if (converter == null || converter == NULL_CONVERTER) {
+                isTransient = true;
+                break;
+            }
+        }
+        this.isTransient = isTransient;
+    }
+
+    /**
+     * @return {@code true} if the converter of at least one component is not
+     * known yet since only {@code null} values were seen for the component,
+     * {@code false} otherwise.
+     */
+    public boolean isTransient() {
+        return isTransient;
+    }
+
+    @Override
+    public Comparable convert(Comparable value) {
+        if (!(value instanceof CompositeValue)) {
+            throw new IllegalArgumentException("Cannot convert [" + value + "] to composite");
+        }
+        Comparable[] components = ((CompositeValue) value).getComponents();
+        Comparable[] converted = new Comparable[components.length];
+        for (int i = 0; i < components.length; ++i) {
+            Comparable component = components[i];
+            if (component == CompositeValue.NEGATIVE_INFINITY || component == CompositeValue.POSITIVE_INFINITY
+                    || component instanceof AbstractIndex.NullObject) {
+                converted[i] = component;
+            } else {
+                converted[i] = converters[i].convert(component);
+            }
+        }
+        return new CompositeValue(converted);
+    }
+
+}
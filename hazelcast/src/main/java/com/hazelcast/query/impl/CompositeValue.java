@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * Represents a value of a composite index, i.e. the values of the index
+ * components in the order the components are declared.
+ * <p>
+ * Composite values are ordered lexicographically by their components. Besides
+ * the regular attribute values, a component may be {@link #NEGATIVE_INFINITY}
+ * or {@link #POSITIVE_INFINITY}, which are lower and greater than any other
+ * value respectively. The infinities are never stored in the index and serve
+ * only as boundaries of prefix range scans: the range of {@code (a, -inf)} to
+ * {@code (a, +inf)} covers all the values having {@code a} as the first
+ * component.
+ * <p>
+ * A composite value compares to a longer composite value having the same
+ * prefix according to the first extra component of the latter, so {@code
+ * (a, b, +inf)} may be used as an exclusive lower bound of {@code (a, b)}.
+ */
+public final class CompositeValue implements Comparable<CompositeValue> {
+
+    /**
+     * The component value which is lower than any other value.
+     */
+    public static final Comparable NEGATIVE_INFINITY = new Infinity(-1);
+
+    /**
+     * The component value which is greater than any other value.
+     */
+    public static final Comparable POSITIVE_INFINITY = new Infinity(1);
+
+    private final Comparable[] components;
+
+    /**
+     * Constructs a new composite value from the given components.
+     * <p>
+     * The components are used as is, without any conversion; {@code null}
+     * values must be represented by {@link AbstractIndex#NULL}.
+     */
+    public CompositeValue(Comparable[] components) {
+        this.components = components;
+    }
+
+    /**
+     * @return the components of this composite value.
+     */
+    public Comparable[] getComponents() {
+        return components;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int compareTo(CompositeValue that) {
+        Comparable[] thatComponents = that.components;
+        int commonLength = Math.min(components.length, thatComponents.length);
+        for (int i = 0; i < commonLength; ++i) {
+            int order = compareComponents(components[i], thatComponents[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+
+        if (components.length == thatComponents.length) {
+            return 0;
+        } else if (components.length > thatComponents.length) {
+            return components[commonLength] == NEGATIVE_INFINITY ? -1 : 1;
+        } else {
+            return thatComponents[commonLength] == NEGATIVE_INFINITY ? 1 : -1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareComponents(Comparable left, Comparable right) {
+        if (left == right) {
+            return 0;
+        }
+        if (left instanceof Infinity) {
+            return ((Infinity) left).sign;
+        }
+        if (right instanceof Infinity) {
+            return -((Infinity) right).sign;
+        }
+        // nulls go first, the same as in the regular sorted indexes
+        if (left instanceof AbstractIndex.NullObject) {
+            return right instanceof AbstractIndex.NullObject ? 0 : -1;
+        }
+        if (right instanceof AbstractIndex.NullObject) {
+            return 1;
+        }
+        return left.compareTo(right);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(components, ((CompositeValue) o).components);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(components);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(components);
+    }
+
+    private static final class Infinity implements Comparable<Object> {
+
+        private final int sign;
+
+        Infinity(int sign) {
+            this.sign = sign;
+        }
+
+        @Override
+        public int compareTo(Object o) {
+            return o == this ? 0 : sign;
+        }
+
+        @Override
+        public String toString() {
+            return sign < 0 ? "-inf" : "+inf";
+        }
+    }
+
+}
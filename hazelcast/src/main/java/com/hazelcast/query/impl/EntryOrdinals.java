@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.util.HashUtil.fastIntMix;
+import static com.hazelcast.util.MapUtil.createHashMap;
+
+/**
+ * Assigns dense {@code int} ordinals to the entries indexed by the bitmap
+ * indexes of a single {@link Indexes} instance.
+ * <p>
+ * All the bitmap indexes of an {@link Indexes} instance share the same
+ * ordinals, so the bitmaps produced by different indexes can be combined
+ * with bitwise set operations. Every bitmap index holding an entry keeps a
+ * reference to its ordinal; once the last reference is released, the
+ * ordinal is recycled.
+ * <p>
+ * The ordinal space is partitioned into {@value #STRIPE_COUNT} stripes
+ * selected by the key hash. Every stripe owns a contiguous range of
+ * ordinals and is guarded by its own lock, so the partition threads
+ * updating a global index rarely contend. The keys are indexed by an
+ * open-addressing table of primitive ordinals, no per-entry objects are
+ * allocated.
+ */
+public final class EntryOrdinals {
+
+    private static final int STRIPE_COUNT = 16;
+    /**
+     * The ordinals of a stripe occupy a contiguous range of this many bits,
+     * {@value #STRIPE_COUNT} stripes cover all the non-negative ints.
+     */
+    private static final int STRIPE_SHIFT = 27;
+    private static final int STRIPE_HASH_SHIFT = 28;
+    private static final int MAX_STRIPE_ORDINALS = 1 << STRIPE_SHIFT;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    public EntryOrdinals() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(i << STRIPE_SHIFT);
+        }
+    }
+
+    /**
+     * @return the ordinal of the entry having the given key or {@code -1} if
+     * no bitmap index holds such an entry.
+     */
+    public int ordinalOf(Data key) {
+        return stripeOf(key).ordinalOf(key);
+    }
+
+    /**
+     * Takes a reference to the ordinal of the given entry, assigning a new
+     * ordinal if the entry has none yet.
+     *
+     * @param entry the entry to take the ordinal reference for.
+     * @return the ordinal of the entry.
+     */
+    public int acquire(QueryableEntry entry) {
+        return stripeOf(entry.getKeyData()).acquire(entry);
+    }
+
+    /**
+     * Replaces the entry associated with the given ordinal.
+     */
+    public void update(int ordinal, QueryableEntry entry) {
+        stripes[ordinal >>> STRIPE_SHIFT].update(ordinal, entry);
+    }
+
+    /**
+     * Releases a reference to the given ordinal taken by {@link #acquire}.
+     */
+    public void release(int ordinal) {
+        stripes[ordinal >>> STRIPE_SHIFT].release(ordinal);
+    }
+
+    /**
+     * @return a snapshot of all the ordinals currently in use, i.e. of all
+     * the entries indexed by the bitmap indexes.
+     */
+    public SparseBitSet all() {
+        SparseBitSet result = new SparseBitSet();
+        for (Stripe stripe : stripes) {
+            result = result.or(stripe.liveOrdinals());
+        }
+        return result;
+    }
+
+    /**
+     * Materializes the entries having the given ordinals into a result set.
+     * Ordinals released in the meantime are skipped.
+     *
+     * @param ordinals the ordinals of the entries to include.
+     * @return the produced result set.
+     */
+    public Set<QueryableEntry> toResultSet(SparseBitSet ordinals) {
+        Map<Data, QueryableEntry> records = createHashMap(ordinals.cardinality());
+        for (Stripe stripe : stripes) {
+            stripe.collect(ordinals, records);
+        }
+        return new SingleResultSet(records);
+    }
+
+    private Stripe stripeOf(Data key) {
+        return stripes[key.getPartitionHash() >>> STRIPE_HASH_SHIFT];
+    }
+
+    /**
+     * The ordinals in the range starting at {@link #base}. The entries are
+     * indexed by their keys in {@link #keyTable}, a linear probing table of
+     * local ordinals incremented by one, where {@code 0} marks a free slot.
+     */
+    private static final class Stripe {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final int base;
+        private final SparseBitSet liveOrdinals = new SparseBitSet();
+
+        private QueryableEntry[] entries = new QueryableEntry[INITIAL_CAPACITY];
+        private int[] referenceCounts = new int[INITIAL_CAPACITY];
+        private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+        private int freeOrdinalCount;
+        private int nextOrdinal;
+        private int[] keyTable = new int[INITIAL_CAPACITY * 2];
+        private int keyCount;
+
+        Stripe(int base) {
+            this.base = base;
+        }
+
+        synchronized int ordinalOf(Data key) {
+            int slot = findSlot(key);
+            return slot < 0 ? -1 : base + keyTable[slot] - 1;
+        }
+
+        synchronized int acquire(QueryableEntry entry) {
+            Data key = entry.getKeyData();
+            int slot = findSlot(key);
+            int local;
+            if (slot >= 0) {
+                local = keyTable[slot] - 1;
+            } else {
+                local = freeOrdinalCount > 0 ? freeOrdinals[--freeOrdinalCount] : newOrdinal();
+                insertKey(key, local);
+                liveOrdinals.add(base + local);
+            }
+            entries[local] = entry;
+            referenceCounts[local]++;
+            return base + local;
+        }
+
+        synchronized void update(int ordinal, QueryableEntry entry) {
+            int local = ordinal - base;
+            assert referenceCounts[local] > 0;
+            entries[local] = entry;
+        }
+
+        synchronized void release(int ordinal) {
+            int local = ordinal - base;
+            assert referenceCounts[local] > 0;
+            if (--referenceCounts[local] > 0) {
+                return;
+            }
+            removeSlot(findSlot(entries[local].getKeyData()));
+            entries[local] = null;
+            liveOrdinals.remove(ordinal);
+            if (freeOrdinalCount == freeOrdinals.length) {
+                freeOrdinals = Arrays.copyOf(freeOrdinals, freeOrdinalCount * 2);
+            }
+            freeOrdinals[freeOrdinalCount++] = local;
+        }
+
+        synchronized SparseBitSet liveOrdinals() {
+            return liveOrdinals.copy();
+        }
+
+        synchronized void collect(SparseBitSet ordinals, Map<Data, QueryableEntry> records) {
+            for (int ordinal = ordinals.nextSetBit(base); ordinal >= 0 && ordinal - base < nextOrdinal;
+                 ordinal = ordinals.nextSetBit(ordinal + 1)) {
+                QueryableEntry entry = entries[ordinal - base];
+                if (entry != null) {
+                    records.put(entry.getKeyData(), entry);
+                }
+            }
+        }
+
+        private int newOrdinal() {
+            if (nextOrdinal == MAX_STRIPE_ORDINALS) {
+                throw new IllegalStateException("Too many entries are indexed by the bitmap indexes");
+            }
+            if (nextOrdinal == entries.length) {
+                entries = Arrays.copyOf(entries, nextOrdinal * 2);
+                referenceCounts = Arrays.copyOf(referenceCounts, nextOrdinal * 2);
+            }
+            return nextOrdinal++;
+        }
+
+        private int findSlot(Data key) {
+            int mask = keyTable.length - 1;
+            for (int slot = hash(key) & mask; keyTable[slot] != 0; slot = (slot + 1) & mask) {
+                if (entries[keyTable[slot] - 1].getKeyData().equals(key)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insertKey(Data key, int local) {
+            if ((keyCount + 1) * 2 > keyTable.length) {
+                int[] oldTable = keyTable;
+                keyTable = new int[oldTable.length * 2];
+                for (int value : oldTable) {
+                    if (value != 0) {
+                        place(hash(entries[value - 1].getKeyData()), value);
+                    }
+                }
+            }
+            place(hash(key), local + 1);
+            keyCount++;
+        }
+
+        private void place(int hash, int value) {
+            int mask = keyTable.length - 1;
+            int slot = hash & mask;
+            while (keyTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keyTable[slot] = value;
+        }
+
+        /**
+         * Frees the slot and shifts back the following slots of the probe
+         * sequence, so no tombstones are needed.
+         */
+        private void removeSlot(int slot) {
+            int mask = keyTable.length - 1;
+            int hole = slot;
+            keyTable[hole] = 0;
+            for (int i = (hole + 1) & mask; keyTable[i] != 0; i = (i + 1) & mask) {
+                int home = hash(entries[keyTable[i] - 1].getKeyData()) & mask;
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keyTable[hole] = keyTable[i];
+                    keyTable[i] = 0;
+                    hole = i;
+                }
+            }
+            keyCount--;
+        }
+
+        private static int hash(Data key) {
+            return fastIntMix(key.hashCode());
+        }
+    }
+}
@@ -34,6 +34,8 @@ public class GlobalQueryContextWithStats extends QueryContext {
 
     private final HashSet<QueryTrackingIndex> trackedIndexes = new HashSet<QueryTrackingIndex>(8);
 
+    private final HashSet<PerIndexStats> trackedBitmapIndexStats = new HashSet<PerIndexStats>(8);
+
     @Override
     void attachTo(Indexes indexes) {
         super.attachTo(indexes);
@@ -41,6 +43,7 @@ public class GlobalQueryContextWithStats extends QueryContext {
             trackedIndex.resetPerQueryStats();
         }
         trackedIndexes.clear();
+        trackedBitmapIndexStats.clear();
     }
 
     @Override
@@ -66,11 +69,23 @@ public class GlobalQueryContextWithStats extends QueryContext {
         return trackingIndex;
     }
 
+    @Override
+    public BitmapIndexImpl getBitmapIndex(String attributeName) {
+        BitmapIndexImpl index = super.getBitmapIndex(attributeName);
+        if (index != null) {
+            trackedBitmapIndexStats.add(index.getPerIndexStats());
+        }
+        return index;
+    }
+
     @Override
     void applyPerQueryStats() {
         for (QueryTrackingIndex trackedIndex : trackedIndexes) {
             trackedIndex.incrementQueryCount();
         }
+        for (PerIndexStats stats : trackedBitmapIndexStats) {
+            stats.incrementQueryCount();
+        }
     }
 
     private static class QueryTrackingIndex implements InternalIndex {
@@ -103,6 +118,11 @@ public class GlobalQueryContextWithStats extends QueryContext {
             return delegate.isOrdered();
         }
 
+        @Override
+        public String[] getComponents() {
+            return delegate.getComponents();
+        }
+
         @Override
         public void saveEntryIndex(QueryableEntry entry, Object oldValue, OperationSource operationSource) {
             delegate.saveEntryIndex(entry, oldValue, operationSource);
@@ -28,7 +28,9 @@ import java.util.Set;
 public interface Index {
 
     /**
-     * @return the name of the attribute for which this index is built.
+     * @return the name of the attribute for which this index is built or,
+     * for indexes declared with a richer {@link IndexDefinition}, the
+     * definition of this index.
      */
     String getAttributeName();
 
@@ -45,6 +47,19 @@ public interface Index {
      */
     boolean isOrdered();
 
+    /**
+     * Returns the names of the attributes indexed by this index if it's a
+     * composite index, i.e. an index over an ordered list of attributes.
+     * <p>
+     * The values of a composite index are {@link CompositeValue composite
+     * values}; ordered composite indexes are capable to efficiently execute
+     * range queries over the attribute values sharing the same prefix.
+     *
+     * @return the names of the indexed attributes in the order of their
+     * declaration or {@code null} if this index is not composite.
+     */
+    String[] getComponents();
+
     /**
      * Saves the given entry into this index.
      *
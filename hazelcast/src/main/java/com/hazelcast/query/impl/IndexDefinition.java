@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.util.Preconditions.checkHasText;
+
+/**
+ * Describes an index parsed from its definition, i.e. from the attribute
+ * string passed to {@link com.hazelcast.core.IMap#addIndex} or configured
+ * with {@link com.hazelcast.config.MapIndexConfig}.
+ * <p>
+ * Besides a plain attribute name, a definition may have the form
+ * {@code BITMAP(attribute)} declaring a bitmap index on the attribute, or
+ * the form of a comma-separated list of attributes, like {@code tenantId,
+ * createdAt}, declaring a composite index on the attributes. The definition
+ * itself stays the name of the index, so it's passed around unchanged while
+ * indexes are added or replicated between members.
+ */
+public final class IndexDefinition {
+
+    private static final String BITMAP_PREFIX = "BITMAP(";
+    private static final char BITMAP_SUFFIX = ')';
+    private static final String COMPONENT_SEPARATOR = ",";
+
+    private final String name;
+    private final String attributeName;
+    private final boolean ordered;
+    private final boolean bitmap;
+    private final String[] components;
+
+    private IndexDefinition(String name, String attributeName, boolean ordered, boolean bitmap, String[] components) {
+        this.name = name;
+        this.attributeName = attributeName;
+        this.ordered = ordered;
+        this.bitmap = bitmap;
+        this.components = components;
+    }
+
+    /**
+     * Parses the given index definition.
+     *
+     * @param definition the index definition to parse.
+     * @param ordered    {@code true} if the index should be ordered,
+     *                   {@code false} otherwise.
+     * @return the parsed definition.
+     * @throws IllegalArgumentException if the definition is malformed.
+     */
+    public static IndexDefinition parse(String definition, boolean ordered) {
+        checkHasText(definition, "Index definition must contain text");
+        String trimmed = definition.trim();
+        if (isBitmap(trimmed)) {
+            return parseBitmap(definition, trimmed, ordered);
+        }
+        if (definition.contains(COMPONENT_SEPARATOR)) {
+            return new IndexDefinition(definition, definition, ordered, false, parseComponents(definition));
+        }
+        return new IndexDefinition(definition, definition, ordered, false, null);
+    }
+
+    private static IndexDefinition parseBitmap(String definition, String trimmed, boolean ordered) {
+        String attributeName = trimmed.substring(BITMAP_PREFIX.length(), trimmed.length() - 1).trim();
+        if (attributeName.isEmpty()) {
+            throw new IllegalArgumentException("Bitmap index definition must contain an attribute: " + definition);
+        }
+        if (attributeName.contains(COMPONENT_SEPARATOR)) {
+            throw new IllegalArgumentException("Bitmap indexes can't be composite: " + definition);
+        }
+        if (ordered) {
+            throw new IllegalArgumentException("Bitmap indexes are unordered: " + definition);
+        }
+        return new IndexDefinition(definition, attributeName, false, true, null);
+    }
+
+    /**
+     * @return the components of the given composite index definition or
+     * {@code null} if the definition doesn't declare a composite index.
+     * @throws IllegalArgumentException if the definition is malformed.
+     */
+    static String[] componentsOf(String definition) {
+        if (isBitmap(definition.trim()) || !definition.contains(COMPONENT_SEPARATOR)) {
+            return null;
+        }
+        return parseComponents(definition);
+    }
+
+    private static String[] parseComponents(String definition) {
+        String[] components = definition.split(COMPONENT_SEPARATOR, -1);
+        Set<String> seen = new HashSet<String>();
+        for (int i = 0; i < components.length; ++i) {
+            String component = components[i].trim();
+            if (component.isEmpty()) {
+                throw new IllegalArgumentException("Composite index definition has an empty component: " + definition);
+            }
+            if (!seen.add(component)) {
+                throw new IllegalArgumentException("Composite index definition has a duplicate component '" + component
+                        + "': " + definition);
+            }
+            components[i] = component;
+        }
+        return components;
+    }
+
+    private static boolean isBitmap(String definition) {
+        return definition.length() > BITMAP_PREFIX.length()
+                && definition.regionMatches(true, 0, BITMAP_PREFIX, 0, BITMAP_PREFIX.length())
+                && definition.charAt(definition.length() - 1) == BITMAP_SUFFIX;
+    }
+
+    /**
+     * @return the name of the index, i.e. its original definition.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the name of the indexed attribute; for composite indexes, the
+     * same as the {@link #getName() name}.
+     */
+    public String getAttributeName() {
+        return attributeName;
+    }
+
+    /**
+     * @return {@code true} if the index is ordered, {@code false} otherwise.
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * @return {@code true} if the index is a bitmap index, {@code false}
+     * otherwise.
+     */
+    public boolean isBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * @return {@code true} if the index is a composite index, {@code false}
+     * otherwise.
+     */
+    public boolean isComposite() {
+        return components != null;
+    }
+
+    /**
+     * @return the names of the attributes indexed by the composite index in
+     * the order of their declaration or {@code null} if the index is not
+     * composite.
+     */
+    public String[] getComponents() {
+        return components;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexDefinition{"
+                + "name='" + name + '\''
+                + ", attributeName='" + attributeName + '\''
+                + ", ordered=" + ordered
+                + ", bitmap=" + bitmap
+                + ", components=" + Arrays.toString(components)
+                + '}';
+    }
+}
@@ -116,6 +116,14 @@ public final class IndexHeapMemoryCostUtil {
             return ROUGH_BIG_INTEGER_COST;
         }
 
+        if (value instanceof CompositeValue) {
+            long compositeCost = ROUGH_UNKNOWN_CLASS_COST;
+            for (Comparable component : ((CompositeValue) value).getComponents()) {
+                compositeCost += estimateValueCost(component);
+            }
+            return compositeCost;
+        }
+
         return ROUGH_UNKNOWN_CLASS_COST;
     }
 
@@ -33,11 +33,10 @@ public class IndexImpl extends AbstractIndex {
 
     public IndexImpl(String attributeName, boolean ordered, InternalSerializationService ss, Extractors extractors,
                      IndexCopyBehavior copyBehavior, PerIndexStats stats) {
-        super(attributeName, ordered, ss, extractors, copyBehavior, stats);
+        super(attributeName, ordered, ss, extractors, copyBehavior, stats, createIndexStore(ordered, copyBehavior));
     }
 
-    @Override
-    protected IndexStore createIndexStore(boolean ordered, PerIndexStats stats) {
+    private static IndexStore createIndexStore(boolean ordered, IndexCopyBehavior copyBehavior) {
         return ordered ? new SortedIndexStore(copyBehavior) : new UnsortedIndexStore(copyBehavior);
     }
 
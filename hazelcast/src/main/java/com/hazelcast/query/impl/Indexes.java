@@ -26,6 +26,7 @@ import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import java.util.Arrays;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -49,9 +50,12 @@ public class Indexes {
     private final QueryContextProvider queryContextProvider;
     private final InternalSerializationService serializationService;
     private final ConcurrentMap<String, InternalIndex> mapIndexes = new ConcurrentHashMap<String, InternalIndex>(3);
+    private final ConcurrentMap<String, BitmapIndexImpl> bitmapIndexes = new ConcurrentHashMap<String, BitmapIndexImpl>(1);
     private final AtomicReference<InternalIndex[]> indexes = new AtomicReference<InternalIndex[]>(EMPTY_INDEX);
+    private final AtomicReference<InternalIndex[]> compositeIndexes = new AtomicReference<InternalIndex[]>(EMPTY_INDEX);
 
     private volatile boolean hasIndex;
+    private volatile EntryOrdinals entryOrdinals;
 
     private Indexes(InternalSerializationService serializationService,
                     IndexCopyBehavior indexCopyBehavior,
@@ -115,7 +119,8 @@ public class Indexes {
      * Obtains the existing index or creates a new one (if an index doesn't exist
      * yet) for the given attribute in this indexes instance.
      *
-     * @param attribute the attribute to index.
+     * @param attribute the attribute to index or the {@link IndexDefinition}
+     *                  of the index.
      * @param ordered   {@code true} if the new index should be ordered, {@code
      *                  false} otherwise.
      * @return the existing or created index.
@@ -126,16 +131,37 @@ public class Indexes {
             return index;
         }
 
-        index = indexProvider.createIndex(attribute, ordered, extractors,
-                serializationService, indexCopyBehavior,
-                stats.createPerIndexStats(ordered, usesCachedQueryableEntries));
+        IndexDefinition definition = IndexDefinition.parse(attribute, ordered);
+        if (definition.isBitmap()) {
+            index = addBitmapIndex(definition);
+        } else {
+            index = indexProvider.createIndex(attribute, ordered, extractors,
+                    serializationService, indexCopyBehavior,
+                    stats.createPerIndexStats(ordered, usesCachedQueryableEntries));
+        }
 
         mapIndexes.put(attribute, index);
         indexes.set(mapIndexes.values().toArray(EMPTY_INDEX));
+        if (definition.isComposite()) {
+            InternalIndex[] oldCompositeIndexes = compositeIndexes.get();
+            InternalIndex[] newCompositeIndexes = Arrays.copyOf(oldCompositeIndexes, oldCompositeIndexes.length + 1);
+            newCompositeIndexes[oldCompositeIndexes.length] = index;
+            compositeIndexes.set(newCompositeIndexes);
+        }
         hasIndex = true;
         return index;
     }
 
+    private BitmapIndexImpl addBitmapIndex(IndexDefinition definition) {
+        if (entryOrdinals == null) {
+            entryOrdinals = new EntryOrdinals();
+        }
+        BitmapIndexImpl index = new BitmapIndexImpl(definition, serializationService, extractors, indexCopyBehavior,
+                stats.createPerIndexStats(false, usesCachedQueryableEntries), entryOrdinals);
+        bitmapIndexes.put(definition.getAttributeName(), index);
+        return index;
+    }
+
     /**
      * Returns all the indexes known to this indexes instance.
      */
@@ -152,7 +178,10 @@ public class Indexes {
         }
 
         indexes.set(EMPTY_INDEX);
+        compositeIndexes.set(EMPTY_INDEX);
         mapIndexes.clear();
+        bitmapIndexes.clear();
+        entryOrdinals = null;
         hasIndex = false;
     }
 
@@ -217,12 +246,47 @@ public class Indexes {
 
     /**
      * Get index for a given attribute. If the index does not exist then returns null.
+     * <p>
+     * Indexes are looked up by their names first, so a regular index on the
+     * attribute takes precedence over a bitmap index on the same attribute.
      *
      * @param attribute the attribute name to get the index of.
      * @return Index for attribute or null if the index does not exist.
      */
     public InternalIndex getIndex(String attribute) {
-        return mapIndexes.get(attribute);
+        InternalIndex index = mapIndexes.get(attribute);
+        return index == null ? bitmapIndexes.get(attribute) : index;
+    }
+
+    /**
+     * Returns all the composite indexes known to this indexes instance.
+     *
+     * @see Index#getComponents()
+     */
+    public InternalIndex[] getCompositeIndexes() {
+        return compositeIndexes.get();
+    }
+
+    /**
+     * Returns the bitmap index for the given attribute, if any.
+     *
+     * @param attribute the attribute name to get the bitmap index of.
+     * @return the bitmap index or {@code null} if the attribute has no bitmap
+     * index.
+     */
+    public BitmapIndexImpl getBitmapIndex(String attribute) {
+        return bitmapIndexes.get(attribute);
+    }
+
+    /**
+     * Returns the ordinals shared by the bitmap indexes of this indexes
+     * instance.
+     *
+     * @return the shared ordinals or {@code null} if there are no bitmap
+     * indexes.
+     */
+    public EntryOrdinals getEntryOrdinals() {
+        return entryOrdinals;
     }
 
     /**
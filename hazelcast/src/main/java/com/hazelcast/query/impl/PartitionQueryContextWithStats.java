@@ -62,6 +62,15 @@ public class PartitionQueryContextWithStats extends QueryContext {
         return index;
     }
 
+    @Override
+    public BitmapIndexImpl getBitmapIndex(String attributeName) {
+        BitmapIndexImpl index = super.getBitmapIndex(attributeName);
+        if (index != null) {
+            trackedStats.add(index.getPerIndexStats());
+        }
+        return index;
+    }
+
     @Override
     void applyPerQueryStats() {
         for (PerIndexStats stats : trackedStats) {
@@ -62,6 +62,36 @@ public class QueryContext {
         }
     }
 
+    /**
+     * Obtains the bitmap index available for the given attribute in this
+     * query context. The obtained index is considered to be used by the
+     * query, see {@link #hasBitmapIndex} to check for its presence only.
+     *
+     * @param attributeName the name of the attribute to obtain the bitmap
+     *                      index for.
+     * @return the obtained bitmap index or {@code null} if there is no bitmap
+     * index available for the given attribute.
+     */
+    public BitmapIndexImpl getBitmapIndex(String attributeName) {
+        return indexes == null ? null : indexes.getBitmapIndex(attributeName);
+    }
+
+    /**
+     * @return {@code true} if there is a bitmap index available for the given
+     * attribute in this query context, {@code false} otherwise.
+     */
+    public boolean hasBitmapIndex(String attributeName) {
+        return indexes != null && indexes.getBitmapIndex(attributeName) != null;
+    }
+
+    /**
+     * @return the ordinals shared by the bitmap indexes available in this
+     * query context or {@code null} if there are no bitmap indexes.
+     */
+    public EntryOrdinals getEntryOrdinals() {
+        return indexes == null ? null : indexes.getEntryOrdinals();
+    }
+
     /**
      * Applies the collected per-query stats, if any.
      */
@@ -0,0 +1,609 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of non-negative {@code int} values in the spirit of
+ * roaring bitmaps.
+ * <p>
+ * The value space is split into chunks of 2<sup>16</sup> values keyed by
+ * the high 16 bits of a value. A chunk holding only a few values keeps them
+ * in a sorted {@code char} array; once a chunk gets dense it switches to a
+ * plain bitmap of 2<sup>16</sup> bits. Chunks without any values are not
+ * stored at all.
+ * <p>
+ * This class is not thread-safe.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public final class SparseBitSet {
+
+    /**
+     * The maximum number of values kept by an array chunk; a chunk holding
+     * more values is represented as a bitmap which takes exactly as much
+     * memory as an array chunk of this size.
+     */
+    static final int MAX_ARRAY_CHUNK_SIZE = 4096;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int LOW_MASK = 0xFFFF;
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = 63;
+    private static final int BITMAP_WORDS = (1 << CHUNK_SHIFT) >>> WORD_SHIFT;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private char[] keys;
+    private Chunk[] chunks;
+    private int chunkCount;
+
+    /**
+     * Creates a new empty set.
+     */
+    public SparseBitSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private SparseBitSet(int capacity) {
+        this.keys = new char[capacity];
+        this.chunks = new Chunk[capacity];
+    }
+
+    /**
+     * Adds the given value to this set.
+     *
+     * @param value the value to add, must be non-negative.
+     * @return {@code true} if the value was not in this set before,
+     * {@code false} otherwise.
+     */
+    public boolean add(int value) {
+        assert value >= 0 : "negative value: " + value;
+
+        char key = (char) (value >>> CHUNK_SHIFT);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertChunk(index, key, new ArrayChunk());
+        }
+        Chunk chunk = chunks[index];
+        char low = (char) (value & LOW_MASK);
+        if (chunk instanceof ArrayChunk && chunk.cardinality() == MAX_ARRAY_CHUNK_SIZE) {
+            if (chunk.contains(low)) {
+                return false;
+            }
+            chunk = ((ArrayChunk) chunk).toBitmapChunk();
+            chunks[index] = chunk;
+        }
+        return chunk.add(low);
+    }
+
+    /**
+     * Removes the given value from this set.
+     *
+     * @param value the value to remove.
+     * @return {@code true} if the value was in this set, {@code false}
+     * otherwise.
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf((char) (value >>> CHUNK_SHIFT));
+        if (index < 0) {
+            return false;
+        }
+        Chunk chunk = chunks[index];
+        if (!chunk.remove((char) (value & LOW_MASK))) {
+            return false;
+        }
+        if (chunk.cardinality() == 0) {
+            removeChunk(index);
+        } else if (chunk instanceof BitmapChunk && chunk.cardinality() <= MAX_ARRAY_CHUNK_SIZE) {
+            chunks[index] = ((BitmapChunk) chunk).toArrayChunk();
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the given value is in this set, {@code false}
+     * otherwise.
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = indexOf((char) (value >>> CHUNK_SHIFT));
+        return index >= 0 && chunks[index].contains((char) (value & LOW_MASK));
+    }
+
+    /**
+     * @return the number of values in this set.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            cardinality += chunks[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return {@code true} if this set has no values, {@code false}
+     * otherwise.
+     */
+    public boolean isEmpty() {
+        return chunkCount == 0;
+    }
+
+    /**
+     * Returns the smallest value in this set which is greater than or equal
+     * to the given one; this allows iterating over the set the same way as
+     * over a {@link java.util.BitSet}:
+     * <pre>
+     * for (int i = set.nextSetBit(0); i &gt;= 0; i = set.nextSetBit(i + 1)) {
+     *     ...
+     * }
+     * </pre>
+     *
+     * @param fromValue the value to start the search from (inclusive).
+     * @return the found value or {@code -1} if there is no such value.
+     */
+    public int nextSetBit(int fromValue) {
+        if (fromValue < 0) {
+            return -1;
+        }
+        char key = (char) (fromValue >>> CHUNK_SHIFT);
+        int index = indexOf(key);
+        if (index >= 0) {
+            int low = chunks[index].nextSetBit(fromValue & LOW_MASK);
+            if (low >= 0) {
+                return toValue(key, low);
+            }
+            index++;
+        } else {
+            index = -index - 1;
+        }
+        if (index < chunkCount) {
+            return toValue(keys[index], chunks[index].nextSetBit(0));
+        }
+        return -1;
+    }
+
+    /**
+     * @return a new set containing the values present in both this and the
+     * given set.
+     */
+    public SparseBitSet and(SparseBitSet other) {
+        SparseBitSet result = new SparseBitSet(Math.max(INITIAL_CAPACITY, Math.min(chunkCount, other.chunkCount)));
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            char key = keys[i];
+            char otherKey = other.keys[j];
+            if (key < otherKey) {
+                i++;
+            } else if (key > otherKey) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(key, and(chunks[i], other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set containing the values present in this or the given
+     * set.
+     */
+    public SparseBitSet or(SparseBitSet other) {
+        SparseBitSet result = new SparseBitSet(Math.max(INITIAL_CAPACITY, chunkCount + other.chunkCount));
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount || j < other.chunkCount) {
+            if (j == other.chunkCount || (i < chunkCount && keys[i] < other.keys[j])) {
+                result.appendIfNotEmpty(keys[i], chunks[i].copy());
+                i++;
+            } else if (i == chunkCount || keys[i] > other.keys[j]) {
+                result.appendIfNotEmpty(other.keys[j], other.chunks[j].copy());
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], or(chunks[i], other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a new set containing the values present in this set, but not
+     * in the given one.
+     */
+    public SparseBitSet andNot(SparseBitSet other) {
+        SparseBitSet result = new SparseBitSet(Math.max(INITIAL_CAPACITY, chunkCount));
+        int j = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            char key = keys[i];
+            while (j < other.chunkCount && other.keys[j] < key) {
+                j++;
+            }
+            if (j < other.chunkCount && other.keys[j] == key) {
+                result.appendIfNotEmpty(key, andNot(chunks[i], other.chunks[j]));
+            } else {
+                result.appendIfNotEmpty(key, chunks[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a copy of this set.
+     */
+    public SparseBitSet copy() {
+        SparseBitSet copy = new SparseBitSet(Math.max(INITIAL_CAPACITY, chunkCount));
+        for (int i = 0; i < chunkCount; i++) {
+            copy.appendIfNotEmpty(keys[i], chunks[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Removes all values from this set.
+     */
+    public void clear() {
+        keys = new char[INITIAL_CAPACITY];
+        chunks = new Chunk[INITIAL_CAPACITY];
+        chunkCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SparseBitSet{cardinality=" + cardinality() + ", chunks=" + chunkCount + '}';
+    }
+
+    private static int toValue(char key, int low) {
+        return (key << CHUNK_SHIFT) | low;
+    }
+
+    private int indexOf(char key) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleKey = keys[middle];
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertChunk(int index, char key, Chunk chunk) {
+        if (chunkCount == keys.length) {
+            keys = Arrays.copyOf(keys, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        keys[index] = key;
+        chunks[index] = chunk;
+        chunkCount++;
+    }
+
+    private void removeChunk(int index) {
+        System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    private void appendIfNotEmpty(char key, Chunk chunk) {
+        if (chunk.cardinality() > 0) {
+            insertChunk(chunkCount, key, chunk);
+        }
+    }
+
+    private static Chunk and(Chunk left, Chunk right) {
+        if (left instanceof ArrayChunk) {
+            return ((ArrayChunk) left).retain(right, true);
+        }
+        if (right instanceof ArrayChunk) {
+            return ((ArrayChunk) right).retain(left, true);
+        }
+        BitmapChunk result = ((BitmapChunk) left).copy();
+        long[] words = ((BitmapChunk) right).words;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            result.words[i] &= words[i];
+        }
+        return result.normalize();
+    }
+
+    private static Chunk or(Chunk left, Chunk right) {
+        if (left instanceof ArrayChunk && right instanceof ArrayChunk) {
+            ArrayChunk result = ((ArrayChunk) left).union((ArrayChunk) right);
+            return result.cardinality() > MAX_ARRAY_CHUNK_SIZE ? result.toBitmapChunk() : result;
+        }
+        BitmapChunk result = left instanceof BitmapChunk
+                ? ((BitmapChunk) left).copy()
+                : ((ArrayChunk) left).toBitmapChunk();
+        if (right instanceof BitmapChunk) {
+            long[] words = ((BitmapChunk) right).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= words[i];
+            }
+            result.recount();
+        } else {
+            ArrayChunk array = (ArrayChunk) right;
+            for (int i = 0; i < array.cardinality; i++) {
+                result.add(array.values[i]);
+            }
+        }
+        return result;
+    }
+
+    private static Chunk andNot(Chunk left, Chunk right) {
+        if (left instanceof ArrayChunk) {
+            return ((ArrayChunk) left).retain(right, false);
+        }
+        BitmapChunk result = ((BitmapChunk) left).copy();
+        if (right instanceof BitmapChunk) {
+            long[] words = ((BitmapChunk) right).words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] &= ~words[i];
+            }
+            result.recount();
+        } else {
+            ArrayChunk array = (ArrayChunk) right;
+            for (int i = 0; i < array.cardinality; i++) {
+                result.remove(array.values[i]);
+            }
+        }
+        return result.normalize();
+    }
+
+    /**
+     * Holds the low 16 bits of the values sharing the same high 16 bits.
+     */
+    private abstract static class Chunk {
+
+        abstract boolean add(char low);
+
+        abstract boolean remove(char low);
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract int nextSetBit(int fromLow);
+
+        abstract Chunk copy();
+
+    }
+
+    /**
+     * A chunk storing its values in a sorted array.
+     */
+    private static final class ArrayChunk extends Chunk {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayChunk() {
+            this(INITIAL_CAPACITY);
+        }
+
+        ArrayChunk(int capacity) {
+            this.values = new char[capacity];
+        }
+
+        @Override
+        boolean add(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY_CHUNK_SIZE, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = low;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextSetBit(int fromLow) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) fromLow);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < cardinality ? values[index] : -1;
+        }
+
+        @Override
+        ArrayChunk copy() {
+            ArrayChunk copy = new ArrayChunk(Math.max(INITIAL_CAPACITY, cardinality));
+            System.arraycopy(values, 0, copy.values, 0, cardinality);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        /**
+         * Returns a new chunk with values of this chunk which are either
+         * present in the given chunk, or not, depending on {@code present}.
+         */
+        ArrayChunk retain(Chunk other, boolean present) {
+            ArrayChunk result = new ArrayChunk(Math.max(INITIAL_CAPACITY, cardinality));
+            for (int i = 0; i < cardinality; i++) {
+                char value = values[i];
+                if (other.contains(value) == present) {
+                    result.values[result.cardinality++] = value;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Merges the values of this and the given chunk into a new array
+         * chunk which may exceed {@link #MAX_ARRAY_CHUNK_SIZE}.
+         */
+        ArrayChunk union(ArrayChunk other) {
+            ArrayChunk result = new ArrayChunk(Math.max(INITIAL_CAPACITY, cardinality + other.cardinality));
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < other.cardinality) {
+                char value;
+                if (j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                    value = values[i++];
+                } else if (i == cardinality || values[i] > other.values[j]) {
+                    value = other.values[j++];
+                } else {
+                    value = values[i++];
+                    j++;
+                }
+                result.values[result.cardinality++] = value;
+            }
+            return result;
+        }
+
+        BitmapChunk toBitmapChunk() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+
+    }
+
+    /**
+     * A chunk storing its values as bits of a fixed-size bitmap.
+     */
+    private static final class BitmapChunk extends Chunk {
+
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        @Override
+        boolean add(char low) {
+            int index = low >>> WORD_SHIFT;
+            long mask = 1L << (low & WORD_MASK);
+            if ((words[index] & mask) != 0) {
+                return false;
+            }
+            words[index] |= mask;
+            cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(char low) {
+            int index = low >>> WORD_SHIFT;
+            long mask = 1L << (low & WORD_MASK);
+            if ((words[index] & mask) == 0) {
+                return false;
+            }
+            words[index] &= ~mask;
+            cardinality--;
+            return true;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> WORD_SHIFT] & (1L << (low & WORD_MASK))) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int nextSetBit(int fromLow) {
+            int index = fromLow >>> WORD_SHIFT;
+            long word = words[index] & (-1L << (fromLow & WORD_MASK));
+            while (true) {
+                if (word != 0) {
+                    return (index << WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+                }
+                if (++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        @Override
+        BitmapChunk copy() {
+            BitmapChunk copy = new BitmapChunk();
+            System.arraycopy(words, 0, copy.words, 0, BITMAP_WORDS);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        void recount() {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            cardinality = count;
+        }
+
+        Chunk normalize() {
+            recount();
+            return cardinality <= MAX_ARRAY_CHUNK_SIZE ? toArrayChunk() : this;
+        }
+
+        ArrayChunk toArrayChunk() {
+            ArrayChunk array = new ArrayChunk(Math.max(INITIAL_CAPACITY, cardinality));
+            for (int low = nextSetBit(0); low >= 0; low = low == LOW_MASK ? -1 : nextSetBit(low + 1)) {
+                array.values[array.cardinality++] = (char) low;
+            }
+            return array;
+        }
+
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates {@link MemberAccessor} classes reading fields and invoking
+ * getter methods directly from bytecode, so attribute extraction doesn't pay
+ * for the access checks, argument array allocation and boxing of reflective
+ * calls on every query.
+ * <p>
+ * A generated accessor does nothing more than cast its argument to the
+ * declaring class of the member, read the member with a plain {@code
+ * getfield}, {@code invokevirtual} or {@code invokeinterface} instruction and
+ * box the result if it's primitive. The classes are emitted in the Java 5
+ * class file format, which needs no stack map frames, and are defined by an
+ * {@link AccessorClassLoader} delegating to the class loader of the declaring
+ * class.
+ * <p>
+ * Only public instance members of public classes are supported; for
+ * anything else, or if the generation fails for any reason, {@code null} is
+ * returned and the callers should keep using reflection. The generation
+ * may be disabled with the {@code hazelcast.query.disableGeneratedGetters}
+ * system property.
+ */
+final class AccessorGenerator {
+
+    private static final boolean DISABLED = Boolean.getBoolean("hazelcast.query.disableGeneratedGetters");
+
+    private static final String ACCESSOR_PACKAGE = "com/hazelcast/query/impl/getters/generated/";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String ACCESSOR_INTERFACE = MemberAccessor.class.getName().replace('.', '/');
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int JAVA_5_VERSION = 49;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int RETURN = 0xb1;
+    private static final int ARETURN = 0xb0;
+    private static final int GETFIELD = 0xb4;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int CHECKCAST = 0xc0;
+
+    private static final Map<Class<?>, String> PRIMITIVE_DESCRIPTORS = new HashMap<Class<?>, String>();
+    private static final Map<Class<?>, String> BOXED_TYPES = new HashMap<Class<?>, String>();
+
+    private static final AtomicInteger ACCESSOR_COUNTER = new AtomicInteger();
+
+    private static final Map<ClassLoader, WeakReference<AccessorClassLoader>> LOADERS =
+            new WeakHashMap<ClassLoader, WeakReference<AccessorClassLoader>>();
+
+    static {
+        registerPrimitive(boolean.class, "Z", Boolean.class);
+        registerPrimitive(byte.class, "B", Byte.class);
+        registerPrimitive(char.class, "C", Character.class);
+        registerPrimitive(short.class, "S", Short.class);
+        registerPrimitive(int.class, "I", Integer.class);
+        registerPrimitive(long.class, "J", Long.class);
+        registerPrimitive(float.class, "F", Float.class);
+        registerPrimitive(double.class, "D", Double.class);
+    }
+
+    private AccessorGenerator() {
+    }
+
+    /**
+     * @return the accessor reading the given field or {@code null} if no
+     * accessor can be generated for it.
+     */
+    static MemberAccessor accessorFor(Field field) {
+        return accessorFor(field, field.getType());
+    }
+
+    /**
+     * @return the accessor invoking the given no-arg method or {@code null}
+     * if no accessor can be generated for it.
+     */
+    static MemberAccessor accessorFor(Method method) {
+        if (method.getParameterTypes().length != 0) {
+            return null;
+        }
+        return accessorFor(method, method.getReturnType());
+    }
+
+    private static void registerPrimitive(Class<?> type, String descriptor, Class<?> boxedType) {
+        PRIMITIVE_DESCRIPTORS.put(type, descriptor);
+        BOXED_TYPES.put(type, internalName(boxedType));
+    }
+
+    private static MemberAccessor accessorFor(Member member, Class<?> type) {
+        if (DISABLED || !isAccessible(member) || type == void.class) {
+            return null;
+        }
+        try {
+            return loaderFor(member.getDeclaringClass()).accessorFor(member, type);
+        } catch (Throwable t) {
+            // security restrictions, unusual class loaders and alike, reflection still works for them
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(Member member) {
+        int modifiers = member.getModifiers();
+        Class<?> declaringClass = member.getDeclaringClass();
+        return Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers)
+                && Modifier.isPublic(declaringClass.getModifiers()) && !declaringClass.isArray();
+    }
+
+    private static AccessorClassLoader loaderFor(Class<?> declaringClass) {
+        ClassLoader parent = declaringClass.getClassLoader();
+        synchronized (LOADERS) {
+            WeakReference<AccessorClassLoader> reference = LOADERS.get(parent);
+            AccessorClassLoader loader = reference == null ? null : reference.get();
+            if (loader == null) {
+                loader = new AccessorClassLoader(parent);
+                LOADERS.put(parent, new WeakReference<AccessorClassLoader>(loader));
+            }
+            return loader;
+        }
+    }
+
+    /**
+     * Defines the accessor classes for the members of the classes loaded by
+     * a single class loader. The accessors are cached by the loader itself,
+     * so they are shared by all the getters accessing the same member and
+     * are collected together with the loader once no getter uses them.
+     */
+    private static final class AccessorClassLoader extends ClassLoader {
+
+        private final Map<Member, MemberAccessor> accessors = new HashMap<Member, MemberAccessor>();
+
+        AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        synchronized MemberAccessor accessorFor(Member member, Class<?> type) throws Exception {
+            MemberAccessor accessor = accessors.get(member);
+            if (accessor != null) {
+                return accessor;
+            }
+
+            Class<?> declaringClass = member.getDeclaringClass();
+            if (Class.forName(declaringClass.getName(), false, this) != declaringClass) {
+                // the declaring class is not visible through its own loader, e.g. a child-first loader is in use
+                return null;
+            }
+
+            String className = ACCESSOR_PACKAGE + "Accessor$" + ACCESSOR_COUNTER.incrementAndGet();
+            byte[] bytes = generate(className, member, type);
+            Class<?> accessorClass = defineClass(className.replace('/', '.'), bytes, 0, bytes.length);
+            accessor = (MemberAccessor) accessorClass.newInstance();
+            accessors.put(member, accessor);
+            return accessor;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(MemberAccessor.class.getName())) {
+                // the parent loader may not see Hazelcast classes at all
+                return MemberAccessor.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    private static byte[] generate(String className, Member member, Class<?> type) throws IOException {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef(className);
+        int superClass = pool.classRef(OBJECT);
+        int accessorInterface = pool.classRef(ACCESSOR_INTERFACE);
+        int code = pool.utf8("Code");
+        int constructorName = pool.utf8("<init>");
+        int constructorDescriptor = pool.utf8("()V");
+        int getName = pool.utf8("get");
+        int getDescriptor = pool.utf8("(Ljava/lang/Object;)Ljava/lang/Object;");
+
+        ByteArrayOutputStream constructorCode = new ByteArrayOutputStream();
+        constructorCode.write(ALOAD_0);
+        writeInstruction(constructorCode, INVOKESPECIAL, pool.methodRef(OBJECT, "<init>", "()V", false));
+        constructorCode.write(RETURN);
+        byte[] getCode = generateGetCode(pool, member, type);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(0);
+        out.writeShort(JAVA_5_VERSION);
+        pool.writeTo(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(accessorInterface);
+        // no fields
+        out.writeShort(0);
+        out.writeShort(2);
+        writeMethod(out, constructorName, constructorDescriptor, code, 1, 1, constructorCode.toByteArray());
+        // long and double values take two stack slots
+        writeMethod(out, getName, getDescriptor, code, 2, 2, getCode);
+        // no class attributes
+        out.writeShort(0);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] generateGetCode(ConstantPool pool, Member member, Class<?> type) throws IOException {
+        String owner = internalName(member.getDeclaringClass());
+        boolean isInterface = member.getDeclaringClass().isInterface();
+
+        ByteArrayOutputStream code = new ByteArrayOutputStream();
+        code.write(ALOAD_1);
+        writeInstruction(code, CHECKCAST, pool.classRef(owner));
+        if (member instanceof Field) {
+            writeInstruction(code, GETFIELD, pool.fieldRef(owner, member.getName(), descriptor(type)));
+        } else if (isInterface) {
+            writeInstruction(code, INVOKEINTERFACE, pool.methodRef(owner, member.getName(), "()" + descriptor(type), true));
+            // the argument count including the receiver followed by a zero byte
+            code.write(1);
+            code.write(0);
+        } else {
+            writeInstruction(code, INVOKEVIRTUAL, pool.methodRef(owner, member.getName(), "()" + descriptor(type), false));
+        }
+        if (type.isPrimitive()) {
+            String boxedType = BOXED_TYPES.get(type);
+            writeInstruction(code, INVOKESTATIC,
+                    pool.methodRef(boxedType, "valueOf", "(" + descriptor(type) + ")L" + boxedType + ";", false));
+        }
+        code.write(ARETURN);
+        return code.toByteArray();
+    }
+
+    private static void writeInstruction(ByteArrayOutputStream code, int opcode, int index) {
+        code.write(opcode);
+        code.write(index >>> 8);
+        code.write(index);
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute, int maxStack,
+                                    int maxLocals, byte[] code) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        // max stack, max locals, code length, code, exception table length and attribute count
+        out.writeInt(2 + 2 + 4 + code.length + 2 + 2);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static String internalName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return internalName(type);
+        } else if (type.isPrimitive()) {
+            return PRIMITIVE_DESCRIPTORS.get(type);
+        }
+        return "L" + internalName(type) + ";";
+    }
+
+    /**
+     * Collects the constant pool entries of a generated class, deduplicating
+     * the equal ones.
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int INTERFACE_METHOD_REF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        // constant pool indexes start from 1
+        private int nextIndex = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = indexes.get("utf8:" + value);
+            if (index != null) {
+                return index;
+            }
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+            return register("utf8:" + value);
+        }
+
+        int classRef(String internalName) throws IOException {
+            Integer index = indexes.get("class:" + internalName);
+            if (index != null) {
+                return index;
+            }
+            int name = utf8(internalName);
+            out.writeByte(CLASS);
+            out.writeShort(name);
+            return register("class:" + internalName);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(FIELD_REF, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor, boolean isInterface) throws IOException {
+            return memberRef(isInterface ? INTERFACE_METHOD_REF : METHOD_REF, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + ":" + owner + "." + name + ":" + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerClass = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            out.writeByte(tag);
+            out.writeShort(ownerClass);
+            out.writeShort(nameAndType);
+            return register(key);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "nameAndType:" + name + ":" + descriptor;
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            out.writeByte(NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            return register(key);
+        }
+
+        private int register(String key) {
+            int index = nextIndex++;
+            indexes.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            out.flush();
+            target.writeShort(nextIndex);
+            bytes.writeTo(target);
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.Bits;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializableSchema;
+import com.hazelcast.nio.serialization.FieldType;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
+import static com.hazelcast.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.NULL_ARRAY_LENGTH;
+
+/**
+ * Reads single fields of {@link com.hazelcast.nio.serialization.IdentifiedDataSerializable}
+ * objects straight from their serialized form, as described by the
+ * registered {@link DataSerializableSchema}s.
+ * <p>
+ * The fields preceding the first variable-size field of a schema are read
+ * at precomputed offsets; the fields following it are reached by skipping
+ * the preceding fields one by one, which doesn't need any of them to be
+ * materialized except for strings.
+ */
+final class DataSerializableGetter extends Getter {
+
+    // the header flags, the same as written by DataSerializableSerializer
+    private static final byte IDS_FLAG = 1 << 0;
+    private static final byte EE_FLAG = 1 << 1;
+
+    // the identified flag followed by the factory and class IDs
+    private static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+    // the major and minor version written if the versioned flag is set
+    private static final int VERSION_SIZE = 2 * BYTE_SIZE_IN_BYTES;
+
+    private final InternalSerializationService serializationService;
+    private final boolean bigEndian;
+    private final Map<Long, SchemaLayout> layouts;
+
+    DataSerializableGetter(InternalSerializationService serializationService, Collection<DataSerializableSchema> schemas) {
+        super(null);
+        this.serializationService = serializationService;
+        this.bigEndian = serializationService.getByteOrder() == ByteOrder.BIG_ENDIAN;
+        this.layouts = new HashMap<Long, SchemaLayout>(schemas.size());
+        for (DataSerializableSchema schema : schemas) {
+            layouts.put(idOf(schema.getFactoryId(), schema.getClassId()), new SchemaLayout(schema));
+        }
+    }
+
+    /**
+     * @return {@code true} if a schema is registered for the class of the
+     * serialized object, {@code false} otherwise.
+     */
+    boolean hasSchemaFor(Data data) {
+        return layoutOf(data) != null;
+    }
+
+    /**
+     * @return {@code true} if the given attribute of the serialized object
+     * can be read without deserializing the object, {@code false} otherwise.
+     */
+    boolean canExtract(Data data, String attributeName) {
+        SchemaLayout layout = layoutOf(data);
+        return layout != null && layout.schema.indexOf(attributeName) >= 0;
+    }
+
+    @Override
+    Object getValue(Object target, String fieldPath) throws Exception {
+        Data data = (Data) target;
+        SchemaLayout layout = layoutOf(data);
+        int index = layout.schema.indexOf(fieldPath);
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(data);
+        try {
+            int start = in.position();
+            int fieldsStart = start + HEADER_SIZE + (isFlagSet(in.readByte(start), EE_FLAG) ? VERSION_SIZE : 0);
+            if (index < layout.firstVariableField) {
+                in.position(fieldsStart + layout.fixedOffsets[index]);
+            } else {
+                in.position(fieldsStart + layout.fixedOffsets[layout.firstVariableField]);
+                for (int i = layout.firstVariableField; i < index; ++i) {
+                    skip(in, layout.schema.getFieldType(i));
+                }
+            }
+            return read(in, layout.schema.getFieldType(index));
+        } finally {
+            in.close();
+        }
+    }
+
+    @Override
+    Object getValue(Object obj) throws Exception {
+        throw new IllegalArgumentException("Path agnostic value extraction unsupported");
+    }
+
+    @Override
+    Class getReturnType() {
+        throw new IllegalArgumentException("Non applicable for DataSerializableGetter");
+    }
+
+    @Override
+    boolean isCacheable() {
+        // the same as for PortableGetter, a single instance serves all the attributes
+        return false;
+    }
+
+    private SchemaLayout layoutOf(Data data) {
+        if (data.getType() != CONSTANT_TYPE_DATA_SERIALIZABLE) {
+            return null;
+        }
+        byte[] bytes = data.toByteArray();
+        if (!isFlagSet(bytes[HeapData.DATA_OFFSET], IDS_FLAG)) {
+            return null;
+        }
+        int factoryId = Bits.readInt(bytes, HeapData.DATA_OFFSET + BYTE_SIZE_IN_BYTES, bigEndian);
+        int classId = Bits.readInt(bytes, HeapData.DATA_OFFSET + BYTE_SIZE_IN_BYTES + INT_SIZE_IN_BYTES, bigEndian);
+        return layouts.get(idOf(factoryId, classId));
+    }
+
+    private static boolean isFlagSet(byte value, byte flag) {
+        return (value & flag) != 0;
+    }
+
+    private static long idOf(int factoryId, int classId) {
+        return ((long) factoryId << Integer.SIZE) | (classId & 0xFFFFFFFFL);
+    }
+
+    @SuppressWarnings("checkstyle:cyclomaticcomplexity")
+    private static Object read(BufferObjectDataInput in, FieldType type) throws IOException {
+        switch (type) {
+            case BYTE:
+                return in.readByte();
+            case BOOLEAN:
+                return in.readBoolean();
+            case CHAR:
+                return in.readChar();
+            case SHORT:
+                return in.readShort();
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case UTF:
+                return in.readUTF();
+            case BYTE_ARRAY:
+                return in.readByteArray();
+            case BOOLEAN_ARRAY:
+                return in.readBooleanArray();
+            case CHAR_ARRAY:
+                return in.readCharArray();
+            case SHORT_ARRAY:
+                return in.readShortArray();
+            case INT_ARRAY:
+                return in.readIntArray();
+            case LONG_ARRAY:
+                return in.readLongArray();
+            case FLOAT_ARRAY:
+                return in.readFloatArray();
+            case DOUBLE_ARRAY:
+                return in.readDoubleArray();
+            case UTF_ARRAY:
+                return in.readUTFArray();
+            default:
+                throw new IllegalArgumentException("Unsupported field type: " + type);
+        }
+    }
+
+    private static void skip(BufferObjectDataInput in, FieldType type) throws IOException {
+        if (type.hasDefiniteSize()) {
+            in.position(in.position() + type.getTypeSize());
+        } else if (type == FieldType.UTF) {
+            // the length of strings is written in characters, so they have to be decoded to be skipped
+            in.readUTF();
+        } else {
+            int length = in.readInt();
+            if (length == NULL_ARRAY_LENGTH || length == 0) {
+                return;
+            }
+            FieldType elementType = type.getSingleType();
+            if (elementType == FieldType.UTF) {
+                for (int i = 0; i < length; ++i) {
+                    in.readUTF();
+                }
+            } else {
+                in.position(in.position() + length * elementType.getTypeSize());
+            }
+        }
+    }
+
+    /**
+     * Precomputed offsets of the fields of a schema relative to the start of
+     * the fields in the serialized form.
+     */
+    private static final class SchemaLayout {
+
+        final DataSerializableSchema schema;
+        // valid up to and including the first variable-size field
+        final int[] fixedOffsets;
+        final int firstVariableField;
+
+        SchemaLayout(DataSerializableSchema schema) {
+            this.schema = schema;
+            int fieldCount = schema.getFieldCount();
+            this.fixedOffsets = new int[fieldCount];
+            int offset = 0;
+            int firstVariable = fieldCount;
+            for (int i = 0; i < fieldCount; ++i) {
+                fixedOffsets[i] = offset;
+                FieldType type = schema.getFieldType(i);
+                if (!type.hasDefiniteSize()) {
+                    firstVariable = i;
+                    break;
+                }
+                offset += type.getTypeSize();
+            }
+            this.firstVariableField = firstVariable;
+        }
+    }
+}
@@ -19,12 +19,14 @@ package com.hazelcast.query.impl.getters;
 import com.hazelcast.config.MapAttributeConfig;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializableSchema;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.query.QueryException;
 import com.hazelcast.query.extractor.ValueExtractor;
 import com.hazelcast.query.impl.DefaultArgumentParser;
 import com.hazelcast.util.Preconditions;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -52,20 +54,24 @@ public final class Extractors {
     private final InternalSerializationService ss;
     private final EvictableGetterCache getterCache;
     private final DefaultArgumentParser argumentsParser;
+    private final DataSerializableGetter dataSerializableGetter;
 
-    private Extractors(List<MapAttributeConfig> mapAttributeConfigs,
-                       ClassLoader classLoader, InternalSerializationService ss) {
+    private Extractors(List<MapAttributeConfig> mapAttributeConfigs, ClassLoader classLoader,
+                       Collection<DataSerializableSchema> dataSerializableSchemas, InternalSerializationService ss) {
         this.extractors = mapAttributeConfigs == null
                 ? Collections.<String, ValueExtractor>emptyMap()
                 : instantiateExtractors(mapAttributeConfigs, classLoader);
         this.getterCache = new EvictableGetterCache(MAX_CLASSES_IN_CACHE,
                 MAX_GETTERS_PER_CLASS_IN_CACHE, EVICTION_PERCENTAGE, false);
         this.argumentsParser = new DefaultArgumentParser();
+        this.dataSerializableGetter = dataSerializableSchemas == null || dataSerializableSchemas.isEmpty()
+                ? null
+                : new DataSerializableGetter(ss, dataSerializableSchemas);
         this.ss = ss;
     }
 
     public Object extract(Object target, String attributeName) {
-        Object targetObject = getTargetObject(target);
+        Object targetObject = getTargetObject(target, attributeName);
         if (targetObject != null) {
             Getter getter = getGetter(targetObject, attributeName);
             try {
@@ -78,10 +84,21 @@ public final class Extractors {
     }
 
     /**
-     * @return Data (in this case it's portable) or Object (in this case it's
+     * @return {@code true} if some attributes of the given serialized object
+     * may be extracted without deserializing it, i.e. if the object is
+     * portable or its class has a registered {@link DataSerializableSchema},
+     * {@code false} otherwise.
+     */
+    public boolean isQueryableInSerializedForm(Data data) {
+        return data.isPortable() || dataSerializableGetter != null && dataSerializableGetter.hasSchemaFor(data);
+    }
+
+    /**
+     * @return Data (in this case it's portable or the attribute is described
+     * by a data serializable schema) or Object (in this case it's
      * non-portable)
      */
-    private Object getTargetObject(Object target) {
+    private Object getTargetObject(Object target, String attributeName) {
         Data targetData;
         if (target instanceof Portable) {
             targetData = ss.toData(target);
@@ -92,7 +109,7 @@ public final class Extractors {
 
         if (target instanceof Data) {
             targetData = (Data) target;
-            if (targetData.isPortable()) {
+            if (targetData.isPortable() || canExtractWithSchema(targetData, attributeName)) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
@@ -103,6 +120,12 @@ public final class Extractors {
         return target;
     }
 
+    private boolean canExtractWithSchema(Data data, String attributeName) {
+        // custom extractors take precedence over the schemas
+        return dataSerializableGetter != null && dataSerializableGetter.canExtract(data, attributeName)
+                && !extractors.containsKey(attributeName);
+    }
+
     Getter getGetter(Object targetObject, String attributeName) {
         Getter getter = getterCache.getGetter(targetObject.getClass(), attributeName);
         if (getter == null) {
@@ -122,6 +145,9 @@ public final class Extractors {
             return new ExtractorGetter(ss, valueExtractor, arguments);
         } else {
             if (targetObject instanceof Data) {
+                if (!((Data) targetObject).isPortable()) {
+                    return dataSerializableGetter;
+                }
                 if (genericPortableGetter == null) {
                     // will be initialised a couple of times in the worst case
                     genericPortableGetter = new PortableGetter(ss);
@@ -143,6 +169,7 @@ public final class Extractors {
     public static final class Builder {
         private ClassLoader classLoader;
         private List<MapAttributeConfig> mapAttributeConfigs;
+        private Collection<DataSerializableSchema> dataSerializableSchemas;
 
         private final InternalSerializationService ss;
 
@@ -160,11 +187,16 @@ public final class Extractors {
             return this;
         }
 
+        public Builder setDataSerializableSchemas(Collection<DataSerializableSchema> dataSerializableSchemas) {
+            this.dataSerializableSchemas = dataSerializableSchemas;
+            return this;
+        }
+
         /**
          * @return a new instance of Extractors
          */
         public Extractors build() {
-            return new Extractors(mapAttributeConfigs, classLoader, ss);
+            return new Extractors(mapAttributeConfigs, classLoader, dataSerializableSchemas, ss);
         }
     }
 }
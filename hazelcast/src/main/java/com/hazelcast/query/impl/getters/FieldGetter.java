@@ -21,14 +21,25 @@ import java.lang.reflect.Field;
 
 public class FieldGetter extends AbstractMultiValueGetter {
     private final Field field;
+    private final MemberAccessor accessor;
 
     public FieldGetter(Getter parent, Field field, String modifierSuffix, Class resultType) {
         super(parent, modifierSuffix, field.getType(), resultType);
         this.field = field;
+        this.accessor = AccessorGenerator.accessorFor(field);
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException {
+        if (accessor != null) {
+            try {
+                return accessor.get(object);
+            } catch (ClassCastException e) {
+                // the same failure as reported by Field.get for objects of unexpected types
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+            }
+        }
+
         try {
             return field.get(object);
         } catch (IllegalArgumentException e) {
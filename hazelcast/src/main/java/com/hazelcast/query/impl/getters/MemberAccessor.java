@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+/**
+ * Reads a single field or invokes a single no-arg method on the given target
+ * object without going through reflection.
+ * <p>
+ * Implementations are generated at runtime by {@link AccessorGenerator}, one
+ * class per accessed member. The interface is public only because the
+ * generated classes are defined by a separate class loader and therefore
+ * live in a different runtime package.
+ */
+public interface MemberAccessor {
+
+    /**
+     * @param target the object to read the member of.
+     * @return the value of the member, primitive values are boxed.
+     */
+    Object get(Object target);
+
+}
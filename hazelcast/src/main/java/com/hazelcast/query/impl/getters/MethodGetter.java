@@ -22,14 +22,20 @@ import java.lang.reflect.Method;
 
 final class MethodGetter extends AbstractMultiValueGetter {
     private final Method method;
+    private final MemberAccessor accessor;
 
     MethodGetter(Getter parent, Method method, String modifierSuffix, Class resultType) {
         super(parent, modifierSuffix, method.getReturnType(), resultType);
         this.method = method;
+        this.accessor = AccessorGenerator.accessorFor(method);
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException, InvocationTargetException {
+        if (accessor != null) {
+            return extractWithAccessor(object);
+        }
+
         try {
             return method.invoke(object);
         } catch (IllegalArgumentException e) {
@@ -37,6 +43,19 @@ final class MethodGetter extends AbstractMultiValueGetter {
         }
     }
 
+    private Object extractWithAccessor(Object object) throws InvocationTargetException {
+        try {
+            return accessor.get(object);
+        } catch (Throwable t) {
+            if (!method.getDeclaringClass().isInstance(object)) {
+                // the same failure as reported by Method.invoke for objects of unexpected types
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(method), t);
+            }
+            // failures of the method itself are reported the same way as Method.invoke does
+            throw new InvocationTargetException(t);
+        }
+    }
+
     @Override
     boolean isCacheable() {
         return true;
@@ -27,6 +27,7 @@ import com.hazelcast.query.impl.AndResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.SparseBitSet;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
@@ -73,9 +74,14 @@ public final class AndPredicate
         Set<QueryableEntry> smallestResultSet = null;
         List<Set<QueryableEntry>> otherResultSets = null;
         List<Predicate> unindexedPredicates = null;
+        SparseBitSet bitmap = null;
 
         for (Predicate predicate : predicates) {
-            if (isIndexedPredicate(predicate, queryContext)) {
+            SparseBitSet predicateBitmap = BitmapEvaluator.evaluate(predicate, queryContext);
+            if (predicateBitmap != null) {
+                // intersect the bitmaps first and materialize the entries only once
+                bitmap = bitmap == null ? predicateBitmap : bitmap.and(predicateBitmap);
+            } else if (isIndexedPredicate(predicate, queryContext)) {
                 Set<QueryableEntry> currentResultSet = ((IndexAwarePredicate) predicate).filter(queryContext);
                 if (smallestResultSet == null) {
                     smallestResultSet = currentResultSet;
@@ -93,6 +99,23 @@ public final class AndPredicate
             }
         }
 
+        if (bitmap != null) {
+            Set<QueryableEntry> bitmapResultSet = queryContext.getEntryOrdinals().toResultSet(bitmap);
+            if (smallestResultSet == null) {
+                if (otherResultSets == null && unindexedPredicates == null) {
+                    return bitmapResultSet;
+                }
+                smallestResultSet = bitmapResultSet;
+            } else if (bitmapResultSet.size() < estimatedSizeOf(smallestResultSet)) {
+                otherResultSets = initOrGetListOf(otherResultSets);
+                otherResultSets.add(smallestResultSet);
+                smallestResultSet = bitmapResultSet;
+            } else {
+                otherResultSets = initOrGetListOf(otherResultSets);
+                otherResultSets.add(bitmapResultSet);
+            }
+        }
+
         if (smallestResultSet == null) {
             return null;
         }
@@ -113,6 +136,9 @@ public final class AndPredicate
     @Override
     public boolean isIndexed(QueryContext queryContext) {
         for (Predicate predicate : predicates) {
+            if (BitmapEvaluator.canEvaluate(predicate, queryContext)) {
+                return true;
+            }
             if (predicate instanceof IndexAwarePredicate) {
                 IndexAwarePredicate iap = (IndexAwarePredicate) predicate;
                 if (iap.isIndexed(queryContext)) {
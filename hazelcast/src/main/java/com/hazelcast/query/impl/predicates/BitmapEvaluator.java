@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.EntryOrdinals;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.SparseBitSet;
+
+/**
+ * Evaluates predicates over bitmap indexes using bitwise set operations on
+ * the bitmaps of entry ordinals instead of materializing intermediate result
+ * sets.
+ * <p>
+ * Equality, inequality and {@code in} predicates on attributes having a
+ * bitmap index are evaluated by the index itself; {@code and}, {@code or} and
+ * {@code not} predicates are evaluated as intersections, unions and
+ * complements of the bitmaps of their inner predicates.
+ */
+final class BitmapEvaluator {
+
+    private BitmapEvaluator() {
+    }
+
+    /**
+     * @return {@code true} if the given predicate can be fully evaluated on
+     * the bitmap indexes available in the given query context, {@code false}
+     * otherwise.
+     */
+    static boolean canEvaluate(Predicate predicate, QueryContext queryContext) {
+        if (queryContext.getEntryOrdinals() == null) {
+            return false;
+        }
+        return isEvaluable(predicate, queryContext);
+    }
+
+    /**
+     * Evaluates the given predicate on the bitmap indexes available in the
+     * given query context.
+     *
+     * @return the ordinals of the matching entries or {@code null} if the
+     * predicate can't be fully evaluated on bitmap indexes.
+     */
+    static SparseBitSet evaluate(Predicate predicate, QueryContext queryContext) {
+        EntryOrdinals ordinals = queryContext.getEntryOrdinals();
+        if (ordinals == null || !isEvaluable(predicate, queryContext)) {
+            return null;
+        }
+        return evaluate(predicate, queryContext, ordinals);
+    }
+
+    private static boolean isEvaluable(Predicate predicate, QueryContext queryContext) {
+        if (predicate instanceof EqualPredicate) {
+            return queryContext.hasBitmapIndex(((EqualPredicate) predicate).attributeName);
+        } else if (predicate instanceof InPredicate) {
+            return queryContext.hasBitmapIndex(((InPredicate) predicate).attributeName);
+        } else if (predicate instanceof NotPredicate) {
+            return isEvaluable(((NotPredicate) predicate).predicate, queryContext);
+        } else if (predicate instanceof AndPredicate || predicate instanceof OrPredicate) {
+            for (Predicate inner : ((CompoundPredicate) predicate).getPredicates()) {
+                if (!isEvaluable(inner, queryContext)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static SparseBitSet evaluate(Predicate predicate, QueryContext queryContext, EntryOrdinals ordinals) {
+        if (predicate instanceof NotEqualPredicate) {
+            // includes the entries having null values, the same as NotEqualPredicate.apply does
+            NotEqualPredicate notEqual = (NotEqualPredicate) predicate;
+            SparseBitSet equal = queryContext.getBitmapIndex(notEqual.attributeName).getBitmap(notEqual.value);
+            return ordinals.all().andNot(equal);
+        } else if (predicate instanceof EqualPredicate) {
+            EqualPredicate equal = (EqualPredicate) predicate;
+            return queryContext.getBitmapIndex(equal.attributeName).getBitmap(equal.value);
+        } else if (predicate instanceof InPredicate) {
+            InPredicate in = (InPredicate) predicate;
+            return queryContext.getBitmapIndex(in.attributeName).getBitmap(in.values);
+        } else if (predicate instanceof NotPredicate) {
+            SparseBitSet inner = evaluate(((NotPredicate) predicate).predicate, queryContext, ordinals);
+            return ordinals.all().andNot(inner);
+        } else if (predicate instanceof AndPredicate) {
+            SparseBitSet result = null;
+            for (Predicate inner : ((AndPredicate) predicate).predicates) {
+                SparseBitSet bitmap = evaluate(inner, queryContext, ordinals);
+                result = result == null ? bitmap : result.and(bitmap);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result == null ? ordinals.all() : result;
+        } else {
+            assert predicate instanceof OrPredicate;
+            SparseBitSet result = new SparseBitSet();
+            for (Predicate inner : ((OrPredicate) predicate).predicates) {
+                result = result.or(evaluate(inner, queryContext, ordinals));
+            }
+            return result;
+        }
+    }
+
+}
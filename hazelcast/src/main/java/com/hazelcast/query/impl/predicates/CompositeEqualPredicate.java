@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Looks up the entries having the given values of all the components of a
+ * composite index.
+ * <p>
+ * It isn't exposed as user API; it's only created by {@link
+ * CompositeIndexVisitor} while optimizing a conjunction of equality
+ * predicates. It isn't sent over the wire either.
+ */
+public final class CompositeEqualPredicate implements IndexAwarePredicate {
+
+    final String indexName;
+    final CompositeValue value;
+    final Predicate[] predicates;
+
+    /**
+     * @param indexName  the name of the composite index to look up.
+     * @param value      the composite value to look up.
+     * @param predicates the predicates replaced by the lookup, they are used
+     *                   to evaluate this predicate on entries directly.
+     */
+    public CompositeEqualPredicate(String indexName, CompositeValue value, Predicate[] predicates) {
+        this.indexName = indexName;
+        this.value = value;
+        this.predicates = predicates;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return CompositeRangePredicate.applyAll(predicates, mapEntry);
+    }
+
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        Index index = queryContext.getIndex(indexName);
+        return index.getRecords(value);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return queryContext.getIndex(indexName) != null;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + indexName + ") = " + value + " " + Arrays.toString(predicates);
+    }
+
+}
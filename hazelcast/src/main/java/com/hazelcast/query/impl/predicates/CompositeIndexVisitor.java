@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.AbstractIndex;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.InternalIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+
+/**
+ * Replaces a conjunction of equality predicates on a prefix of the components
+ * of a composite index, optionally followed by a range predicate on the next
+ * component, with a single lookup or range scan of the composite index.
+ * <p>
+ * Imagine a composite index on {@code (tenantId, createdAt)}: the predicate
+ * {@code (tenantId = 1 and createdAt >= X and createdAt <= Y and active =
+ * true)} is rewritten as {@code ((tenantId, createdAt) between (1, X) and
+ * (1, Y) and active = true)}.
+ * <p>
+ * Unordered composite indexes are used only if all of their components are
+ * matched by equality predicates. Out of several matching composite indexes
+ * the one replacing the most predicates is chosen. The range may be given
+ * either as a {@link BetweenPredicate} or as a pair of {@link
+ * GreaterLessPredicate}s, since the {@link BetweenVisitor} merges the latter
+ * only for attributes having a regular index.
+ */
+public class CompositeIndexVisitor extends AbstractVisitor {
+
+    @Override
+    public Predicate visit(AndPredicate andPredicate, Indexes indexes) {
+        InternalIndex[] compositeIndexes = indexes.getCompositeIndexes();
+        if (compositeIndexes.length == 0) {
+            return andPredicate;
+        }
+
+        Map<String, EqualPredicate> equalities = null;
+        Map<String, AbstractIndexAwarePredicate> lowerBounds = null;
+        Map<String, AbstractIndexAwarePredicate> upperBounds = null;
+        for (Predicate predicate : andPredicate.predicates) {
+            if (isEquality(predicate)) {
+                equalities = putIfAbsent(equalities, (EqualPredicate) predicate);
+            } else if (predicate instanceof BetweenPredicate) {
+                lowerBounds = putIfAbsent(lowerBounds, (BetweenPredicate) predicate);
+                upperBounds = putIfAbsent(upperBounds, (BetweenPredicate) predicate);
+            } else if (predicate instanceof GreaterLessPredicate && ((GreaterLessPredicate) predicate).value != null) {
+                GreaterLessPredicate greaterLess = (GreaterLessPredicate) predicate;
+                if (greaterLess.less) {
+                    upperBounds = putIfAbsent(upperBounds, greaterLess);
+                } else {
+                    lowerBounds = putIfAbsent(lowerBounds, greaterLess);
+                }
+            }
+        }
+        if (equalities == null) {
+            // a composite index can't do better than a regular index on a single range
+            return andPredicate;
+        }
+
+        InternalIndex bestIndex = null;
+        int bestPrefixLength = 0;
+        boolean bestHasRange = false;
+        for (InternalIndex index : compositeIndexes) {
+            String[] components = index.getComponents();
+            int prefixLength = 0;
+            while (prefixLength < components.length && equalities.containsKey(components[prefixLength])) {
+                ++prefixLength;
+            }
+            boolean fullMatch = prefixLength == components.length;
+            if (!fullMatch && !index.isOrdered()) {
+                continue;
+            }
+            boolean hasRange = !fullMatch && (containsKey(lowerBounds, components[prefixLength])
+                    || containsKey(upperBounds, components[prefixLength]));
+            int matched = prefixLength + (hasRange ? 1 : 0);
+            if (matched > bestPrefixLength + (bestHasRange ? 1 : 0)) {
+                bestIndex = index;
+                bestPrefixLength = prefixLength;
+                bestHasRange = hasRange;
+            }
+        }
+
+        int matched = bestPrefixLength + (bestHasRange ? 1 : 0);
+        if (bestIndex == null || matched == 1 && indexes.getIndex(bestIndex.getComponents()[0]) != null) {
+            // a regular index does the same job for a single predicate
+            return andPredicate;
+        }
+        String rangeComponent = bestHasRange ? bestIndex.getComponents()[bestPrefixLength] : null;
+        Predicate composite = createCompositePredicate(bestIndex, bestPrefixLength, equalities,
+                get(lowerBounds, rangeComponent), get(upperBounds, rangeComponent));
+        return replace(andPredicate, composite);
+    }
+
+    private static Predicate createCompositePredicate(InternalIndex index, int prefixLength,
+                                                      Map<String, EqualPredicate> equalities,
+                                                      AbstractIndexAwarePredicate lowerBound,
+                                                      AbstractIndexAwarePredicate upperBound) {
+        String[] components = index.getComponents();
+        List<Predicate> replaced = new ArrayList<Predicate>(prefixLength + 2);
+        Comparable[] prefix = new Comparable[prefixLength];
+        for (int i = 0; i < prefixLength; ++i) {
+            EqualPredicate equality = equalities.get(components[i]);
+            prefix[i] = equality.value == null ? AbstractIndex.NULL : equality.value;
+            replaced.add(equality);
+        }
+
+        String indexName = index.getAttributeName();
+        if (prefixLength == components.length) {
+            return new CompositeEqualPredicate(indexName, new CompositeValue(prefix), replaced.toArray(new Predicate[0]));
+        }
+        if (lowerBound == null && upperBound == null) {
+            return new CompositeRangePredicate(indexName, extend(prefix, NEGATIVE_INFINITY),
+                    extend(prefix, POSITIVE_INFINITY), replaced.toArray(new Predicate[0]));
+        }
+
+        CompositeValue from;
+        if (lowerBound == null) {
+            // nulls are ordered first, but they never satisfy a range predicate
+            from = extend(prefix, AbstractIndex.NULL, POSITIVE_INFINITY);
+        } else if (lowerBound instanceof BetweenPredicate) {
+            from = extend(prefix, ((BetweenPredicate) lowerBound).from, NEGATIVE_INFINITY);
+            replaced.add(lowerBound);
+        } else {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) lowerBound;
+            from = extend(prefix, greaterLess.value, greaterLess.equal ? NEGATIVE_INFINITY : POSITIVE_INFINITY);
+            replaced.add(lowerBound);
+        }
+
+        CompositeValue to;
+        if (upperBound == null) {
+            to = extend(prefix, POSITIVE_INFINITY);
+        } else if (upperBound instanceof BetweenPredicate) {
+            to = extend(prefix, ((BetweenPredicate) upperBound).to, POSITIVE_INFINITY);
+            if (upperBound != lowerBound) {
+                replaced.add(upperBound);
+            }
+        } else {
+            GreaterLessPredicate greaterLess = (GreaterLessPredicate) upperBound;
+            to = extend(prefix, greaterLess.value, greaterLess.equal ? POSITIVE_INFINITY : NEGATIVE_INFINITY);
+            replaced.add(upperBound);
+        }
+        return new CompositeRangePredicate(indexName, from, to, replaced.toArray(new Predicate[0]));
+    }
+
+    private static Predicate replace(AndPredicate andPredicate, Predicate composite) {
+        Predicate[] replaced = composite instanceof CompositeEqualPredicate
+                ? ((CompositeEqualPredicate) composite).predicates : ((CompositeRangePredicate) composite).predicates;
+        Predicate[] originalPredicates = andPredicate.predicates;
+        List<Predicate> remaining = new ArrayList<Predicate>(originalPredicates.length - replaced.length + 1);
+        remaining.add(composite);
+        for (Predicate predicate : originalPredicates) {
+            if (!containsIdentity(replaced, predicate)) {
+                remaining.add(predicate);
+            }
+        }
+        if (remaining.size() == 1) {
+            return composite;
+        }
+        return new AndPredicate(remaining.toArray(new Predicate[0]));
+    }
+
+    private static CompositeValue extend(Comparable[] prefix, Comparable... suffix) {
+        Comparable[] components = new Comparable[prefix.length + suffix.length];
+        System.arraycopy(prefix, 0, components, 0, prefix.length);
+        System.arraycopy(suffix, 0, components, prefix.length, suffix.length);
+        return new CompositeValue(components);
+    }
+
+    private static boolean isEquality(Predicate predicate) {
+        return predicate instanceof EqualPredicate && !(predicate instanceof NotEqualPredicate);
+    }
+
+    private static boolean containsKey(Map<String, ?> map, String key) {
+        return map != null && map.containsKey(key);
+    }
+
+    private static AbstractIndexAwarePredicate get(Map<String, AbstractIndexAwarePredicate> map, String key) {
+        return map == null || key == null ? null : map.get(key);
+    }
+
+    private static <P extends AbstractIndexAwarePredicate> Map<String, P> putIfAbsent(Map<String, P> map, P predicate) {
+        if (map == null) {
+            map = new HashMap<String, P>();
+        }
+        if (!map.containsKey(predicate.attributeName)) {
+            map.put(predicate.attributeName, predicate);
+        }
+        return map;
+    }
+
+    private static boolean containsIdentity(Predicate[] predicates, Predicate predicate) {
+        for (Predicate candidate : predicates) {
+            if (candidate == predicate) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
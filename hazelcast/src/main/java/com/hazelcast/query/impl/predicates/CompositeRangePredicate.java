@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.predicates;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.query.IndexAwarePredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.CompositeValue;
+import com.hazelcast.query.impl.Index;
+import com.hazelcast.query.impl.QueryContext;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scans the range of an ordered composite index between the given composite
+ * values, inclusive.
+ * <p>
+ * The boundaries are padded with {@link CompositeValue#NEGATIVE_INFINITY} and
+ * {@link CompositeValue#POSITIVE_INFINITY} to express prefix lookups and
+ * exclusive boundaries, so the range is always scanned inclusively.
+ * <p>
+ * It isn't exposed as user API; it's only created by {@link
+ * CompositeIndexVisitor} while optimizing a conjunction of equality
+ * predicates followed by a range predicate. It isn't sent over the wire
+ * either.
+ */
+public final class CompositeRangePredicate implements IndexAwarePredicate {
+
+    final String indexName;
+    final CompositeValue from;
+    final CompositeValue to;
+    final Predicate[] predicates;
+
+    /**
+     * @param indexName  the name of the composite index to scan.
+     * @param from       the lower boundary of the range, inclusive.
+     * @param to         the upper boundary of the range, inclusive.
+     * @param predicates the predicates replaced by the scan, they are used to
+     *                   evaluate this predicate on entries directly.
+     */
+    public CompositeRangePredicate(String indexName, CompositeValue from, CompositeValue to, Predicate[] predicates) {
+        this.indexName = indexName;
+        this.from = from;
+        this.to = to;
+        this.predicates = predicates;
+    }
+
+    @Override
+    public boolean apply(Map.Entry mapEntry) {
+        return applyAll(predicates, mapEntry);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Set<QueryableEntry> filter(QueryContext queryContext) {
+        Index index = queryContext.getIndex(indexName);
+        TypeConverter converter = index.getConverter();
+        // an inverted range is empty, but sorted maps refuse to produce such sub-maps
+        if (converter != null && converter.convert(from).compareTo(converter.convert(to)) > 0) {
+            return Collections.emptySet();
+        }
+        return index.getSubRecordsBetween(from, to);
+    }
+
+    @Override
+    public boolean isIndexed(QueryContext queryContext) {
+        return queryContext.getIndex(indexName) != null;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + indexName + ") BETWEEN " + from + " AND " + to + " " + Arrays.toString(predicates);
+    }
+
+    static boolean applyAll(Predicate[] predicates, Map.Entry mapEntry) {
+        for (Predicate predicate : predicates) {
+            if (!predicate.apply(mapEntry)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -27,6 +27,7 @@ import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.OrResultSet;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.SparseBitSet;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
@@ -58,6 +59,11 @@ public final class OrPredicate
 
     @Override
     public Set<QueryableEntry> filter(QueryContext queryContext) {
+        SparseBitSet bitmap = BitmapEvaluator.evaluate(this, queryContext);
+        if (bitmap != null) {
+            return queryContext.getEntryOrdinals().toResultSet(bitmap);
+        }
+
         List<Set<QueryableEntry>> indexedResults = new LinkedList<Set<QueryableEntry>>();
         for (Predicate predicate : predicates) {
             if (predicate instanceof IndexAwarePredicate) {
@@ -77,6 +83,9 @@ public final class OrPredicate
 
     @Override
     public boolean isIndexed(QueryContext queryContext) {
+        if (BitmapEvaluator.canEvaluate(this, queryContext)) {
+            return true;
+        }
         for (Predicate predicate : predicates) {
             if (predicate instanceof IndexAwarePredicate) {
                 IndexAwarePredicate iap = (IndexAwarePredicate) predicate;
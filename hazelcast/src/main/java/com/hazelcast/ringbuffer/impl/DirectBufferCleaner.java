@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+
+/**
+ * Frees the memory of direct and memory-mapped {@link ByteBuffer}s without waiting for them to be garbage collected.
+ * <p>
+ * Uses {@code Unsafe.invokeCleaner()} on Java 9 and later and the cleaner of the buffer on earlier versions. If
+ * neither is accessible, the memory is left to be freed by the garbage collector. A cleaned buffer must not be
+ * accessed anymore.
+ */
+final class DirectBufferCleaner {
+
+    private static final ILogger LOGGER = Logger.getLogger(DirectBufferCleaner.class);
+
+    private static final Method INVOKE_CLEANER = findInvokeCleaner();
+
+    private DirectBufferCleaner() {
+    }
+
+    /**
+     * Frees the memory of the buffer if it is direct. Does nothing if the buffer is {@code null}.
+     */
+    static void clean(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            }
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            LOGGER.finest("Could not free a direct buffer, it is left to the garbage collector", e);
+        }
+    }
+
+    private static Method findInvokeCleaner() {
+        if (UNSAFE == null) {
+            return null;
+        }
+        try {
+            return UNSAFE.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.nio.IOUtil.deleteQuietly;
+import static com.hazelcast.ringbuffer.impl.DirectBufferCleaner.clean;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+
+/**
+ * A {@link Ringbuffer} which keeps its serialized items outside of the Java
+ * heap.
+ * <p>
+ * The items are appended to off-heap pages of a fixed size. The on-heap part
+ * is a fixed index of the page, offset and length of the item in each slot
+ * of the ringbuffer, so the number of heap objects does not grow with the
+ * number of items. A page is freed when none of its items is in the
+ * ringbuffer anymore. If an overflow directory is given, a full page is
+ * copied to a memory-mapped file by the spill executor and its off-heap
+ * memory is reused for a later page, so the older items are left to the page
+ * cache of the operating system. Until the copy completes, the items are
+ * read from the off-heap page.
+ * <p>
+ * The items are always kept in the serialized format and reading an item
+ * copies it to a {@link HeapData}, whatever the in-memory format of the
+ * ringbuffer is.
+ * <p>
+ * Just like the {@link ArrayRingbuffer}, no thread safety is needed since a
+ * partition can only be accessed by a single thread at any given moment. The
+ * pages are only shared with the spill tasks, through their monitors.
+ */
+public class OffHeapRingbuffer implements Ringbuffer<Data> {
+
+    private static final long NO_PAGE = -1;
+    private static final int NO_ITEM = -1;
+
+    private static final ILogger LOGGER = Logger.getLogger(OffHeapRingbuffer.class);
+
+    private final int capacity;
+    private final int pageSize;
+    private final File overflowDirectory;
+    private final Executor spillExecutor;
+
+    private final long[] slotPageIds;
+    private final int[] slotOffsets;
+    private final int[] slotLengths;
+
+    /**
+     * The pages which may contain items, the page with {@link #firstPageId} is at index 0.
+     * Released pages are {@code null}.
+     */
+    private final List<Page> pages = new ArrayList<Page>();
+    /** The pages being copied to a memory-mapped file */
+    private final List<Page> spillingPages = new ArrayList<Page>();
+    private long firstPageId;
+    private Page activePage;
+    /** Off-heap memory of a released or spilled page, reused for the next page */
+    private ByteBuffer spareBuffer;
+
+    private long tailSequence = -1;
+    private long headSequence = tailSequence + 1;
+
+    /**
+     * @param capacity          the capacity of the ringbuffer
+     * @param pageSize          the size of the off-heap pages in bytes
+     * @param overflowDirectory the directory of the memory-mapped files of the full pages or
+     *                          {@code null} if the pages are kept in off-heap memory
+     * @param spillExecutor     the executor copying the full pages to the memory-mapped files
+     */
+    public OffHeapRingbuffer(int capacity, int pageSize, File overflowDirectory, Executor spillExecutor) {
+        this.capacity = capacity;
+        this.pageSize = pageSize;
+        this.overflowDirectory = overflowDirectory;
+        this.spillExecutor = spillExecutor;
+        this.slotPageIds = new long[capacity];
+        this.slotOffsets = new int[capacity];
+        this.slotLengths = new int[capacity];
+        Arrays.fill(slotPageIds, NO_PAGE);
+        Arrays.fill(slotLengths, NO_ITEM);
+    }
+
+    @Override
+    public long tailSequence() {
+        return tailSequence;
+    }
+
+    @Override
+    public long peekNextTailSequence() {
+        return tailSequence + 1;
+    }
+
+    @Override
+    public void setTailSequence(long sequence) {
+        this.tailSequence = sequence;
+    }
+
+    @Override
+    public long headSequence() {
+        return headSequence;
+    }
+
+    @Override
+    public void setHeadSequence(long sequence) {
+        this.headSequence = sequence;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long size() {
+        return tailSequence - headSequence + 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public long add(Data item) {
+        tailSequence++;
+
+        if (tailSequence - capacity == headSequence) {
+            headSequence++;
+        }
+
+        store(toIndex(tailSequence), item);
+
+        return tailSequence;
+    }
+
+    @Override
+    public Data read(long sequence) {
+        checkReadSequence(sequence);
+        return load(toIndex(sequence));
+    }
+
+    @Override
+    public void checkBlockableReadSequence(long readSequence) {
+        if (readSequence > tailSequence + 1) {
+            throw new IllegalArgumentException("sequence:" + readSequence
+                    + " is too large. The current tailSequence is:" + tailSequence);
+        }
+
+        if (readSequence < headSequence) {
+            throw new StaleSequenceException("sequence:" + readSequence
+                    + " is too small. The current headSequence is:" + headSequence
+                    + " tailSequence is:" + tailSequence, headSequence);
+        }
+    }
+
+    @Override
+    public void checkReadSequence(long sequence) {
+        if (sequence > tailSequence) {
+            throw new IllegalArgumentException("sequence:" + sequence
+                    + " is too large. The current tailSequence is:" + tailSequence);
+        }
+
+        if (sequence < headSequence) {
+            throw new StaleSequenceException("sequence:" + sequence
+                    + " is too small. The current headSequence is:" + headSequence
+                    + " tailSequence is:" + tailSequence, headSequence);
+        }
+    }
+
+    @Override
+    public void set(long seq, Data data) {
+        store(toIndex(seq), data);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The off-heap memory and the memory-mapped files of the items are freed.
+     */
+    @Override
+    public void clear() {
+        dispose();
+        tailSequence = -1;
+        headSequence = tailSequence + 1;
+    }
+
+    /**
+     * Frees the off-heap memory and unmaps the memory-mapped files of all pages and removes all items.
+     * The memory of a page which is being spilled is freed by its spill task.
+     */
+    public void dispose() {
+        for (Page page : pages) {
+            if (page != null) {
+                free(page, false);
+            }
+        }
+        pages.clear();
+        spillingPages.clear();
+        firstPageId = 0;
+        activePage = null;
+        clean(spareBuffer);
+        spareBuffer = null;
+        Arrays.fill(slotPageIds, NO_PAGE);
+        Arrays.fill(slotLengths, NO_ITEM);
+    }
+
+    @Override
+    public Iterator<Data> iterator() {
+        return new ReadOnlyRingbufferIterator<Data>(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The returned array is created on each call and contains copies of the items.
+     */
+    @Override
+    public Data[] getItems() {
+        Data[] items = new Data[capacity];
+        for (long seq = headSequence; seq <= tailSequence; seq++) {
+            int index = toIndex(seq);
+            items[index] = load(index);
+        }
+        return items;
+    }
+
+    private int toIndex(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private void store(int index, Data item) {
+        releaseSlot(index);
+        if (item == null) {
+            return;
+        }
+        byte[] bytes = item.toByteArray();
+        Page page = reserve(bytes.length);
+        slotPageIds[index] = page.id;
+        slotOffsets[index] = page.append(bytes);
+        slotLengths[index] = bytes.length;
+    }
+
+    private Data load(int index) {
+        int length = slotLengths[index];
+        if (length == NO_ITEM) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        getPage(slotPageIds[index]).read(slotOffsets[index], bytes);
+        return new HeapData(bytes);
+    }
+
+    private void releaseSlot(int index) {
+        long pageId = slotPageIds[index];
+        if (pageId == NO_PAGE) {
+            return;
+        }
+        slotPageIds[index] = NO_PAGE;
+        slotLengths[index] = NO_ITEM;
+        Page page = getPage(pageId);
+        page.itemCount--;
+        if (page.itemCount == 0 && page != activePage) {
+            releasePage(page);
+        }
+    }
+
+    private Page getPage(long pageId) {
+        return pages.get((int) (pageId - firstPageId));
+    }
+
+    /**
+     * Returns the page to which an item of the given length can be appended.
+     */
+    private Page reserve(int length) {
+        if (activePage != null) {
+            if (activePage.buffer.remaining() >= length) {
+                return activePage;
+            }
+            sealActivePage();
+        }
+        completeSpills();
+        ByteBuffer buffer;
+        if (length <= pageSize && spareBuffer != null) {
+            buffer = spareBuffer;
+            buffer.clear();
+            spareBuffer = null;
+        } else {
+            buffer = ByteBuffer.allocateDirect(Math.max(pageSize, length));
+        }
+        activePage = new Page(firstPageId + pages.size(), buffer);
+        pages.add(activePage);
+        return activePage;
+    }
+
+    private void sealActivePage() {
+        Page page = activePage;
+        activePage = null;
+        if (page.itemCount == 0) {
+            releasePage(page);
+        } else if (overflowDirectory != null) {
+            spill(page);
+        }
+    }
+
+    /**
+     * Submits the copy of the page to a memory-mapped file. The page is read from its off-heap memory until
+     * the copy is completed by {@link #completeSpills()}.
+     */
+    private void spill(Page page) {
+        ByteBuffer content = page.buffer.duplicate();
+        content.flip();
+        page.spilling = true;
+        try {
+            spillExecutor.execute(new SpillTask(page, page.buffer, content));
+            spillingPages.add(page);
+        } catch (RejectedExecutionException e) {
+            page.spilling = false;
+            LOGGER.finest("Could not spill a ringbuffer page, the page is kept in off-heap memory", e);
+        }
+    }
+
+    /**
+     * Switches the pages which have been copied to memory-mapped files to their files and reuses or frees
+     * their off-heap memory.
+     */
+    private void completeSpills() {
+        Iterator<Page> iterator = spillingPages.iterator();
+        while (iterator.hasNext()) {
+            Page page = iterator.next();
+            ByteBuffer mappedBuffer;
+            synchronized (page) {
+                if (!page.spillDone) {
+                    continue;
+                }
+                mappedBuffer = page.mappedBuffer;
+                page.mappedBuffer = null;
+            }
+            iterator.remove();
+            page.spilling = false;
+            if (mappedBuffer != null) {
+                ByteBuffer directBuffer = page.buffer;
+                page.buffer = mappedBuffer;
+                page.mapped = true;
+                recycle(directBuffer);
+            }
+        }
+    }
+
+    private void releasePage(Page page) {
+        pages.set((int) (page.id - firstPageId), null);
+        while (!pages.isEmpty() && pages.get(0) == null) {
+            pages.remove(0);
+            firstPageId++;
+        }
+        if (page.spilling) {
+            spillingPages.remove(page);
+        }
+        free(page, true);
+    }
+
+    /**
+     * Frees the memory of a page which is not used anymore. If a spill task is still copying the page,
+     * the task frees it when done.
+     *
+     * @param page  the page to free
+     * @param reuse {@code true} if the off-heap memory of the page can be kept for the next page
+     */
+    private void free(Page page, boolean reuse) {
+        ByteBuffer mappedBuffer;
+        synchronized (page) {
+            page.released = true;
+            if (page.spilling && !page.spillDone) {
+                return;
+            }
+            mappedBuffer = page.mappedBuffer;
+            page.mappedBuffer = null;
+        }
+        clean(mappedBuffer);
+        if (reuse && !page.mapped) {
+            recycle(page.buffer);
+        } else {
+            clean(page.buffer);
+        }
+    }
+
+    private void recycle(ByteBuffer buffer) {
+        if (spareBuffer == null && buffer.capacity() == pageSize) {
+            spareBuffer = buffer;
+        } else {
+            clean(buffer);
+        }
+    }
+
+    private ByteBuffer mapOverflowFile(int size) throws IOException {
+        File file = File.createTempFile("ringbuffer-", ".page", overflowDirectory);
+        RandomAccessFile randomAccessFile = null;
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            // the mapping stays valid after the file is closed and deleted
+            return randomAccessFile.getChannel().map(READ_WRITE, 0, size);
+        } finally {
+            closeResource(randomAccessFile);
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * A page of serialized items. The position of the buffer is the end of the appended items.
+     * The fields related to spilling which are shared with the spill task are guarded by the monitor of the page.
+     */
+    private static final class Page {
+
+        private final long id;
+        private ByteBuffer buffer;
+        private boolean mapped;
+        private int itemCount;
+        private boolean spilling;
+
+        // guarded by this
+        private boolean spillDone;
+        private boolean released;
+        private ByteBuffer mappedBuffer;
+
+        Page(long id, ByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        int append(byte[] bytes) {
+            int offset = buffer.position();
+            buffer.put(bytes);
+            itemCount++;
+            return offset;
+        }
+
+        void read(int offset, byte[] bytes) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset);
+            view.get(bytes);
+        }
+    }
+
+    /**
+     * Copies a full page to a memory-mapped file off the partition thread. If the page is released in the
+     * meantime, the task frees both its off-heap memory and the mapped file. If the file cannot be created,
+     * the page stays in off-heap memory.
+     */
+    private final class SpillTask implements Runnable {
+
+        private final Page page;
+        private final ByteBuffer directBuffer;
+        private final ByteBuffer content;
+
+        SpillTask(Page page, ByteBuffer directBuffer, ByteBuffer content) {
+            this.page = page;
+            this.directBuffer = directBuffer;
+            this.content = content;
+        }
+
+        @Override
+        public void run() {
+            ByteBuffer mappedBuffer = null;
+            try {
+                mappedBuffer = mapOverflowFile(content.remaining());
+                mappedBuffer.put(content);
+            } catch (IOException e) {
+                LOGGER.warning("Could not spill a ringbuffer page to " + overflowDirectory.getAbsolutePath()
+                        + ", the page is kept in off-heap memory", e);
+            }
+            boolean released;
+            synchronized (page) {
+                page.spillDone = true;
+                released = page.released;
+                if (!released) {
+                    page.mappedBuffer = mappedBuffer;
+                }
+            }
+            if (released) {
+                clean(mappedBuffer);
+                clean(directBuffer);
+            }
+        }
+    }
+}
@@ -26,17 +26,24 @@ import com.hazelcast.nio.serialization.HazelcastSerializationException;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.ringbuffer.StaleSequenceException;
+import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Notifier;
 import com.hazelcast.spi.ObjectNamespace;
 import com.hazelcast.spi.WaitNotifyKey;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import java.io.File;
 import java.io.IOException;
 
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.config.InMemoryFormat.values;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OFF_HEAP_MIN_CAPACITY;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OFF_HEAP_OVERFLOW_DIR;
+import static com.hazelcast.spi.properties.GroupProperty.RINGBUFFER_OFF_HEAP_PAGE_SIZE;
+import static com.hazelcast.util.StringUtil.isNullOrEmpty;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -76,6 +83,7 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
      * <li>{@link InMemoryFormat#OBJECT} - the type is the same as the type {@link T}</li>
      * <li>{@link InMemoryFormat#BINARY} or {@link InMemoryFormat#NATIVE} - the type is {@link Data}</li>
      * </ul>
+     * An {@link OffHeapRingbuffer} always contains {@link Data}, whatever the in-memory format is.
      */
     private Ringbuffer<E> ringbuffer;
 
@@ -113,7 +121,7 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         this(namespace, partitionId);
 
         this.inMemoryFormat = config.getInMemoryFormat();
-        this.ringbuffer = new ArrayRingbuffer<E>(config.getCapacity());
+        this.ringbuffer = createRingbuffer(config.getCapacity(), nodeEngine);
 
         final long ttlMs = SECONDS.toMillis(config.getTimeToLiveSeconds());
         if (ttlMs != TTL_DISABLED) {
@@ -135,9 +143,56 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
     public void init(RingbufferConfig config, NodeEngine nodeEngine) {
         this.config = config;
         this.serializationService = nodeEngine.getSerializationService();
+        if (ringbuffer instanceof ArrayRingbuffer && isOffHeap((int) ringbuffer.getCapacity(), nodeEngine)) {
+            moveToOffHeap(nodeEngine);
+        }
         initRingbufferStore(nodeEngine.getConfigClassLoader());
     }
 
+    /**
+     * Returns {@code true} if a ringbuffer with the given capacity keeps its items off-heap, meaning the
+     * capacity is at least {@link com.hazelcast.spi.properties.GroupProperty#RINGBUFFER_OFF_HEAP_MIN_CAPACITY}.
+     */
+    private static boolean isOffHeap(int capacity, NodeEngine nodeEngine) {
+        int offHeapMinCapacity = nodeEngine.getProperties().getInteger(RINGBUFFER_OFF_HEAP_MIN_CAPACITY);
+        return offHeapMinCapacity > 0 && capacity >= offHeapMinCapacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Ringbuffer<E> createRingbuffer(int capacity, NodeEngine nodeEngine) {
+        if (!isOffHeap(capacity, nodeEngine)) {
+            return new ArrayRingbuffer<E>(capacity);
+        }
+        HazelcastProperties properties = nodeEngine.getProperties();
+        String overflowDir = properties.getString(RINGBUFFER_OFF_HEAP_OVERFLOW_DIR);
+        return (Ringbuffer<E>) new OffHeapRingbuffer(capacity,
+                properties.getInteger(RINGBUFFER_OFF_HEAP_PAGE_SIZE),
+                isNullOrEmpty(overflowDir) ? null : new File(overflowDir),
+                nodeEngine.getExecutionService().getExecutor(ExecutionService.IO_EXECUTOR));
+    }
+
+    /**
+     * Returns {@code true} if the items are kept in the serialized format, either because of the in-memory
+     * format or because the ringbuffer is off-heap.
+     */
+    private boolean storesData() {
+        return inMemoryFormat != OBJECT || ringbuffer instanceof OffHeapRingbuffer;
+    }
+
+    /**
+     * Moves the items of a replicated ringbuffer to the off-heap storage.
+     */
+    @SuppressWarnings("unchecked")
+    private void moveToOffHeap(NodeEngine nodeEngine) {
+        Ringbuffer<E> newRingbuffer = createRingbuffer((int) ringbuffer.getCapacity(), nodeEngine);
+        newRingbuffer.setTailSequence(ringbuffer.tailSequence());
+        newRingbuffer.setHeadSequence(ringbuffer.headSequence());
+        for (long seq = ringbuffer.headSequence(); seq <= ringbuffer.tailSequence(); seq++) {
+            newRingbuffer.set(seq, (E) serializationService.toData(ringbuffer.read(seq)));
+        }
+        ringbuffer = newRingbuffer;
+    }
+
     private void initRingbufferStore(ClassLoader configClassLoader) {
         this.store = RingbufferStoreWrapper.create(namespace,
                 config.getRingbufferStoreConfig(),
@@ -500,13 +555,14 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
      *
      * @param item the item
      * @return the binary or deserialized format, depending on the {@link RingbufferContainer#inMemoryFormat}
+     * and on whether the ringbuffer is off-heap
      * @throws HazelcastSerializationException if the ring buffer is configured to keep items
      *                                         in object format and the item could not be deserialized
      */
     private E convertToRingbufferFormat(Object item) {
-        return inMemoryFormat == OBJECT
-                ? (E) serializationService.toObject(item)
-                : (E) serializationService.toData(item);
+        return storesData()
+                ? (E) serializationService.toData(item)
+                : (E) serializationService.toObject(item);
     }
 
     /**
@@ -552,6 +608,9 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         for (long seq = ringbuffer.headSequence(); seq <= ringbuffer.tailSequence(); seq++) {
             if (inMemoryFormat == BINARY) {
                 out.writeData((Data) ringbuffer.read(seq));
+            } else if (storesData()) {
+                // an off-heap ringbuffer keeps the items serialized, the replica expects the object format
+                out.writeObject(serializationService.toObject(ringbuffer.read(seq)));
             } else {
                 out.writeObject(ringbuffer.read(seq));
             }
@@ -636,6 +695,16 @@ public class RingbufferContainer<T, E> implements IdentifiedDataSerializable, No
         return emptyRingWaitNotifyKey;
     }
 
+    /**
+     * Frees the off-heap memory and the memory-mapped files of an off-heap ringbuffer. Must be called
+     * on the partition thread when the container is removed.
+     */
+    public void dispose() {
+        if (ringbuffer instanceof OffHeapRingbuffer) {
+            ((OffHeapRingbuffer) ringbuffer).dispose();
+        }
+    }
+
     /**
      * Clears the data in the ringbuffer.
      */
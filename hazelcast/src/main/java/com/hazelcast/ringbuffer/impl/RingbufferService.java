@@ -38,7 +38,9 @@ import com.hazelcast.spi.RemoteService;
 import com.hazelcast.spi.ServiceNamespace;
 import com.hazelcast.spi.SplitBrainHandlerService;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.merge.AbstractContainerMerger;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.merge.RingbufferMergeData;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.RingbufferMergeTypes;
@@ -141,12 +143,28 @@ public class RingbufferService implements ManagedService, RemoteService, Fragmen
         quorumConfigCache.remove(name);
     }
 
-    public void destroyContainer(int partitionId, ObjectNamespace namespace) {
+    public void destroyContainer(final int partitionId, ObjectNamespace namespace) {
         final Map<ObjectNamespace, RingbufferContainer> partitionContainers = containers.get(partitionId);
         if (partitionContainers == null) {
             return;
         }
-        partitionContainers.remove(namespace);
+        final RingbufferContainer container = partitionContainers.remove(namespace);
+        if (container == null) {
+            return;
+        }
+        // the off-heap memory of the container may only be freed when no operation can read it anymore
+        final InternalOperationService operationService = (InternalOperationService) nodeEngine.getOperationService();
+        operationService.execute(new PartitionSpecificRunnable() {
+            @Override
+            public void run() {
+                container.dispose();
+            }
+
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+        });
     }
 
     @Override
@@ -290,6 +308,7 @@ public class RingbufferService implements ManagedService, RemoteService, Fragmen
             final Entry<ObjectNamespace, RingbufferContainer> entry = iterator.next();
             final RingbufferContainer container = entry.getValue();
             if (thresholdReplicaIndex < 0 || container.getConfig().getTotalBackupCount() < thresholdReplicaIndex) {
+                container.dispose();
                 iterator.remove();
             }
         }
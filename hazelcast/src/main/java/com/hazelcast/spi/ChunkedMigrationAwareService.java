@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi;
+
+import java.util.Iterator;
+
+/**
+ * {@code ChunkedMigrationAwareService} is an extension to the {@link FragmentedMigrationAwareService} which allows
+ * a single replica fragment to be transferred in a stream of bounded-size chunks instead of a single operation.
+ * <p>
+ * The source member pulls the chunks lazily from the returned iterator, one chunk per migration round-trip,
+ * so only a single chunk of a namespace is held in memory at any time. The first operation returned by the
+ * iterator is executed on the destination before all others and should reset the replica fragment there;
+ * each following operation appends data to it.
+ * <p>
+ * A failed chunk may be sent to the destination more than once, so the operations returned by the iterator
+ * must be idempotent.
+ * <p>
+ * Chunked migration can be enabled/disabled using configuration property
+ * {@link com.hazelcast.spi.properties.GroupProperty#PARTITION_CHUNKED_MIGRATION_ENABLED}. It is used only when
+ * fragmented migration is enabled as well.
+ *
+ * @see FragmentedMigrationAwareService
+ * @since 3.12
+ */
+public interface ChunkedMigrationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns an iterator over the operations replicating the given namespace of a partition replica.
+     * Each operation carries approximately at most {@code maxChunkSizeInBytes} bytes of data, but
+     * at least one data item.
+     * <p>
+     * This method will be called on the source member and the iterator will be consumed on the
+     * partition thread of the migrating partition. Returning an empty iterator is allowed and means
+     * service does not have anything to replicate. Returning {@code null} means the service does not
+     * support chunked migration of the namespace and its fragment is replicated in a single operation.
+     *
+     * @param event               replication event
+     * @param namespace           replica fragment namespace to replicate
+     * @param maxChunkSizeInBytes approximate upper bound of data carried by a single operation
+     * @return iterator over the replication operations or {@code null} if chunked migration is not supported
+     */
+    Iterator<Operation> createChunkIterator(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                            long maxChunkSizeInBytes);
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi;
+
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
+
+/**
+ * {@code DeltaReplicationAwareService} is an extension to the {@link FragmentedMigrationAwareService} which allows
+ * an out-of-sync backup replica fragment to be repaired by transferring only the differing part of the data,
+ * instead of the whole fragment.
+ * <p>
+ * The differences are detected with Merkle trees maintained over the contents of the replica fragments: the
+ * backup replica sends the leaves of its tree along with the sync request and the partition owner compares
+ * them with its own tree. Only the data under the differing leaves is then sent to the backup replica.
+ * <p>
+ * A service can fall back to full replication of a namespace any time by returning {@code null} from
+ * {@link #createMerkleTreeView(int, ServiceNamespace)} on the backup or from
+ * {@link #prepareDeltaReplicationOperation(PartitionReplicationEvent, ServiceNamespace, RemoteMerkleTreeView)}
+ * on the partition owner.
+ *
+ * @see FragmentedMigrationAwareService
+ * @see com.hazelcast.config.MerkleTreeConfig
+ * @since 3.12
+ */
+public interface DeltaReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns a snapshot of the leaves of the Merkle tree of the given namespace of a partition replica.
+     * <p>
+     * This method will be called on the backup replica, on the partition thread of the partition.
+     *
+     * @param partitionId the partition to create the view for
+     * @param namespace   replica fragment namespace to create the view for
+     * @return the view of the Merkle tree or {@code null} if the namespace does not maintain a Merkle tree
+     */
+    RemoteMerkleTreeView createMerkleTreeView(int partitionId, ServiceNamespace namespace);
+
+    /**
+     * Returns an operation to replicate the data of the given namespace which differs from the data described
+     * by the provided Merkle tree view of the backup replica. The returned operation replaces the data of the
+     * backup replica under the differing leaves with the data of the partition owner.
+     * <p>
+     * This method will be called on the partition owner, on the partition thread of the partition.
+     *
+     * @param event          replication event
+     * @param namespace      replica fragment namespace to replicate
+     * @param merkleTreeView view of the Merkle tree of the backup replica
+     * @return replication operation or {@code null} if the whole namespace should be replicated
+     */
+    Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                               RemoteMerkleTreeView merkleTreeView);
+}
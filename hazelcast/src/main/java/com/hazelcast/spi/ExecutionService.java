@@ -101,6 +101,17 @@ public interface ExecutionService {
      */
     String MAP_LOAD_ALL_KEYS_EXECUTOR = "hz:map-loadAllKeys";
 
+    /**
+     * Name of the executor which runs MapStore calls in parallel for a
+     * single map partition load or a single write-behind flush. Its pool
+     * size bounds the number of MapStore calls made in parallel this way,
+     * so configure it according to the connections your database allows.
+     *
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_LOAD_CHUNK_PARALLELISM
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_WRITE_BEHIND_PARALLELISM
+     */
+    String MAP_STORE_EXECUTOR = "hz:map-store";
+
     ManagedExecutorService register(String name, int poolSize, int queueCapacity, ExecutorType type);
 
     ManagedExecutorService getExecutor(String name);
@@ -16,21 +16,25 @@
 
 package com.hazelcast.spi.impl;
 
+import com.hazelcast.spi.ChunkedMigrationAwareService;
+import com.hazelcast.spi.DeltaReplicationAwareService;
 import com.hazelcast.spi.FragmentedMigrationAwareService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.wan.merkletree.RemoteMerkleTreeView;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A {@link MigrationAwareService} that delegates to another {@link MigrationAwareService} and keeps track of the number of
  * migrations concerning the partition owner (either as current or new replica index) currently in-flight.
  */
-public class CountingMigrationAwareService implements FragmentedMigrationAwareService {
+public class CountingMigrationAwareService implements ChunkedMigrationAwareService, DeltaReplicationAwareService {
 
     static final int PRIMARY_REPLICA_INDEX = 0;
     static final int IN_FLIGHT_MIGRATION_STAMP = -1;
@@ -68,6 +72,34 @@ public class CountingMigrationAwareService implements FragmentedMigrationAwareSe
         return migrationAwareService.prepareReplicationOperation(event, namespaces);
     }
 
+    @Override
+    public Iterator<Operation> createChunkIterator(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                   long maxChunkSizeInBytes) {
+        if (!(migrationAwareService instanceof ChunkedMigrationAwareService)) {
+            return null;
+        }
+        return ((ChunkedMigrationAwareService) migrationAwareService)
+                .createChunkIterator(event, namespace, maxChunkSizeInBytes);
+    }
+
+    @Override
+    public RemoteMerkleTreeView createMerkleTreeView(int partitionId, ServiceNamespace namespace) {
+        if (!(migrationAwareService instanceof DeltaReplicationAwareService)) {
+            return null;
+        }
+        return ((DeltaReplicationAwareService) migrationAwareService).createMerkleTreeView(partitionId, namespace);
+    }
+
+    @Override
+    public Operation prepareDeltaReplicationOperation(PartitionReplicationEvent event, ServiceNamespace namespace,
+                                                      RemoteMerkleTreeView merkleTreeView) {
+        if (!(migrationAwareService instanceof DeltaReplicationAwareService)) {
+            return null;
+        }
+        return ((DeltaReplicationAwareService) migrationAwareService)
+                .prepareDeltaReplicationOperation(event, namespace, merkleTreeView);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         if (isPrimaryReplicaMigrationEvent(event)) {
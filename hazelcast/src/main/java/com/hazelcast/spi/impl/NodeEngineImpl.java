@@ -203,7 +203,7 @@ public class NodeEngineImpl implements NodeEngine {
             new StatisticsAwareMetricsSet(serviceManager, this).register(metricsRegistry);
         }
         metricsRegistry.scanAndRegister(node.getNodeExtension().getMemoryStats(), "memory");
-        metricsRegistry.collectMetrics(operationService, proxyService, eventService, operationParker);
+        metricsRegistry.collectMetrics(operationService, proxyService, eventService, operationParker, serializationService);
 
         serviceManager.start();
         proxyService.init();
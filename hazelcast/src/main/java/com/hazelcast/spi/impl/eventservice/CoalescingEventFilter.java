@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice;
+
+import com.hazelcast.spi.EventFilter;
+
+/**
+ * An {@link EventFilter} of a listener registration which accepts coalesced events. When batching of remote
+ * events is enabled, only the last one of the events having the same coalescing key is sent in a batch.
+ *
+ * @see com.hazelcast.spi.properties.GroupProperty#EVENT_BATCHING_ENABLED
+ */
+public interface CoalescingEventFilter extends EventFilter {
+
+    /**
+     * Returns the key which identifies the events superseding each other, e.g. the key of the map entry.
+     *
+     * @param event the event to be published
+     * @return the coalescing key of the event or {@code null} if the event should not be coalesced
+     */
+    Object getCoalescingKey(Object event);
+}
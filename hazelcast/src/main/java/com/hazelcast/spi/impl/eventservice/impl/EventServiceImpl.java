@@ -19,6 +19,7 @@ package com.hazelcast.spi.impl.eventservice.impl;
 import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -34,6 +35,7 @@ import com.hazelcast.spi.EventRegistration;
 import com.hazelcast.spi.EventService;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.eventservice.CoalescingEventFilter;
 import com.hazelcast.spi.impl.eventservice.InternalEventService;
 import com.hazelcast.spi.impl.eventservice.impl.operations.DeregistrationOperationSupplier;
 import com.hazelcast.spi.impl.eventservice.impl.operations.OnJoinRegistrationOperation;
@@ -54,11 +56,15 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Level;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.InvocationUtil.invokeOnStableClusterSerial;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_BATCHING_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_BATCH_FLUSH_INTERVAL_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.EVENT_BATCH_SIZE;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_QUEUE_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.GroupProperty.EVENT_SYNC_TIMEOUT_MILLIS;
@@ -90,6 +96,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * This order can still be broken in some cases. This is possible because remote events are asynchronous
  * and we don't wait for the response before publishing the next event. The previously published
  * event can be retransmitted causing it to be received by the target node at a later time.
+ * <p>
+ * Remote events can be batched per subscriber member (see
+ * {@link com.hazelcast.spi.properties.GroupProperty#EVENT_BATCHING_ENABLED}).
+ * A batch is sent in a single packet and its events are processed in order on the event thread of the
+ * subscriber member which also processes the non-batched events of the same order keys.
  */
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public class EventServiceImpl implements InternalEventService, MetricsProvider {
@@ -101,7 +112,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
      * synchronously. This means that the event will be sent as a {@link SendEventOperation} and we will
      * wait for the response. The default value is {@value EVENT_SYNC_FREQUENCY}.
      *
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     public static final String EVENT_SYNC_FREQUENCY_PROP = "hazelcast.event.sync.frequency";
 
@@ -110,13 +121,13 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
     /**
      * The default value for the {@link #EVENT_SYNC_FREQUENCY_PROP}.
      *
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     private static final int EVENT_SYNC_FREQUENCY = 100000;
     /**
      * The retry count for the synchronous remote events.
      *
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     private static final int SEND_RETRY_COUNT = 50;
     /**
@@ -157,11 +168,16 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
     private final MwCounter rejectedCount = newMwCounter();
     @Probe(name = "syncDeliveryFailureCount")
     private final MwCounter syncDeliveryFailureCount = newMwCounter();
+    @Probe(name = "batchesSent")
+    private final MwCounter batchesSent = newMwCounter();
 
     private  final int sendEventSyncTimeoutMillis;
 
     private final InternalSerializationService serializationService;
     private final int eventSyncFrequency;
+    /** Collects the remote events into batches, {@code null} if event batching is disabled */
+    private final RemoteEventBatcher eventBatcher;
+    private final ScheduledFuture<?> eventBatchFlushFuture;
 
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -180,6 +196,25 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                 eventThreadCount,
                 eventQueueCapacity);
         this.segments = new ConcurrentHashMap<String, EventServiceSegment>();
+        if (hazelcastProperties.getBoolean(EVENT_BATCHING_ENABLED)) {
+            this.eventBatcher = new RemoteEventBatcher(this, hazelcastProperties.getInteger(EVENT_BATCH_SIZE),
+                    eventThreadCount);
+            long flushIntervalMillis = hazelcastProperties.getMillis(EVENT_BATCH_FLUSH_INTERVAL_MILLIS);
+            this.eventBatchFlushFuture = scheduleEventBatchFlush(flushIntervalMillis);
+        } else {
+            this.eventBatcher = null;
+            this.eventBatchFlushFuture = null;
+        }
+    }
+
+    private ScheduledFuture<?> scheduleEventBatchFlush(long flushIntervalMillis) {
+        final RemoteEventBatcher batcher = eventBatcher;
+        return nodeEngine.getExecutionService().scheduleWithRepetition(new Runnable() {
+            @Override
+            public void run() {
+                batcher.flushAll();
+            }
+        }, flushIntervalMillis, flushIntervalMillis, MILLISECONDS);
     }
 
 
@@ -401,7 +436,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
             executeLocal(serviceName, event, registration, orderKey);
         } else {
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, event);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey, getCoalescingKey(registration, event));
         }
     }
 
@@ -421,7 +456,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                 eventData = serializationService.toData(event);
             }
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, eventData);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey, getCoalescingKey(registration, event));
         }
     }
 
@@ -448,8 +483,21 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                 continue;
             }
             EventEnvelope eventEnvelope = new EventEnvelope(registration.getId(), serviceName, eventData);
-            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey);
+            sendEvent(registration.getSubscriber(), eventEnvelope, orderKey, getCoalescingKey(registration, event));
+        }
+    }
+
+    /**
+     * Returns the coalescing key of the event if the events are batched and the registration accepts coalesced events.
+     *
+     * @see CoalescingEventFilter
+     */
+    private Object getCoalescingKey(EventRegistration registration, Object event) {
+        EventFilter filter = registration.getFilter();
+        if (eventBatcher == null || !(filter instanceof CoalescingEventFilter)) {
+            return null;
         }
+        return ((CoalescingEventFilter) filter).getCoalescingKey(event);
     }
 
     /**
@@ -494,13 +542,19 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
      * we increase the failure count and log the failure (see {@link EventProcessor})
      * Otherwise, we send an asynchronous event. This means that we don't wait to see if the processing failed with an
      * exception (see {@link RemoteEventProcessor})
+     * If event batching is enabled, the asynchronous events are added to the batch of the subscriber instead. The pending
+     * batch of the subscriber for the event thread of the order key is sent before a synchronous event.
      */
-    private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
+    private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey, Object coalescingKey) {
         String serviceName = eventEnvelope.getServiceName();
         EventServiceSegment segment = getSegment(serviceName, true);
         boolean sync = segment.incrementPublish() % eventSyncFrequency == 0;
+        boolean batching = isEventBatchingEnabled();
 
         if (sync) {
+            if (batching) {
+                eventBatcher.flush(subscriber, orderKey);
+            }
             SendEventOperation op = new SendEventOperation(eventEnvelope, orderKey);
             Future f = nodeEngine.getOperationService()
                     .createInvocationBuilder(serviceName, op, subscriber)
@@ -513,18 +567,42 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
                     logger.finest("Sync event delivery failed. Event: " + eventEnvelope, e);
                 }
             }
+        } else if (batching) {
+            eventBatcher.add(subscriber, eventEnvelope, orderKey, coalescingKey);
         } else {
             Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
                     .setPacketType(Packet.Type.EVENT);
+            transmit(packet, subscriber);
+        }
+    }
 
-            if (!nodeEngine.getNode().getConnectionManager().transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
-                }
+    /**
+     * Sends a batch of remote events to the {@code subscriber} in a single packet. The order key of the packet is the
+     * index of the event thread the events of the batch are mapped to, so the subscriber processes the batches on the
+     * same thread as the non-batched events of the same order keys.
+     *
+     * @see RemoteEventProcessor
+     */
+    void sendEventBatch(Address subscriber, EventEnvelopeBatch batch, int eventThreadIndex) {
+        Packet packet = new Packet(serializationService.toBytes(batch), eventThreadIndex)
+                .setPacketType(Packet.Type.EVENT);
+        transmit(packet, subscriber);
+        batchesSent.inc();
+    }
+
+    private void transmit(Packet packet, Address subscriber) {
+        if (!nodeEngine.getNode().getConnectionManager().transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
             }
         }
     }
 
+    /** Event batches can be sent only if all members are able to process them */
+    private boolean isEventBatchingEnabled() {
+        return eventBatcher != null && nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(Versions.V3_12);
+    }
+
     /**
      * Returns the {@link EventServiceSegment} for the {@code service}. If the segment is {@code null} and
      * {@code forceCreate} is {@code true}, the segment is created and registered with the {@link MetricsRegistry}.
@@ -584,7 +662,7 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
      * the rejection count is increased and a failure is logged. The event processing is not retried.
      *
      * @param packet the response packet to handle
-     * @see #sendEvent(Address, EventEnvelope, int)
+     * @see #sendEvent(Address, EventEnvelope, int, Object)
      */
     @Override
     public void accept(Packet packet) {
@@ -630,6 +708,10 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
 
     public void shutdown() {
         logger.finest("Stopping event executor...");
+        if (eventBatcher != null) {
+            eventBatcher.flushAll();
+            eventBatchFlushFuture.cancel(false);
+        }
         eventExecutor.shutdown();
         for (EventServiceSegment segment : segments.values()) {
             segment.clear();
@@ -639,6 +721,9 @@ public class EventServiceImpl implements InternalEventService, MetricsProvider {
 
     public void onMemberLeft(MemberImpl member) {
         Address address = member.getAddress();
+        if (eventBatcher != null) {
+            eventBatcher.remove(address);
+        }
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
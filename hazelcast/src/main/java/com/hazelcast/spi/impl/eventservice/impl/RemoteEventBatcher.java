@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.nio.Address;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.util.HashUtil.hashToIndex;
+
+/**
+ * Collects the events published to the listeners on remote members into batches. A batch is sent when it reaches the
+ * maximum batch size or when {@link #flushAll()} is called periodically.
+ * <p>
+ * The events of a subscriber are batched per event thread: an event goes to the batch of the event thread its order
+ * key is mapped to, and the batch is sent with the index of that thread as its order key. The subscriber processes
+ * the whole batch on that event thread, which is also the thread processing the non-batched events of the same order
+ * keys, so the events of an order key are processed in publishing order even if some of them are sent synchronously.
+ * This relies on the members having the same {@link com.hazelcast.spi.properties.GroupProperty#EVENT_THREAD_COUNT}.
+ * <p>
+ * Events having a coalescing key replace the pending event of the same registration and coalescing key in the batch,
+ * so only the last one of them is sent. The replacing event is appended to the end of the batch, so the sent events
+ * of the same order key are still in publishing order.
+ * <p>
+ * A batch is sent while holding its monitor, so the batches of an event thread are handed over to the connection in
+ * the order they were drained. Sending a packet does not block.
+ *
+ * @see com.hazelcast.spi.impl.eventservice.CoalescingEventFilter
+ */
+class RemoteEventBatcher {
+
+    private final EventServiceImpl eventService;
+    private final int maxBatchSize;
+    private final int eventThreadCount;
+    private final ConcurrentMap<Address, EventBatch[]> batches = new ConcurrentHashMap<Address, EventBatch[]>();
+
+    RemoteEventBatcher(EventServiceImpl eventService, int maxBatchSize, int eventThreadCount) {
+        this.eventService = eventService;
+        this.maxBatchSize = maxBatchSize;
+        this.eventThreadCount = eventThreadCount;
+    }
+
+    /**
+     * Adds the event to the batch of the subscriber and sends the batch if it is full. Events to a subscriber which
+     * is not a cluster member are ignored.
+     *
+     * @param subscriber    the member of the listener
+     * @param envelope      the event
+     * @param orderKey      the order key of the event
+     * @param coalescingKey the coalescing key of the event or {@code null} if it should not be coalesced
+     */
+    void add(Address subscriber, EventEnvelope envelope, int orderKey, Object coalescingKey) {
+        if (!isMember(subscriber)) {
+            return;
+        }
+        int eventThreadIndex = hashToIndex(orderKey, eventThreadCount);
+        EventBatch batch = getOrCreateBatches(subscriber)[eventThreadIndex];
+        synchronized (batch) {
+            batch.add(envelope, coalescingKey);
+            if (batch.size() >= maxBatchSize) {
+                eventService.sendEventBatch(subscriber, batch.drain(), eventThreadIndex);
+            }
+        }
+    }
+
+    /**
+     * Sends the pending events of the subscriber which are processed on the same event thread as the events with
+     * the given order key, if any.
+     */
+    void flush(Address subscriber, int orderKey) {
+        EventBatch[] subscriberBatches = batches.get(subscriber);
+        if (subscriberBatches != null) {
+            int eventThreadIndex = hashToIndex(orderKey, eventThreadCount);
+            flush(subscriber, subscriberBatches[eventThreadIndex], eventThreadIndex);
+        }
+    }
+
+    /**
+     * Sends the pending events of all subscribers. The pending events of the subscribers which are not cluster
+     * members anymore are dropped.
+     */
+    void flushAll() {
+        for (Map.Entry<Address, EventBatch[]> entry : batches.entrySet()) {
+            Address subscriber = entry.getKey();
+            if (!isMember(subscriber)) {
+                batches.remove(subscriber);
+                continue;
+            }
+            EventBatch[] subscriberBatches = entry.getValue();
+            for (int i = 0; i < subscriberBatches.length; i++) {
+                flush(subscriber, subscriberBatches[i], i);
+            }
+        }
+    }
+
+    /**
+     * Drops the pending events of a subscriber which left the cluster.
+     */
+    void remove(Address subscriber) {
+        batches.remove(subscriber);
+    }
+
+    private void flush(Address subscriber, EventBatch batch, int eventThreadIndex) {
+        synchronized (batch) {
+            EventEnvelopeBatch pendingBatch = batch.drain();
+            if (pendingBatch != null) {
+                eventService.sendEventBatch(subscriber, pendingBatch, eventThreadIndex);
+            }
+        }
+    }
+
+    private boolean isMember(Address address) {
+        return eventService.nodeEngine.getClusterService().getMember(address) != null;
+    }
+
+    private EventBatch[] getOrCreateBatches(Address subscriber) {
+        EventBatch[] subscriberBatches = batches.get(subscriber);
+        if (subscriberBatches == null) {
+            EventBatch[] newBatches = new EventBatch[eventThreadCount];
+            for (int i = 0; i < newBatches.length; i++) {
+                newBatches[i] = new EventBatch();
+            }
+            subscriberBatches = batches.putIfAbsent(subscriber, newBatches);
+            if (subscriberBatches == null) {
+                subscriberBatches = newBatches;
+            }
+        }
+        return subscriberBatches;
+    }
+
+    /**
+     * The pending events of a subscriber and event thread. Coalesced events leave {@code null} gaps behind, which are
+     * skipped when the batch is drained. Guarded by its own monitor.
+     */
+    private static final class EventBatch {
+
+        private final List<EventEnvelope> envelopes = new ArrayList<EventEnvelope>();
+        private final Map<CoalescingKey, Integer> coalescedIndexes = new HashMap<CoalescingKey, Integer>();
+        private int size;
+
+        void add(EventEnvelope envelope, Object coalescingKey) {
+            if (coalescingKey != null) {
+                Integer previousIndex = coalescedIndexes.put(new CoalescingKey(envelope.getEventId(), coalescingKey),
+                        envelopes.size());
+                if (previousIndex != null) {
+                    envelopes.set(previousIndex, null);
+                    size--;
+                }
+            }
+            envelopes.add(envelope);
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        EventEnvelopeBatch drain() {
+            if (size == 0) {
+                return null;
+            }
+            EventEnvelope[] batchEnvelopes = new EventEnvelope[size];
+            int index = 0;
+            for (EventEnvelope envelope : envelopes) {
+                if (envelope != null) {
+                    batchEnvelopes[index++] = envelope;
+                }
+            }
+            envelopes.clear();
+            coalescedIndexes.clear();
+            size = 0;
+            return new EventEnvelopeBatch(batchEnvelopes);
+        }
+    }
+
+    private static final class CoalescingKey {
+
+        private final String registrationId;
+        private final Object key;
+
+        CoalescingKey(String registrationId, Object key) {
+            this.registrationId = registrationId;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CoalescingKey that = (CoalescingKey) o;
+            return registrationId.equals(that.registrationId) && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * registrationId.hashCode() + key.hashCode();
+        }
+    }
+}
@@ -26,8 +26,10 @@ import static com.hazelcast.util.EmptyStatement.ignore;
  * An extension of the {@link EventProcessor} which logs and swallows any exception while processing the event.
  * The {@link #orderKey} for this processor is equal to the packet partition ID. This means that when running
  * inside a {@link com.hazelcast.util.executor.StripedExecutor}, all events for the same partition ID will be ordered.
+ * If the packet contains an {@link EventEnvelopeBatch}, the events of the batch are processed one by one on the
+ * thread of this processor, in the order they were published.
  *
- * @see EventServiceImpl#sendEvent(com.hazelcast.nio.Address, EventEnvelope, int)
+ * @see EventServiceImpl#sendEvent(com.hazelcast.nio.Address, EventEnvelope, int, Object)
  */
 public class RemoteEventProcessor extends EventProcessor implements StripedRunnable {
 
@@ -43,14 +45,34 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
     @Override
     public void run() {
         try {
-            EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
-            process(eventEnvelope);
-        } catch (ReplicatedMapCantBeCreatedOnLiteMemberException e) {
+            Object object = eventService.nodeEngine.toObject(packet);
+            if (object instanceof EventEnvelopeBatch) {
+                processBatch((EventEnvelopeBatch) object);
+            } else {
+                process((EventEnvelope) object);
+            }
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    private void processBatch(EventEnvelopeBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                process(batch.getEnvelope(i));
+            } catch (Exception e) {
+                handleException(e);
+            }
+        }
+    }
+
+    private void handleException(Exception e) {
+        if (e instanceof ReplicatedMapCantBeCreatedOnLiteMemberException) {
             // this happens when there is a lite member in the cluster
             // and a data member creates a ReplicatedMap proxy
             // (this is totally expected and doesn't need logging)
             ignore(e);
-        } catch (Exception e) {
+        } else {
             eventService.logger.warning("Error while logging processing event", e);
         }
     }
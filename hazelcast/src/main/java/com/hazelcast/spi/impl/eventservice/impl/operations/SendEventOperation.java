@@ -33,7 +33,7 @@ import java.io.IOException;
  * It will process the event on a thread defined by the {@link #orderKey} and in case of an exception,
  * the exception is returned to the caller.
  *
- * @see EventServiceImpl#sendEvent(com.hazelcast.nio.Address, EventEnvelope, int)
+ * @see EventServiceImpl#sendEvent(com.hazelcast.nio.Address, EventEnvelope, int, Object)
  */
 public class SendEventOperation extends Operation implements AllowedDuringPassiveState, IdentifiedDataSerializable {
     private EventEnvelope eventEnvelope;
@@ -21,6 +21,7 @@ import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.ThreadAffinity;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.LoggingService;
@@ -42,10 +43,12 @@ import com.hazelcast.util.concurrent.IdleStrategy;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.BitSet;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.util.ThreadAffinity.parseCpus;
 import static com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandlerSupplier.getIdleStrategy;
 import static com.hazelcast.spi.properties.GroupProperty.GENERIC_OPERATION_THREAD_COUNT;
 import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
@@ -81,6 +84,14 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
     public static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
 
+    /**
+     * The CPUs to pin the partition operation threads to, e.g. {@code 0-3,6}.
+     * The threads are assigned to the listed CPUs round-robin. Pinning is only
+     * supported on Linux; by default the threads aren't pinned.
+     */
+    public static final HazelcastProperty PARTITION_THREAD_AFFINITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.affinity", "");
+
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
     private final ILogger logger;
@@ -171,6 +182,8 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
             normalQueue.setConsumerThread(partitionThread);
         }
 
+        assignAffinity(properties, threads);
+
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
         for (int partitionId = 0; partitionId < partitionOperationRunners.length; partitionId++) {
             int threadId = getPartitionThreadId(partitionId, threadCount);
@@ -182,6 +195,21 @@ public final class OperationExecutorImpl implements OperationExecutor, MetricsPr
         return threads;
     }
 
+    private void assignAffinity(HazelcastProperties properties, PartitionOperationThread[] threads) {
+        List<Integer> cpus = parseCpus(properties.getString(PARTITION_THREAD_AFFINITY));
+        if (cpus.isEmpty()) {
+            return;
+        }
+        if (!ThreadAffinity.isSupported()) {
+            logger.warning("Ignoring " + PARTITION_THREAD_AFFINITY.getName()
+                    + ", thread affinity is only supported on Linux");
+            return;
+        }
+        for (int threadId = 0; threadId < threads.length; threadId++) {
+            threads[threadId].setAffinity(cpus.get(threadId % cpus.size()));
+        }
+    }
+
     static int getPartitionThreadId(int partitionId, int partitionThreadCount) {
         return partitionId % partitionThreadCount;
     }
@@ -47,6 +47,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     final int threadId;
     final OperationQueue queue;
+    final ILogger logger;
     // This field wil only be accessed by the thread itself when doing 'self'
     // calls. So no need for any form of synchronization.
     OperationRunner currentRunner;
@@ -70,7 +71,6 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     private final boolean priority;
     private final NodeExtension nodeExtension;
-    private final ILogger logger;
     private volatile boolean shutdown;
 
     public OperationThread(String name,
@@ -95,10 +95,17 @@ public abstract class OperationThread extends HazelcastManagedThread implements
 
     public abstract OperationRunner operationRunner(int partitionId);
 
+    /**
+     * Called by the thread itself before it starts processing tasks.
+     */
+    void onStart() {
+    }
+
     @Override
     public final void run() {
         nodeExtension.onThreadStart(this);
         try {
+            onStart();
             while (!shutdown) {
                 Object task;
                 try {
@@ -22,6 +22,8 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import static com.hazelcast.internal.util.ThreadAffinity.pinCurrentThread;
+
 /**
  * An {@link OperationThread} that executes Operations for a particular partition,
  * e.g. a map.get operation.
@@ -29,6 +31,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 public final class PartitionOperationThread extends OperationThread {
 
     private final OperationRunner[] partitionOperationRunners;
+    // the CPU to pin the thread to, -1 if the thread isn't pinned
+    private volatile int cpu = -1;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
@@ -42,6 +46,31 @@ public final class PartitionOperationThread extends OperationThread {
         this.partitionOperationRunners = partitionOperationRunners;
     }
 
+    /**
+     * Sets the CPU the thread pins itself to when it starts.
+     *
+     * @param cpu the CPU to pin the thread to or -1 to not pin the thread.
+     */
+    void setAffinity(int cpu) {
+        this.cpu = cpu;
+    }
+
+    int getAffinity() {
+        return cpu;
+    }
+
+    @Override
+    void onStart() {
+        int cpu = this.cpu;
+        if (cpu < 0) {
+            return;
+        }
+        // a failure is logged by ThreadAffinity, once for all threads
+        if (pinCurrentThread(cpu)) {
+            logger.fine(getName() + " is pinned to CPU " + cpu);
+        }
+    }
+
     /**
      * For each partition there is a {@link OperationRunner} instance. So we need
      * to find the right one based on the partition ID.
@@ -184,6 +184,36 @@ public final class GroupProperty {
     public static final HazelcastProperty EVENT_SYNC_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.event.sync.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * Enables batching of the events sent to listeners on other members. The events to the same member are
+     * collected and sent in a single packet when {@link #EVENT_BATCH_SIZE} events are collected or when
+     * {@link #EVENT_BATCH_FLUSH_INTERVAL_MILLIS} elapses. This reduces the number of packets and the load on
+     * the network and on the event threads when events are published at a high rate, at the cost of a higher
+     * event delivery latency.
+     * <p>
+     * The events are batched per event thread of the receiving member, so the events of the same order key are
+     * still processed in publishing order. This requires the same {@link #EVENT_THREAD_COUNT} on all members.
+     * <p>
+     * For the listeners implementing {@link com.hazelcast.map.listener.CoalescingListener}, only the last event
+     * of an entry is delivered from the events of the entry waiting in the same batch.
+     */
+    public static final HazelcastProperty EVENT_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.event.batching.enabled", false);
+
+    /**
+     * The maximum number of events in an event batch sent to a member. Has effect only when
+     * {@link #EVENT_BATCHING_ENABLED} is set.
+     */
+    public static final HazelcastProperty EVENT_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.event.batch.size", 100);
+
+    /**
+     * The period of sending the event batches which are not full yet. This is the maximum time an event waits
+     * in a batch before it is sent. Has effect only when {@link #EVENT_BATCHING_ENABLED} is set.
+     */
+    public static final HazelcastProperty EVENT_BATCH_FLUSH_INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.event.batch.flush.interval.millis", 10, MILLISECONDS);
+
 
     public static final HazelcastProperty HEALTH_MONITORING_LEVEL
             = new HazelcastProperty("hazelcast.health.monitoring.level", HealthMonitorLevel.SILENT.toString());
@@ -258,6 +288,18 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_LOAD_CHUNK_SIZE
             = new HazelcastProperty("hazelcast.map.load.chunk.size", 1000);
 
+    /**
+     * The maximum number of key chunks of a single partition's load that are
+     * loaded from the MapLoader in parallel. The chunk loads run on the
+     * {@link com.hazelcast.spi.ExecutionService#MAP_STORE_EXECUTOR}, whose pool
+     * size bounds the parallel loads of all partitions. The default of 1 loads
+     * the chunks of a partition one after another.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty MAP_LOAD_CHUNK_PARALLELISM
+            = new HazelcastProperty("hazelcast.map.load.chunk.parallelism", 1);
+
     /**
      * The delay until the first run of the {@link com.hazelcast.internal.cluster.impl.SplitBrainHandler}
      */
@@ -325,6 +367,16 @@ public final class GroupProperty {
     public static final HazelcastProperty SOCKET_BUFFER_DIRECT
             = new HazelcastProperty("hazelcast.socket.buffer.direct", false);
 
+    /**
+     * The maximum number of socket writes made for a connection in a single
+     * round of processing by its IO thread, as long as the socket accepts all
+     * the written bytes and more packets are pending. Higher values save
+     * selector round trips under many small operations; lower values are
+     * fairer to the other connections handled by the same IO thread.
+     */
+    public static final HazelcastProperty SOCKET_WRITE_SPIN_COUNT
+            = new HazelcastProperty("hazelcast.socket.write.spin.count", 4);
+
 
     /**
      * Overrides receive buffer size for connections opened by clients.
@@ -587,6 +639,61 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_LOAD_ALL_PUBLISHES_ADDED_EVENT
             = new HazelcastProperty("hazelcast.map.loadAll.publishes.added.event", false);
 
+    /**
+     * When enabled, {@link com.hazelcast.core.ReadOnly} entry processors executed on a single key
+     * are offloaded to the {@link com.hazelcast.spi.ExecutionService#OFFLOADABLE_EXECUTOR} even if
+     * they don't implement {@link com.hazelcast.core.Offloadable}. The partition thread then only
+     * fetches the value, so read-only processors on a hot partition run concurrently on several
+     * cores. Processors returning a backup processor and processors explicitly opting out of
+     * offloading with {@link com.hazelcast.core.Offloadable#NO_OFFLOADING} keep running on the
+     * partition thread.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty MAP_READONLY_ENTRY_PROCESSOR_OFFLOAD
+            = new HazelcastProperty("hazelcast.map.entry.processor.readonly.offload", false);
+
+    /**
+     * The directory in which members persist the entries of their IMap partitions in append-only logs, so a
+     * restarted member can restore its maps from local disk instead of reloading them from a MapStore. Every
+     * member uses a subdirectory named after its address, so members must keep their addresses across restarts.
+     * The logs of a map are restored in the background by every member when the map is first created after a full
+     * cluster restart; restored entries never overwrite entries written in the meantime. Members joining a running
+     * cluster delete their logs instead.
+     *
+     * Default: empty, persistence is disabled
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty MAP_PERSISTENCE_BASE_DIR
+            = new HazelcastProperty("hazelcast.map.persistence.base.dir", "");
+
+    /**
+     * The size of a segment file of the map persistence logs, in kilobytes.
+     */
+    public static final HazelcastProperty MAP_PERSISTENCE_SEGMENT_SIZE
+            = new HazelcastProperty("hazelcast.map.persistence.segment.size", 16 * 1024);
+
+    /**
+     * The percentage of overwritten and removed records in a segment of the map persistence logs above which the
+     * segment is compacted.
+     */
+    public static final HazelcastProperty MAP_PERSISTENCE_COMPACTION_GARBAGE_PERCENTAGE
+            = new HazelcastProperty("hazelcast.map.persistence.compaction.garbage.percentage", 50);
+
+    /**
+     * The interval of the map persistence task which compacts the logs and forces them to disk.
+     */
+    public static final HazelcastProperty MAP_PERSISTENCE_COMPACTION_INTERVAL_SECONDS
+            = new HazelcastProperty("hazelcast.map.persistence.compaction.interval.seconds", 1, SECONDS);
+
+    /**
+     * Members started within this many seconds after the cluster started take part in a full cluster start and
+     * restore their map persistence logs; members started later joined a running cluster and delete their logs.
+     */
+    public static final HazelcastProperty MAP_PERSISTENCE_FULL_START_WINDOW_SECONDS
+            = new HazelcastProperty("hazelcast.map.persistence.full.start.window.seconds", 300, SECONDS);
+
     public static final HazelcastProperty LOGGING_TYPE
             = new HazelcastProperty("hazelcast.logging.type", "jdk");
 
@@ -616,6 +723,47 @@ public final class GroupProperty {
             = new HazelcastProperty("hazelcast.partition.migration.timeout", 300, SECONDS);
     public static final HazelcastProperty PARTITION_FRAGMENTED_MIGRATION_ENABLED
             = new HazelcastProperty("hazelcast.partition.migration.fragments.enabled", true);
+    /**
+     * Enables streaming a single replica fragment in bounded-size chunks for services implementing
+     * {@link com.hazelcast.spi.ChunkedMigrationAwareService}. Has effect only when fragmented migration is enabled.
+     */
+    public static final HazelcastProperty PARTITION_CHUNKED_MIGRATION_ENABLED
+            = new HazelcastProperty("hazelcast.partition.migration.chunks.enabled", true);
+    /**
+     * Approximate maximum size in kilobytes of the data sent in a single migration chunk.
+     */
+    public static final HazelcastProperty PARTITION_CHUNKED_MAX_MIGRATION_SIZE
+            = new HazelcastProperty("hazelcast.partition.migration.chunks.max.size.kb", 16 * 1024);
+    /**
+     * Maximum number of partition migrations the master runs in parallel.
+     * <p>
+     * The migrations restoring backup redundancy are started before the others. A migration of a partition
+     * is started only after the previous one of the same partition has completed. When the cluster version
+     * is lower than 3.12, migrations are executed one at a time.
+     */
+    public static final HazelcastProperty PARTITION_MAX_PARALLEL_MIGRATIONS
+            = new HazelcastProperty("hazelcast.partition.max.parallel.migrations", 10);
+    /**
+     * Maximum number of parallel partition migrations a single member takes part in as the sender of the
+     * partition data and, separately, as the destination.
+     * <p>
+     * The partition data is sent by the owner of the partition, so a member owning many of the partitions to
+     * migrate does not get overloaded while the other members are idle.
+     */
+    public static final HazelcastProperty PARTITION_MAX_PARALLEL_MIGRATIONS_PER_MEMBER
+            = new HazelcastProperty("hazelcast.partition.max.parallel.migrations.per.member", 2);
+    /**
+     * Maximum rate in kilobytes per second of the migration data sent by a single member.
+     * Migrations are paced to stay within this budget to limit their impact on the regular traffic.
+     * Zero or a negative value means unlimited, which is the default, so the pacing is opt-in.
+     * <p>
+     * The budget is shared by all migrations the member sends data for in parallel, see
+     * {@link #PARTITION_MAX_PARALLEL_MIGRATIONS_PER_MEMBER}. A low budget lowers the impact on the regular
+     * traffic at the cost of a longer repartitioning, during which the backups of the migrating partitions
+     * may be missing.
+     */
+    public static final HazelcastProperty PARTITION_MIGRATION_MAX_BANDWIDTH
+            = new HazelcastProperty("hazelcast.partition.migration.max.bandwidth.kb.per.second", 0);
     public static final HazelcastProperty DISABLE_STALE_READ_ON_PARTITION_MIGRATION
             = new HazelcastProperty("hazelcast.partition.migration.stale.read.disabled", false);
 
@@ -694,6 +842,74 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Node-wide maximum size in bytes of the entries pending in write-behind
+     * queues of all maps. When an update would exceed it, the update fails with
+     * {@link com.hazelcast.map.ReachedMaxSizeException} until the map stores
+     * catch up. The size of an entry is the heap cost of its serialized key
+     * and value. Applies to both write-coalescing and non-coalescing queues.
+     * The default of 0 does not bound the size in bytes.
+     * <p>
+     * With the {@link com.hazelcast.config.InMemoryFormat#OBJECT} in-memory
+     * format and write coalescing, the queued entries reference the values of
+     * the records, which are not serialized. Only their keys are measured, so
+     * the memory used by their values is not bounded by this property. Disable
+     * write coalescing or use the {@code BINARY} format to bound it.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_MAX_BYTES
+            = new HazelcastProperty("hazelcast.map.write.behind.queue.max.bytes", 0);
+
+    /**
+     * The number of partition groups a write-behind flush of a map is split
+     * into. The groups are stored in parallel on the
+     * {@link com.hazelcast.spi.ExecutionService#MAP_STORE_EXECUTOR}; entries of
+     * a partition always stay in the same group, so their order is kept. The
+     * default of 1 stores all entries of a flush on a single thread.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_PARALLELISM
+            = new HazelcastProperty("hazelcast.map.write.behind.parallelism", 1);
+
+    /**
+     * Ringbuffers with at least this capacity, including the ones backing
+     * event journals and reliable topics, keep their items serialized in
+     * off-heap pages instead of an on-heap array. Only an index of the item
+     * offsets is kept on heap, so large ringbuffers do not keep millions of
+     * small objects alive. Reading an item copies it to the heap and, for the
+     * {@link com.hazelcast.config.InMemoryFormat#OBJECT} in-memory format,
+     * deserializes it. The default of 0 disables the off-heap storage.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty RINGBUFFER_OFF_HEAP_MIN_CAPACITY
+            = new HazelcastProperty("hazelcast.ringbuffer.offheap.min.capacity", 0);
+
+    /**
+     * The size in bytes of the off-heap pages of the ringbuffers enabled by
+     * {@link #RINGBUFFER_OFF_HEAP_MIN_CAPACITY}. Items larger than a page are
+     * stored in a dedicated page.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty RINGBUFFER_OFF_HEAP_PAGE_SIZE
+            = new HazelcastProperty("hazelcast.ringbuffer.offheap.page.size", 1 << 20);
+
+    /**
+     * The directory to which the off-heap ringbuffers spill their full pages.
+     * A full page is copied to a memory-mapped file and its off-heap memory is
+     * reused for the next page, so only the page being written stays in
+     * off-heap memory and the operating system can page out the older items.
+     * The files are deleted as soon as they are mapped. The default of empty
+     * keeps all pages in off-heap memory.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty RINGBUFFER_OFF_HEAP_OVERFLOW_DIR
+            = new HazelcastProperty("hazelcast.ringbuffer.offheap.overflow.dir", "");
+
     /**
      * Defines cache invalidation event batch sending is enabled or not.
      */
@@ -808,6 +1024,8 @@ public final class GroupProperty {
      * When you have a large dataset and/or slow predicate you may benefit from parallel predicate evaluations.
      * Set to true if you are using slow predicates or have > 100,000s entries per member.
      * <p/>
+     * When enabled, large results of indexed queries are also projected and serialized in parallel.
+     * <p/>
      * The default is false.
      */
     public static final HazelcastProperty QUERY_PREDICATE_PARALLEL_EVALUATION
@@ -966,6 +1184,16 @@ public final class GroupProperty {
             = new HazelcastProperty("hazelcast.serialization.version",
             BuildInfoProvider.getBuildInfo().getSerializationVersion());
 
+    /**
+     * The maximum number of bytes retained in the pooled serialization output
+     * buffers of a thread. Buffers which have grown beyond it are shrunk or
+     * dropped when returned to the pool. Defaults to 2 MB.
+     *
+     * @since 3.12
+     */
+    public static final HazelcastProperty SERIALIZATION_BUFFER_POOL_MAX_RETAINED_BYTES
+            = new HazelcastProperty("hazelcast.serialization.bufferpool.max.retained.bytes", 2 * 1024 * 1024);
+
     /**
      * Override cluster version to use while node is not yet member of a cluster. The cluster version assumed before joining
      * a cluster may affect the serialization format of cluster discovery & join operations and its compatibility with members
@@ -18,6 +18,7 @@ package com.hazelcast.wan.merkletree;
 
 import com.hazelcast.util.collection.OAHashSet;
 import com.hazelcast.util.function.Consumer;
+import com.hazelcast.util.function.Function;
 
 import java.util.Arrays;
 
@@ -152,6 +153,22 @@ public class ArrayMerkleTree extends AbstractMerkleTreeView implements MerkleTre
         updateBranch(leafOrder);
     }
 
+    @Override
+    public int getLeafOrder(Object key) {
+        return MerkleTreeUtil.getLeafOrderForHash(key.hashCode(), leafLevel);
+    }
+
+    @Override
+    public void updateLeaf(int leafOrder, Function<Object, Integer> valueHashFunction) {
+        int leafNewHash = 0;
+        for (Object key : leafKeys[leafOrder - leafLevelOrder]) {
+            leafNewHash = MerkleTreeUtil.addHash(leafNewHash, valueHashFunction.apply(key));
+        }
+
+        setNodeHash(leafOrder, leafNewHash);
+        updateBranch(leafOrder);
+    }
+
     @Override
     public int getNodeHash(int nodeOrder) {
         return tree[nodeOrder];
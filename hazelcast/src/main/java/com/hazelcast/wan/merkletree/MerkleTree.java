@@ -17,6 +17,7 @@
 package com.hazelcast.wan.merkletree;
 
 import com.hazelcast.util.function.Consumer;
+import com.hazelcast.util.function.Function;
 
 /**
  * Interface defining methods for Merkle tree implementations
@@ -68,6 +69,27 @@ public interface MerkleTree extends MerkleTreeView {
      */
     void updateRemove(Object key, Object removedValue);
 
+    /**
+     * Returns the order of the leaf the given key belongs to
+     *
+     * @param key The key
+     * @return the breadth-first order of the leaf of the key
+     */
+    int getLeafOrder(Object key);
+
+    /**
+     * Recalculates the hash of a leaf from the hashes of the values of
+     * its keys and updates the hashes of the nodes above the leaf.
+     * <p>
+     * Lets the owner of the tree update a leaf when the previous value
+     * of a replaced or removed entry is not known anymore.
+     *
+     * @param leafOrder         The order of the leaf
+     * @param valueHashFunction Returns the hash of the current value of
+     *                          a key of the leaf
+     */
+    void updateLeaf(int leafOrder, Function<Object, Integer> valueHashFunction);
+
     /**
      * Performs the given action for each key of the specified node
      * until all elements have been processed or the action throws an
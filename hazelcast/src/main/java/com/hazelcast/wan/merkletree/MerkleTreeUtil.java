@@ -376,4 +376,26 @@ public final class MerkleTreeUtil {
         return new RemoteMerkleTreeView(leaves, depth);
     }
 
+    /**
+     * Creates a {@link RemoteMerkleTreeView} from a snapshot of the
+     * hashes of the leaves of the provided local Merkle tree. The
+     * returned view is not affected by later updates of the tree, so it
+     * can be sent to other members.
+     *
+     * @param merkleTree The local Merkle tree
+     * @return the view representing the snapshot of the local tree
+     */
+    public static RemoteMerkleTreeView createRemoteMerkleTreeView(MerkleTree merkleTree) {
+        int depth = merkleTree.depth();
+        int leafLevel = depth - 1;
+        int numberOfLeaves = getNodesOnLevel(leafLevel);
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+        int[] leaves = new int[numberOfLeaves];
+        for (int i = 0; i < numberOfLeaves; i++) {
+            leaves[i] = merkleTree.getNodeHash(leftMostLeaf + i);
+        }
+
+        return new RemoteMerkleTreeView(leaves, depth);
+    }
+
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.aggregation.impl.BatchAccumulation;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.hazelcast.aggregation.TestSamples.createEntryWithValue;
+import static com.hazelcast.aggregation.TestSamples.createExtractableEntryWithValue;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BatchAccumulationTest {
+
+    private static final int VALUE_COUNT = 5000;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Random random = new Random();
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testLongAggregators() {
+        List<Map.Entry> entries = new ArrayList<Map.Entry>();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            entries.add(createEntryWithValue((long) random.nextInt(100)));
+        }
+
+        assertSameResult(Aggregators.longSum(), entries);
+        assertSameResult(Aggregators.longAvg(), entries);
+        assertSameResult(Aggregators.count(), entries);
+        assertSameResult(Aggregators.distinct(), entries);
+        assertSameResult(Aggregators.comparableMin(), entries);
+        assertSameResult(Aggregators.comparableMax(), entries);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testIntegerAggregators() {
+        List<Map.Entry> entries = new ArrayList<Map.Entry>();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            entries.add(createEntryWithValue(random.nextInt()));
+        }
+
+        assertSameResult(Aggregators.integerSum(), entries);
+        assertSameResult(Aggregators.integerAvg(), entries);
+        assertSameResult(Aggregators.count(), entries);
+        assertSameResult(Aggregators.distinct(), entries);
+        assertSameResult(Aggregators.comparableMin(), entries);
+        assertSameResult(Aggregators.comparableMax(), entries);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testDoubleAggregators() {
+        List<Map.Entry> entries = new ArrayList<Map.Entry>();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            entries.add(createEntryWithValue(random.nextDouble() * 1000));
+        }
+        entries.add(createEntryWithValue(Double.NaN));
+        entries.add(createEntryWithValue(-0.0d));
+        entries.add(createEntryWithValue(0.0d));
+
+        assertSameResult(Aggregators.doubleSum(), entries);
+        assertSameResult(Aggregators.doubleAvg(), entries);
+        assertSameResult(Aggregators.count(), entries);
+        assertSameResult(Aggregators.distinct(), entries);
+        assertSameResult(Aggregators.comparableMin(), entries);
+        assertSameResult(Aggregators.comparableMax(), entries);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testAttributePath() {
+        List<Map.Entry> entries = new ArrayList<Map.Entry>();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            entries.add(createExtractableEntryWithValue(new ValueContainer(random.nextLong()), ss));
+        }
+
+        assertSameResult(Aggregators.longSum("longValue"), entries);
+        assertSameResult(Aggregators.longAvg("longValue"), entries);
+        assertSameResult(Aggregators.count("longValue"), entries);
+        assertSameResult(Aggregators.comparableMax("longValue"), entries);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testUnbatchableValuesInBetween() {
+        List<Map.Entry> entries = new ArrayList<Map.Entry>();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            switch (i % 7) {
+                case 0:
+                    entries.add(createEntryWithValue(null));
+                    break;
+                case 1:
+                    entries.add(createEntryWithValue("value" + i % 10));
+                    break;
+                case 2:
+                    entries.add(createEntryWithValue((double) (i % 10)));
+                    break;
+                default:
+                    entries.add(createEntryWithValue((long) (i % 10)));
+            }
+        }
+
+        assertSameResult(Aggregators.count(), entries);
+        assertSameResult(Aggregators.distinct(), entries);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void assertSameResult(Aggregator aggregator, List<Map.Entry> entries) {
+        Aggregator expected = clone(aggregator);
+        for (Map.Entry entry : entries) {
+            expected.accumulate(entry);
+        }
+
+        Aggregator actual = clone(aggregator);
+        BatchAccumulation.accumulate(actual, entries);
+
+        assertEquals(aggregator.getClass().getSimpleName(), expected.aggregate(), actual.aggregate());
+    }
+
+    private static Aggregator clone(Aggregator aggregator) {
+        InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+        return ss.toObject(ss.toData(aggregator));
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NetworkConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.HazelcastTestSupport;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * This is no JUnit test.
+ * <p>
+ * Compares the batched accumulation of the built-in numeric aggregators with
+ * the entry-by-entry accumulation, which is forced by wrapping the aggregators
+ * into {@link EntryByEntryAggregator}.
+ */
+public class MapNumericAggregationBenchmark extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "measurements";
+
+    private static final int ENTRY_COUNT = 5000000;
+
+    public static void main(String[] args) throws Exception {
+        HazelcastInstance hazelcastInstance = buildCluster(1);
+
+        try {
+            System.out.println("Filling map...");
+            fillMapWithData(hazelcastInstance);
+            IMap<Long, Measurement> map = hazelcastInstance.getMap(MAP_NAME);
+
+            System.out.println("Garbage collecting...");
+            for (int i = 0; i < 10; i++) {
+                System.gc();
+            }
+
+            for (int i = 0; i < 10; i++) {
+                run(map, "longSum", Aggregators.<Map.Entry<Long, Measurement>>longSum("count"));
+                run(map, "longMax", Aggregators.<Map.Entry<Long, Measurement>, Long>comparableMax("count"));
+                run(map, "doubleAvg", Aggregators.<Map.Entry<Long, Measurement>>doubleAvg("value"));
+                run(map, "doubleSum", Aggregators.<Map.Entry<Long, Measurement>>doubleSum("value"));
+                System.err.println("---------------------------------------------");
+            }
+        } finally {
+            Hazelcast.shutdownAll();
+        }
+    }
+
+    private static <R> void run(IMap<Long, Measurement> map, String name, Aggregator<Map.Entry<Long, Measurement>, R> aggregator) {
+        long start = System.currentTimeMillis();
+        R batched = map.aggregate(aggregator);
+        long batchedTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        R entryByEntry = map.aggregate(new EntryByEntryAggregator<Map.Entry<Long, Measurement>, R>(aggregator));
+        long entryByEntryTime = System.currentTimeMillis() - start;
+
+        System.err.println(name + ": batched=" + batchedTime + "ms, entryByEntry=" + entryByEntryTime + "ms, results="
+                + batched + "/" + entryByEntry);
+        System.gc();
+    }
+
+    private static HazelcastInstance buildCluster(int memberCount) {
+        Config config = new Config();
+        NetworkConfig networkConfig = config.getNetworkConfig();
+        networkConfig.getJoin().getMulticastConfig().setEnabled(false);
+        networkConfig.getJoin().getTcpIpConfig().setEnabled(true);
+        networkConfig.getJoin().getTcpIpConfig().setMembers(singletonList("127.0.0.1"));
+
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.setInMemoryFormat(InMemoryFormat.OBJECT);
+        mapConfig.setName(MAP_NAME);
+        mapConfig.setBackupCount(0);
+        config.addMapConfig(mapConfig);
+
+        config.setProperty("hazelcast.aggregation.accumulation.parallel.evaluation", "true");
+
+        HazelcastInstance[] hazelcastInstances = new HazelcastInstance[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            hazelcastInstances[i] = Hazelcast.newHazelcastInstance(config);
+        }
+        return hazelcastInstances[0];
+    }
+
+    private static void fillMapWithData(HazelcastInstance hazelcastInstance) {
+        IMap<Long, Measurement> map = hazelcastInstance.getMap(MAP_NAME);
+        int batchSize = 10000;
+        Map<Long, Measurement> batch = new HashMap<Long, Measurement>(batchSize);
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            batch.put(i, new Measurement(i % 1000, i * 0.5d));
+            if (batch.size() == batchSize) {
+                map.putAll(batch);
+                batch.clear();
+            }
+        }
+        map.putAll(batch);
+    }
+
+    public static class Measurement implements Serializable {
+
+        private long count;
+        private double value;
+
+        public Measurement(long count, double value) {
+            this.count = count;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Hides the {@link com.hazelcast.aggregation.impl.BatchAggregator} nature
+     * of the delegate, so the entries are accumulated one by one.
+     */
+    private static class EntryByEntryAggregator<I, R> extends Aggregator<I, R> {
+
+        private Aggregator<I, R> delegate;
+
+        EntryByEntryAggregator(Aggregator<I, R> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void accumulate(I entry) {
+            delegate.accumulate(entry);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void combine(Aggregator aggregator) {
+            delegate.combine(((EntryByEntryAggregator) aggregator).delegate);
+        }
+
+        @Override
+        public R aggregate() {
+            return delegate.aggregate();
+        }
+    }
+}
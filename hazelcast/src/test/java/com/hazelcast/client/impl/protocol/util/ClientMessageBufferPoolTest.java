@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.client.impl.protocol.util.ClientMessageBufferPool.MAX_POOLED_SIZE;
+import static com.hazelcast.client.impl.protocol.util.ClientMessageBufferPool.MIN_POOLED_SIZE;
+import static com.hazelcast.client.impl.protocol.util.ClientMessageBufferPool.SLOTS_PER_SIZE_CLASS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMessageBufferPoolTest {
+
+    private final ClientMessageBufferPool pool = new ClientMessageBufferPool();
+
+    @Test
+    public void acquire_roundsUpToSizeClass() {
+        assertEquals(MIN_POOLED_SIZE, pool.acquire(1).length);
+        assertEquals(128, pool.acquire(100).length);
+        assertEquals(128, pool.acquire(128).length);
+        assertEquals(MAX_POOLED_SIZE, pool.acquire(MAX_POOLED_SIZE).length);
+    }
+
+    @Test
+    public void acquire_whenTooLarge() {
+        assertNull(pool.acquire(MAX_POOLED_SIZE + 1));
+    }
+
+    @Test
+    public void acquire_returnsReleasedArray() {
+        byte[] array = pool.acquire(100);
+        assertTrue(pool.release(array));
+
+        assertSame(array, pool.acquire(120));
+        assertNotSame(array, pool.acquire(120));
+    }
+
+    @Test
+    public void acquire_doesNotMixSizeClasses() {
+        byte[] array = pool.acquire(100);
+        pool.release(array);
+
+        assertEquals(256, pool.acquire(200).length);
+        assertSame(array, pool.acquire(100));
+    }
+
+    @Test
+    public void release_whenNotPoolable() {
+        assertFalse(pool.release(new byte[100]));
+        assertFalse(pool.release(new byte[MIN_POOLED_SIZE / 2]));
+        assertFalse(pool.release(new byte[MAX_POOLED_SIZE * 2]));
+    }
+
+    @Test
+    public void release_whenFull() {
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS; i++) {
+            assertTrue(pool.release(new byte[MIN_POOLED_SIZE]));
+        }
+        assertFalse(pool.release(new byte[MIN_POOLED_SIZE]));
+    }
+}
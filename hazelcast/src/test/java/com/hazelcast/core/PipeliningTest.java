@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+import com.hazelcast.map.AbstractEntryProcessor;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestThread;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.RootCauseMatcher;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PipeliningTest extends HazelcastTestSupport {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private HazelcastInstance hz;
+
+    @Before
+    public void setup() {
+        hz = createHazelcastInstance();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_whenZeroDepth() {
+        new Pipelining<String>(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() throws InterruptedException {
+        Pipelining<String> pipelining = new Pipelining<String>(1);
+        pipelining.add(null);
+    }
+
+    @Test
+    public void testInterrupt() throws Exception {
+        final Pipelining<String> pipelining = new Pipelining<String>(1);
+        pipelining.add(newFuture());
+
+        TestThread t = new TestThread() {
+            @Override
+            public void doRun() throws Throwable {
+                pipelining.add(newFuture());
+            }
+        };
+        t.start();
+        t.interrupt();
+        t.assertFailsEventually(InterruptedException.class);
+    }
+
+    @Test
+    public void test() throws Exception {
+        IMap<Integer, String> map = hz.getMap("map");
+        int items = 10000;
+        for (int k = 0; k < items; k++) {
+            map.put(k, "" + k);
+        }
+
+        Pipelining<String> pipelining = new Pipelining<String>(1);
+        for (int k = 0; k < items; k++) {
+            pipelining.add(map.getAsync(k));
+        }
+
+        List<String> results = pipelining.results();
+        assertEquals(items, results.size());
+        for (int k = 0; k < items; k++) {
+            assertEquals("" + k, results.get(k));
+        }
+    }
+
+    @Test
+    public void results_whenRequestFailed() throws Exception {
+        IMap<Integer, String> map = hz.getMap("map");
+        Pipelining<Object> pipelining = new Pipelining<Object>(1);
+        pipelining.add(map.submitToKey(1, new FailingEntryProcessor()));
+
+        expectedException.expect(new RootCauseMatcher(IllegalStateException.class));
+        pipelining.results();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ICompletableFuture<String> newFuture() {
+        return mock(ICompletableFuture.class);
+    }
+
+    private static class FailingEntryProcessor extends AbstractEntryProcessor<Integer, String> {
+        @Override
+        public Object process(Map.Entry<Integer, String> entry) {
+            throw new IllegalStateException();
+        }
+    }
+}
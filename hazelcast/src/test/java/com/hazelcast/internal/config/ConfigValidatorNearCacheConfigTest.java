@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.config;
 
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -49,6 +50,14 @@ public class ConfigValidatorNearCacheConfigTest extends HazelcastTestSupport {
         checkNearCacheConfig(MAP_NAME, getNearCacheConfig(OBJECT), null, false);
     }
 
+    @Test
+    public void checkNearCacheConfig_withTinyLfuEvictionPolicy_BINARY() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(BINARY);
+        nearCacheConfig.getEvictionConfig().setEvictionPolicy(EvictionPolicy.TINY_LFU);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
     /**
      * Not supported in open source version, so test is expected to throw exception.
      */
@@ -20,6 +20,7 @@ import com.hazelcast.cache.impl.merge.policy.CacheMergePolicyProvider;
 import com.hazelcast.config.CacheSimpleConfig;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.NativeMemoryConfig;
@@ -105,6 +106,14 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkMapConfig(mapConfig, mapMergePolicyProvider);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void checkMapConfig_withTinyLfuEvictionPolicy() {
+        MapConfig mapConfig = getMapConfig(BINARY)
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU);
+
+        checkMapConfig(mapConfig, mapMergePolicyProvider);
+    }
+
     private MapConfig getMapConfig(InMemoryFormat inMemoryFormat) {
         return new MapConfig()
                 .setInMemoryFormat(inMemoryFormat);
@@ -121,6 +130,17 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkCacheConfig(cacheSimpleConfig, cacheMergePolicyProvider);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void checkCacheConfig_withTinyLfuEvictionPolicy() {
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU);
+        CacheSimpleConfig cacheSimpleConfig = new CacheSimpleConfig()
+                .setInMemoryFormat(BINARY)
+                .setEvictionConfig(evictionConfig);
+
+        checkCacheConfig(cacheSimpleConfig, cacheMergePolicyProvider);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void checkCacheConfig_withEntryCountMaxSizePolicy_NATIVE() {
         EvictionConfig evictionConfig = new EvictionConfig()
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.invalidation;
+
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark for the invalidation metadata handling on the member side
+ * ({@link MetaDataGenerator}) and the Near Cache side ({@link RepairingHandler}
+ * and {@link StaleReadDetectorImpl}).
+ * <p>
+ * The invalidations are applied with the local UUID as source, so only the
+ * metadata bookkeeping is measured, not the Near Cache itself.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@Fork(value = 2)
+@State(Scope.Benchmark)
+public class InvalidationMetaDataBenchmark {
+
+    private static final String LOCAL_UUID = "local";
+    private static final int KEY_COUNT = 1 << 14;
+    private static final int KEY_MASK = KEY_COUNT - 1;
+
+    @Param({"271", "2039"})
+    private int partitionCount;
+
+    private MetaDataGenerator metaDataGenerator;
+    private RepairingHandler repairingHandler;
+    private StaleReadDetector staleReadDetector;
+
+    private Data[] keys;
+    private int[] partitionIds;
+    private UUID[] partitionUuids;
+    private long[] sequences;
+    private NearCacheRecord[] records;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        MinimalPartitionService partitionService = new RepairingHandlerTest.TestPartitionService(partitionCount);
+
+        metaDataGenerator = new MetaDataGenerator(partitionCount);
+        repairingHandler = new RepairingHandler(Logger.getLogger(RepairingHandler.class), LOCAL_UUID, "benchmark",
+                mock(NearCache.class), serializationService, partitionService);
+        staleReadDetector = new StaleReadDetectorImpl(repairingHandler, partitionService);
+
+        partitionUuids = new UUID[partitionCount];
+        sequences = new long[partitionCount];
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            partitionUuids[partitionId] = metaDataGenerator.getOrCreateUuid(partitionId);
+            repairingHandler.initUuid(partitionId, partitionUuids[partitionId]);
+        }
+
+        keys = new Data[KEY_COUNT];
+        partitionIds = new int[KEY_COUNT];
+        records = new NearCacheRecord[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = serializationService.toData(i);
+            partitionIds[i] = partitionService.getPartitionId(keys[i]);
+
+            NearCacheRecord record = new NearCacheDataRecord(keys[i], 0, -1);
+            record.setPartitionId(partitionIds[i]);
+            record.setUuid(partitionUuids[partitionIds[i]]);
+            records[i] = record;
+        }
+    }
+
+    @Benchmark
+    public long memberSide_generateMetaData() {
+        int partitionId = partitionIds[nextIndex()];
+        metaDataGenerator.getOrCreateUuid(partitionId);
+        return metaDataGenerator.nextSequence("benchmark", partitionId);
+    }
+
+    @Benchmark
+    public void nearCacheSide_handleInvalidation() {
+        int i = nextIndex();
+        int partitionId = partitionIds[i];
+        repairingHandler.handle(keys[i], LOCAL_UUID, partitionUuids[partitionId], ++sequences[partitionId]);
+    }
+
+    @Benchmark
+    public boolean nearCacheSide_isStaleRead() {
+        int i = nextIndex();
+        return staleReadDetector.isStaleRead(keys[i], records[i]);
+    }
+
+    private int nextIndex() {
+        index = (index + 1) & KEY_MASK;
+        return index;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(InvalidationMetaDataBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
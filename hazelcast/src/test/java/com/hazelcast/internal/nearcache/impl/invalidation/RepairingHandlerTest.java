@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.invalidation;
+
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.UUID;
+
+import static com.hazelcast.util.HashUtil.hashToIndex;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class RepairingHandlerTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 271;
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final MinimalPartitionService partitionService = new TestPartitionService(PARTITION_COUNT);
+
+    private NearCache nearCache;
+    private RepairingHandler handler;
+
+    @Before
+    public void setUp() {
+        nearCache = mock(NearCache.class);
+        handler = new RepairingHandler(Logger.getLogger(RepairingHandler.class), "local", "test", nearCache,
+                serializationService, partitionService);
+    }
+
+    @Test
+    public void testHandle_invalidatesKey_andUpdatesMetaDataOfKeyPartition() {
+        Data key = serializationService.toData(42);
+        int partitionId = partitionService.getPartitionId(key);
+        UUID partitionUuid = UUID.randomUUID();
+
+        handler.handle(key, "remote", partitionUuid, 1);
+
+        verify(nearCache).invalidate(42);
+        MetaDataContainer metaData = handler.getMetaDataContainer(partitionId);
+        assertEquals(partitionUuid, metaData.getUuid());
+        assertEquals(partitionUuid, handler.getUuid(partitionId));
+        assertEquals(1, metaData.getSequence());
+        assertNull(handler.getUuid((partitionId + 1) % PARTITION_COUNT));
+        assertEquals(0, handler.getMetaDataContainer((partitionId + 1) % PARTITION_COUNT).getSequence());
+    }
+
+    @Test
+    public void testCheckOrRepairSequence_countsMissedSequences() {
+        handler.checkOrRepairSequence(5, 1, false);
+        handler.checkOrRepairSequence(5, 4, false);
+        handler.checkOrRepairSequence(5, 10, true);
+
+        MetaDataContainer metaData = handler.getMetaDataContainer(5);
+        assertEquals(10, metaData.getSequence());
+        assertEquals(2 + 6, metaData.getMissedSequenceCount());
+    }
+
+    @Test
+    public void testCheckOrRepairUuid_resetsSequences_whenUuidChanges() {
+        handler.checkOrRepairUuid(7, UUID.randomUUID());
+        handler.checkOrRepairSequence(7, 3, false);
+        MetaDataContainer metaData = handler.getMetaDataContainer(7);
+        handler.updateLastKnownStaleSequence(metaData, 7);
+        assertEquals(3, handler.getStaleSequence(7));
+
+        UUID newUuid = UUID.randomUUID();
+        handler.checkOrRepairUuid(7, newUuid);
+
+        assertEquals(newUuid, metaData.getUuid());
+        assertEquals(0, metaData.getSequence());
+        assertEquals(0, metaData.getStaleSequence());
+    }
+
+    @Test
+    public void testMetaDataContainer_isViewOnHandlerMetaData() {
+        MetaDataContainer metaData = handler.getMetaDataContainer(3);
+        metaData.setSequence(12);
+        metaData.addAndGetMissedSequenceCount(2);
+
+        assertEquals(12, handler.getMetaDataContainer(3).getSequence());
+        assertEquals(2, handler.getMetaDataContainer(3).getMissedSequenceCount());
+    }
+
+    @Test
+    public void testMetaDataGenerator_getOrCreateUuid() {
+        MetaDataGenerator generator = new MetaDataGenerator(PARTITION_COUNT);
+        assertNull(generator.getUuidOrNull(1));
+
+        UUID uuid = generator.getOrCreateUuid(1);
+
+        assertEquals(uuid, generator.getOrCreateUuid(1));
+        assertEquals(uuid, generator.getUuidOrNull(1));
+        generator.removeUuidAndSequence(1);
+        assertNull(generator.getUuidOrNull(1));
+    }
+
+    static class TestPartitionService implements MinimalPartitionService {
+
+        private final int partitionCount;
+
+        TestPartitionService(int partitionCount) {
+            this.partitionCount = partitionCount;
+        }
+
+        @Override
+        public int getPartitionId(Data key) {
+            return hashToIndex(key.getPartitionHash(), partitionCount);
+        }
+
+        @Override
+        public int getPartitionId(Object key) {
+            return hashToIndex(key.hashCode(), partitionCount);
+        }
+
+        @Override
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.hazelcast.nio.IOUtil.delete;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCachePreloaderTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 1000;
+    private static final int LARGE_VALUE_SIZE = 4096;
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final UUID partitionUuid = UUID.randomUUID();
+
+    private File directory;
+    private NearCacheStatsImpl nearCacheStats;
+    private NearCachePreloader<Integer> preloader;
+    private DataStructureAdapter<Object, ?> adapter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        directory = new File(randomName());
+        assertTrue(directory.mkdirs());
+
+        NearCachePreloaderConfig preloaderConfig = new NearCachePreloaderConfig(true, directory.getAbsolutePath());
+        nearCacheStats = new NearCacheStatsImpl();
+        preloader = new NearCachePreloader<Integer>("test", preloaderConfig, nearCacheStats, serializationService);
+        adapter = mock(DataStructureAdapter.class);
+    }
+
+    @After
+    public void tearDown() {
+        preloader.destroy();
+        delete(directory);
+    }
+
+    @Test
+    public void testLoadKeys_withStoredKeys_fetchesAllKeys() {
+        preloader.storeKeys(createRecords(KEY_COUNT, 1).keySet().iterator());
+        RecordingSnapshotConsumer consumer = new RecordingSnapshotConsumer(true);
+
+        preloader.loadKeys(adapter, consumer, null);
+
+        assertEquals(0, consumer.restoredKeys.size());
+        assertEquals(KEY_COUNT, getFetchedKeys().size());
+    }
+
+    @Test
+    public void testLoadKeys_withStoredEntries_restoresAllEntries() {
+        Map<Integer, NearCacheRecord> records = createRecords(KEY_COUNT, 1);
+        preloader.storeEntries(records.entrySet().iterator());
+        RecordingSnapshotConsumer consumer = new RecordingSnapshotConsumer(true);
+
+        preloader.loadKeys(adapter, consumer, null);
+
+        assertEquals(KEY_COUNT, nearCacheStats.getLastPersistenceKeyCount());
+        assertEquals(records.keySet(), consumer.restoredKeys.keySet());
+        verify(adapter, never()).getAll(anySetOf(Object.class));
+    }
+
+    @Test
+    public void testLoadKeys_withStoredEntries_fetchesRejectedEntries() {
+        preloader.storeEntries(createRecords(KEY_COUNT, 1).entrySet().iterator());
+        RecordingSnapshotConsumer consumer = new RecordingSnapshotConsumer(false);
+
+        preloader.loadKeys(adapter, consumer, null);
+
+        assertEquals(KEY_COUNT, consumer.offeredKeys.size());
+        assertEquals(KEY_COUNT, getFetchedKeys().size());
+    }
+
+    @Test
+    public void testLoadKeys_withStoredEntries_withoutSnapshotConsumer() {
+        preloader.storeEntries(createRecords(KEY_COUNT, 1).entrySet().iterator());
+
+        preloader.loadKeys(adapter);
+
+        assertEquals(KEY_COUNT, getFetchedKeys().size());
+    }
+
+    @Test
+    public void testLoadKeys_withLargeSnapshot_restoresEachEntryOnce() {
+        // large enough to be split into multiple ranges on a multi-core machine
+        int keyCount = 2000;
+        Map<Integer, NearCacheRecord> records = createRecords(keyCount, LARGE_VALUE_SIZE);
+        preloader.storeEntries(records.entrySet().iterator());
+        RecordingSnapshotConsumer consumer = new RecordingSnapshotConsumer(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            preloader.loadKeys(adapter, consumer, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(records.keySet(), consumer.restoredKeys.keySet());
+        for (Map.Entry<Integer, Data> entry : consumer.restoredKeys.entrySet()) {
+            assertEquals(records.get(entry.getKey()).getValue(), entry.getValue());
+        }
+    }
+
+    private Map<Integer, NearCacheRecord> createRecords(int keyCount, int valueSize) {
+        Map<Integer, NearCacheRecord> records = new LinkedHashMap<Integer, NearCacheRecord>();
+        for (int i = 0; i < keyCount; i++) {
+            Data value = serializationService.toData(new byte[valueSize]);
+            NearCacheRecord record = new NearCacheDataRecord(value, 0, -1);
+            record.setPartitionId(i % 271);
+            record.setUuid(partitionUuid);
+            record.setInvalidationSequence(i);
+            records.put(i, record);
+        }
+        return records;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Object> getFetchedKeys() {
+        ArgumentCaptor<Set> captor = ArgumentCaptor.forClass(Set.class);
+        verify(adapter, atLeastOnce()).getAll(captor.capture());
+
+        Set<Object> fetchedKeys = new HashSet<Object>();
+        for (Set keys : captor.getAllValues()) {
+            fetchedKeys.addAll(keys);
+        }
+        return fetchedKeys;
+    }
+
+    private class RecordingSnapshotConsumer implements NearCacheSnapshotConsumer {
+
+        private final ConcurrentMap<Integer, Data> offeredKeys = new ConcurrentHashMap<Integer, Data>();
+        private final ConcurrentMap<Integer, Data> restoredKeys = new ConcurrentHashMap<Integer, Data>();
+        private final boolean accept;
+
+        RecordingSnapshotConsumer(boolean accept) {
+            this.accept = accept;
+        }
+
+        @Override
+        public boolean restore(Data key, Data value, int partitionId, UUID uuid, long sequence) {
+            Integer intKey = serializationService.toObject(key);
+            assertEquals(intKey % 271, partitionId);
+            assertEquals(partitionUuid, uuid);
+            assertEquals((long) intKey, sequence);
+
+            offeredKeys.put(intKey, value);
+            if (accept) {
+                restoredKeys.put(intKey, value);
+            }
+            return accept;
+        }
+    }
+}
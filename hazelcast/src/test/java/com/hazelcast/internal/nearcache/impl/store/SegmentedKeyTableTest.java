@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SegmentedKeyTableTest {
+
+    private static final int SEGMENT_COUNT = 3;
+
+    private final SegmentedKeyTable<Key> table = new SegmentedKeyTable<Key>(SEGMENT_COUNT);
+
+    @Test
+    public void removeEldest_returnsKeysInInsertionOrder() {
+        table.add(new Key(1), 0);
+        table.add(new Key(2), 0);
+        table.add(new Key(3), 1);
+
+        assertEquals(new Key(1), table.removeEldest(0));
+        assertEquals(new Key(2), table.removeEldest(0));
+        assertNull(table.removeEldest(0));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void moveToTail_makesKeyMostRecentlyUsed() {
+        table.add(new Key(1), 0);
+        table.add(new Key(2), 0);
+
+        table.moveToTail(table.find(new Key(1)), 0);
+        table.moveToTail(table.find(new Key(2)), 1);
+
+        assertEquals(1, table.segmentAt(table.find(new Key(2))));
+        assertEquals(new Key(1), table.removeEldest(0));
+        assertEquals(new Key(2), table.removeEldest(1));
+    }
+
+    @Test
+    public void clear_removesAllKeys() {
+        for (int i = 0; i < 100; i++) {
+            table.add(new Key(i), i % SEGMENT_COUNT);
+        }
+
+        table.clear();
+
+        assertEquals(0, table.size());
+        assertEquals(SegmentedKeyTable.NONE, table.find(new Key(1)));
+    }
+
+    @Test
+    public void randomOperations_matchLinkedHashSets_whenHashesCollide() {
+        Random random = new Random(42);
+        List<Set<Key>> expected = new ArrayList<Set<Key>>();
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            expected.add(new LinkedHashSet<Key>());
+        }
+
+        for (int i = 0; i < 100000; i++) {
+            Key key = new Key(random.nextInt(500));
+            int segment = random.nextInt(SEGMENT_COUNT);
+            int node = table.find(key);
+            int expectedSegment = segmentOf(expected, key);
+            assertEquals(expectedSegment, node == SegmentedKeyTable.NONE ? -1 : table.segmentAt(node));
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (node == SegmentedKeyTable.NONE) {
+                        table.add(key, segment);
+                        expected.get(segment).add(key);
+                    }
+                    break;
+                case 1:
+                    assertEquals(node != SegmentedKeyTable.NONE, table.remove(key));
+                    expected.get(Math.max(expectedSegment, 0)).remove(key);
+                    break;
+                case 2:
+                    if (node != SegmentedKeyTable.NONE) {
+                        table.moveToTail(node, segment);
+                        expected.get(expectedSegment).remove(key);
+                        expected.get(segment).add(key);
+                    }
+                    break;
+                default:
+                    Set<Key> keys = expected.get(segment);
+                    Key eldest = keys.isEmpty() ? null : keys.iterator().next();
+                    assertEquals(eldest, table.removeEldest(segment));
+                    keys.remove(eldest);
+                    break;
+            }
+        }
+
+        for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+            assertEquals(expected.get(segment).size(), table.size(segment));
+            for (Key key : expected.get(segment)) {
+                assertEquals(key, table.removeEldest(segment));
+            }
+            assertNull(table.removeEldest(segment));
+        }
+        assertEquals(0, table.size());
+        assertFalse(table.remove(new Key(1)));
+    }
+
+    private static int segmentOf(List<Set<Key>> segments, Key key) {
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).contains(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A key with few distinct hashes, so the probe sequences overlap and removals shift slots back.
+     */
+    private static final class Key {
+
+        private static final int HASH_COUNT = 20;
+
+        private final int id;
+
+        Key(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % HASH_COUNT;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{id=" + id + '}';
+        }
+    }
+}
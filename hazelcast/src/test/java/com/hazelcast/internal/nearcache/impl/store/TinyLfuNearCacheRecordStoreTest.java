@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.EvictionConfig.MaxSizePolicy.ENTRY_COUNT;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class TinyLfuNearCacheRecordStoreTest {
+
+    private static final int MAXIMUM_SIZE = 100;
+
+    private SerializationService serializationService;
+    private NearCacheObjectRecordStore<Integer, Integer> store;
+
+    @Before
+    public void setUp() {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(false)
+                .setEvictionConfig(new EvictionConfig(MAXIMUM_SIZE, ENTRY_COUNT, EvictionPolicy.TINY_LFU));
+
+        serializationService = new DefaultSerializationServiceBuilder().build();
+
+        store = new NearCacheObjectRecordStore<Integer, Integer>("name", config, serializationService,
+                getClass().getClassLoader());
+        store.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void put_keepsMaximumSize() {
+        for (int i = 0; i < 10 * MAXIMUM_SIZE; i++) {
+            put(i);
+        }
+
+        assertEquals(MAXIMUM_SIZE, store.size());
+        NearCacheStatsImpl stats = (NearCacheStatsImpl) store.getNearCacheStats();
+        assertEquals(MAXIMUM_SIZE, stats.getOwnedEntryCount());
+        assertEquals(9 * MAXIMUM_SIZE, stats.getEvictions());
+    }
+
+    @Test
+    public void frequentlyReadKeys_surviveScan() {
+        for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+            put(i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+                assertNotNull(store.get(i));
+            }
+        }
+
+        for (int i = MAXIMUM_SIZE; i < 10 * MAXIMUM_SIZE; i++) {
+            store.get(i);
+            put(i);
+        }
+
+        for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+            assertNotNull("Frequently read key " + i + " was evicted", store.get(i));
+        }
+        NearCacheStatsImpl stats = (NearCacheStatsImpl) store.getNearCacheStats();
+        assertTrue(stats.getAdmissionRejections() > 0);
+    }
+
+    @Test
+    public void reservation_keepsMaximumSize() {
+        for (int i = 0; i < 10 * MAXIMUM_SIZE; i++) {
+            store.doEviction(false);
+            long reservationId = store.tryReserveForUpdate(i, serializationService.toData(i));
+            assertNotEquals(NOT_RESERVED, reservationId);
+            store.tryPublishReserved(i, i, reservationId, false);
+        }
+
+        assertEquals(MAXIMUM_SIZE, store.size());
+    }
+
+    @Test
+    public void invalidate_and_clear_untrackKeys() {
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            put(i);
+        }
+        store.invalidate(0);
+        store.clear();
+
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            put(i);
+        }
+
+        assertEquals(MAXIMUM_SIZE, store.size());
+        assertEquals(0, store.getNearCacheStats().getEvictions());
+    }
+
+    private void put(int key) {
+        store.doEviction(false);
+        store.put(key, null, key, null);
+    }
+}
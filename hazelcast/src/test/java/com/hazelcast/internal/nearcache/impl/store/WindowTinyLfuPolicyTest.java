@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WindowTinyLfuPolicyTest {
+
+    private static final int MAXIMUM_SIZE = 100;
+
+    private NearCacheStatsImpl nearCacheStats;
+    private WindowTinyLfuPolicy<Integer> policy;
+
+    @Before
+    public void setUp() {
+        nearCacheStats = new NearCacheStatsImpl();
+        policy = new WindowTinyLfuPolicy<Integer>(MAXIMUM_SIZE, nearCacheStats);
+    }
+
+    @Test
+    public void frequencySketch_countsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(MAXIMUM_SIZE);
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(5, sketch.frequency(42));
+        assertEquals(0, sketch.frequency(43));
+    }
+
+    @Test
+    public void frequencySketch_saturates() {
+        FrequencySketch sketch = new FrequencySketch(MAXIMUM_SIZE);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequencySketch_agesCounters() {
+        FrequencySketch sketch = new FrequencySketch(MAXIMUM_SIZE);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(42);
+        }
+        // ten times the maximum size of increments halves all counters
+        for (int i = 0; i < 10 * MAXIMUM_SIZE; i++) {
+            sketch.increment(1000 + i);
+        }
+
+        assertTrue(sketch.frequency(42) < 8);
+    }
+
+    @Test
+    public void add_evictsNothing_whenBelowMaximumSize() {
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            assertNull(policy.add(i));
+        }
+
+        assertEquals(MAXIMUM_SIZE, policy.size());
+    }
+
+    @Test
+    public void add_keepsMaximumSize() {
+        Set<Integer> cached = new HashSet<Integer>();
+        for (int i = 0; i < 10 * MAXIMUM_SIZE; i++) {
+            cached.add(i);
+            Integer evicted = policy.add(i);
+            if (evicted != null) {
+                assertTrue(cached.remove(evicted));
+            }
+            assertTrue(cached.size() <= MAXIMUM_SIZE);
+        }
+
+        assertEquals(MAXIMUM_SIZE, policy.size());
+    }
+
+    @Test
+    public void add_doesNotTrackKeyTwice() {
+        policy.add(1);
+        policy.add(1);
+
+        assertEquals(1, policy.size());
+    }
+
+    @Test
+    public void frequentKeys_surviveScan() {
+        Set<Integer> cached = new HashSet<Integer>();
+        for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+            addAndEvict(cached, i);
+            for (int j = 0; j < 5; j++) {
+                policy.recordHit(i);
+            }
+        }
+
+        // a scan over many keys which are accessed once
+        for (int i = 0; i < 10 * MAXIMUM_SIZE; i++) {
+            int key = MAXIMUM_SIZE + i;
+            policy.recordMiss(key);
+            addAndEvict(cached, key);
+        }
+
+        for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+            assertTrue("Frequent key " + i + " was evicted", cached.contains(i));
+        }
+        assertTrue(nearCacheStats.getAdmissionRejections() > 0);
+    }
+
+    @Test
+    public void remove_untracksKey() {
+        policy.add(1);
+        policy.add(2);
+
+        policy.remove(1);
+
+        assertEquals(1, policy.size());
+    }
+
+    @Test
+    public void evict_returnsTrackedKeys_untilEmpty() {
+        policy.add(1);
+        policy.add(2);
+
+        Set<Integer> evicted = new HashSet<Integer>();
+        evicted.add(policy.evict());
+        evicted.add(policy.evict());
+
+        assertEquals(2, evicted.size());
+        assertNull(policy.evict());
+    }
+
+    @Test
+    public void clear_untracksAllKeys() {
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            policy.add(i);
+        }
+
+        policy.clear();
+
+        assertEquals(0, policy.size());
+    }
+
+    private void addAndEvict(Set<Integer> cached, int key) {
+        cached.add(key);
+        Integer evicted = policy.add(key);
+        if (evicted != null) {
+            cached.remove(evicted);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MigrationBandwidthLimiterTest {
+
+    private static final long BYTES_PER_SECOND = 1000;
+
+    @Test
+    public void testUnlimited() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(0);
+
+        assertFalse(limiter.isEnabled());
+        limiter.onSent(Long.MAX_VALUE / 2);
+        assertEquals(0, limiter.getDelayMillis());
+    }
+
+    @Test
+    public void testFirstSend_isNotDelayed() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(BYTES_PER_SECOND);
+
+        assertTrue(limiter.isEnabled());
+        assertEquals(0, limiter.getDelayMillis(0));
+    }
+
+    @Test
+    public void testSends_arePacedToBudget() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(BYTES_PER_SECOND);
+
+        limiter.onSent(BYTES_PER_SECOND, 0);
+        assertEquals(1000, limiter.getDelayMillis(0));
+        limiter.onSent(BYTES_PER_SECOND / 2, 0);
+        assertEquals(1500, limiter.getDelayMillis(0));
+        // time passes, the remaining delay shrinks accordingly
+        assertEquals(1000, limiter.getDelayMillis(MILLISECONDS.toNanos(500)));
+    }
+
+    @Test
+    public void testIdleTime_isNotAccumulated() {
+        MigrationBandwidthLimiter limiter = new MigrationBandwidthLimiter(BYTES_PER_SECOND);
+
+        limiter.onSent(BYTES_PER_SECOND, 0);
+        long muchLater = MILLISECONDS.toNanos(10000);
+        assertEquals(0, limiter.getDelayMillis(muchLater));
+        limiter.onSent(BYTES_PER_SECOND, muchLater);
+        assertEquals(1000, limiter.getDelayMillis(muchLater));
+    }
+}
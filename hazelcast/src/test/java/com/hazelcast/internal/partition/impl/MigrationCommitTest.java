@@ -486,6 +486,8 @@ public class MigrationCommitTest extends HazelcastTestSupport {
         Config config = new Config();
         config.setProperty(GroupProperty.PARTITION_MAX_PARALLEL_REPLICATIONS.getName(), "0");
         config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT));
+        // the migration listeners expect a single migration at a time
+        config.setProperty(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS.getName(), "1");
         return config;
     }
 
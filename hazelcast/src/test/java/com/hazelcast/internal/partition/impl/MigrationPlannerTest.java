@@ -32,7 +32,9 @@ import org.junit.runner.RunWith;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Random;
 
 import static java.util.Arrays.asList;
@@ -601,6 +603,28 @@ public class MigrationPlannerTest {
         }
     }
 
+    @Test
+    public void testScheduleMigrations_restoresRedundancyFirst() throws UnknownHostException {
+        MigrationInfo move0 = new MigrationInfo(0, new PartitionReplica(newAddress(5701), "5701"),
+                new PartitionReplica(newAddress(5702), "5702"), 0, -1, -1, 0);
+        MigrationInfo copy0 = new MigrationInfo(0, null, new PartitionReplica(newAddress(5703), "5703"), -1, -1, -1, 1);
+        MigrationInfo copy1 = new MigrationInfo(1, null, new PartitionReplica(newAddress(5701), "5701"), -1, -1, -1, 1);
+        MigrationInfo move1 = new MigrationInfo(1, new PartitionReplica(newAddress(5702), "5702"),
+                new PartitionReplica(newAddress(5703), "5703"), 2, -1, -1, 2);
+        MigrationInfo shiftUp2 = new MigrationInfo(2, null, new PartitionReplica(newAddress(5702), "5702"), -1, -1, 2, 1);
+        MigrationInfo move2 = new MigrationInfo(2, new PartitionReplica(newAddress(5701), "5701"),
+                new PartitionReplica(newAddress(5703), "5703"), 0, -1, -1, 0);
+
+        List<Queue<MigrationInfo>> migrations = new ArrayList<Queue<MigrationInfo>>();
+        migrations.add(new LinkedList<MigrationInfo>(asList(move0, copy0)));
+        migrations.add(new LinkedList<MigrationInfo>(asList(copy1, move1)));
+        migrations.add(new LinkedList<MigrationInfo>(asList(shiftUp2, move2)));
+
+        List<MigrationInfo> schedule = migrationPlanner.scheduleMigrations(migrations);
+
+        assertEquals(asList(copy1, shiftUp2, move0, move1, move2, copy0), schedule);
+    }
+
     private Address newAddress(int port)
             throws UnknownHostException {
         return new Address("localhost", port);
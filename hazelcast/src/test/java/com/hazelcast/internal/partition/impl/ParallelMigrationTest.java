@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.MigrationInfo;
+import com.hazelcast.nio.Address;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ParallelMigrationTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 48;
+    private static final int MAX_PARALLEL_MIGRATIONS = 4;
+    private static final int MAX_PARALLEL_MIGRATIONS_PER_MEMBER = 2;
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testMigrations_runInParallel_withinPerMemberLimits() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance master = factory.newHazelcastInstance(createConfig());
+        IMap<Integer, Integer> map = master.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(master);
+        ParallelMigrationListener listener = new ParallelMigrationListener(partitionService);
+        partitionService.setInternalMigrationListener(listener);
+
+        HazelcastInstance[] newInstances = new HazelcastInstance[2];
+        for (int i = 0; i < newInstances.length; i++) {
+            newInstances[i] = factory.newHazelcastInstance(createConfig());
+        }
+        waitAllForSafeState(master, newInstances[0], newInstances[1]);
+
+        assertTrue("Migrations did not run in parallel", listener.maxInFlight > 1);
+        assertTrue(listener.maxInFlight <= MAX_PARALLEL_MIGRATIONS);
+        assertTrue(listener.maxInFlightPerSource <= MAX_PARALLEL_MIGRATIONS_PER_MEMBER);
+        assertTrue(listener.maxInFlightPerDestination <= MAX_PARALLEL_MIGRATIONS_PER_MEMBER);
+        assertEquals(ENTRY_COUNT, newInstances[1].getMap(map.getName()).size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    private Config createConfig() {
+        return new Config()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT))
+                .setProperty(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS.getName(),
+                        String.valueOf(MAX_PARALLEL_MIGRATIONS))
+                .setProperty(GroupProperty.PARTITION_MAX_PARALLEL_MIGRATIONS_PER_MEMBER.getName(),
+                        String.valueOf(MAX_PARALLEL_MIGRATIONS_PER_MEMBER));
+    }
+
+    private static class ParallelMigrationListener extends InternalMigrationListener {
+
+        private final InternalPartitionServiceImpl partitionService;
+        // guarded by this
+        private final Map<MigrationInfo, Address> sources = new HashMap<MigrationInfo, Address>();
+        private final Map<Address, Integer> inFlightPerSource = new HashMap<Address, Integer>();
+        private final Map<Address, Integer> inFlightPerDestination = new HashMap<Address, Integer>();
+        private volatile int maxInFlight;
+        private volatile int maxInFlightPerSource;
+        private volatile int maxInFlightPerDestination;
+
+        ParallelMigrationListener(InternalPartitionServiceImpl partitionService) {
+            this.partitionService = partitionService;
+        }
+
+        @Override
+        public void onMigrationStart(MigrationParticipant participant, MigrationInfo migrationInfo) {
+            if (participant != MigrationParticipant.MASTER) {
+                return;
+            }
+            synchronized (this) {
+                Address source = partitionService.getPartition(migrationInfo.getPartitionId()).getOwnerOrNull();
+                sources.put(migrationInfo, source);
+                maxInFlight = Math.max(maxInFlight, sources.size());
+                maxInFlightPerSource = Math.max(maxInFlightPerSource, add(inFlightPerSource, source, 1));
+                maxInFlightPerDestination = Math.max(maxInFlightPerDestination,
+                        add(inFlightPerDestination, migrationInfo.getDestinationAddress(), 1));
+            }
+            // keeps the migration running long enough to overlap with the others
+            sleepMillis(100);
+        }
+
+        @Override
+        public void onMigrationComplete(MigrationParticipant participant, MigrationInfo migrationInfo, boolean success) {
+            if (participant != MigrationParticipant.MASTER) {
+                return;
+            }
+            synchronized (this) {
+                Address source = sources.remove(migrationInfo);
+                add(inFlightPerSource, source, -1);
+                add(inFlightPerDestination, migrationInfo.getDestinationAddress(), -1);
+            }
+        }
+
+        private static int add(Map<Address, Integer> counts, Address address, int delta) {
+            Integer count = counts.get(address);
+            int newCount = (count != null ? count : 0) + delta;
+            counts.put(address, newCount);
+            return newCount;
+        }
+    }
+}
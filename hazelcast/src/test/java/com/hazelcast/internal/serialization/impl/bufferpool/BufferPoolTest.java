@@ -18,6 +18,7 @@ package com.hazelcast.internal.serialization.impl.bufferpool;
 
 import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.ByteArrayObjectDataOutput;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.nio.BufferObjectDataInput;
@@ -36,6 +37,7 @@ import org.junit.runner.RunWith;
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
@@ -116,6 +118,92 @@ public class BufferPoolTest extends HazelcastTestSupport {
         assertEquals(Version.UNKNOWN, found2.getVersion());
     }
 
+    @Test
+    public void takeOutputBuffer_whenLargeOutputReturned_thenBufferRetained() throws IOException {
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        out.write(new byte[200 * 1024]);
+        int capacity = ((ByteArrayObjectDataOutput) out).capacity();
+        bufferPool.returnOutputBuffer(out);
+
+        BufferObjectDataOutput found = bufferPool.takeOutputBuffer();
+
+        assertSame(out, found);
+        assertEquals(0, found.position());
+        assertEquals(capacity, ((ByteArrayObjectDataOutput) found).capacity());
+    }
+
+    @Test
+    public void takeOutputBuffer_prefersSizeClassOfExpectedSize() throws IOException {
+        BufferObjectDataOutput small = bufferPool.takeOutputBuffer();
+        BufferObjectDataOutput large = bufferPool.takeOutputBuffer();
+        large.write(new byte[200 * 1024]);
+        bufferPool.returnOutputBuffer(small);
+        bufferPool.returnOutputBuffer(large);
+
+        assertSame(large, bufferPool.takeOutputBuffer());
+        assertSame(small, bufferPool.takeOutputBuffer());
+    }
+
+    @Test
+    public void returnOutputBuffer_whenRetainedBytesExceeded_thenBufferShrunk() throws IOException {
+        bufferPool = new BufferPoolImpl(serializationService, 64 * 1024);
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        out.write(new byte[200 * 1024]);
+
+        bufferPool.returnOutputBuffer(out);
+
+        assertTrue(((ByteArrayObjectDataOutput) out).capacity() < 200 * 1024);
+        assertTrue(bufferPool.retainedBytes.get() <= 64 * 1024);
+    }
+
+    @Test
+    public void returnOutputBuffer_whenRetainedBytesSetOnFactory_thenBufferShrunk() throws IOException {
+        BufferPoolImpl pool = (BufferPoolImpl) new BufferPoolFactoryImpl(64 * 1024).create(serializationService);
+        BufferObjectDataOutput out = pool.takeOutputBuffer();
+        out.write(new byte[200 * 1024]);
+
+        pool.returnOutputBuffer(out);
+
+        assertTrue(((ByteArrayObjectDataOutput) out).capacity() < 200 * 1024);
+        assertTrue(pool.retainedBytes.get() <= 64 * 1024);
+    }
+
+    @Test
+    public void returnOutputBuffer_whenIdle_thenLargeBuffersReleased() throws IOException {
+        BufferObjectDataOutput large = bufferPool.takeOutputBuffer();
+        large.write(new byte[1024 * 1024]);
+        bufferPool.returnOutputBuffer(large);
+        assertTrue(bufferPool.retainedBytes.get() > 1024 * 1024);
+
+        for (int k = 0; k < 2 * BufferPoolImpl.IDLE_WINDOW; k++) {
+            BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+            out.writeInt(k);
+            bufferPool.returnOutputBuffer(out);
+        }
+
+        assertTrue(bufferPool.retainedBytes.get() <= BufferPoolImpl.MIN_SIZE_CLASS_CAPACITY);
+    }
+
+    @Test
+    public void takeOutputBuffer_countsHitsAndMisses() {
+        BufferObjectDataOutput out = bufferPool.takeOutputBuffer();
+        bufferPool.returnOutputBuffer(out);
+        bufferPool.takeOutputBuffer();
+
+        assertEquals(1, bufferPool.outputMisses.get());
+        assertEquals(1, bufferPool.outputHits.get());
+    }
+
+    @Test
+    public void sizeClassOf() {
+        assertEquals(0, BufferPoolImpl.sizeClassOf(0));
+        assertEquals(0, BufferPoolImpl.sizeClassOf(BufferPoolImpl.MIN_SIZE_CLASS_CAPACITY));
+        assertEquals(1, BufferPoolImpl.sizeClassOf(BufferPoolImpl.MIN_SIZE_CLASS_CAPACITY + 1));
+        assertEquals(1, BufferPoolImpl.sizeClassOf(2 * BufferPoolImpl.MIN_SIZE_CLASS_CAPACITY));
+        assertEquals(BufferPoolImpl.SIZE_CLASS_COUNT - 1, BufferPoolImpl.sizeClassOf(BufferPoolImpl.MAX_SIZE_CLASS_CAPACITY));
+        assertEquals(BufferPoolImpl.SIZE_CLASS_COUNT - 1, BufferPoolImpl.sizeClassOf(Integer.MAX_VALUE));
+    }
+
     // ======================= in ==========================================
 
     @Test
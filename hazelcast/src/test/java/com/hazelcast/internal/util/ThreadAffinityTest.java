@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.util.ThreadAffinity.parseCpus;
+import static com.hazelcast.test.HazelcastTestSupport.assertUtilityConstructor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ThreadAffinityTest {
+
+    @Test
+    public void testConstructor() {
+        assertUtilityConstructor(ThreadAffinity.class);
+    }
+
+    @Test
+    public void parseCpus_whenEmpty() {
+        assertEquals(Collections.emptyList(), parseCpus(null));
+        assertEquals(Collections.emptyList(), parseCpus(" "));
+    }
+
+    @Test
+    public void parseCpus_whenSingleCpus() {
+        assertEquals(Arrays.asList(3, 1, 2), parseCpus("3, 1,2"));
+    }
+
+    @Test
+    public void parseCpus_whenRanges() {
+        assertEquals(Arrays.asList(0, 1, 2, 6, 8, 9), parseCpus("0-2,6, 8 - 9"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCpus_whenReversedRange() {
+        parseCpus("3-1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCpus_whenNotNumber() {
+        parseCpus("0,a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCpus_whenEmptyItem() {
+        parseCpus("0,,1");
+    }
+
+    @Test
+    public void currentThreadId_whenThreadsStartedTogether_thenDistinct() throws Exception {
+        assumeTrue(ThreadAffinity.isSupported());
+
+        final int threadCount = 4;
+        final CountDownLatch started = new CountDownLatch(threadCount);
+        final Set<Integer> threadIds = Collections.synchronizedSet(new HashSet<Integer>());
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        // keeps the threads alive until all of them read their IDs
+                        started.await();
+                        threadIds.add(ThreadAffinity.currentThreadId());
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount, threadIds.size());
+        assertFalse(threadIds.contains(ThreadAffinity.currentThreadId()));
+    }
+
+    @Test
+    public void pinCurrentThread() throws Exception {
+        assumeTrue(ThreadAffinity.isSupported());
+        // the CPU must be in the cpuset of the process, which may be restricted
+        List<Integer> allowedCpus = ThreadAffinity.getAllowedCpus(ThreadAffinity.currentThreadId());
+        assumeFalse(allowedCpus.isEmpty());
+        final int cpu = allowedCpus.get(allowedCpus.size() - 1);
+
+        final AtomicBoolean pinned = new AtomicBoolean();
+        final AtomicReference<List<Integer>> cpusAfterPinning = new AtomicReference<List<Integer>>();
+        // pins a dedicated thread, so the affinity of the test thread is left intact
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                pinned.set(ThreadAffinity.pinCurrentThread(cpu));
+                try {
+                    cpusAfterPinning.set(ThreadAffinity.getAllowedCpus(ThreadAffinity.currentThreadId()));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assumeTrue("taskset is not available", pinned.get());
+        assertEquals(Collections.singletonList(cpu), cpusAfterPinning.get());
+        assertEquals(allowedCpus, ThreadAffinity.getAllowedCpus(ThreadAffinity.currentThreadId()));
+    }
+
+    @Test
+    public void pinCurrentThread_whenInvalidCpu() throws Exception {
+        assumeTrue(ThreadAffinity.isSupported());
+
+        final AtomicBoolean pinned = new AtomicBoolean(true);
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                pinned.set(ThreadAffinity.pinCurrentThread(Integer.MAX_VALUE));
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertFalse(pinned.get());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class EntryProcessorReadOnlyOffloadTest extends HazelcastTestSupport {
+
+    @Test
+    public void readOnlyProcessor_whenOffloadEnabled_thenNotRunOnPartitionThread() {
+        IMap<String, Integer> map = newMap(true);
+        map.put("key", 1);
+
+        assertFalse((Boolean) map.executeOnKey("key", new RunsOnPartitionThread()));
+    }
+
+    @Test
+    public void readOnlyProcessor_whenOffloadDisabled_thenRunOnPartitionThread() {
+        IMap<String, Integer> map = newMap(false);
+        map.put("key", 1);
+
+        assertTrue((Boolean) map.executeOnKey("key", new RunsOnPartitionThread()));
+    }
+
+    @Test
+    public void readOnlyProcessor_whenOffloadEnabled_thenSeesValue() {
+        IMap<String, Integer> map = newMap(true);
+        map.put("key", 41);
+
+        assertEquals(42, map.executeOnKey("key", new IncrementedValue()));
+    }
+
+    private IMap<String, Integer> newMap(boolean offloadEnabled) {
+        Config config = getConfig();
+        config.setProperty(GroupProperty.MAP_READONLY_ENTRY_PROCESSOR_OFFLOAD.getName(), String.valueOf(offloadEnabled));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        return instance.getMap(randomMapName());
+    }
+
+    private static class RunsOnPartitionThread implements EntryProcessor<String, Integer>, ReadOnly {
+        @Override
+        public Object process(Map.Entry<String, Integer> entry) {
+            return Thread.currentThread() instanceof PartitionOperationThread;
+        }
+
+        @Override
+        public EntryBackupProcessor<String, Integer> getBackupProcessor() {
+            return null;
+        }
+    }
+
+    private static class IncrementedValue implements EntryProcessor<String, Integer>, ReadOnly {
+        @Override
+        public Object process(Map.Entry<String, Integer> entry) {
+            return entry.getValue() + 1;
+        }
+
+        @Override
+        public EntryBackupProcessor<String, Integer> getBackupProcessor() {
+            return null;
+        }
+    }
+}
@@ -23,10 +23,13 @@ import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.PartitionService;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
 import com.hazelcast.monitor.impl.MemberPartitionStateImpl;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.query.Predicates;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -222,6 +225,29 @@ public class InMemoryFormatTest extends HazelcastTestSupport {
         member.getMap("default");
     }
 
+    @Test
+    public void testNativeIMap_whenNativeMemoryEnabled() {
+        Config config = getConfig();
+        config.getNativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(16, MemoryUnit.MEGABYTES));
+        config.getMapConfig("default").setInMemoryFormat(InMemoryFormat.NATIVE);
+
+        HazelcastInstance member = createHazelcastInstance(config);
+        IMap<Integer, String> map = member.getMap("default");
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.put(0, "updated");
+        map.remove(1);
+
+        assertEquals(99, map.size());
+        assertEquals("updated", map.get(0));
+        assertEquals("value-2", map.get(2));
+        assertEquals(1, map.values(Predicates.equal("this", "value-50")).size());
+        assertEquals(99, map.entrySet().size());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNativeNearCache_throwsException() throws Exception {
         NearCacheConfig nearCacheConfig = new NearCacheConfig();
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static com.hazelcast.query.Predicates.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapQueryStreamIteratorTest extends HazelcastTestSupport {
+
+    private MapProxyImpl<Integer, Integer> proxy;
+
+    @Before
+    public void init() {
+        Config config = getConfig().setProperty(GroupProperty.PARTITION_COUNT.getName(), "11");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        proxy = (MapProxyImpl<Integer, Integer>) instance.<Integer, Integer>getMap(randomMapName());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void next_whenMapIsEmpty_thenThrows() {
+        entries(10, 2, TruePredicate.<Integer, Integer>truePredicate()).next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void queryIterator_whenFetchSizeIsNotPositive_thenThrows() {
+        entries(0, 2, TruePredicate.<Integer, Integer>truePredicate());
+    }
+
+    @Test
+    public void hasNext_whenMapIsEmpty_thenFalse() {
+        assertFalse(entries(10, 2, TruePredicate.<Integer, Integer>truePredicate()).hasNext());
+    }
+
+    @Test
+    public void allMatchingEntries_areStreamed() {
+        for (int i = 0; i < 1000; i++) {
+            proxy.put(i, i);
+        }
+
+        Map<Integer, Integer> streamed = collect(entries(7, 1, lessThan("this", 500)));
+
+        assertEquals(500, streamed.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals((Integer) i, streamed.get(i));
+        }
+        assertNull(streamed.get(500));
+    }
+
+    @Test
+    public void allEntries_areStreamed_withManyChunksInFlight() {
+        for (int i = 0; i < 1000; i++) {
+            proxy.put(i, i);
+        }
+
+        Map<Integer, Integer> streamed = collect(entries(3, 100, TruePredicate.<Integer, Integer>truePredicate()));
+
+        assertEquals(1000, streamed.size());
+    }
+
+    @Test
+    public void projection_isApplied() {
+        for (int i = 0; i < 100; i++) {
+            proxy.put(i, i);
+        }
+
+        Iterator<Object> iterator = proxy.queryIterator(10, 2,
+                Projections.<Map.Entry<Integer, Integer>, Object>singleAttribute("this"),
+                TruePredicate.<Integer, Integer>truePredicate());
+        int sum = 0;
+        while (iterator.hasNext()) {
+            sum += (Integer) iterator.next();
+        }
+        assertEquals(99 * 100 / 2, sum);
+    }
+
+    private Iterator<Map.Entry<Integer, Integer>> entries(int fetchSize, int maxInFlightChunks,
+                                                          Predicate<Integer, Integer> predicate) {
+        return proxy.queryIterator(fetchSize, maxInFlightChunks, Projections.<Map.Entry<Integer, Integer>>identity(),
+                predicate);
+    }
+
+    private static Map<Integer, Integer> collect(Iterator<Map.Entry<Integer, Integer>> iterator) {
+        Map<Integer, Integer> result = new HashMap<Integer, Integer>();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            Integer previous = result.put(entry.getKey(), entry.getValue());
+            assertNull("Entry returned twice: " + entry, previous);
+        }
+        return result;
+    }
+}
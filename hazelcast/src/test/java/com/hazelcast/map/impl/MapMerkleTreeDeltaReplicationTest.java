@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MerkleTreeConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.ServiceNamespace;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.function.Consumer;
+import com.hazelcast.wan.merkletree.MerkleTree;
+import com.hazelcast.wan.merkletree.MerkleTreeUtil;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+import static com.hazelcast.spi.properties.GroupProperty.PARTITION_COUNT;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapMerkleTreeDeltaReplicationTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+    private static final int PARTITION_COUNT_VALUE = 2;
+    private static final int DEPTH = 4;
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testMerkleTree_tracksRecordStoreMutations() throws Exception {
+        HazelcastInstance instance = createHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.put(i, -i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 3) {
+            map.remove(i);
+        }
+        map.evict(1);
+
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            final RecordStore recordStore = getRecordStore(instance, partitionId);
+            Set<Object> recordKeys = new HashSet<Object>();
+            Iterator<Record> iterator = recordStore.iterator();
+            while (iterator.hasNext()) {
+                recordKeys.add(iterator.next().getKey());
+            }
+
+            Set<Object> treeKeys = callOnPartitionThread(instance, partitionId, new Callable<Set<Object>>() {
+                @Override
+                public Set<Object> call() {
+                    MerkleTree merkleTree = recordStore.getMerkleTree();
+                    final Set<Object> keys = new HashSet<Object>();
+                    int leafCount = MerkleTreeUtil.getNodesOnLevel(DEPTH - 1);
+                    for (int leafOrder = leafCount - 1; leafOrder < 2 * leafCount - 1; leafOrder++) {
+                        merkleTree.forEachKeyOfNode(leafOrder, new Consumer<Object>() {
+                            @Override
+                            public void accept(Object key) {
+                                keys.add(key);
+                            }
+                        });
+                    }
+                    return keys;
+                }
+            });
+
+            assertEquals(recordKeys, treeKeys);
+        }
+    }
+
+    @Test
+    public void testMerkleTree_whenOnlyRecordMetadataDiffers_thenTreesDiffer() throws Exception {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance1.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        waitAllForSafeState(instance1, instance2);
+
+        final int partitionId = 0;
+        Address ownerAddress = getPartitionService(instance1).getPartition(partitionId).getOwnerOrNull();
+        HazelcastInstance owner = ownerAddress.equals(getAddress(instance1)) ? instance1 : instance2;
+        HazelcastInstance backup = owner == instance1 ? instance2 : instance1;
+        RecordStore ownerRecordStore = getRecordStore(owner, partitionId);
+        final RecordStore backupRecordStore = getRecordStore(backup, partitionId);
+        assertEquals(getRootHash(owner, ownerRecordStore, partitionId), getRootHash(backup, backupRecordStore, partitionId));
+
+        // same value with a different TTL
+        callOnPartitionThread(backup, partitionId, new Callable<Object>() {
+            @Override
+            public Object call() {
+                Record record = (Record) backupRecordStore.iterator().next();
+                Record copy = backupRecordStore.createRecord(record.getValue(), HOURS.toMillis(1), -1, 0);
+                copy.setVersion(record.getVersion());
+                backupRecordStore.putRecord(record.getKey(), copy);
+                return null;
+            }
+        });
+
+        assertNotEquals(getRootHash(owner, ownerRecordStore, partitionId), getRootHash(backup, backupRecordStore, partitionId));
+    }
+
+    @Test
+    public void testMerkleTree_whenTtlIsSet_thenTreesChangeAndStayEqual() throws Exception {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance1.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        waitAllForSafeState(instance1, instance2);
+
+        final int partitionId = 0;
+        Address ownerAddress = getPartitionService(instance1).getPartition(partitionId).getOwnerOrNull();
+        HazelcastInstance owner = ownerAddress.equals(getAddress(instance1)) ? instance1 : instance2;
+        HazelcastInstance backup = owner == instance1 ? instance2 : instance1;
+        RecordStore ownerRecordStore = getRecordStore(owner, partitionId);
+        RecordStore backupRecordStore = getRecordStore(backup, partitionId);
+        int rootHashBefore = getRootHash(owner, ownerRecordStore, partitionId);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.setTtl(i, 1, HOURS);
+        }
+        waitAllForSafeState(instance1, instance2);
+
+        int ownerRootHash = getRootHash(owner, ownerRecordStore, partitionId);
+        assertNotEquals(rootHashBefore, ownerRootHash);
+        assertEquals(ownerRootHash, getRootHash(backup, backupRecordStore, partitionId));
+    }
+
+    @Test
+    public void testBackupSync_replicatesOnlyDifferingLeaves() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(getConfig());
+        HazelcastInstance instance2 = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, Integer> map = instance1.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        waitAllForSafeState(instance1, instance2);
+
+        final int partitionId = 0;
+        Address ownerAddress = getPartitionService(instance1).getPartition(partitionId).getOwnerOrNull();
+        final HazelcastInstance owner = ownerAddress.equals(getAddress(instance1)) ? instance1 : instance2;
+        final HazelcastInstance backup = owner == instance1 ? instance2 : instance1;
+        final RecordStore ownerRecordStore = getRecordStore(owner, partitionId);
+        final RecordStore backupRecordStore = getRecordStore(backup, partitionId);
+
+        final Map<Data, Record> recordsBeforeSync = new HashMap<Data, Record>();
+        Iterator<Record> iterator = backupRecordStore.iterator();
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            recordsBeforeSync.put(record.getKey(), record);
+        }
+        final Data removedKey = recordsBeforeSync.keySet().iterator().next();
+        final Data staleKey = getSerializationService(backup).toData(generateKeyForPartition(backup, partitionId));
+
+        // diverge the backup replica and request a sync from the partition thread
+        getOperationService(backup).execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                backupRecordStore.removeReplicatedRecord(removedKey);
+                backupRecordStore.putRecord(staleKey, backupRecordStore.createRecord(staleKey, -1, -1, 0));
+
+                ServiceNamespace namespace = MapService.getObjectNamespace(MAP_NAME);
+                InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(backup);
+                partitionService.getReplicaManager().triggerPartitionReplicaSync(partitionId, singleton(namespace), 1);
+            }
+        });
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertNull(backupRecordStore.getRecord(staleKey));
+                assertNotNull(backupRecordStore.getRecord(removedKey));
+                assertEquals(ownerRecordStore.size(), backupRecordStore.size());
+                assertEquals(getRootHash(owner, ownerRecordStore, partitionId),
+                        getRootHash(backup, backupRecordStore, partitionId));
+            }
+        });
+
+        // records under the matching leaves have not been replicated again
+        int untouchedRecords = 0;
+        for (Map.Entry<Data, Record> entry : recordsBeforeSync.entrySet()) {
+            if (backupRecordStore.getRecord(entry.getKey()) == entry.getValue()) {
+                untouchedRecords++;
+            }
+        }
+        assertTrue(untouchedRecords > 0);
+    }
+
+    private static int getRootHash(HazelcastInstance instance, final RecordStore recordStore, int partitionId)
+            throws Exception {
+        return callOnPartitionThread(instance, partitionId, new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return recordStore.getMerkleTree().getNodeHash(0);
+            }
+        });
+    }
+
+    /**
+     * Record stores and their Merkle trees are confined to the partition thread.
+     */
+    private static <T> T callOnPartitionThread(HazelcastInstance instance, final int partitionId, Callable<T> callable)
+            throws Exception {
+        final FutureTask<T> task = new FutureTask<T>(callable);
+        getOperationService(instance).execute(new PartitionSpecificRunnable() {
+            @Override
+            public int getPartitionId() {
+                return partitionId;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+        });
+        return task.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+    }
+
+    private static RecordStore getRecordStore(HazelcastInstance instance, int partitionId) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getPartitionContainer(partitionId).getExistingRecordStore(MAP_NAME);
+    }
+
+    @Override
+    protected Config getConfig() {
+        return new Config()
+                .setProperty(PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT_VALUE))
+                .addMerkleTreeConfig(new MerkleTreeConfig().setMapName(MAP_NAME).setEnabled(true).setDepth(DEPTH));
+    }
+}
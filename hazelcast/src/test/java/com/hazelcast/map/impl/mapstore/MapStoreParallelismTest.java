@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapStoreAdapter;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapStoreParallelismTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 200;
+
+    @Test
+    public void loadAll_loadsKeyChunksOfPartitionInParallel() {
+        ConcurrencyTrackingMapLoader loader = new ConcurrencyTrackingMapLoader();
+        Config config = getConfig(loader, 0)
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "1")
+                .setProperty(GroupProperty.MAP_LOAD_CHUNK_SIZE.getName(), "10")
+                .setProperty(GroupProperty.MAP_LOAD_CHUNK_PARALLELISM.getName(), "4");
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        Set<Integer> keys = new HashSet<Integer>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            keys.add(i);
+        }
+        map.loadAll(keys, true);
+
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertTrue("Expected parallel loadAll calls, max was " + loader.maxConcurrentLoads.get(),
+                loader.maxConcurrentLoads.get() > 1);
+        assertTrue(loader.maxConcurrentLoads.get() <= 4);
+    }
+
+    @Test
+    public void writeBehind_storesPartitionGroupsInParallel() {
+        final ThreadTrackingMapStore store = new ThreadTrackingMapStore();
+        Config config = getConfig(store, 1)
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "8")
+                .setProperty(GroupProperty.MAP_WRITE_BEHIND_PARALLELISM.getName(), "4");
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(ENTRY_COUNT, store.store.size());
+            }
+        });
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) store.store.get(i));
+        }
+        assertTrue("Expected stores from multiple threads", store.threads.size() > 1);
+    }
+
+    private static Config getConfig(Object implementation, int writeDelaySeconds) {
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(implementation)
+                .setWriteDelaySeconds(writeDelaySeconds);
+        Config config = new Config();
+        config.getMapConfig("default").setMapStoreConfig(mapStoreConfig);
+        return config;
+    }
+
+    private static class ConcurrencyTrackingMapLoader extends MapStoreAdapter<Integer, Integer> {
+
+        private final AtomicInteger concurrentLoads = new AtomicInteger();
+        private final AtomicInteger maxConcurrentLoads = new AtomicInteger();
+        // holds back the first loads until a second one runs next to them
+        private final CountDownLatch overlap = new CountDownLatch(2);
+
+        @Override
+        public Map<Integer, Integer> loadAll(Collection<Integer> keys) {
+            int current = concurrentLoads.incrementAndGet();
+            try {
+                updateMax(current);
+                overlap.countDown();
+                overlap.await(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS);
+                Map<Integer, Integer> result = new ConcurrentHashMap<Integer, Integer>();
+                for (Integer key : keys) {
+                    result.put(key, key);
+                }
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Collections.emptyMap();
+            } finally {
+                concurrentLoads.decrementAndGet();
+            }
+        }
+
+        private void updateMax(int current) {
+            for (int max = maxConcurrentLoads.get(); current > max; max = maxConcurrentLoads.get()) {
+                if (maxConcurrentLoads.compareAndSet(max, current)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class ThreadTrackingMapStore extends MapStoreAdapter<Integer, Integer> {
+
+        private final Map<Integer, Integer> store = new ConcurrentHashMap<Integer, Integer>();
+        private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+        @Override
+        public void store(Integer key, Integer value) {
+            threads.add(Thread.currentThread());
+            store.put(key, value);
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            threads.add(Thread.currentThread());
+            store.putAll(map);
+        }
+    }
+}
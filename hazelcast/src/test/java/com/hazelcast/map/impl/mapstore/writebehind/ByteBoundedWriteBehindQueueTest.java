@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.ReachedMaxSizeException;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntries;
+import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createByteBoundedDefaultWriteBehindQueue;
+import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindQueues.createByteBoundedWriteBehindQueue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ByteBoundedWriteBehindQueueTest extends HazelcastTestSupport {
+
+    private InternalSerializationService serializationService;
+    private AtomicLong bytesCounter;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        bytesCounter = new AtomicLong();
+    }
+
+    @Test
+    public void addLast_countsKeyAndValueBytes() {
+        WriteBehindQueue<DelayedEntry> queue = createCoalescedQueue(Long.MAX_VALUE);
+        DelayedEntry entry = newEntry(1, new byte[100]);
+
+        queue.addLast(entry);
+
+        assertEquals(ByteBoundedWriteBehindQueue.sizeOf(entry), bytesCounter.get());
+    }
+
+    @Test
+    public void addLast_throwsReachedMaxSizeException_whenNodeWideBytesExceeded() {
+        long entrySize = ByteBoundedWriteBehindQueue.sizeOf(newEntry(0, new byte[100]));
+        WriteBehindQueue<DelayedEntry> queue1 = createCoalescedQueue(3 * entrySize);
+        WriteBehindQueue<DelayedEntry> queue2 = createCoalescedQueue(3 * entrySize);
+        queue1.addLast(newEntry(1, new byte[100]));
+        queue2.addLast(newEntry(2, new byte[100]));
+        queue2.addLast(newEntry(3, new byte[100]));
+
+        try {
+            queue1.addLast(newEntry(4, new byte[100]));
+            fail("Expected ReachedMaxSizeException");
+        } catch (ReachedMaxSizeException expected) {
+            ignore(expected);
+        }
+
+        assertEquals(1, queue1.size());
+        assertEquals(3 * entrySize, bytesCounter.get());
+    }
+
+    @Test
+    public void addLast_onCoalescedQueue_countsOnlyTheDifference_whenKeyIsReplaced() {
+        WriteBehindQueue<DelayedEntry> queue = createCoalescedQueue(Long.MAX_VALUE);
+        queue.addLast(newEntry(1, new byte[1000]));
+        DelayedEntry replacement = newEntry(1, new byte[10]);
+
+        queue.addLast(replacement);
+
+        assertEquals(1, queue.size());
+        assertEquals(ByteBoundedWriteBehindQueue.sizeOf(replacement), bytesCounter.get());
+    }
+
+    @Test
+    public void addLast_onCoalescedQueue_acceptsSmallerReplacement_whenBoundReached() {
+        long entrySize = ByteBoundedWriteBehindQueue.sizeOf(newEntry(0, new byte[100]));
+        WriteBehindQueue<DelayedEntry> queue = createCoalescedQueue(entrySize);
+        queue.addLast(newEntry(1, new byte[100]));
+
+        queue.addLast(newEntry(1, new byte[50]));
+
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void removeFirstOccurrence_releasesBytes() {
+        WriteBehindQueue<DelayedEntry> queue = createQueue(Long.MAX_VALUE);
+        DelayedEntry entry = newEntry(1, new byte[100]);
+        queue.addLast(entry);
+
+        queue.removeFirstOccurrence(entry);
+
+        assertEquals(0, bytesCounter.get());
+    }
+
+    @Test
+    public void drainTo_releasesBytes() {
+        WriteBehindQueue<DelayedEntry> queue = createQueue(Long.MAX_VALUE);
+        addEnd(queue, 100);
+
+        queue.drainTo(new ArrayList<DelayedEntry>());
+
+        assertEquals(0, bytesCounter.get());
+    }
+
+    @Test
+    public void clear_releasesBytes() {
+        WriteBehindQueue<DelayedEntry> queue = createCoalescedQueue(Long.MAX_VALUE);
+        addEnd(queue, 100);
+
+        queue.clear();
+
+        assertEquals(0, bytesCounter.get());
+    }
+
+    @Test
+    public void addFirst_acceptsFailedEntries_whenBoundExceeded() {
+        long entrySize = ByteBoundedWriteBehindQueue.sizeOf(newEntry(0, new byte[100]));
+        WriteBehindQueue<DelayedEntry> queue = createQueue(entrySize);
+        DelayedEntry failed = newEntry(1, new byte[100]);
+        queue.addLast(failed);
+        List<DelayedEntry> drained = new ArrayList<DelayedEntry>();
+        queue.drainTo(drained);
+        queue.addLast(newEntry(2, new byte[100]));
+
+        queue.addFirst(drained);
+
+        assertEquals(2, queue.size());
+        assertEquals(2 * entrySize, bytesCounter.get());
+    }
+
+    @Test
+    public void addFirst_onCoalescedQueue_doesNotCountEntriesOfUpdatedKeys() {
+        WriteBehindQueue<DelayedEntry> queue = createCoalescedQueue(Long.MAX_VALUE);
+        DelayedEntry failed = newEntry(1, new byte[100]);
+        DelayedEntry newer = newEntry(1, new byte[10]);
+        queue.addLast(newer);
+
+        queue.addFirst(Collections.singletonList(failed));
+
+        assertEquals(1, queue.size());
+        assertEquals(ByteBoundedWriteBehindQueue.sizeOf(newer), bytesCounter.get());
+    }
+
+    private WriteBehindQueue<DelayedEntry> createQueue(long maxBytes) {
+        return createByteBoundedWriteBehindQueue(Integer.MAX_VALUE, new AtomicInteger(), maxBytes, bytesCounter);
+    }
+
+    private WriteBehindQueue<DelayedEntry> createCoalescedQueue(long maxBytes) {
+        return createByteBoundedDefaultWriteBehindQueue(maxBytes, bytesCounter);
+    }
+
+    private void addEnd(WriteBehindQueue<DelayedEntry> queue, int count) {
+        for (int i = 0; i < count; i++) {
+            queue.addLast(newEntry(i, new byte[i]));
+        }
+    }
+
+    private DelayedEntry newEntry(int key, byte[] value) {
+        Data keyData = serializationService.toData(key);
+        Data valueData = serializationService.toData(value);
+        return DelayedEntries.createDefault(keyData, valueData, 0, 0);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.map.impl.record.RecordReplicationInfo;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.spi.DistributedObjectNamespace;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapChunkIteratorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int MAX_CHUNK_SIZE = 4096;
+
+    @Test
+    public void testIterator_streamsAllRecordsInBoundedChunks() {
+        Config config = getConfig().setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        String mapName = randomMapName();
+        IMap<Integer, String> map = instance.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, randomString());
+        }
+
+        MapServiceContext mapServiceContext = getNodeEngineImpl(instance).<MapService>getService(MapService.SERVICE_NAME)
+                .getMapServiceContext();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(0);
+        Iterator<Operation> iterator = new MapChunkIterator(mapServiceContext, container,
+                new DistributedObjectNamespace(MapService.SERVICE_NAME, mapName), 0, MAX_CHUNK_SIZE);
+
+        assertTrue(iterator.hasNext());
+        assertTrue(iterator.next() instanceof MapReplicationOperation);
+
+        Set<Data> keys = new HashSet<Data>();
+        int chunkCount = 0;
+        while (iterator.hasNext()) {
+            MapChunkOperation chunk = (MapChunkOperation) iterator.next();
+            long chunkSize = 0;
+            long lastRecordSize = 0;
+            for (RecordReplicationInfo info : chunk.getRecordReplicationInfos()) {
+                assertTrue(keys.add(info.getKey()));
+                lastRecordSize = info.getKey().totalSize() + info.getValue().totalSize()
+                        + MapChunkIterator.RECORD_OVERHEAD_IN_BYTES;
+                chunkSize += lastRecordSize;
+            }
+            assertTrue(chunkSize < MAX_CHUNK_SIZE + lastRecordSize);
+            chunkCount++;
+        }
+
+        assertEquals(ENTRY_COUNT, keys.size());
+        assertTrue("Expected multiple chunks but got " + chunkCount, chunkCount > 1);
+    }
+
+    @Test
+    public void testIterator_whenMapIsEmpty() {
+        HazelcastInstance instance = createHazelcastInstance(getConfig());
+        MapServiceContext mapServiceContext = getNodeEngineImpl(instance).<MapService>getService(MapService.SERVICE_NAME)
+                .getMapServiceContext();
+        Iterator<Operation> iterator = new MapChunkIterator(mapServiceContext, mapServiceContext.getPartitionContainer(0),
+                new DistributedObjectNamespace(MapService.SERVICE_NAME, randomMapName()), 0, MAX_CHUNK_SIZE);
+
+        assertTrue(iterator.next() instanceof MapReplicationOperation);
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testChunkedMigration_keepsDataAndIndexes() {
+        String mapName = randomMapName();
+        Config config = getConfig()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), "11")
+                .setProperty(GroupProperty.PARTITION_CHUNKED_MAX_MIGRATION_SIZE.getName(), "1");
+        config.getMapConfig(mapName).setBackupCount(0).addMapIndexConfig(new MapIndexConfig("this", true));
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance1.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> migratedMap = instance2.getMap(mapName);
+        assertEquals(ENTRY_COUNT, migratedMap.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) migratedMap.get(i));
+        }
+        assertEquals(ENTRY_COUNT, migratedMap.values(Predicates.greaterEqual("this", 0)).size());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.nio.Address;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapPersistenceTest extends HazelcastTestSupport {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestHazelcastInstanceFactory factory;
+    private Config config;
+    private Address address;
+
+    @Before
+    public void setup() throws Exception {
+        factory = createHazelcastInstanceFactory(2);
+        config = getConfig();
+        config.setProperty(GroupProperty.MAP_PERSISTENCE_BASE_DIR.getName(), folder.getRoot().getAbsolutePath());
+        config.setProperty(GroupProperty.MAP_PERSISTENCE_SEGMENT_SIZE.getName(), "64");
+        address = new Address("127.0.0.1", 5701);
+    }
+
+    @Test
+    public void restart_restoresEntries() {
+        HazelcastInstance instance = factory.newHazelcastInstance(address, config);
+        IMap<Integer, String> map = instance.getMap("map");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value" + i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            map.remove(i);
+        }
+        map.put(1, "updated");
+        instance.shutdown();
+
+        instance = factory.newHazelcastInstance(address, config);
+        final IMap<Integer, String> restored = instance.getMap("map");
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(500, restored.size());
+            }
+        });
+        assertNull(restored.get(0));
+        assertEquals("updated", restored.get(1));
+        assertEquals("value999", restored.get(999));
+    }
+
+    @Test
+    public void restartAll_restoresEntriesOfEveryMember() throws Exception {
+        config.getMapConfig("map").setBackupCount(0);
+        Address[] addresses = {address, new Address("127.0.0.1", 5702), new Address("127.0.0.1", 5703)};
+        HazelcastInstance[] instances = new HazelcastInstance[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            instances[i] = factory.newHazelcastInstance(addresses[i], config);
+        }
+        IMap<Integer, String> map = instances[0].getMap("map");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value" + i);
+        }
+        waitAllForSafeState(instances);
+        factory.terminateAll();
+
+        for (int i = 0; i < addresses.length; i++) {
+            instances[i] = factory.newHazelcastInstance(addresses[i], config);
+        }
+        final IMap<Integer, String> restored = instances[0].getMap("map");
+
+        // every member restores the partitions it owned, not only the one creating the map
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1000, restored.size());
+            }
+        });
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, restored.get(i));
+        }
+    }
+
+    @Test
+    public void restart_whenMapDestroyed_thenNothingRestored() {
+        HazelcastInstance instance = factory.newHazelcastInstance(address, config);
+        IMap<Integer, String> map = instance.getMap("map");
+        map.put(1, "value");
+        map.destroy();
+        instance.shutdown();
+
+        instance = factory.newHazelcastInstance(address, config);
+
+        assertEquals(0, instance.getMap("map").size());
+    }
+
+    @Test
+    public void restart_whenJoiningClusterHavingEntries_thenNothingRestored() throws Exception {
+        HazelcastInstance instance = factory.newHazelcastInstance(address, config);
+        instance.getMap("map").put(1, "persisted");
+        instance.getMap("map").put(2, "persisted");
+        instance.shutdown();
+
+        HazelcastInstance running = factory.newHazelcastInstance(new Address("127.0.0.1", 5702), getConfig());
+        running.getMap("map").put(1, "current");
+
+        instance = factory.newHazelcastInstance(address, config);
+        IMap<Integer, String> map = instance.getMap("map");
+
+        assertEquals(1, map.size());
+        assertEquals("current", map.get(1));
+    }
+}
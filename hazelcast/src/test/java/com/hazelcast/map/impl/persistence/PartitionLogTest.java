@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionLogTest extends HazelcastTestSupport {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private InternalSerializationService serializationService;
+    private File dir;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        dir = new File(folder.getRoot(), "0");
+    }
+
+    @Test
+    public void replay_returnsLatestValues() {
+        PartitionLog log = new PartitionLog(dir, 1024);
+        log.put(data("a"), data("1"));
+        log.put(data("b"), data("2"));
+        log.put(data("a"), data("3"));
+        log.remove(data("b"));
+        log.close();
+
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("a", "3");
+        assertEquals(expected, replay(dir));
+    }
+
+    @Test
+    public void put_whenSegmentFull_thenNewSegmentStarted() {
+        PartitionLog log = new PartitionLog(dir, 64);
+        for (int i = 0; i < 10; i++) {
+            log.put(data("key" + i), data("value" + i));
+        }
+        log.close();
+
+        assertTrue(log.segmentCount() > 1);
+        assertEquals(10, replay(dir).size());
+    }
+
+    @Test
+    public void put_whenRecordLargerThanSegment() {
+        PartitionLog log = new PartitionLog(dir, 64);
+        String value = new String(new char[1000]).replace('\0', 'x');
+        log.put(data("key"), data(value));
+        log.close();
+
+        assertEquals(value, replay(dir).get("key"));
+    }
+
+    @Test
+    public void compact_keepsLatestValuesAndRemovesGarbage() {
+        PartitionLog log = new PartitionLog(dir, 256);
+        Map<String, String> expected = new HashMap<String, String>();
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            String key = "key" + random.nextInt(50);
+            if (random.nextInt(4) == 0) {
+                log.remove(data(key));
+                expected.remove(key);
+            } else {
+                log.put(data(key), data("value" + i));
+                expected.put(key, "value" + i);
+            }
+        }
+        int segmentsBefore = log.segmentCount();
+
+        log.compact(50);
+        log.close();
+
+        assertTrue(log.segmentCount() < segmentsBefore);
+        assertEquals(log.segmentCount(), LogSegment.listSegmentFiles(dir).length);
+        assertEquals(expected, replay(dir));
+    }
+
+    @Test
+    public void clear_deletesSegments() {
+        PartitionLog log = new PartitionLog(dir, 1024);
+        log.put(data("a"), data("1"));
+        log.clear();
+        log.put(data("b"), data("2"));
+        log.close();
+
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("b", "2");
+        assertEquals(expected, replay(dir));
+    }
+
+    @Test
+    public void destroy_deletesDirectory() {
+        PartitionLog log = new PartitionLog(dir, 1024);
+        log.put(data("a"), data("1"));
+
+        log.destroy();
+
+        assertFalse(dir.exists());
+    }
+
+    @Test
+    public void put_whenClosed_thenIgnored() {
+        PartitionLog log = new PartitionLog(dir, 1024);
+        log.put(data("a"), data("1"));
+        log.close();
+
+        log.put(data("b"), data("2"));
+        log.clear();
+
+        assertEquals(1, replay(dir).size());
+    }
+
+    @Test
+    public void replay_whenRecordCorrupted_thenStopsBeforeIt() throws Exception {
+        PartitionLog log = new PartitionLog(dir, 1024);
+        log.put(data("a"), data("1"));
+        log.put(data("b"), data("2"));
+        log.close();
+
+        File segmentFile = LogSegment.listSegmentFiles(dir)[0];
+        int secondRecord = LogSegment.HEADER_SIZE + data("a").toByteArray().length + data("1").toByteArray().length;
+        RandomAccessFile file = new RandomAccessFile(segmentFile, "rw");
+        try {
+            file.seek(secondRecord + LogSegment.HEADER_SIZE);
+            file.write('x');
+        } finally {
+            file.close();
+        }
+
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("a", "1");
+        assertEquals(expected, replay(dir));
+    }
+
+    private Data data(String value) {
+        return serializationService.toData(value);
+    }
+
+    private Map<String, String> replay(File dir) {
+        final Map<String, String> entries = new LinkedHashMap<String, String>();
+        for (File segmentFile : LogSegment.listSegmentFiles(dir)) {
+            LogSegment.replay(segmentFile, new LogSegment.Visitor() {
+                @Override
+                public void visit(byte type, byte[] key, byte[] value, int offset) {
+                    String keyObject = serializationService.toObject(new HeapData(key));
+                    if (type == LogSegment.PUT) {
+                        entries.put(keyObject, (String) serializationService.toObject(new HeapData(value)));
+                    } else {
+                        entries.remove(keyObject);
+                    }
+                }
+            });
+        }
+        return entries;
+    }
+}
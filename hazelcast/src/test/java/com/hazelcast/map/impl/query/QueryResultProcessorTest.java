@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.QueryResultSizeExceededException;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.IterationType;
+import com.hazelcast.util.executor.NamedThreadPoolExecutor;
+import com.hazelcast.util.executor.PoolExecutorThreadFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class QueryResultProcessorTest {
+
+    private static final int ENTRY_COUNT = 5 * QueryResultProcessor.CHUNK_SIZE + 17;
+
+    private InternalSerializationService ss;
+    private NamedThreadPoolExecutor pool;
+    private List<QueryableEntry> entries;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        PoolExecutorThreadFactory threadFactory = new PoolExecutorThreadFactory(UUID.randomUUID().toString(),
+                currentThread().getContextClassLoader());
+        pool = new NamedThreadPoolExecutor(UUID.randomUUID().toString(), 2, 2, 100, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(100), threadFactory);
+
+        Extractors extractors = Extractors.newBuilder(ss).build();
+        entries = new ArrayList<QueryableEntry>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.add(new QueryEntry(ss, ss.toData(i), i, extractors));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void parallelPopulation_producesSameRowsAsSerial() {
+        Query query = Query.of().mapName("map").iterationType(IterationType.ENTRY)
+                           .predicate(TruePredicate.INSTANCE).build();
+
+        QueryResult serial = new QueryResultProcessor(ss).populateResult(query, Long.MAX_VALUE, entries, asList(1, 2));
+        QueryResult parallel = new QueryResultProcessor(ss, pool, 60000)
+                .populateResult(query, Long.MAX_VALUE, entries, asList(1, 2));
+
+        assertEquals(ENTRY_COUNT, parallel.size());
+        assertEquals(new HashSet<QueryResultRow>(serial.getRows()), new HashSet<QueryResultRow>(parallel.getRows()));
+        assertEquals(asList(1, 2), parallel.getPartitionIds());
+    }
+
+    @Test
+    public void parallelPopulation_appliesProjection() {
+        Query query = Query.of().mapName("map").iterationType(IterationType.VALUE)
+                           .predicate(TruePredicate.INSTANCE).projection(Projections.singleAttribute("this")).build();
+
+        QueryResult result = new QueryResultProcessor(ss, pool, 60000)
+                .populateResult(query, Long.MAX_VALUE, entries, asList(1));
+
+        Set<Integer> values = new HashSet<Integer>();
+        for (QueryResultRow row : result) {
+            values.add((Integer) ss.toObject(row.getValue()));
+        }
+        assertEquals(ENTRY_COUNT, values.size());
+    }
+
+    @Test(expected = QueryResultSizeExceededException.class)
+    public void parallelPopulation_whenResultLimitExceeded_thenThrows() {
+        Query query = Query.of().mapName("map").iterationType(IterationType.KEY)
+                           .predicate(TruePredicate.INSTANCE).build();
+
+        new QueryResultProcessor(ss, pool, 60000).populateResult(query, ENTRY_COUNT - 1, entries, asList(1));
+    }
+
+    @Test
+    public void parallelPopulation_iteratesEntriesOnceWithoutAskingForSize() {
+        Query query = Query.of().mapName("map").iterationType(IterationType.KEY)
+                           .predicate(TruePredicate.INSTANCE).build();
+        final AtomicInteger iterations = new AtomicInteger();
+        Collection<QueryableEntry> lazyEntries = new AbstractCollection<QueryableEntry>() {
+            @Override
+            public Iterator<QueryableEntry> iterator() {
+                iterations.incrementAndGet();
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        QueryResult result = new QueryResultProcessor(ss, pool, 60000).populateResult(query, Long.MAX_VALUE, lazyEntries,
+                asList(1));
+
+        assertEquals(ENTRY_COUNT, result.size());
+        assertEquals(1, iterations.get());
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.memory.impl.StandardMemoryManager;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.NativeRecord;
+import com.hazelcast.map.impl.record.NativeRecordFactory;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeStorageImplTest {
+
+    private StandardMemoryManager memoryManager;
+    private SerializationService serializationService;
+    private NativeRecordFactory recordFactory;
+    private NativeStorageImpl storage;
+
+    @Before
+    public void setUp() {
+        memoryManager = new StandardMemoryManager(MEGABYTES.toBytes(8));
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        MapConfig mapConfig = new MapConfig().setInMemoryFormat(InMemoryFormat.NATIVE);
+        recordFactory = new NativeRecordFactory(mapConfig, serializationService, null, memoryManager);
+        storage = new NativeStorageImpl(recordFactory, memoryManager, serializationService);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+
+        NativeRecord record = storage.get(key);
+        assertEquals(1, storage.size());
+        assertEquals(key, record.getKey());
+        assertEquals("value", serializationService.toObject(record.getValue()));
+    }
+
+    @Test
+    public void testGet_whenAbsent() {
+        assertNull(storage.get(toData("key")));
+        assertFalse(storage.containsKey(toData("key")));
+    }
+
+    @Test
+    public void testPut_replacesExistingRecord() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value1"));
+        storage.put(key, newRecord("value2"));
+
+        assertEquals(1, storage.size());
+        assertEquals("value2", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testUpdateRecordValue() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value1"));
+        storage.updateRecordValue(key, storage.get(key), "value2");
+
+        assertEquals("value2", serializationService.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void testRemoveRecord() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+        storage.removeRecord(storage.get(key));
+
+        assertTrue(storage.isEmpty());
+        assertNull(storage.get(key));
+    }
+
+    @Test
+    public void testIterator_visitsAllRecords() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Set<Object> keys = new HashSet<Object>();
+        for (NativeRecord record : storage.values()) {
+            keys.add(serializationService.toObject(record.getKey()));
+        }
+        assertEquals(count, keys.size());
+    }
+
+    @Test
+    public void testMutationTolerantIterator_remove() {
+        int count = 100;
+        for (int i = 0; i < count; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Iterator<NativeRecord> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    public void testEntryCost_tracksNativeFootprint() {
+        Data key = toData("key");
+        storage.put(key, newRecord("value"));
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > NativeRecord.RECORD_SIZE);
+
+        storage.removeRecord(storage.get(key));
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+    }
+
+    @Test
+    public void testClear_releasesNativeMemory() {
+        for (int i = 0; i < 100; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+        long usedWithRecords = memoryManager.getUsedMemory();
+        storage.clear(false);
+        storage.disposeDeferredBlocks();
+
+        assertEquals(0, storage.size());
+        assertTrue(memoryManager.getUsedMemory() < usedWithRecords - 100 * NativeRecord.RECORD_SIZE);
+    }
+
+    @Test
+    public void testFetchKeys() {
+        int count = 100;
+        for (int i = 0; i < count; i++) {
+            storage.put(toData(i), newRecord(i));
+        }
+
+        Set<Data> keys = new HashSet<Data>();
+        int tableIndex = Integer.MAX_VALUE;
+        do {
+            MapKeysWithCursor batch = storage.fetchKeys(tableIndex, 10);
+            keys.addAll(batch.getBatch());
+            tableIndex = batch.getNextTableIndexToReadFrom();
+        } while (tableIndex >= 0);
+        assertEquals(count, keys.size());
+    }
+
+    private NativeRecord newRecord(Object value) {
+        return (NativeRecord) recordFactory.newRecord(value);
+    }
+
+    private Data toData(Object o) {
+        return serializationService.toData(o);
+    }
+}
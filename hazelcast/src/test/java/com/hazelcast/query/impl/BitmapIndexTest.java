@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.Predicates.and;
+import static com.hazelcast.query.Predicates.equal;
+import static com.hazelcast.query.Predicates.in;
+import static com.hazelcast.query.Predicates.not;
+import static com.hazelcast.query.Predicates.notEqual;
+import static com.hazelcast.query.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BitmapIndexTest {
+
+    private static final String[] CITIES = {"London", "Paris", "Berlin", "Rome"};
+    private static final int ENTRY_COUNT = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ).build();
+        indexes.addOrGetIndex("BITMAP(city)", false);
+        indexes.addOrGetIndex("bitmap(active)", false);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            save(i, new Employee(i + "Name", CITIES[i % CITIES.length], i % 50, i % 2 == 0, i));
+        }
+    }
+
+    @Test
+    public void testDefinition() {
+        IndexDefinition definition = IndexDefinition.parse("BITMAP( city )", false);
+        assertTrue(definition.isBitmap());
+        assertEquals("city", definition.getAttributeName());
+        assertEquals("BITMAP( city )", definition.getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrderedDefinition() {
+        IndexDefinition.parse("BITMAP(city)", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyDefinition() {
+        IndexDefinition.parse("BITMAP()", false);
+    }
+
+    @Test
+    public void testIndexLookupByAttributeName() {
+        assertNotNull(indexes.getIndex("city"));
+        assertNotNull(indexes.getIndex("BITMAP(city)"));
+        assertNotNull(indexes.getBitmapIndex("city"));
+        assertNull(indexes.getBitmapIndex("age"));
+    }
+
+    @Test
+    public void testEqual() {
+        assertQuery(equal("city", "Paris"), ENTRY_COUNT / 4);
+    }
+
+    @Test
+    public void testNotEqual() {
+        assertQuery(notEqual("city", "Paris"), ENTRY_COUNT * 3 / 4);
+    }
+
+    @Test
+    public void testIn() {
+        assertQuery(in("city", "Paris", "Rome", "Oslo"), ENTRY_COUNT / 2);
+    }
+
+    @Test
+    public void testAnd() {
+        // even entries are active, so London and Berlin ones are
+        assertQuery(and(equal("city", "London"), equal("active", true)), ENTRY_COUNT / 4);
+        assertQuery(and(equal("city", "Paris"), equal("active", true)), 0);
+    }
+
+    @Test
+    public void testOr() {
+        assertQuery(or(equal("city", "Paris"), equal("active", true)), ENTRY_COUNT * 3 / 4);
+    }
+
+    @Test
+    public void testNot() {
+        assertQuery(and(not(equal("city", "London")), equal("active", true)), ENTRY_COUNT / 4);
+    }
+
+    @Test
+    public void testAndWithNonBitmapPredicate() {
+        Predicate predicate = and(equal("city", "London"), Predicates.lessThan("age", 10));
+        Set<QueryableEntry> result = indexes.query(predicate);
+        assertNotNull(result);
+        assertEquals(countMatching(predicate), result.size());
+    }
+
+    @Test
+    public void testUpdate() {
+        Employee oldEmployee = new Employee("0Name", "London", 0, true, 0);
+        Extractors extractors = Extractors.newBuilder(serializationService).build();
+        QueryEntry entry = new QueryEntry(serializationService, toData(0), new Employee("0Name", "Paris", 0, false, 0),
+                extractors);
+        indexes.saveEntryIndex(entry, oldEmployee, Index.OperationSource.USER);
+
+        assertQuery(equal("city", "London"), ENTRY_COUNT / 4 - 1);
+        assertQuery(equal("city", "Paris"), ENTRY_COUNT / 4 + 1);
+        assertQuery(and(equal("city", "Paris"), equal("active", false)), ENTRY_COUNT / 4 + 1);
+    }
+
+    @Test
+    public void testRemove() {
+        Employee employee = new Employee("0Name", "London", 0, true, 0);
+        indexes.removeEntryIndex(toData(0), employee, Index.OperationSource.USER);
+
+        assertQuery(equal("city", "London"), ENTRY_COUNT / 4 - 1);
+        assertQuery(not(equal("city", "Paris")), ENTRY_COUNT * 3 / 4 - 1);
+    }
+
+    @Test
+    public void testRemoveAndReAdd() {
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            Employee employee = new Employee(i + "Name", CITIES[i % CITIES.length], i % 50, true, i);
+            indexes.removeEntryIndex(toData(i), employee, Index.OperationSource.USER);
+        }
+        assertQuery(equal("active", true), 0);
+        assertEquals(ENTRY_COUNT / 2, indexes.getEntryOrdinals().all().cardinality());
+
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            save(i, new Employee(i + "Name", CITIES[i % CITIES.length], i % 50, true, i));
+        }
+        assertQuery(equal("active", true), ENTRY_COUNT / 2);
+        assertQuery(equal("city", "London"), ENTRY_COUNT / 4);
+        assertEquals(ENTRY_COUNT, indexes.getEntryOrdinals().all().cardinality());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertTrue(indexes.getEntryOrdinals().ordinalOf(toData(i)) >= 0);
+        }
+    }
+
+    @Test
+    public void testClear() {
+        indexes.clearAll();
+
+        assertQuery(equal("city", "London"), 0);
+        assertTrue(indexes.getEntryOrdinals().all().isEmpty());
+    }
+
+    private void save(int key, Employee employee) {
+        Extractors extractors = Extractors.newBuilder(serializationService).build();
+        QueryEntry entry = new QueryEntry(serializationService, toData(key), employee, extractors);
+        indexes.saveEntryIndex(entry, null, Index.OperationSource.USER);
+    }
+
+    private void assertQuery(Predicate predicate, int expectedSize) {
+        Set<QueryableEntry> result = indexes.query(predicate);
+        assertNotNull(result);
+        assertEquals(expectedSize, result.size());
+        for (QueryableEntry entry : result) {
+            assertTrue(predicate.apply(entry));
+        }
+    }
+
+    private int countMatching(Predicate predicate) {
+        int count = 0;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Employee employee = new Employee(i + "Name", CITIES[i % CITIES.length], i % 50, i % 2 == 0, i);
+            Extractors extractors = Extractors.newBuilder(serializationService).build();
+            if (predicate.apply(new QueryEntry(serializationService, toData(i), employee, extractors))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
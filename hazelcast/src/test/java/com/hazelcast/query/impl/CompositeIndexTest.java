@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.SampleTestObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.query.impl.predicates.RuleBasedQueryOptimizer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.hazelcast.instance.TestUtil.toData;
+import static com.hazelcast.query.impl.CompositeValue.NEGATIVE_INFINITY;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CompositeIndexTest {
+
+    private static final String[] CITIES = {"London", "Paris", "Berlin", null};
+    private static final int ENTRY_COUNT = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RuleBasedQueryOptimizer optimizer = new RuleBasedQueryOptimizer();
+
+    private Indexes indexes;
+
+    @Before
+    public void setUp() {
+        indexes = Indexes.newBuilder(serializationService, IndexCopyBehavior.COPY_ON_READ).build();
+        indexes.addOrGetIndex("city, age", true);
+        indexes.addOrGetIndex("name, active", false);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Employee employee = new Employee(i % 10 + "Name", CITIES[i % CITIES.length], i % 50, i % 3 == 0, i);
+            QueryEntry entry = new QueryEntry(serializationService, toData(i), employee, newExtractors());
+            indexes.saveEntryIndex(entry, null, Index.OperationSource.USER);
+        }
+    }
+
+    @Test
+    public void testDefinition() {
+        IndexDefinition definition = IndexDefinition.parse(" city ,age", true);
+        assertTrue(definition.isComposite());
+        assertTrue(definition.isOrdered());
+        assertArrayEquals(new String[]{"city", "age"}, definition.getComponents());
+        assertEquals(" city ,age", definition.getName());
+
+        assertFalse(IndexDefinition.parse("city", true).isComposite());
+        assertNull(IndexDefinition.parse("city", true).getComponents());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDefinitionWithEmptyComponent() {
+        IndexDefinition.parse("city,,age", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDefinitionWithDuplicateComponent() {
+        IndexDefinition.parse("city, age, city", true);
+    }
+
+    @Test
+    public void testValueOrdering() {
+        CompositeValue value = value("b", 2);
+
+        assertEquals(0, value.compareTo(value("b", 2)));
+        assertTrue(value.compareTo(value("b", 3)) < 0);
+        assertTrue(value.compareTo(value("a", 3)) > 0);
+        assertTrue(value.compareTo(value(AbstractIndex.NULL, 3)) > 0);
+        assertTrue(value.compareTo(value("b", NEGATIVE_INFINITY)) > 0);
+        assertTrue(value.compareTo(value("b", POSITIVE_INFINITY)) < 0);
+        assertTrue(value.compareTo(value("b", 2, NEGATIVE_INFINITY)) > 0);
+        assertTrue(value.compareTo(value("b", 2, POSITIVE_INFINITY)) < 0);
+        assertTrue(value("b", 2, POSITIVE_INFINITY).compareTo(value("b", 3)) < 0);
+    }
+
+    @Test
+    public void testIndexesAreRegistered() {
+        assertEquals(2, indexes.getCompositeIndexes().length);
+        assertNotNull(indexes.getIndex("city, age"));
+        assertArrayEquals(new String[]{"city", "age"}, indexes.getIndex("city, age").getComponents());
+    }
+
+    @Test
+    public void testEqualityOnAllComponents() {
+        assertQuery("city = 'Paris' and age = 13");
+        assertQuery("name = '3Name' and active = true");
+    }
+
+    @Test
+    public void testEqualityOnPrefix() {
+        assertQuery("city = 'Berlin' and salary > 500");
+    }
+
+    @Test
+    public void testPrefixWithRange() {
+        assertQuery("city = 'London' and age between 10 and 20");
+        assertQuery("city = 'London' and age >= 10 and age < 20");
+        assertQuery("city = 'Paris' and age > 10 and age <= 21");
+        assertQuery("city = 'Paris' and age > 45");
+        assertQuery("city = 'Paris' and age < 7 and salary > 100");
+        assertQuery("city = 'Paris' and age > 20 and age < 10");
+    }
+
+    @Test
+    public void testNullComponents() {
+        assertQuery("city = null and age = 3");
+        assertQuery("city = null and age < 40");
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        Employee oldEmployee = new Employee("0Name", "London", 0, true, 0);
+        Employee newEmployee = new Employee("0Name", "Paris", 25, true, 0);
+        QueryEntry entry = new QueryEntry(serializationService, toData(0), newEmployee, newExtractors());
+        indexes.saveEntryIndex(entry, oldEmployee, Index.OperationSource.USER);
+
+        Set<QueryableEntry> result = query("city = 'Paris' and age = 25");
+        assertTrue(containsKey(result, 0));
+        assertFalse(containsKey(query("city = 'London' and age = 0"), 0));
+
+        indexes.removeEntryIndex(toData(0), newEmployee, Index.OperationSource.USER);
+        assertFalse(containsKey(query("city = 'Paris' and age = 25"), 0));
+    }
+
+    private void assertQuery(String sql) {
+        SqlPredicate predicate = new SqlPredicate(sql);
+        Set<QueryableEntry> result = query(sql);
+
+        int expected = 0;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Employee employee = new Employee(i % 10 + "Name", CITIES[i % CITIES.length], i % 50, i % 3 == 0, i);
+            if (predicate.apply(new QueryEntry(serializationService, toData(i), employee, newExtractors()))) {
+                ++expected;
+            }
+        }
+        assertEquals(sql, expected, new HashSet<QueryableEntry>(result).size());
+        for (QueryableEntry entry : result) {
+            assertTrue(sql, predicate.apply(entry));
+        }
+    }
+
+    private Set<QueryableEntry> query(String sql) {
+        Predicate optimized = optimizer.optimize(new SqlPredicate(sql).getPredicate(), indexes);
+        Set<QueryableEntry> result = indexes.query(optimized);
+        assertNotNull(sql, result);
+        return result;
+    }
+
+    private boolean containsKey(Set<QueryableEntry> result, int key) {
+        for (QueryableEntry entry : result) {
+            if (entry.getKeyData().equals(toData(key))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Extractors newExtractors() {
+        return Extractors.newBuilder(serializationService).build();
+    }
+
+    private static CompositeValue value(Comparable... components) {
+        return new CompositeValue(components);
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SparseBitSetTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testEmpty() {
+        SparseBitSet set = new SparseBitSet();
+
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.cardinality());
+        assertEquals(-1, set.nextSetBit(0));
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    public void testAddRemoveContains() {
+        SparseBitSet set = new SparseBitSet();
+
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(1 << 20));
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(1 << 20));
+        assertFalse(set.contains(6));
+        assertEquals(2, set.cardinality());
+
+        assertTrue(set.remove(5));
+        assertFalse(set.remove(5));
+        assertFalse(set.contains(5));
+        assertEquals(1, set.cardinality());
+        assertEquals(1 << 20, set.nextSetBit(0));
+    }
+
+    @Test
+    public void testDenseChunk() {
+        SparseBitSet set = new SparseBitSet();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(1 << 16);
+            set.add(value);
+            expected.set(value);
+        }
+        assertSame(expected, set);
+
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(1 << 16);
+            set.remove(value);
+            expected.clear(value);
+        }
+        assertSame(expected, set);
+    }
+
+    @Test
+    public void testSetOperations() {
+        SparseBitSet left = new SparseBitSet();
+        SparseBitSet right = new SparseBitSet();
+        BitSet expectedLeft = new BitSet();
+        BitSet expectedRight = new BitSet();
+        // mix sparse and dense chunks on both sides
+        for (int i = 0; i < 30000; i++) {
+            int leftValue = random.nextInt(i % 2 == 0 ? 1 << 16 : 1 << 20);
+            int rightValue = random.nextInt(i % 3 == 0 ? 1 << 16 : 1 << 20);
+            left.add(leftValue);
+            expectedLeft.set(leftValue);
+            right.add(rightValue);
+            expectedRight.set(rightValue);
+        }
+
+        BitSet expectedAnd = (BitSet) expectedLeft.clone();
+        expectedAnd.and(expectedRight);
+        assertSame(expectedAnd, left.and(right));
+
+        BitSet expectedOr = (BitSet) expectedLeft.clone();
+        expectedOr.or(expectedRight);
+        assertSame(expectedOr, left.or(right));
+
+        BitSet expectedAndNot = (BitSet) expectedLeft.clone();
+        expectedAndNot.andNot(expectedRight);
+        assertSame(expectedAndNot, left.andNot(right));
+
+        // operands stay untouched
+        assertSame(expectedLeft, left);
+        assertSame(expectedRight, right);
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        SparseBitSet set = new SparseBitSet();
+        set.add(1);
+        SparseBitSet copy = set.copy();
+        copy.add(2);
+        set.remove(1);
+
+        assertFalse(set.contains(1));
+        assertTrue(copy.contains(1));
+        assertTrue(copy.contains(2));
+    }
+
+    @Test
+    public void testClear() {
+        SparseBitSet set = new SparseBitSet();
+        set.add(1);
+        set.add(1 << 18);
+        set.clear();
+
+        assertTrue(set.isEmpty());
+        assertEquals(-1, set.nextSetBit(0));
+    }
+
+    private static void assertSame(BitSet expected, SparseBitSet actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int expectedBit = expected.nextSetBit(0);
+        int actualBit = actual.nextSetBit(0);
+        while (expectedBit >= 0) {
+            assertEquals(expectedBit, actualBit);
+            assertTrue(actual.contains(expectedBit));
+            expectedBit = expected.nextSetBit(expectedBit + 1);
+            actualBit = actual.nextSetBit(actualBit + 1);
+        }
+        assertEquals(-1, actualBit);
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class AccessorGeneratorTest {
+
+    @Test
+    public void fields_areReadTheSameWayAsWithReflection() throws Exception {
+        Item item = new Item();
+        for (Field field : Item.class.getFields()) {
+            MemberAccessor accessor = AccessorGenerator.accessorFor(field);
+            assertNotNull(field.toString(), accessor);
+            assertEquals(field.toString(), field.get(item), accessor.get(item));
+        }
+    }
+
+    @Test
+    public void methods_areInvokedTheSameWayAsWithReflection() throws Exception {
+        Item item = new Item();
+        for (String name : Arrays.asList("getName", "getPrice", "isAvailable", "getQuantity", "getTags", "getCodes")) {
+            Method method = Item.class.getMethod(name);
+            MemberAccessor accessor = AccessorGenerator.accessorFor(method);
+            assertNotNull(name, accessor);
+            Object expected = method.invoke(item);
+            Object actual = accessor.get(item);
+            if (expected instanceof int[]) {
+                assertSame(expected, actual);
+            } else {
+                assertEquals(name, expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void interfaceMethod_isInvoked() throws Exception {
+        MemberAccessor accessor = AccessorGenerator.accessorFor(Named.class.getMethod("getName"));
+        assertNotNull(accessor);
+        assertEquals("item", accessor.get(new Item()));
+    }
+
+    @Test
+    public void inheritedMethod_isInvokedVirtually() throws Exception {
+        MemberAccessor accessor = AccessorGenerator.accessorFor(Item.class.getMethod("getName"));
+        assertEquals("special", accessor.get(new SpecialItem()));
+    }
+
+    @Test
+    public void sameMember_sharesAccessor() throws Exception {
+        Method method = Item.class.getMethod("getName");
+        assertSame(AccessorGenerator.accessorFor(method), AccessorGenerator.accessorFor(method));
+    }
+
+    @Test
+    public void jdkClassMember_isSupported() throws Exception {
+        MemberAccessor accessor = AccessorGenerator.accessorFor(String.class.getMethod("length"));
+        assertNotNull(accessor);
+        assertEquals(5, accessor.get("hello"));
+    }
+
+    @Test
+    public void nonPublicMembers_areNotSupported() throws Exception {
+        assertNull(AccessorGenerator.accessorFor(Item.class.getDeclaredField("hidden")));
+        assertNull(AccessorGenerator.accessorFor(Item.class.getDeclaredMethod("getHidden")));
+        assertNull(AccessorGenerator.accessorFor(HiddenItem.class.getField("name")));
+        assertNull(AccessorGenerator.accessorFor(Item.class.getField("STATIC_FIELD")));
+        assertNull(AccessorGenerator.accessorFor(Item.class.getMethod("touch")));
+    }
+
+    @Test
+    public void fieldGetter_whenObjectOfUnexpectedType_thenIllegalArgumentException() throws Exception {
+        FieldGetter getter = new FieldGetter(null, Item.class.getField("name"), null, null);
+        try {
+            getter.getValue("not an item");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getCause() instanceof ClassCastException);
+        }
+    }
+
+    @Test
+    public void methodGetter_whenMethodThrows_thenInvocationTargetException() throws Exception {
+        MethodGetter getter = new MethodGetter(null, Item.class.getMethod("getBroken"), null, null);
+        try {
+            getter.getValue(new Item());
+            fail();
+        } catch (InvocationTargetException expected) {
+            assertTrue(expected.getCause() instanceof UnsupportedOperationException);
+        }
+    }
+
+    @Test
+    public void methodGetter_whenObjectOfUnexpectedType_thenIllegalArgumentException() throws Exception {
+        MethodGetter getter = new MethodGetter(null, Item.class.getMethod("getName"), null, null);
+        try {
+            getter.getValue(1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getCause() instanceof ClassCastException);
+        }
+    }
+
+    @Test
+    public void nestedAndAnyPaths_useGeneratedAccessors() throws Exception {
+        Order order = new Order();
+        order.items = new Item[]{new Item(), new SpecialItem()};
+        Getter itemsGetter = new FieldGetter(null, Order.class.getField("items"), "[any]", null);
+        Getter nameGetter = new MethodGetter(itemsGetter, Item.class.getMethod("getName"), null, null);
+
+        MultiResult result = (MultiResult) nameGetter.getValue(order);
+        assertEquals(Arrays.asList("item", "special"), result.getResults());
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class Item implements Named {
+
+        public static final String STATIC_FIELD = "static";
+
+        public String name = "item";
+        public boolean booleanValue = true;
+        public byte byteValue = 1;
+        public char charValue = 'c';
+        public short shortValue = 2;
+        public int intValue = 3;
+        public long longValue = 4;
+        public float floatValue = 5.5f;
+        public double doubleValue = 6.5;
+        public Integer boxedValue = 7;
+        public String nullValue;
+        public int[] arrayValue = {1, 2};
+
+        int hidden;
+
+        @Override
+        public String getName() {
+            return "item";
+        }
+
+        public double getPrice() {
+            return 10.5;
+        }
+
+        public boolean isAvailable() {
+            return true;
+        }
+
+        public long getQuantity() {
+            return Long.MAX_VALUE;
+        }
+
+        public List<String> getTags() {
+            return Collections.singletonList("tag");
+        }
+
+        public int[] getCodes() {
+            return arrayValue;
+        }
+
+        public String getBroken() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void touch() {
+        }
+
+        int getHidden() {
+            return hidden;
+        }
+    }
+
+    public static class SpecialItem extends Item {
+        @Override
+        public String getName() {
+            return "special";
+        }
+    }
+
+    public static class Order {
+        public Item[] items;
+    }
+
+    private static class HiddenItem {
+        public String name;
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.DataSerializableSchema;
+import com.hazelcast.nio.serialization.DataSerializableSchemaBuilder;
+import com.hazelcast.nio.serialization.FieldType;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class DataSerializableGetterTest {
+
+    private static final int FACTORY_ID = 1;
+    private static final int EMPLOYEE_ID = 1;
+    private static final int UNDESCRIBED_ID = 2;
+
+    private final AtomicInteger deserializations = new AtomicInteger();
+
+    private InternalSerializationService ss;
+    private Extractors extractors;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder()
+                .setVersion(InternalSerializationService.VERSION_1)
+                .addDataSerializableFactory(FACTORY_ID, new DataSerializableFactory() {
+                    @Override
+                    public IdentifiedDataSerializable create(int typeId) {
+                        deserializations.incrementAndGet();
+                        return typeId == EMPLOYEE_ID ? new Employee() : new Undescribed();
+                    }
+                })
+                .build();
+
+        DataSerializableSchema schema = new DataSerializableSchemaBuilder(FACTORY_ID, EMPLOYEE_ID)
+                .addField("id", FieldType.LONG)
+                .addField("active", FieldType.BOOLEAN)
+                .addField("age", FieldType.INT)
+                .addField("name", FieldType.UTF)
+                .addField("scores", FieldType.INT_ARRAY)
+                .addField("tags", FieldType.UTF_ARRAY)
+                .addField("nickname", FieldType.UTF)
+                .addField("salary", FieldType.DOUBLE)
+                .build();
+        extractors = Extractors.newBuilder(ss).setDataSerializableSchemas(singletonList(schema)).build();
+    }
+
+    @Test
+    public void describedFields_areReadWithoutDeserialization() {
+        Employee employee = new Employee(7, true, 42, "John", new int[]{1, 2}, new String[]{"a", "b"}, null, 1000.5);
+        Data data = ss.toData(employee);
+
+        assertTrue(extractors.isQueryableInSerializedForm(data));
+        assertEquals(7L, extractors.extract(data, "id"));
+        assertEquals(true, extractors.extract(data, "active"));
+        assertEquals(42, extractors.extract(data, "age"));
+        assertEquals("John", extractors.extract(data, "name"));
+        assertArrayEquals(new int[]{1, 2}, (int[]) extractors.extract(data, "scores"));
+        assertArrayEquals(new String[]{"a", "b"}, (String[]) extractors.extract(data, "tags"));
+        assertNull(extractors.extract(data, "nickname"));
+        assertEquals(1000.5, extractors.extract(data, "salary"));
+        assertEquals(0, deserializations.get());
+    }
+
+    @Test
+    public void nullAndEmptyVariableSizeFields_areSkipped() {
+        Employee employee = new Employee(7, false, 42, null, null, new String[0], "Johnny", 1.5);
+        Data data = ss.toData(employee);
+
+        assertNull(extractors.extract(data, "name"));
+        assertNull(extractors.extract(data, "scores"));
+        assertEquals("Johnny", extractors.extract(data, "nickname"));
+        assertEquals(1.5, extractors.extract(data, "salary"));
+        assertEquals(0, deserializations.get());
+    }
+
+    @Test
+    public void undescribedFields_areReadFromDeserializedObject() {
+        Employee employee = new Employee(7, true, 42, "John", new int[0], new String[0], null, 1000.5);
+        Data data = ss.toData(employee);
+
+        assertEquals("department", extractors.extract(data, "department"));
+        assertEquals(1, deserializations.get());
+    }
+
+    @Test
+    public void classesWithoutSchema_areDeserialized() {
+        Data data = ss.toData(new Undescribed());
+
+        assertFalse(extractors.isQueryableInSerializedForm(data));
+        assertEquals(5, extractors.extract(data, "value"));
+        assertEquals(1, deserializations.get());
+    }
+
+    public static class Employee implements IdentifiedDataSerializable {
+
+        public long id;
+        public boolean active;
+        public int age;
+        public String name;
+        public int[] scores;
+        public String[] tags;
+        public String nickname;
+        public double salary;
+        public String department = "department";
+
+        public Employee() {
+        }
+
+        @SuppressWarnings("checkstyle:parameternumber")
+        Employee(long id, boolean active, int age, String name, int[] scores, String[] tags, String nickname, double salary) {
+            this.id = id;
+            this.active = active;
+            this.age = age;
+            this.name = name;
+            this.scores = scores;
+            this.tags = tags;
+            this.nickname = nickname;
+            this.salary = salary;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return EMPLOYEE_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeBoolean(active);
+            out.writeInt(age);
+            out.writeUTF(name);
+            out.writeIntArray(scores);
+            out.writeUTFArray(tags);
+            out.writeUTF(nickname);
+            out.writeDouble(salary);
+            out.writeObject(department);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            active = in.readBoolean();
+            age = in.readInt();
+            name = in.readUTF();
+            scores = in.readIntArray();
+            tags = in.readUTFArray();
+            nickname = in.readUTF();
+            salary = in.readDouble();
+            department = in.readObject();
+        }
+    }
+
+    public static class Undescribed implements IdentifiedDataSerializable {
+
+        public int value = 5;
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return UNDESCRIBED_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            value = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.ringbuffer.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OffHeapRingbufferTest {
+
+    private static final int CAPACITY = 100;
+    private static final int PAGE_SIZE = 256;
+
+    private static final Executor CALLER_RUNS = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testAddAndRead() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(i, rb.add(toData("item" + i)));
+        }
+
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals("item" + i, toObject(rb.read(i)));
+        }
+    }
+
+    @Test
+    public void testOverwriteOldestItems() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        int itemCount = CAPACITY * 10;
+        addItems(rb, itemCount);
+
+        assertEquals(itemCount - CAPACITY, rb.headSequence());
+        assertEquals(itemCount - 1, rb.tailSequence());
+        assertItems(rb);
+    }
+
+    @Test
+    public void testOverwriteOldestItems_whenPagesSpilled() throws IOException {
+        File overflowDirectory = tempFolder.newFolder();
+        OffHeapRingbuffer rb = newRingbuffer(overflowDirectory, CALLER_RUNS);
+        addItems(rb, CAPACITY * 10);
+
+        assertItems(rb);
+        String[] files = overflowDirectory.list();
+        assertEquals(0, files == null ? 0 : files.length);
+    }
+
+    @Test
+    public void testRead_whenSpillPendingAndCompleted() throws IOException {
+        QueuedExecutor spillExecutor = new QueuedExecutor();
+        OffHeapRingbuffer rb = newRingbuffer(tempFolder.newFolder(), spillExecutor);
+        addItems(rb, CAPACITY);
+
+        assertTrue(spillExecutor.size() > 0);
+        assertItems(rb);
+
+        spillExecutor.runAll();
+        assertItems(rb);
+
+        // the next page switches the spilled pages to their files
+        addItems(rb, CAPACITY);
+        assertItems(rb);
+    }
+
+    @Test
+    public void testOverwriteOldestItems_whenSpillPending() throws IOException {
+        QueuedExecutor spillExecutor = new QueuedExecutor();
+        OffHeapRingbuffer rb = newRingbuffer(tempFolder.newFolder(), spillExecutor);
+        addItems(rb, CAPACITY * 10);
+
+        // the pages released before their spill tasks ran are freed by the tasks
+        spillExecutor.runAll();
+
+        addItems(rb, CAPACITY);
+        assertItems(rb);
+    }
+
+    @Test
+    public void testDispose() throws IOException {
+        QueuedExecutor spillExecutor = new QueuedExecutor();
+        OffHeapRingbuffer rb = newRingbuffer(tempFolder.newFolder(), spillExecutor);
+        addItems(rb, CAPACITY);
+        spillExecutor.runAll();
+        addItems(rb, CAPACITY);
+
+        rb.dispose();
+        spillExecutor.runAll();
+
+        for (long seq = rb.headSequence(); seq <= rb.tailSequence(); seq++) {
+            assertNull(rb.read(seq));
+        }
+    }
+
+    @Test
+    public void testItemLargerThanPage() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            sb.append("large");
+        }
+        String largeItem = sb.toString();
+
+        long sequence = rb.add(toData(largeItem));
+        rb.add(toData("small"));
+
+        assertEquals(largeItem, toObject(rb.read(sequence)));
+        assertEquals("small", toObject(rb.read(sequence + 1)));
+    }
+
+    @Test
+    public void testNullItems() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        rb.add(toData("item"));
+        rb.add(null);
+
+        assertEquals("item", toObject(rb.read(0)));
+        assertNull(rb.read(1));
+    }
+
+    @Test
+    public void testSet() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        rb.add(toData("item0"));
+        rb.add(toData("item1"));
+        rb.set(0, toData("replaced"));
+
+        assertEquals("replaced", toObject(rb.read(0)));
+        assertEquals("item1", toObject(rb.read(1)));
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        QueuedExecutor spillExecutor = new QueuedExecutor();
+        OffHeapRingbuffer rb = newRingbuffer(tempFolder.newFolder(), spillExecutor);
+        addItems(rb, CAPACITY);
+
+        rb.clear();
+        spillExecutor.runAll();
+
+        assertTrue(rb.isEmpty());
+        assertEquals(0, rb.add(toData("item")));
+        assertEquals("item", toObject(rb.read(0)));
+    }
+
+    @Test
+    public void testIteratorAndGetItems() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        addItems(rb, CAPACITY + 1);
+
+        Iterator<Data> iterator = rb.iterator();
+        for (int i = 1; i < CAPACITY + 1; i++) {
+            assertEquals("item" + i, toObject(iterator.next()));
+        }
+        assertFalse(iterator.hasNext());
+
+        Data[] items = rb.getItems();
+        assertEquals(CAPACITY, items.length);
+        assertEquals("item" + CAPACITY, toObject(items[0]));
+        assertEquals("item1", toObject(items[1]));
+    }
+
+    @Test(expected = StaleSequenceException.class)
+    public void testReadStaleSequenceThrowsException() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        addItems(rb, CAPACITY + 1);
+        rb.read(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadFutureSequenceThrowsException() {
+        OffHeapRingbuffer rb = newRingbuffer(null, CALLER_RUNS);
+        rb.add(toData("item"));
+        rb.read(1);
+    }
+
+    private OffHeapRingbuffer newRingbuffer(File overflowDirectory, Executor spillExecutor) {
+        return new OffHeapRingbuffer(CAPACITY, PAGE_SIZE, overflowDirectory, spillExecutor);
+    }
+
+    private void addItems(OffHeapRingbuffer rb, int itemCount) {
+        for (int i = 0; i < itemCount; i++) {
+            rb.add(toData("item" + rb.peekNextTailSequence()));
+        }
+    }
+
+    private void assertItems(OffHeapRingbuffer rb) {
+        for (long seq = rb.headSequence(); seq <= rb.tailSequence(); seq++) {
+            assertEquals("item" + seq, toObject(rb.read(seq)));
+        }
+    }
+
+    private Data toData(Object item) {
+        return serializationService.toData(item);
+    }
+
+    private Object toObject(Data data) {
+        return serializationService.toObject(data);
+    }
+
+    /**
+     * Keeps the spill tasks until the test runs them.
+     */
+    private static class QueuedExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        int size() {
+            return tasks.size();
+        }
+
+        void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            tasks.clear();
+        }
+    }
+}
@@ -41,6 +41,7 @@ import static com.hazelcast.spi.impl.CountingMigrationAwareService.isPrimaryRepl
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -197,6 +198,11 @@ public class CountingMigrationAwareServiceTest {
         }
     }
 
+    @Test
+    public void createChunkIterator_whenWrappedServiceNotChunked_thenReturnsNull() {
+        assertNull(countingMigrationAwareService.createChunkIterator(null, null, 1));
+    }
+
     static class ExceptionThrowingMigrationAwareService implements FragmentedMigrationAwareService {
         @Override
         public Collection<ServiceNamespace> getAllServiceNamespaces(PartitionReplicationEvent event) {
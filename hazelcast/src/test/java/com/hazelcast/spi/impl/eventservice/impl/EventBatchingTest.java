@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.CoalescingListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.OverridePropertyRule;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.test.OverridePropertyRule.set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class EventBatchingTest extends HazelcastTestSupport {
+
+    private static final int UPDATE_COUNT = 1000;
+    private static final int KEY_COUNT = 10;
+
+    // every 7th remote event is sent synchronously, interleaving with the batched ones
+    @Rule
+    public final OverridePropertyRule overrideEventSyncFrequencyRule = set(EventServiceImpl.EVENT_SYNC_FREQUENCY_PROP, "7");
+
+    private HazelcastInstance publisher;
+    private HazelcastInstance subscriber;
+
+    @Before
+    public void setup() {
+        Config config = new Config()
+                .setProperty(GroupProperty.EVENT_BATCHING_ENABLED.getName(), "true")
+                .setProperty(GroupProperty.EVENT_BATCH_SIZE.getName(), "16")
+                .setProperty(GroupProperty.EVENT_BATCH_FLUSH_INTERVAL_MILLIS.getName(), "100");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        publisher = factory.newHazelcastInstance(config);
+        subscriber = factory.newHazelcastInstance(config);
+    }
+
+    @Test
+    public void testBatchedEvents_deliveredInOrder() {
+        IMap<String, Integer> map = subscriber.getMap(randomMapName());
+        final UpdateCollector collector = new UpdateCollector();
+        map.addEntryListener(collector, true);
+
+        updateKeyOwnedByPublisher(map.getName());
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(UPDATE_COUNT - 1, collector.values.size());
+            }
+        });
+        for (int i = 0; i < collector.values.size(); i++) {
+            assertEquals(i + 1, (int) collector.values.get(i));
+        }
+    }
+
+    @Test
+    public void testCoalescedEvents_lastEventDelivered() {
+        IMap<String, Integer> map = subscriber.getMap(randomMapName());
+        final CoalescingUpdateCollector collector = new CoalescingUpdateCollector();
+        map.addEntryListener(collector, true);
+
+        updateKeyOwnedByPublisher(map.getName());
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                List<Integer> values = collector.values;
+                assertTrue(values.size() > 0);
+                assertEquals(UPDATE_COUNT - 1, (int) values.get(values.size() - 1));
+            }
+        });
+        List<Integer> values = collector.values;
+        assertTrue(values.size() <= UPDATE_COUNT - 1);
+        for (int i = 1; i < values.size(); i++) {
+            assertTrue(values.get(i - 1) < values.get(i));
+        }
+    }
+
+    @Test
+    public void testBatchedAndSyncEvents_deliveredInOrderPerKey() {
+        IMap<String, Integer> map = subscriber.getMap(randomMapName());
+        final KeyUpdateCollector collector = new KeyUpdateCollector();
+        map.addEntryListener(collector, true);
+
+        IMap<String, Integer> publisherMap = publisher.getMap(map.getName());
+        String[] keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = generateKeyOwnedBy(publisher);
+        }
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            for (String key : keys) {
+                publisherMap.set(key, i);
+            }
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals((UPDATE_COUNT - 1) * KEY_COUNT, collector.events.size());
+            }
+        });
+        Map<String, Integer> lastValues = new HashMap<String, Integer>();
+        for (EntryEvent<String, Integer> event : collector.events) {
+            Integer lastValue = lastValues.put(event.getKey(), event.getValue());
+            int expectedValue = lastValue == null ? 1 : lastValue + 1;
+            assertEquals(expectedValue, (int) event.getValue());
+        }
+    }
+
+    private void updateKeyOwnedByPublisher(String mapName) {
+        IMap<String, Integer> map = publisher.getMap(mapName);
+        String key = generateKeyOwnedBy(publisher);
+        for (int i = 0; i < UPDATE_COUNT; i++) {
+            map.set(key, i);
+        }
+    }
+
+    private static class UpdateCollector implements EntryUpdatedListener<String, Integer> {
+
+        final List<Integer> values = new CopyOnWriteArrayList<Integer>();
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Integer> event) {
+            values.add(event.getValue());
+        }
+    }
+
+    private static class KeyUpdateCollector implements EntryUpdatedListener<String, Integer> {
+
+        final List<EntryEvent<String, Integer>> events = new CopyOnWriteArrayList<EntryEvent<String, Integer>>();
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Integer> event) {
+            events.add(event);
+        }
+    }
+
+    private static class CoalescingUpdateCollector extends UpdateCollector implements CoalescingListener {
+    }
+}
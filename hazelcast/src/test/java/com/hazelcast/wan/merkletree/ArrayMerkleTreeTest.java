@@ -20,6 +20,7 @@ import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
 import com.hazelcast.util.function.Consumer;
+import com.hazelcast.util.function.Function;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
@@ -357,6 +358,65 @@ public class ArrayMerkleTreeTest {
         });
     }
 
+    @Test
+    public void testUpdateLeaf() {
+        MerkleTree expected = new ArrayMerkleTree(4);
+        MerkleTree merkleTree = new ArrayMerkleTree(4);
+
+        for (int i = 0; i < 100; i++) {
+            expected.updateAdd(i, i * 2);
+            merkleTree.updateAdd(i, 0);
+        }
+
+        Function<Object, Integer> valueHashFunction = new Function<Object, Integer>() {
+            @Override
+            public Integer apply(Object key) {
+                return (Integer) key * 2;
+            }
+        };
+        Set<Integer> leaves = new HashSet<Integer>();
+        for (int i = 0; i < 100; i++) {
+            leaves.add(merkleTree.getLeafOrder(i));
+        }
+        for (int leafOrder : leaves) {
+            merkleTree.updateLeaf(leafOrder, valueHashFunction);
+        }
+
+        verifyTreesAreSameOnCommonLevels(expected, merkleTree);
+    }
+
+    @Test
+    public void testUpdateLeafAfterRemove() {
+        MerkleTree expected = new ArrayMerkleTree(4);
+        MerkleTree merkleTree = new ArrayMerkleTree(4);
+        Function<Object, Integer> valueHashFunction = new Function<Object, Integer>() {
+            @Override
+            public Integer apply(Object key) {
+                return (Integer) key;
+            }
+        };
+
+        for (int i = 0; i < 10; i++) {
+            expected.updateAdd(i, i);
+            merkleTree.updateAdd(i, 0);
+        }
+        expected.updateRemove(5, 5);
+        merkleTree.updateRemove(5, 0);
+        for (int i = 0; i < 10; i++) {
+            merkleTree.updateLeaf(merkleTree.getLeafOrder(i), valueHashFunction);
+        }
+
+        verifyTreesAreSameOnCommonLevels(expected, merkleTree);
+        int leafOrder = merkleTree.getLeafOrder(5);
+        verifyKeysUnderNode(merkleTree, leafOrder, keysOfNode(expected, leafOrder));
+    }
+
+    private Integer[] keysOfNode(MerkleTree merkleTree, int nodeOrder) {
+        KeyCatcherConsumer consumer = new KeyCatcherConsumer();
+        merkleTree.forEachKeyOfNode(nodeOrder, consumer);
+        return consumer.keys.toArray(new Integer[0]);
+    }
+
     private void verifyTreesAreSameOnCommonLevels(MerkleTree merkleTreeShallow, MerkleTree merkleTreeDeep) {
         for (int i = 0; i < MerkleTreeUtil.getNumberOfNodes(merkleTreeShallow.depth()); i++) {
             assertEquals(merkleTreeShallow.getNodeHash(i), merkleTreeDeep.getNodeHash(i));